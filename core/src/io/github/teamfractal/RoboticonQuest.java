@@ -19,6 +19,9 @@ import io.github.teamfractal.animation.AnimationPhaseTimeout;
 import io.github.teamfractal.animation.IAnimationFinish;
 import io.github.teamfractal.entity.*;
 import io.github.teamfractal.entity.enums.GamePhase;
+import io.github.teamfractal.entity.gambling.GamblingEngine;
+import io.github.teamfractal.entity.ledger.Ledger;
+import io.github.teamfractal.entity.pricing.PricingModelType;
 import io.github.teamfractal.screens.*;
 import io.github.teamfractal.util.*;
 
@@ -55,6 +58,8 @@ public class RoboticonQuest extends Game {
 
     public GameScreen gameScreen;
     public Market market;
+    public GamblingEngine gamblingEngine;
+    public Ledger ledger;
     public RoboticonMarketScreen roboticonMarket;
     public GenerationOverlay genOverlay;
     public ChancellorScreen chancellorPhase;
@@ -69,6 +74,7 @@ public class RoboticonQuest extends Game {
     private int landBoughtThisTurn;
     private float effectChance;
     private int currentPlayerIndex;
+    private PricingModelType pricingModelType = PricingModelType.SHARE_BASED;
 
     private AnimationCustomHeader playerHeader;
     private AnimationCustomHeader phase1description;
@@ -170,6 +176,9 @@ public class RoboticonQuest extends Game {
         mainMenuScreen.dispose();
         gameScreen.dispose();
         batch.dispose();
+        if (plotManager != null) {
+            plotManager.dispose();
+        }
     }
 
     /**
@@ -200,6 +209,10 @@ public class RoboticonQuest extends Game {
      */
     public void reset(int numberOfPlayers) {
         this.phase = GamePhase.TILE_ACQUISITION;
+        this.ledger = new Ledger();
+        if (plotManager != null) {
+            plotManager.dispose();
+        }
         plotManager = new PlotManager();
         this.playerList = new ArrayList<Player>();
         playerList.add(new HumanPlayer(this));
@@ -207,8 +220,27 @@ public class RoboticonQuest extends Game {
             playerList.add(new AIPlayer(this));
         }
         this.currentPlayerIndex = 0;
-        this.market = new Market();
+        this.market = new Market(pricingModelType.create(), ledger);
+        this.gamblingEngine = new GamblingEngine();
+
+    }
 
+    /**
+     * Getter for the pricing model used by the market of new games
+     *
+     * @return The pricing model type
+     */
+    public PricingModelType getPricingModelType() {
+        return pricingModelType;
+    }
+
+    /**
+     * Select the pricing model used by the market; takes effect from the next game
+     *
+     * @param pricingModelType The pricing model type
+     */
+    public void setPricingModelType(PricingModelType pricingModelType) {
+        this.pricingModelType = pricingModelType;
     }
 
     /**
@@ -309,9 +341,7 @@ public class RoboticonQuest extends Game {
 
                 gameScreen.getActors().setNextButtonVisibility(false);
                 this.getPlayer().takeTurn(GamePhase.MARKET);
-                market.calculatePlayerResourceUpgrades();
-                market.updateResourceSellPrices();
-                market.updateResourceBuyPrices();
+                market.updatePrices();
                 market.cachePrices();
                 break;
 
@@ -544,16 +574,7 @@ public class RoboticonQuest extends Game {
      * UPDATED: REFACTORED
      */
     private boolean checkGameEnded() {
-        boolean ended = true;
-        LandPlot[][] plots = plotManager.getLandPlots();
-        for (LandPlot[] plot : plots) {
-            for (LandPlot aPlot : plot) {
-                if (aPlot != null && !aPlot.hasOwner() || aPlot == null) {
-                    ended = false;
-                }
-            }
-        }
-        return ended;
+        return plotManager.getOwnershipIndex().countFree() == 0;
     }
 
     /**
@@ -8,7 +8,6 @@ package io.github.teamfractal.actors;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
@@ -18,7 +17,9 @@ import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.StringBuilder;
 import io.github.teamfractal.RoboticonQuest;
+import io.github.teamfractal.entity.AdjacencyBonus;
 import io.github.teamfractal.entity.LandPlot;
 import io.github.teamfractal.entity.Player;
 import io.github.teamfractal.entity.Roboticon;
@@ -47,6 +48,9 @@ public class GameScreenActors {
 	private Label plotEnergyLabel;
 	private Label plotFoodLabel;
 
+	private Label hoverLabel;
+	private final StringBuilder hoverText = new StringBuilder();
+
 	private TextButton buyLandPlotBtn;
 	private TextButton installRoboticonBtn;
 	private TextButton installRoboticonBtnCancel;
@@ -126,6 +130,10 @@ public class GameScreenActors {
 		plotStatsTable.add(new Label("Energy", new Label.LabelStyle(game.smallFontRegular.font(), Color.WHITE))).width(70);
 		plotStatsTable.add(plotEnergyLabel).width(50);
 
+		// Create plot tooltip shown while hovering over the map
+		hoverLabel = new Label("", new Label.LabelStyle(game.smallFontLight.font(), Color.WHITE));
+		hoverLabel.setVisible(false);
+
 		// Adjust properties.
 		listUpdated = false;
 		hideInstallRoboticon();
@@ -143,6 +151,7 @@ public class GameScreenActors {
 		stage.addActor(phaseInfo);
 		stage.addActor(plotStatsTable);
 		stage.addActor(playerStats);
+		stage.addActor(hoverLabel);
 
 		// Update UI positions.
 		AbstractAnimationScreen.Size size = screen.getScreenSize();
@@ -321,6 +330,45 @@ public class GameScreenActors {
 	}
 
 
+	/**
+	 * Fill the hover tooltip with a plot's yields and owner.
+	 * Only called when the hovered plot changes; the text buffer is reused.
+	 * @param plot           The land plot under the mouse.
+	 */
+	public void showHoverStats(LandPlot plot) {
+		hoverText.setLength(0);
+		hoverText.append("Ore ").append((int) plot.getResource(ResourceType.ORE));
+		hoverText.append("  Energy ").append((int) plot.getResource(ResourceType.ENERGY));
+		hoverText.append("  Food ").append((int) plot.getResource(ResourceType.FOOD));
+		if (plot.hasOwner()) {
+			hoverText.append("\nPlayer ").append(game.getPlayerIndex(plot.getOwner()) + 1);
+			if (plot.getSameOwnerNeighbours() > 0) {
+				hoverText.append("  Adjacency +").append(plot.getSameOwnerNeighbours() * AdjacencyBonus.BONUS_PER_NEIGHBOUR);
+			}
+		} else {
+			hoverText.append("\nUnowned");
+		}
+		hoverLabel.setText(hoverText);
+		hoverLabel.pack();
+		hoverLabel.setVisible(true);
+	}
+
+	/**
+	 * Move the hover tooltip.
+	 * @param x              The <i>x</i> position to display the tooltip.
+	 * @param y              The <i>y</i> position to display the tooltip.
+	 */
+	public void moveHoverStats(float x, float y) {
+		hoverLabel.setPosition(x, y, Align.topLeft);
+	}
+
+	/**
+	 * Hide the hover tooltip.
+	 */
+	public void hideHoverStats() {
+		hoverLabel.setVisible(false);
+	}
+
 	/**
 	 * Hide "Buy Land" button and plot information.
 	 */
@@ -360,8 +408,7 @@ public class GameScreenActors {
 
 		Player player = game.getPlayer();
 		if (player.purchaseLandPlot(selectedPlot)) {
-			TiledMapTileLayer.Cell playerTile = selectedPlot.getPlayerTile();
-			playerTile.setTile(screen.getPlayerTile(player));
+			game.plotManager.setPlayerTile(selectedPlot, screen.getPlayerTile(player));
 			textUpdate();
 
 			nextButton.setVisible(true);
@@ -441,8 +488,7 @@ public class GameScreenActors {
 	 */
 	public void installRoboticonFunction(LandPlot selectedPlot, Roboticon roboticon){
         selectedPlot.installRoboticon(roboticon);
-        TiledMapTileLayer.Cell roboticonTile = selectedPlot.getRoboticonTile();
-        roboticonTile.setTile(screen.getResourcePlayerTile(selectedPlot.getOwner(),roboticon.getCustomisation()));
+        game.plotManager.setRoboticonTile(selectedPlot, screen.getResourcePlayerTile(selectedPlot.getOwner(),roboticon.getCustomisation()));
         selectedPlot.setHasRoboticon(true);
     }
 
@@ -16,6 +16,10 @@ import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import io.github.teamfractal.RoboticonQuest;
+import io.github.teamfractal.entity.pricing.PricingModelType;
+import io.github.teamfractal.map.MapGenerator;
+
+import java.util.Random;
 
 
 public class HomeMainMenu extends Table {
@@ -27,6 +31,14 @@ public class HomeMainMenu extends Table {
 	private TextButton btnFourPlayer;
 	private TextButton btnExit;
 
+	/**
+	 * Side length of each map the map button cycles through, in tiles, or 0 for city.tmx
+	 */
+	private static final int[] MAP_SIZES = {0, 64, 512, 8192};
+	private TextButton btnMap;
+	private int mapChoice;
+	private TextButton btnPricing;
+
 	/**
 	 * Initialise the Home Menu.
      * UPDATED: Changed buttons for the new amount of players requirement.
@@ -45,6 +57,8 @@ public class HomeMainMenu extends Table {
 		btnFourPlayer = new TextButton("Four Player Game", game.skin);
 
 		btnExit = new TextButton("Exit", game.skin);
+		btnMap = new TextButton(mapLabel(), game.skin);
+		btnPricing = new TextButton(pricingLabel(), game.skin);
 
 		// Adjust properties.
 		btnTwoPlayer.pad(10);
@@ -52,6 +66,8 @@ public class HomeMainMenu extends Table {
 		btnFourPlayer.pad(10);
 
 		btnExit.pad(10);
+		btnMap.pad(10);
+		btnPricing.pad(10);
 
 		// Bind events.
 		bindEvents();
@@ -64,6 +80,10 @@ public class HomeMainMenu extends Table {
 		add(btnThreePayer);
 		add(btnFourPlayer);
 		add(btnExit);
+		row();
+
+		add(btnMap).colspan(2).padTop(10);
+		add(btnPricing).colspan(2).padTop(10);
 
 	}
 
@@ -75,8 +95,7 @@ public class HomeMainMenu extends Table {
 		btnTwoPlayer.addListener(new ClickListener() {
 			@Override
 			public void clicked (InputEvent event, float x, float y) {
-				game.setScreen(game.gameScreen);
-				game.gameScreen.newGame(2);
+				startGame(2);
 			}
 		});
 
@@ -84,16 +103,14 @@ public class HomeMainMenu extends Table {
 		btnThreePayer.addListener(new ClickListener() {
 			@Override
 			public void clicked (InputEvent event, float x, float y) {
-				game.setScreen(game.gameScreen);
-				game.gameScreen.newGame(3);
+				startGame(3);
 			}
 		});
 
 		btnFourPlayer.addListener(new ClickListener() {
 			@Override
 			public void clicked (InputEvent event, float x, float y) {
-				game.setScreen(game.gameScreen);
-				game.gameScreen.newGame(4);
+				startGame(4);
 			}
 		});
 
@@ -103,5 +120,45 @@ public class HomeMainMenu extends Table {
 				Gdx.app.exit();
 			}
 		});
+
+		btnMap.addListener(new ClickListener() {
+			@Override
+			public void clicked (InputEvent event, float x, float y) {
+				mapChoice = (mapChoice + 1) % MAP_SIZES.length;
+				btnMap.setText(mapLabel());
+			}
+		});
+
+		btnPricing.addListener(new ClickListener() {
+			@Override
+			public void clicked (InputEvent event, float x, float y) {
+				PricingModelType[] types = PricingModelType.values();
+				game.setPricingModelType(types[(game.getPricingModelType().ordinal() + 1) % types.length]);
+				btnPricing.setText(pricingLabel());
+			}
+		});
+	}
+
+	private String pricingLabel() {
+		return game.getPricingModelType() == PricingModelType.SHARE_BASED ? "Prices: Share Based" : "Prices: Supply & Demand";
+	}
+
+	private String mapLabel() {
+		int size = MAP_SIZES[mapChoice];
+		return size == 0 ? "Map: City" : "Map: Generated " + size + "x" + size;
+	}
+
+	/**
+	 * Start a game on the chosen map, generating a new one from a random seed unless city.tmx is chosen.
+	 * @param numberOfPlayers The number of players.
+	 */
+	private void startGame(int numberOfPlayers) {
+		game.setScreen(game.gameScreen);
+		int size = MAP_SIZES[mapChoice];
+		if (size == 0) {
+			game.gameScreen.newGame(numberOfPlayers);
+		} else {
+			game.gameScreen.newGame(numberOfPlayers, new MapGenerator(size, size, new Random().nextLong()).generate());
+		}
 	}
 }
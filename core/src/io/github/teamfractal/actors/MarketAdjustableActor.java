@@ -16,6 +16,7 @@ import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.utils.Align;
 import io.github.teamfractal.RoboticonQuest;
 import io.github.teamfractal.entity.enums.ResourceType;
+import io.github.teamfractal.entity.pricing.PriceBook;
 
 public class MarketAdjustableActor extends Table {
 
@@ -202,14 +203,15 @@ public class MarketAdjustableActor extends Table {
         valueLabel = new Label("", skin);
         //Initialise features allowing users to select desired purchase/sale quantities and to indicate said quantities
 
+        PriceBook book = game.market.getPriceBook();
         if (buy) {
-            titleLabel = new Label(resourceType.toString() + " - Price: " + game.market.getSellPrice(resourceType), skin);
+            titleLabel = new Label(resourceType.toString() + " - Price: " + book.getSellPrice(resourceType), skin);
             //Set the widget's title to indicate the price that the market is selling the given resource-type at
 
-            this.max = game.market.getResource(resourceType);
+            this.max = book.getStock(resourceType);
             //If the widget handles purchases, don't allow the player to buy more than what the market has to offer
         } else {
-            titleLabel = new Label(resourceType.toString() + " - Price: " + game.market.getBuyPrice(resourceType), skin);
+            titleLabel = new Label(resourceType.toString() + " - Price: " + book.getBuyPrice(resourceType), skin);
             //Set the widget's title to indicate the price that the market will pay for a single unit of the given resource-type
 
             this.max = game.getPlayer().getResource(resourceType);
@@ -295,9 +297,9 @@ public class MarketAdjustableActor extends Table {
         valueLabel.setText(value + "/" + max);
 
         if (buy == true) {
-            actButton.setText("[PRICE: " + (value * game.market.getSellPrice(resourceType)) + "] Buy");
+            actButton.setText("[PRICE: " + game.market.getSellCost(resourceType, value) + "] Buy");
         } else {
-            actButton.setText("[PRICE: " + (value * game.market.getBuyPrice(resourceType)) + "] Sell");
+            actButton.setText("[PRICE: " + game.market.getBuyValue(resourceType, value) + "] Sell");
         }
     }
 
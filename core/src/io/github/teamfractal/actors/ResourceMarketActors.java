@@ -16,8 +16,11 @@ import com.badlogic.gdx.scenes.scene2d.ui.TextField;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.utils.Align;
 import io.github.teamfractal.RoboticonQuest;
+import io.github.teamfractal.entity.Market;
 import io.github.teamfractal.entity.enums.PurchaseStatus;
 import io.github.teamfractal.entity.enums.ResourceType;
+import io.github.teamfractal.entity.pricing.PriceBook;
+import io.github.teamfractal.util.PriceSeries;
 
 /**
  * Created by Joseph on 17/02/2017.
@@ -99,6 +102,16 @@ public class ResourceMarketActors extends Table {
      */
     private Label gambleWinLossLabel;
 
+    /**
+     * Version of the market's price book that the widget titles were last rendered from
+     */
+    private long renderedVersion = -1;
+
+    /**
+     * Market the widget titles were last rendered from; each new game brings a new market whose versions restart
+     */
+    private Market renderedMarket;
+
     /**
      * Constructor class that connects the resource market to the internal engine and builds its visual interface
      *
@@ -263,56 +276,76 @@ public class ResourceMarketActors extends Table {
     /**
      * Get price in string format
      *
+     * @param book     The market's price book.
      * @param resource The resource type.
      * @param buy  <code>true</code> if is for buying,
      *             or <code>false</code> if is for selling
      * @return The formatted string for the resource.
      */
-    private String getPriceString(ResourceType resource, boolean buy) {
+    private String getPriceString(PriceBook book, ResourceType resource, boolean buy) {
         // getBuyPrice: market buy-in price (user sell price)
         // getSellPrice: market sell price (user buy price)
+        PriceSeries series = buy
+                ? game.market.getAnalytics().sellSeries(resource)
+                : game.market.getAnalytics().buySeries(resource);
+        int change = series.lastChange();
+
         return resource.toString() + ": "
                 + (buy
-                ? game.market.getSellPrice(resource)
-                : game.market.getBuyPrice(resource))
-                + " Gold";
+                ? book.getSellPrice(resource)
+                : book.getBuyPrice(resource))
+                + " Gold"
+                + (change == 0 ? "" : " (" + (change > 0 ? "+" : "") + change + ")");
     }
 
     /**
      * Sync. information with the adjustable.
      *
      * @param adjustableActor The adjustable to manipulate with.
+     * @param book            The market's price book.
      * @param resource        The resource type.
      * @param buy  <code>true</code> if is for buying,
      *             or <code>false</code> if is for selling
      */
-    private void updateAdjustable(MarketAdjustableActor adjustableActor, ResourceType resource,
+    private void updateAdjustable(MarketAdjustableActor adjustableActor, PriceBook book, ResourceType resource,
                                   boolean buy) {
         if (buy) {
-            adjustableActor.setMax(game.market.getResource(resource));
+            adjustableActor.setMax(book.getStock(resource));
         } else {
             adjustableActor.setMax(game.getPlayer().getResource(resource));
         }
         //Set the buying/selling cap for the widget based on the amounts of resources owned either by the market
         //(in the case of a purchasing widget) or the player (in the case of a selling widget)
 
-        adjustableActor.setTitle(getPriceString(resource, buy));
-        //Update the label indicating the current buying/selling price for the resource that the widget concerns
+        if (book.getVersion() != renderedVersion) {
+            adjustableActor.setTitle(getPriceString(book, resource, buy));
+        }
+        //Update the label indicating the current buying/selling price for the resource that the widget concerns,
+        //unless the market hasn't changed since the titles were last rendered
     }
 
     /**
      * Updates all of the market's buying/selling widgets based on current buying/selling prices and stocks
      */
     public void widgetUpdate() {
-        updateAdjustable(oreBuyAdjustable, ResourceType.ORE, true);
-        if (game.market.getResource(ResourceType.ORE) == 0) {
+        PriceBook book = game.market.getPriceBook();
+        //Take a single snapshot of the market's prices and stock for the whole refresh
+
+        if (game.market != renderedMarket) {
+            renderedMarket = game.market;
+            renderedVersion = -1;
+        }
+        //Always re-render the titles after a new game has replaced the market
+
+        updateAdjustable(oreBuyAdjustable, book, ResourceType.ORE, true);
+        if (book.getStock(ResourceType.ORE) == 0) {
             oreBuyAdjustable.setValue(0);
         } else {
             oreBuyAdjustable.setValue(1);
         }
         //Show market's ore stock and ore purchasing price
 
-        updateAdjustable(oreSellAdjustable, ResourceType.ORE, false);
+        updateAdjustable(oreSellAdjustable, book, ResourceType.ORE, false);
         if (game.getPlayer().getResource(ResourceType.ORE) == 0) {
             oreSellAdjustable.setValue(0);
         } else {
@@ -320,15 +353,15 @@ public class ResourceMarketActors extends Table {
         }
         //Show player's ore stock and ore selling price
 
-        updateAdjustable(energyBuyAdjustable, ResourceType.ENERGY, true);
-        if (game.market.getResource(ResourceType.ENERGY) == 0) {
+        updateAdjustable(energyBuyAdjustable, book, ResourceType.ENERGY, true);
+        if (book.getStock(ResourceType.ENERGY) == 0) {
             energyBuyAdjustable.setValue(0);
         } else {
             energyBuyAdjustable.setValue(1);
         }
         //Show market's energy stock and energy purchasing price
 
-        updateAdjustable(energySellAdjustable, ResourceType.ENERGY, false);
+        updateAdjustable(energySellAdjustable, book, ResourceType.ENERGY, false);
         if (game.getPlayer().getResource(ResourceType.ENERGY) == 0) {
             energySellAdjustable.setValue(0);
         } else {
@@ -336,15 +369,15 @@ public class ResourceMarketActors extends Table {
         }
         //Show player's energy stock and energy selling price
 
-        updateAdjustable(foodBuyAdjustable, ResourceType.FOOD, true);
-        if (game.market.getResource(ResourceType.FOOD) == 0) {
+        updateAdjustable(foodBuyAdjustable, book, ResourceType.FOOD, true);
+        if (book.getStock(ResourceType.FOOD) == 0) {
             foodBuyAdjustable.setValue(0);
         } else {
             foodBuyAdjustable.setValue(1);
         }
         //Show market's food stock and food purchasing price
 
-        updateAdjustable(foodSellAdjustable, ResourceType.FOOD, false);
+        updateAdjustable(foodSellAdjustable, book, ResourceType.FOOD, false);
         if (game.getPlayer().getResource(ResourceType.FOOD) == 0) {
             foodSellAdjustable.setValue(0);
         } else {
@@ -352,7 +385,9 @@ public class ResourceMarketActors extends Table {
         }
         //Show player's food stock and food selling price
 
-        setButtonStates();
+        renderedVersion = book.getVersion();
+
+        setButtonStates(book);
         //Enable and disable resources' buying/selling buttons based on whether or not resources are in stock,
         //owned by the player or if the player can afford to make certain purchases
     }
@@ -368,7 +403,16 @@ public class ResourceMarketActors extends Table {
     }
 
     public void setButtonStates() {
-        if (game.market.getResource(ResourceType.ORE) == 0 || (oreBuyAdjustable.getValue() * game.market.getSellPrice(ResourceType.ORE) > game.getPlayer().getMoney())) {
+        setButtonStates(game.market.getPriceBook());
+    }
+
+    /**
+     * Enable and disable the buying/selling buttons against a snapshot of the market
+     *
+     * @param book The market's price book.
+     */
+    private void setButtonStates(PriceBook book) {
+        if (book.getStock(ResourceType.ORE) == 0 || (game.market.getSellCost(ResourceType.ORE, oreBuyAdjustable.getValue()) > game.getPlayer().getMoney())) {
             oreBuyAdjustable.setButtonState(Touchable.disabled);
         } else {
             oreBuyAdjustable.setButtonState(Touchable.enabled);
@@ -382,7 +426,7 @@ public class ResourceMarketActors extends Table {
         }
         //Enable ore selling if the player has ore to sell
 
-        if (game.market.getResource(ResourceType.ENERGY) == 0 || (energyBuyAdjustable.getValue() * game.market.getSellPrice(ResourceType.ENERGY) > game.getPlayer().getMoney())) {
+        if (book.getStock(ResourceType.ENERGY) == 0 || (game.market.getSellCost(ResourceType.ENERGY, energyBuyAdjustable.getValue()) > game.getPlayer().getMoney())) {
             energyBuyAdjustable.setButtonState(Touchable.disabled);
         } else {
             energyBuyAdjustable.setButtonState(Touchable.enabled);
@@ -396,7 +440,7 @@ public class ResourceMarketActors extends Table {
         }
         //Enable energy selling if the player has energy to sell
 
-        if (game.market.getResource(ResourceType.FOOD) == 0 || (foodBuyAdjustable.getValue() * game.market.getSellPrice(ResourceType.FOOD) > game.getPlayer().getMoney())) {
+        if (book.getStock(ResourceType.FOOD) == 0 || (game.market.getSellCost(ResourceType.FOOD, foodBuyAdjustable.getValue()) > game.getPlayer().getMoney())) {
             foodBuyAdjustable.setButtonState(Touchable.disabled);
         } else {
             foodBuyAdjustable.setButtonState(Touchable.enabled);
@@ -8,13 +8,12 @@ package io.github.teamfractal.entity;
 
 import io.github.teamfractal.RoboticonQuest;
 import io.github.teamfractal.entity.enums.GamePhase;
+import io.github.teamfractal.entity.enums.LedgerReason;
 import io.github.teamfractal.entity.enums.ResourceType;
-import io.github.teamfractal.util.ResourceGroupInteger;
-import io.github.teamfractal.util.Tuple;
+import io.github.teamfractal.util.MarketAnalytics;
+import io.github.teamfractal.util.PriceSeries;
 
-import java.io.Console;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Random;
 
 /**
@@ -24,7 +23,13 @@ import java.util.Random;
  */
 public class AIPlayer extends Player {
 
-    private ArrayList<Tuple<ResourceGroupInteger>> priceChanges;
+    /**
+     * Free plots looked at each turn on a paged map, so the yield index learns about more of the map than has been
+     * played on
+     */
+    private static final int EXPLORE_SAMPLES = 8;
+
+    private final Random random = new Random();
 
     public AIPlayer(RoboticonQuest game) {
         super(game);
@@ -33,7 +38,6 @@ public class AIPlayer extends Player {
         Also accounts for the AI's bold market moves and allows it to keep the market changing.
          */
         this.setMoney(20000);
-        priceChanges = new ArrayList<Tuple<ResourceGroupInteger>>();
     }
 
     /**
@@ -83,41 +87,48 @@ public class AIPlayer extends Player {
     //buing from the market use market sell
     private void tileAcquisition() {
 
-        ArrayList<LandPlot> plots = getAvailableLandPlots();
-        if (plots.size() != 0 && getMoney() > 10) {
+        OwnershipIndex ownership = game.plotManager.getOwnershipIndex();
+        if (ownership.countFree() != 0 && getMoney() > 10) {
 
             ResourceType focus = game.market.getResourceBuyingPrices().getMaxResource();
-            LandPlot best = plots.get(0);
+            LandPlot best = getBestAvailableLandPlot(focus);
 
-            for (int i = 0; i < plots.size(); i++) {
-                if (best.getResource(focus) < plots.get(i).getResource(focus)) {
-                    best = plots.get(i);
-                }
+            if (best != null) {
+                game.gameScreen.setSelectedPlot(best);
+                game.gameScreen.getActors().tileClicked(best, (float) best.x, (float) best.y);
+                game.gameScreen.getActors().buyLandPlotFunction();
             }
-
-            game.gameScreen.setSelectedPlot(best);
-            game.gameScreen.getActors().tileClicked(best, (float) best.x, (float) best.y);
-            game.gameScreen.getActors().buyLandPlotFunction();
         }
         game.nextPhase();
     }
 
     /**
      * NEW
-     * Gets all available land plots i.e. those with no owner
-     * @return available land plots
+     * Gets the available land plot, i.e. one with no owner, with the highest base yield of a resource.
+     * The yield index is descended rather than the map scanned. On a paged map it only covers the chunks that have
+     * been used, so a few random free plots are looked at first, filling in their chunks for the index to cover.
+     * @param focus the resource to compare yields of
+     * @return one of the best available plots, or null if none is known
      */
-    private ArrayList<LandPlot> getAvailableLandPlots() {
-        ArrayList<LandPlot> available = new ArrayList<LandPlot>();
-
-        for (int i = 0; i < game.plotManager.x; i++) {
-            for (int j = 0; j < game.plotManager.y; j++) {
-                if (game.plotManager.getPlot(i, j).getOwner()==null) {
-                    available.add(game.plotManager.getPlot(i, j));
+    private LandPlot getBestAvailableLandPlot(ResourceType focus) {
+        PlotStore plots = game.plotManager.getPlotStore();
+        YieldIndex yields = plots.getYieldIndex();
+        int width = plots.getWidth();
+
+        if (!yields.isComplete()) {
+            OwnershipIndex ownership = game.plotManager.getOwnershipIndex();
+            for (int i = 0; i < EXPLORE_SAMPLES; i++) {
+                int id = ownership.randomFree(random);
+                if (id < 0) {
+                    break;
                 }
+                // Reading any plot of a chunk fills it in
+                plots.isInitialised(id % width, id / width);
             }
         }
-        return available;
+
+        int best = yields.bestFree(focus);
+        return best < 0 ? null : plots.getPlot(best % width, best / width);
     }
 
     /**
@@ -219,32 +230,25 @@ public class AIPlayer extends Player {
     /**
      * Function simulating the Player interaction during Phase 5.
      * UPDATE: REFACTOR "phase5"
+     * UPDATE: Reads streaks and their historic outcomes from the market analytics instead of rebuilding them
+     * from the full price history every turn.
      */
     private void tradeWithMarket() {
-        ArrayList<Tuple<ResourceGroupInteger>> marketHistory = getMarketHistory();
-
-        if (marketHistory.size() > 2) {
-
-            //update priceChanges
-            for (int i = priceChanges.size() + 1; i < marketHistory.size() - 1; i++) {
-                Tuple<ResourceGroupInteger> entry;
-                entry = new Tuple<ResourceGroupInteger>(ResourceGroupInteger.sub(marketHistory.get(i).getHead(),
-                        marketHistory.get(i - 1).getHead()), ResourceGroupInteger.sub(marketHistory.get(i - 1).getTail(),
-                        marketHistory.get(i).getTail()));
-                priceChanges.add(entry);
-            }
+        MarketAnalytics analytics = game.market.getAnalytics();
 
+        if (analytics.buySeries(ResourceType.FOOD).count() > 2) {
             Random rand = new Random();
 
             boolean sold = false;
             for (ResourceType focus : new ResourceType[] {ResourceType.ENERGY, ResourceType.FOOD, ResourceType.ORE}) {
 
-                ResourceGroupInteger[] sellingChanges = getSellingPriceChanges();
-                int sellingStreak = getStreak(sellingChanges, focus);
+                //market buying, player selling: sell into a rising price
+                PriceSeries selling = analytics.buySeries(focus);
+                int sellingStreak = selling.risingStreak();
 
                 if (sellingStreak == 0) continue;
 
-                float prob = getProbStreakEnd(sellingStreak, focus, sellingChanges);
+                float prob = selling.risingStreakEndProbability(sellingStreak);
                 if (prob >= 0.75) {
                     sellResources(focus, this.getResource(focus) / 3);
                     sold = true;
@@ -257,12 +261,13 @@ public class AIPlayer extends Player {
             //buy
             for (ResourceType focus : new ResourceType[] {ResourceType.ENERGY, ResourceType.FOOD, ResourceType.ORE}) {
 
-                ResourceGroupInteger[] buyingChanges = getBuyingPriceChanges();
-                int buyingStreak = getStreak(buyingChanges, focus);
+                //market selling, player buying: buy into a falling price
+                PriceSeries buying = analytics.sellSeries(focus);
+                int buyingStreak = buying.fallingStreak();
 
                 if (buyingStreak == 0) continue;
 
-                float prob = getProbStreakEnd(buyingStreak, focus, buyingChanges);
+                float prob = buying.fallingStreakEndProbability(buyingStreak);
                 if (prob >= 0.75) {
                     buyResources(focus);
                 } else if (rand.nextFloat() >= prob) {
@@ -271,9 +276,11 @@ public class AIPlayer extends Player {
             }
 
             if (!sold) {
-                if (this.getMoney() > 100 && rand.nextFloat() > 0.5f) {
-                    game.resourceMarket.actors().setGambleField("100");
-                    game.resourceMarket.gamble();
+                // Risk at most a quarter of our money, and only on stakes that aren't expected to lose
+                int stake = game.gamblingEngine.chooseAIStake(this.getMoney() / 4);
+                if (stake > 0 && rand.nextFloat() > 0.5f) {
+                    game.resourceMarket.actors().setGambleField(String.valueOf(stake));
+                    game.resourceMarket.gamble(stake);
                     System.out.println("Gambling");
                 }
             }
@@ -281,114 +288,6 @@ public class AIPlayer extends Player {
         game.nextPhase();
     }
 
-    /**
-     * NEW
-     * Gets the current positive streak of price changes.
-     * @param priceChanges the changes in price
-     * @param focus the resource type of interest
-     * @return the streak
-     */
-    private int getStreak(ResourceGroupInteger[] priceChanges, ResourceType focus) {
-        int count = 0;
-        for (int i = priceChanges.length - 1; i > -1; i--) {
-            if (priceChanges[i].getResource(focus) >= 0) {
-                count++;
-            } else {
-                break;
-            }
-        }
-        return count;
-    }
-
-    /**
-     * NEW
-     * Gets the change in selling prices (players perspective, meaning market buying price).
-     * @return an array of selling price changes
-     */
-    private ResourceGroupInteger[] getSellingPriceChanges() {
-        //market buying, player selling history...
-        ResourceGroupInteger[] changes = new ResourceGroupInteger[priceChanges.size()];
-        for (int i = 0; i < priceChanges.size(); i++) {
-            changes[i] = priceChanges.get(i).getHead();
-        }
-        return changes;
-    }
-
-    /**
-     * NEW
-     * Gets the change in buying prices (players perspective, meaning market selling price).
-     * @return an array of buying prices
-     */
-    private ResourceGroupInteger[] getBuyingPriceChanges() {
-        //market buying, player selling history...
-        ResourceGroupInteger[] changes = new ResourceGroupInteger[priceChanges.size()];
-        for (int i = 0; i < priceChanges.size(); i++) {
-            changes[i] = priceChanges.get(i).getTail();
-        }
-        return changes;
-    }
-
-    /**
-     * NEW
-     * Gets the ordered market price history
-     * @return the market history
-     */
-    private ArrayList<Tuple<ResourceGroupInteger>> getMarketHistory() {
-        HashMap<Integer, Tuple<ResourceGroupInteger>> history = game.market.getHistoricTradingData();
-        ArrayList<Tuple<ResourceGroupInteger>> marketPrices = new ArrayList<Tuple<ResourceGroupInteger>>();
-
-        for (int i = 0; i < history.size(); i++) {
-            marketPrices.add(history.get(i));
-        }
-
-        return marketPrices;
-    }
-
-    /**
-     * NEW
-     * Gives the probability of a streak ending.
-     * NOTE: This is not the actual probability, but an attempt to mimic a players perception of it
-     * @param streak an int representing the current positive streak
-     * @param focus the resource type of interest
-     * @param history the selling/buying history
-     * @return probability of ending the current positive streak
-     */
-    private float getProbStreakEnd(int streak, ResourceType focus, ResourceGroupInteger[] history) {
-        ResourceGroupInteger[] current = new ResourceGroupInteger[streak];
-        float total = 0;
-        float count = 0;
-
-        for (int i = 0; i < history.length - streak; i++) {
-            System.arraycopy(history, i, current, 0, streak);
-            if (isStreak(current, focus)) {
-                if (i + 1 < history.length && history[i+1].getResource(focus) < 0) count++;
-                total++;
-            }
-        }
-
-        if (count == 0f && total == 0f) {
-            return 0.5f;
-        } else {
-            return count/total;
-        }
-    }
-
-    /**
-     * NEW
-     * Returns whether the provided history is a streak for a specific type
-     * @param history selling/buying history
-     * @param focus resource type of interest
-     * @return true : history is of a positive streak, false : otherwise
-     */
-    private boolean isStreak(ResourceGroupInteger[] history, ResourceType focus) {
-        for (ResourceGroupInteger entry : history) {
-            if (entry.getResource(focus) < 0) {
-                return false;
-            }
-        }
-        return true;
-    }
-
     /***
      * Utility function for AI to sell resources to market
      * @param type The resource to sell
@@ -416,7 +315,7 @@ public class AIPlayer extends Player {
         Random rand = new Random();
         if (rand.nextInt(100) <= 11) {
             System.out.println("AI Chancellor: Successfully caught! +15 money");
-            this.setMoney(this.getMoney() + 15);
+            this.setMoney(this.getMoney() + 15, LedgerReason.CHANCELLOR);
             return;
         }
     }
@@ -0,0 +1,128 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity;
+
+import io.github.teamfractal.util.ResourceGroupInteger;
+
+/**
+ * Production bonus for plots bordering other plots of the same owner.
+ * <p>
+ * Every plot keeps a count of the edge-adjacent plots owned by its own owner. Each production modifier a plot has
+ * then yields {@link #BONUS_PER_NEIGHBOUR} extra of that resource per counted neighbour, so
+ * production = modifier * (base yield + neighbours * bonus). The counts are updated around a plot whenever its
+ * owner changes, touching that plot and its four neighbours only, and each change is posted to the owner's
+ * production totals as a delta.
+ * </p>
+ * <p>
+ * Neighbours follow the staggered isometric layout of the map, where odd rows sit half a tile to the left: the four
+ * plots sharing an edge with (x, y) are in rows y - 1 and y + 1, in columns x and x + 1 on even rows and in columns
+ * x - 1 and x on odd rows.
+ * </p>
+ */
+public final class AdjacencyBonus {
+
+    /**
+     * Extra production per modifier for each same-owner neighbour
+     */
+    public static final int BONUS_PER_NEIGHBOUR = 1;
+
+    /**
+     * Number of edge-adjacent neighbours of a plot
+     */
+    public static final int DIRECTIONS = 4;
+
+    private static final int[] OFFSET_Y = {-1, -1, 1, 1};
+    private static final int[] OFFSET_X_EVEN = {0, 1, 0, 1};
+    private static final int[] OFFSET_X_ODD = {-1, 0, -1, 0};
+
+    private AdjacencyBonus() {
+    }
+
+    /**
+     * @param x         The x index of the plot.
+     * @param y         The y index of the plot.
+     * @param direction The neighbour, from 0 to {@link #DIRECTIONS} - 1.
+     * @return The x index of the neighbour, which may be outside the map.
+     */
+    public static int neighbourX(int x, int y, int direction) {
+        return x + ((y & 1) == 0 ? OFFSET_X_EVEN : OFFSET_X_ODD)[direction];
+    }
+
+    /**
+     * @param y         The y index of the plot.
+     * @param direction The neighbour, from 0 to {@link #DIRECTIONS} - 1.
+     * @return The y index of the neighbour, which may be outside the map.
+     */
+    public static int neighbourY(int y, int direction) {
+        return y + OFFSET_Y[direction];
+    }
+
+    /**
+     * Recount the same-owner neighbours of a plot whose owner has just changed, and of each of its neighbours.
+     *
+     * @param store The store holding the plot.
+     * @param x     The x index of the plot.
+     * @param y     The y index of the plot.
+     */
+    static void ownerChanged(PlotStore store, int x, int y) {
+        recount(store, x, y);
+        for (int direction = 0; direction < DIRECTIONS; direction++) {
+            int nx = neighbourX(x, y, direction);
+            int ny = neighbourY(y, direction);
+            if (store.contains(nx, ny) && recount(store, nx, ny)) {
+                store.firePlotChanged(nx, ny);
+            }
+        }
+    }
+
+    /**
+     * Count the plot's same-owner neighbours, posting any change in production to its owner.
+     *
+     * @return True if the count changed.
+     */
+    private static boolean recount(PlotStore store, int x, int y) {
+        PlotStore.Chunk chunk = store.acquire(x, y);
+        try {
+            return recount(store, chunk, x, y);
+        } finally {
+            store.release(x, y);
+        }
+    }
+
+    private static boolean recount(PlotStore store, PlotStore.Chunk chunk, int x, int y) {
+        int slot = store.localIndex(x, y);
+        byte owner = chunk.owner[slot];
+
+        int count = 0;
+        if (owner != PlotStore.NO_OWNER) {
+            for (int direction = 0; direction < DIRECTIONS; direction++) {
+                int nx = neighbourX(x, y, direction);
+                int ny = neighbourY(y, direction);
+                if (store.contains(nx, ny) && store.chunkAt(nx, ny).owner[store.localIndex(nx, ny)] == owner) {
+                    count++;
+                }
+            }
+        }
+
+        int previous = chunk.neighbours[slot];
+        if (count == previous) {
+            return false;
+        }
+        chunk.neighbours[slot] = (byte) count;
+        store.refreshOutput(chunk, slot);
+
+        Player player = store.ownerOf(owner);
+        if (player != null) {
+            int change = (count - previous) * BONUS_PER_NEIGHBOUR;
+            player.adjustProductionTotals(new ResourceGroupInteger(
+                    chunk.modifiers[LandPlot.IndexFood][slot] * change,
+                    chunk.modifiers[LandPlot.IndexEnergy][slot] * change,
+                    chunk.modifiers[LandPlot.IndexOre][slot] * change));
+        }
+        return true;
+    }
+}
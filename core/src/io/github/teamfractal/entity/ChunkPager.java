@@ -0,0 +1,413 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps a bounded working set of a {@link PlotStore}'s chunks on the heap and pages the rest to a memory-mapped
+ * file.
+ * <p>
+ * Every chunk has a fixed-size record in the file holding all of its fields, ownership and modifiers included. A
+ * chunk is read from its record the first time it is touched and written back when it is evicted, least recently
+ * used first. A record that has never been written gives a fresh chunk, left for the store to fill in. Chunks near
+ * the camera can be read ahead on a background thread; those are only staged, and become resident when the store
+ * touches them. Pinned chunks are never evicted, so a thread writing to a chunk pins it first.
+ * </p>
+ * <p>
+ * The pager holds a lock on its file while it is open. A page file nobody holds a lock on was left behind by a
+ * process that died without cleaning up, and {@link #deleteStale} removes it.
+ * </p>
+ */
+final class ChunkPager {
+
+    /**
+     * Bytes a plot takes up in a record: yields, modifiers, owner, roboticon, flags, neighbours and terrain
+     */
+    static final int BYTES_PER_PLOT = 3 * 2 + 3 * 4 + 1 + 4 + 1 + 1 + 1;
+
+    private static final int HEADER_BYTES = 8;
+    private static final int RECORD_BYTES = HEADER_BYTES + PlotStore.CHUNK_SIZE * PlotStore.CHUNK_SIZE * BYTES_PER_PLOT;
+
+    /**
+     * Most records a single mapping can hold; larger files are mapped in several segments
+     */
+    private static final int RECORDS_PER_SEGMENT = Integer.MAX_VALUE / RECORD_BYTES;
+
+    /**
+     * Header byte set once a chunk has been written back; records never written hold a fresh chunk
+     */
+    private static final byte WRITTEN = 1;
+
+    /**
+     * Smallest working set allowed, so a plot and its neighbours never evict each other
+     */
+    static final int MIN_RESIDENT = 4;
+
+    private final PlotStore store;
+    private final File file;
+    private final RandomAccessFile raf;
+    private final FileLock lock;
+    private final int chunkCount;
+    private final MappedByteBuffer[] segments;
+    private final int maxResident;
+
+    /**
+     * Resident chunks in least recently used order
+     */
+    private final LinkedHashMap<Integer, PlotStore.Chunk> resident;
+
+    /**
+     * Chunks read ahead but not touched yet, oldest first
+     */
+    private final LinkedHashMap<Integer, PlotStore.Chunk> staged = new LinkedHashMap<Integer, PlotStore.Chunk>();
+
+    private final Object requestLock = new Object();
+    private int[] request;
+    private int[] lastRequest;
+    private volatile boolean closed;
+    private final Thread prefetcher;
+
+    /**
+     * @param store       The store whose chunks are paged.
+     * @param chunkCount  The number of chunks in the store.
+     * @param file        The file to page to. Its contents are discarded.
+     * @param maxResident The most chunks to keep on the heap.
+     */
+    ChunkPager(PlotStore store, int chunkCount, File file, int maxResident) {
+        if (maxResident < MIN_RESIDENT) {
+            throw new IllegalArgumentException("Error: At least " + MIN_RESIDENT + " chunks must stay resident.");
+        }
+        this.store = store;
+        this.file = file;
+        this.chunkCount = chunkCount;
+        this.maxResident = maxResident;
+        this.resident = new LinkedHashMap<Integer, PlotStore.Chunk>(maxResident * 2, 0.75f, true);
+        this.segments = new MappedByteBuffer[(chunkCount + RECORDS_PER_SEGMENT - 1) / RECORDS_PER_SEGMENT];
+        try {
+            raf = new RandomAccessFile(file, "rw");
+            lock = raf.getChannel().tryLock();
+            if (lock == null) {
+                raf.close();
+                throw new IllegalArgumentException("Error: " + file + " is already in use for paging.");
+            }
+            // The file is left sparse; records are only given disk space once written
+            raf.setLength(0);
+            raf.setLength((long) chunkCount * RECORD_BYTES);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error: Could not open " + file + " for paging.", e);
+        }
+
+        prefetcher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                prefetchLoop();
+            }
+        }, "Chunk prefetcher");
+        prefetcher.setDaemon(true);
+        prefetcher.start();
+    }
+
+    /**
+     * Delete the page files in a directory that no open pager holds, left behind by a process that was killed.
+     *
+     * @param directory The directory to clean.
+     * @param prefix    The start of the page files' names.
+     * @param suffix    The end of the page files' names.
+     * @return The number of files deleted.
+     */
+    static int deleteStale(File directory, String prefix, String suffix) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return 0;
+        }
+        int deleted = 0;
+        for (File candidate : files) {
+            String name = candidate.getName();
+            if (name.startsWith(prefix) && name.endsWith(suffix) && candidate.isFile() && isStale(candidate)
+                    && candidate.delete()) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    private static boolean isStale(File candidate) {
+        RandomAccessFile in = null;
+        try {
+            in = new RandomAccessFile(candidate, "rw");
+            FileLock probe = in.getChannel().tryLock();
+            if (probe == null) {
+                // Locked by a pager in another process
+                return false;
+            }
+            probe.release();
+            return true;
+        } catch (OverlappingFileLockException e) {
+            // Locked by a pager in this process
+            return false;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Get a chunk, reading it in and evicting the least recently used chunk if needed.
+     *
+     * @param index The chunk index.
+     * @return The resident chunk.
+     */
+    synchronized PlotStore.Chunk get(int index) {
+        PlotStore.Chunk chunk = resident.get(index);
+        if (chunk == null) {
+            checkOpen();
+            chunk = staged.remove(index);
+            if (chunk == null) {
+                chunk = read(index);
+            }
+            makeRoom();
+            resident.put(index, chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * Keep a chunk resident until it is unpinned, even past the working set limit.
+     *
+     * @param index The chunk index.
+     * @return The pinned chunk.
+     */
+    synchronized PlotStore.Chunk pin(int index) {
+        PlotStore.Chunk chunk = get(index);
+        chunk.pins++;
+        return chunk;
+    }
+
+    synchronized void unpin(int index) {
+        PlotStore.Chunk chunk = resident.get(index);
+        if (chunk == null || chunk.pins == 0) {
+            throw new IllegalStateException("Error: Chunk " + index + " is not pinned.");
+        }
+        chunk.pins--;
+    }
+
+    /**
+     * Write back least recently used chunks until there is room for one more. Pinned chunks are skipped.
+     */
+    private void makeRoom() {
+        Iterator<Map.Entry<Integer, PlotStore.Chunk>> it = resident.entrySet().iterator();
+        while (resident.size() >= maxResident && it.hasNext()) {
+            Map.Entry<Integer, PlotStore.Chunk> entry = it.next();
+            PlotStore.Chunk chunk = entry.getValue();
+            if (chunk.pins == 0) {
+                write(entry.getKey(), chunk);
+                it.remove();
+            }
+        }
+    }
+
+    synchronized int getResidentCount() {
+        return resident.size();
+    }
+
+    synchronized int getStagedCount() {
+        return staged.size();
+    }
+
+    int getMaxResident() {
+        return maxResident;
+    }
+
+    /**
+     * Ask for a rectangle of chunks to be read ahead, replacing any request not yet served.
+     *
+     * @param cx0 First chunk column.
+     * @param cy0 First chunk row.
+     * @param cx1 Last chunk column, inclusive.
+     * @param cy1 Last chunk row, inclusive.
+     */
+    void prefetch(int cx0, int cy0, int cx1, int cy1) {
+        int[] next = new int[] { cx0, cy0, cx1, cy1 };
+        synchronized (requestLock) {
+            if (closed || Arrays.equals(next, lastRequest)) {
+                return;
+            }
+            lastRequest = next;
+            request = next;
+            requestLock.notifyAll();
+        }
+    }
+
+    private void prefetchLoop() {
+        while (true) {
+            int[] next;
+            synchronized (requestLock) {
+                while (request == null && !closed) {
+                    try {
+                        requestLock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+                next = request;
+                request = null;
+            }
+
+            for (int cy = next[1]; cy <= next[3]; cy++) {
+                for (int cx = next[0]; cx <= next[2]; cx++) {
+                    synchronized (requestLock) {
+                        // Stop as soon as the camera has moved on
+                        if (request != null || closed) {
+                            cy = next[3];
+                            break;
+                        }
+                    }
+                    stage(store.chunkIndex(cx, cy));
+                }
+            }
+        }
+    }
+
+    private synchronized void stage(int index) {
+        if (closed || resident.containsKey(index) || staged.containsKey(index)) {
+            return;
+        }
+        if (staged.size() >= maxResident) {
+            Iterator<Integer> oldest = staged.keySet().iterator();
+            oldest.next();
+            oldest.remove();
+        }
+        staged.put(index, read(index));
+    }
+
+    private PlotStore.Chunk read(int index) {
+        PlotStore.Chunk chunk = store.createChunk(index);
+        ByteBuffer record = record(index);
+        if (record.get(0) != WRITTEN) {
+            chunk.fresh = true;
+            return chunk;
+        }
+        record.position(HEADER_BYTES);
+        for (short[] yields : chunk.yields) {
+            record.asShortBuffer().get(yields);
+            record.position(record.position() + yields.length * 2);
+        }
+        for (int[] modifiers : chunk.modifiers) {
+            record.asIntBuffer().get(modifiers);
+            record.position(record.position() + modifiers.length * 4);
+        }
+        record.get(chunk.owner);
+        record.asIntBuffer().get(chunk.roboticon);
+        record.position(record.position() + chunk.roboticon.length * 4);
+        record.get(chunk.flags);
+        record.get(chunk.neighbours);
+        record.get(chunk.terrain);
+        // Effective production is derived, so it is recomputed rather than stored
+        PlotStore.computeOutput(chunk);
+        return chunk;
+    }
+
+    private void write(int index, PlotStore.Chunk chunk) {
+        if (chunk.fresh) {
+            // Never filled in, so its record can stay unwritten and the chunk be filled in when next read
+            return;
+        }
+        ByteBuffer record = record(index);
+        record.position(HEADER_BYTES);
+        for (short[] yields : chunk.yields) {
+            record.asShortBuffer().put(yields);
+            record.position(record.position() + yields.length * 2);
+        }
+        for (int[] modifiers : chunk.modifiers) {
+            record.asIntBuffer().put(modifiers);
+            record.position(record.position() + modifiers.length * 4);
+        }
+        record.put(chunk.owner);
+        record.asIntBuffer().put(chunk.roboticon);
+        record.position(record.position() + chunk.roboticon.length * 4);
+        record.put(chunk.flags);
+        record.put(chunk.neighbours);
+        record.put(chunk.terrain);
+        record.put(0, WRITTEN);
+    }
+
+    /**
+     * Get a chunk's record, mapping its segment of the file on first use.
+     */
+    private ByteBuffer record(int index) {
+        int segment = index / RECORDS_PER_SEGMENT;
+        if (segments[segment] == null) {
+            long first = (long) segment * RECORDS_PER_SEGMENT;
+            long records = Math.min(RECORDS_PER_SEGMENT, chunkCount - first);
+            try {
+                segments[segment] = raf.getChannel().map(FileChannel.MapMode.READ_WRITE,
+                        first * RECORD_BYTES, records * RECORD_BYTES);
+            } catch (IOException e) {
+                throw new IllegalStateException("Error: Could not map " + file + ".", e);
+            }
+        }
+        ByteBuffer record = segments[segment].duplicate();
+        int offset = (index % RECORDS_PER_SEGMENT) * RECORD_BYTES;
+        record.position(offset);
+        record.limit(offset + RECORD_BYTES);
+        return record.slice();
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Error: Chunk pager for " + file + " has been closed.");
+        }
+    }
+
+    /**
+     * Stop reading ahead, write every resident chunk back and close the file.
+     */
+    void close() {
+        synchronized (requestLock) {
+            closed = true;
+            requestLock.notifyAll();
+        }
+        try {
+            prefetcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            for (Map.Entry<Integer, PlotStore.Chunk> entry : resident.entrySet()) {
+                write(entry.getKey(), entry.getValue());
+            }
+            resident.clear();
+            staged.clear();
+            try {
+                // Closing the file releases the lock too
+                raf.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -8,61 +8,101 @@ package io.github.teamfractal.entity;
 
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import io.github.teamfractal.entity.enums.ResourceType;
+import io.github.teamfractal.entity.enums.TerrainType;
 import io.github.teamfractal.exception.InvalidResourceTypeException;
 import io.github.teamfractal.exception.NotCommonResourceException;
-import io.github.teamfractal.util.PlotManager;
 import io.github.teamfractal.util.ResourceGroupInteger;
 
 public class LandPlot {
 
-    private final int IndexOre = 0;
-    private final int IndexEnergy = 1;
-    private final int IndexFood = 2;
-    int x, y;
+    static final int IndexOre = 0;
+    static final int IndexEnergy = 1;
+    static final int IndexFood = 2;
+
+    private static final TerrainType[] TERRAINS = TerrainType.values();
+
+    /**
+     * The store holding this plot's data, the chunk it sits in and its slot within that chunk.
+     * A LandPlot is only a view; any number of views of the same slot are interchangeable.
+     */
+    private final PlotStore store;
+
     /**
-     * Saved modifiers for LandPlot.
-     * [ Ore, Energy, Food ]
+     * The plot's chunk, or null for a paged store, whose views look their chunk up on every use so that a view held
+     * on to, such as in a player's land list, never keeps a paged out chunk on the heap
      */
-    private TiledMapTileLayer.Cell mapTile;
-    private TiledMapTileLayer.Cell playerTile;
-    private TiledMapTileLayer.Cell roboticonTile;
-    private Player owner;
-    private ResourceGroupInteger productionAmounts;
-    public ResourceGroupInteger productionModifiers;
-    private boolean owned;
-    private Roboticon installedRoboticon;
-    private boolean hasRoboticon;
+    private final PlotStore.Chunk chunk;
+    private final int slot;
+    final int x, y;
 
     /**
-     * Initialise LandPlot with specific base amount of resources.
+     * Initialise a standalone LandPlot with specific base amount of resources.
      *
      * @param ore    Amount of ore
      * @param energy Amount of energy
      * @param food   Amount of food
      */
     public LandPlot(int ore, int energy, int food) {
-        this.productionAmounts = new ResourceGroupInteger(food, energy, ore);
-        this.productionModifiers = new ResourceGroupInteger();
-        this.owned = false;
+        this(new PlotStore(1, 1), 0, 0);
+        store.setYields(0, 0, ore, energy, food);
+    }
+
+    /**
+     * Create a view of a plot held in a store.
+     *
+     * @param store The store holding the plot.
+     * @param x     The x index.
+     * @param y     The y index.
+     */
+    LandPlot(PlotStore store, int x, int y) {
+        this.store = store;
+        this.chunk = store.isPaged() ? null : store.chunkAt(x, y);
+        this.slot = store.localIndex(x, y);
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Get the chunk this plot sits in for reading, reading it back in first if a paged store has written it out.
+     */
+    private PlotStore.Chunk chunk() {
+        return chunk != null ? chunk : store.chunkAt(x, y);
+    }
+
+    /**
+     * Get the chunk this plot sits in for writing; a paged store keeps it resident until {@link #release}.
+     */
+    private PlotStore.Chunk acquire() {
+        return chunk != null ? chunk : store.acquire(x, y);
+    }
+
+    private void release() {
+        if (chunk == null) {
+            store.release(x, y);
+        }
     }
 
     //</editor-fold>
 
     //<editor-fold desc="Class getters">
     public TiledMapTileLayer.Cell getMapTile() {
-        return mapTile;
+        return cellOf(store.getMapLayer());
     }
 
     public TiledMapTileLayer.Cell getPlayerTile() {
-        return playerTile;
+        return cellOf(store.getPlayerOverlay());
     }
 
     public TiledMapTileLayer.Cell getRoboticonTile() {
-        return roboticonTile;
+        return cellOf(store.getRoboticonOverlay());
+    }
+
+    private TiledMapTileLayer.Cell cellOf(TiledMapTileLayer layer) {
+        return layer == null ? null : layer.getCell(x, y);
     }
 
     public Player getOwner() {
-        return owner;
+        return store.ownerOf(chunk().owner[slot]);
     }
 
     public int getX() {
@@ -73,6 +113,13 @@ public class LandPlot {
         return y;
     }
 
+    /**
+     * @return The plot's id within its store, y * width + x.
+     */
+    public int getId() {
+        return y * store.getWidth() + x;
+    }
+
     /**
      * Sets the owner of the land plot to the specified player
      *
@@ -80,47 +127,119 @@ public class LandPlot {
      * @return Returns true if the land plot didn't already have an owner, false if it did
      */
     public boolean setOwner(Player player) {
-        if (hasOwner()) {
-            return false;
+        PlotStore.Chunk chunk = acquire();
+        try {
+            synchronized (chunk) {
+                if (chunk.owner[slot] != PlotStore.NO_OWNER) {
+                    return false;
+                }
+                byte owner = store.ownerId(player);
+                chunk.owner[slot] = owner;
+                store.getOwnership().claim(getId(), owner);
+                store.getTerritories().claim(getId(), owner);
+                store.getYieldIndex().claimed(store.chunkIndexOf(x, y), chunk, slot);
+            }
+        } finally {
+            release();
         }
 
-        owner = player;
         player.addLandPlot(this);
+        player.adjustProductionTotals(produceResources());
+        postOutput(player, 1);
+        AdjacencyBonus.ownerChanged(store, x, y);
+        store.firePlotChanged(x, y);
         return true;
     }
 
+    /**
+     * Add or take this plot's effective production to or from a player's production.
+     */
+    private void postOutput(Player player, int sign) {
+        PlotStore.Chunk chunk = chunk();
+        player.adjustProduction(sign * chunk.output[IndexFood][slot], sign * chunk.output[IndexEnergy][slot],
+                sign * chunk.output[IndexOre][slot]);
+    }
+
     /**
      * Returns the state of the land plots ownership
      *
      * @return True if owned, false otherwise
      */
     public boolean hasOwner() {
-        return getOwner() != null;
+        return chunk().owner[slot] != PlotStore.NO_OWNER;
     }
 
     /**
      * Removes the owner of the tile
      */
     public void removeOwner() {
-        if (!hasOwner())
+        Player owner = getOwner();
+        if (owner == null)
             return;
 
+        owner.adjustProductionTotals(ResourceGroupInteger.sub(new ResourceGroupInteger(), produceResources()));
+        postOutput(owner, -1);
         owner.removeLandPlot(this);
+        PlotStore.Chunk chunk = acquire();
+        try {
+            synchronized (chunk) {
+                store.getOwnership().release(getId(), chunk.owner[slot]);
+                store.getTerritories().release(getId(), chunk.owner[slot]);
+                chunk.owner[slot] = PlotStore.NO_OWNER;
+                store.getYieldIndex().released(store.chunkIndexOf(x, y), chunk, slot);
+            }
+        } finally {
+            release();
+        }
+        AdjacencyBonus.ownerChanged(store, x, y);
+        store.firePlotChanged(x, y);
     }
 
     /**
-     * Retrieves the overlays for the specific tile
+     * Get the production modifier for a resource.
      *
-     * @param plotManager The plotmanager storing the images of the current mao
-     * @param x           The x coordinate of the tile
-     * @param y           The y coordinate if the tile
+     * @param resource The resource type.
+     * @return The modifier.
      */
-    public void setupTile(PlotManager plotManager, int x, int y) {
-        this.x = x;
-        this.y = y;
-        this.mapTile = plotManager.getMapLayer().getCell(x, y);
-        this.playerTile = plotManager.getPlayerOverlay().getCell(x, y);
-        this.roboticonTile = plotManager.getRoboticonOverlay().getCell(x, y);
+    public int getProductionModifier(ResourceType resource) {
+        return chunk().modifiers[resourceTypeToIndex(resource)][slot];
+    }
+
+    /**
+     * Set the production modifier for a resource, posting the change in production to the owner's totals.
+     *
+     * @param resource The resource type.
+     * @param modifier The new modifier.
+     */
+    public void setProductionModifier(ResourceType resource, int modifier) {
+        int index = resourceTypeToIndex(resource);
+        int previous;
+        PlotStore.Chunk chunk = acquire();
+        try {
+            if (chunk.modifiers[index][slot] == modifier) {
+                return;
+            }
+            previous = PlotStore.produced(chunk, slot, index);
+            chunk.modifiers[index][slot] = modifier;
+            store.refreshOutput(chunk, slot);
+        } finally {
+            release();
+        }
+
+        Player owner = getOwner();
+        if (owner != null) {
+            owner.adjustProductionTotals(resource, produced(index) - previous);
+        }
+        store.firePlotChanged(x, y);
+    }
+
+    /**
+     * @return A copy of the production modifiers for every resource.
+     */
+    public ResourceGroupInteger getProductionModifiers() {
+        PlotStore.Chunk chunk = chunk();
+        return new ResourceGroupInteger(chunk.modifiers[IndexFood][slot], chunk.modifiers[IndexEnergy][slot],
+                chunk.modifiers[IndexOre][slot]);
     }
 
     /**
@@ -130,7 +249,7 @@ public class LandPlot {
      * @return The index.
      * @throws InvalidResourceTypeException Exception is thrown if the resource index is invalid.
      */
-    private int resourceTypeToIndex(ResourceType resource) {
+    static int resourceTypeToIndex(ResourceType resource) {
         switch (resource) {
             case ORE:
                 return IndexOre;
@@ -147,24 +266,33 @@ public class LandPlot {
      *
      * @param roboticon The roboticon to be installed.
      */
-    public synchronized boolean installRoboticon(Roboticon roboticon) {
-        // Check if supplied roboticon is already installed.
-        if (roboticon.isInstalled()) {
-            return false;
-        }
-        if (roboticon.getCustomisation() != ResourceType.Unknown) {
-            if (roboticon.setInstalledLandplot(this)) {
-                productionModifiers.setResource(roboticon.getCustomisation(), productionModifiers.getResource(roboticon.getCustomisation()) + 1);
-                this.installedRoboticon = roboticon;
-                return true;
-            }
-        } else {
-            if (roboticon.setInstalledLandplot(this)) {
-                this.installedRoboticon = roboticon;
-                return true;
+    public boolean installRoboticon(Roboticon roboticon) {
+        PlotStore.Chunk chunk = acquire();
+        try {
+            synchronized (chunk) {
+                // Check if supplied roboticon is already installed.
+                if (roboticon.isInstalled()) {
+                    return false;
+                }
+                if (roboticon.getCustomisation() != ResourceType.Unknown) {
+                    if (roboticon.setInstalledLandplot(this)) {
+                        setProductionModifier(roboticon.getCustomisation(), getProductionModifier(roboticon.getCustomisation()) + 1);
+                        chunk.roboticon[slot] = roboticon.getID() + 1;
+                        store.firePlotChanged(x, y);
+                        return true;
+                    }
+                } else {
+                    if (roboticon.setInstalledLandplot(this)) {
+                        chunk.roboticon[slot] = roboticon.getID() + 1;
+                        store.firePlotChanged(x, y);
+                        return true;
+                    }
+                }
+                return false;
             }
+        } finally {
+            release();
         }
-        return false;
     }
 
     /**
@@ -173,24 +301,28 @@ public class LandPlot {
      * @return The amount of resources to be produced in a ResourceGroupInteger.
      */
     public ResourceGroupInteger produceResources() {
-        ResourceGroupInteger produced = new ResourceGroupInteger();
-        produced.setResource(ResourceType.FOOD, productionAmounts.getResource(ResourceType.FOOD) * productionModifiers.getResource(ResourceType.FOOD));
-        produced.setResource(ResourceType.ENERGY, productionAmounts.getResource(ResourceType.ENERGY) * productionModifiers.getResource(ResourceType.ENERGY));
-        produced.setResource(ResourceType.ORE, productionAmounts.getResource(ResourceType.ORE) * productionModifiers.getResource(ResourceType.ORE));
-        return produced;
+        return new ResourceGroupInteger(produced(IndexFood), produced(IndexEnergy), produced(IndexOre));
+    }
+
+    private int produced(int index) {
+        return PlotStore.produced(chunk(), slot, index);
     }
 
     /**
-     * Calculate the amount of resources to be produced for specific resource.
+     * @return The number of edge-adjacent plots with the same owner, each adding to this plot's production.
+     */
+    public int getSameOwnerNeighbours() {
+        return chunk().neighbours[slot];
+    }
+
+    /**
+     * Get the amount of a resource this plot produces each turn, read from its cached effective production.
      *
      * @param resource The resource type to be calculated.
-     * @return Calculated amount of resource to be generated.
+     * @return Amount of resource to be generated, zero unless a roboticon is installed.
      */
     public int produceResource(ResourceType resource) {
-        if (this.hasRoboticon) {
-            return (int) ((float) productionAmounts.getResource(resource) * productionModifiers.getResource(resource));
-        }
-        return 0;
+        return chunk().output[resourceTypeToIndex(resource)][slot];
     }
 
     /**
@@ -200,10 +332,21 @@ public class LandPlot {
      * @return The index of the resource
      */
     public float getResource(ResourceType resource) {
-        return productionAmounts.getResource(resource);
+        return chunk().yields[resourceTypeToIndex(resource)][slot];
+    }
+
+    /**
+     * @return The terrain the plot sits on.
+     */
+    public TerrainType getTerrain() {
+        return TERRAINS[chunk().terrain[slot]];
     }
 
-    public ResourceGroupInteger getAllResources() { return productionAmounts; }
+    public ResourceGroupInteger getAllResources() {
+        PlotStore.Chunk chunk = chunk();
+        return new ResourceGroupInteger(chunk.yields[IndexFood][slot], chunk.yields[IndexEnergy][slot],
+                chunk.yields[IndexOre][slot]);
+    }
 
     /**
      * Checks if the tile contains a roboticon
@@ -211,7 +354,7 @@ public class LandPlot {
      * @return True if the tile contains a roboticon, false otherwise
      */
     public boolean hasRoboticon() {
-        return this.hasRoboticon;
+        return (chunk().flags[slot] & PlotStore.HAS_ROBOTICON) != 0;
     }
 
     /**
@@ -220,8 +363,34 @@ public class LandPlot {
      * @param roboticonInstalled The boolean that hasRoboticon is to be changed to
      */
     public void setHasRoboticon(boolean roboticonInstalled) {
-        this.hasRoboticon = roboticonInstalled;
+        PlotStore.Chunk chunk = acquire();
+        try {
+            if (roboticonInstalled) {
+                chunk.flags[slot] |= PlotStore.HAS_ROBOTICON;
+            } else {
+                chunk.flags[slot] &= ~PlotStore.HAS_ROBOTICON;
+            }
+            store.refreshOutput(chunk, slot);
+        } finally {
+            release();
+        }
+        store.firePlotChanged(x, y);
     }
 
+    /**
+     * Two views are equal when they look at the same plot of the same store.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof LandPlot)) {
+            return false;
+        }
+        LandPlot plot = (LandPlot) other;
+        return store == plot.store && x == plot.x && y == plot.y;
+    }
 
+    @Override
+    public int hashCode() {
+        return 31 * (31 * System.identityHashCode(store) + x) + y;
+    }
 }
\ No newline at end of file
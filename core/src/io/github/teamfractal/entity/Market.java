@@ -7,117 +7,376 @@
 package io.github.teamfractal.entity;
 
 import io.github.teamfractal.RoboticonQuest;
+import io.github.teamfractal.entity.enums.LedgerReason;
 import io.github.teamfractal.entity.enums.ResourceType;
 import io.github.teamfractal.exception.InvalidResourceTypeException;
 import io.github.teamfractal.exception.NotCommonResourceException;
+import io.github.teamfractal.entity.ledger.Ledger;
+import io.github.teamfractal.entity.pricing.PriceBook;
+import io.github.teamfractal.entity.pricing.PricingModel;
+import io.github.teamfractal.entity.pricing.ShareBasedPricingModel;
+import io.github.teamfractal.util.MarketAnalytics;
 import io.github.teamfractal.util.ResourceGroupInteger;
 import io.github.teamfractal.util.Tuple;
 
 import java.util.HashMap;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class Market {
 
-    private int roboticons;
+    /**
+     * Slot indices into the atomic stock and supply arrays.
+     */
+    private static final int SLOT_FOOD = 0;
+    private static final int SLOT_ENERGY = 1;
+    private static final int SLOT_ORE = 2;
+    private static final int SLOT_ROBOTICON = 3;
+
+    /**
+     * Resource held in each slot
+     */
+    private static final ResourceType[] SLOT_TYPES = {ResourceType.FOOD, ResourceType.ENERGY, ResourceType.ORE, ResourceType.ROBOTICON};
+
     private int cacheID = -1;
 
-    private ResourceGroupInteger resources;
-    private ResourceGroupInteger resourceSellingPrices;
-    private ResourceGroupInteger resourceBuyingPrices;
-    private ResourceGroupInteger resourceProductionTotals = new ResourceGroupInteger();
+    /**
+     * Market stock indexed by slot: [ Food, Energy, Ore, Roboticon ].
+     * All mutation goes through CAS so concurrent traders can never oversell.
+     */
+    private final AtomicIntegerArray stock = new AtomicIntegerArray(4);
+
+    /**
+     * Running supply totals for the common resources: [ Food, Energy, Ore ].
+     */
+    private final AtomicIntegerArray runningTotal = new AtomicIntegerArray(3);
+
+    /**
+     * Production totals across every player: [ Food, Energy, Ore ].
+     * Maintained by delta as roboticons are customised and plots change owner or modifiers.
+     */
+    private final AtomicIntegerArray productionTotals = new AtomicIntegerArray(3);
+
+    /**
+     * Prices the common resources from the market's stock and the latest production and supply figures.
+     */
+    private final PricingModel pricingModel;
+
+    /**
+     * Journal of the game's transfers, or null if the market isn't part of a game.
+     * Trades are journaled by the player making them; the market only journals changes it makes on its own.
+     */
+    private final Ledger ledger;
+
+    /**
+     * Bumped after every change to stock, prices or price history.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * The most recently published snapshot; rebuilt lazily once the version moves past it.
+     */
+    private volatile PriceBook priceBook;
+
     private HashMap<Integer, Tuple<ResourceGroupInteger>> resourcePriceHistory = new HashMap<Integer, Tuple<ResourceGroupInteger>>();
-    private ResourceGroupInteger runningTotal = new ResourceGroupInteger();
 
-    private final int STARTING_FOOD_SELL_PRICE = 10;
-    private final int STARTING_ENERGY_SELL_PRICE = 10;
-    private final int STARTING_ORE_SELL_PRICE = 10;
+    /**
+     * Indicators over the price history, appended to every time the prices are cached.
+     */
+    private final MarketAnalytics analytics = new MarketAnalytics(ANALYTICS_WINDOW, ANALYTICS_BAR_LENGTH);
 
-    private final int STARTING_FOOD_BUY_PRICE = 10;
-    private final int STARTING_ENERGY_BUY_PRICE = 10;
-    private final int STARTING_ORE_BUY_PRICE = 10;
+    private static final int ANALYTICS_WINDOW = 5;
+    private static final int ANALYTICS_BAR_LENGTH = 4;
 
     /**
-     * Initialise the market
+     * Initialise the market with the original share-of-production pricing
      */
     public Market() {
-        resources = new ResourceGroupInteger(16, 16, 0);
-        resourceSellingPrices = new ResourceGroupInteger(STARTING_FOOD_SELL_PRICE, STARTING_ENERGY_SELL_PRICE, STARTING_ORE_SELL_PRICE);
-        resourceBuyingPrices = new ResourceGroupInteger(STARTING_FOOD_BUY_PRICE, STARTING_ENERGY_BUY_PRICE, STARTING_ORE_BUY_PRICE);
+        this(new ShareBasedPricingModel(), null);
+    }
+
+    /**
+     * Initialise the market without a ledger
+     *
+     * @param pricingModel The model used to price the common resources.
+     */
+    public Market(PricingModel pricingModel) {
+        this(pricingModel, null);
+    }
+
+    /**
+     * Initialise the market
+     *
+     * @param pricingModel The model used to price the common resources.
+     * @param ledger       The game's ledger, or null to leave the market's changes unrecorded.
+     */
+    public Market(PricingModel pricingModel, Ledger ledger) {
+        this.pricingModel = pricingModel;
+        this.ledger = ledger;
+        stock.set(SLOT_FOOD, 16);
+        stock.set(SLOT_ENERGY, 16);
+        stock.set(SLOT_ORE, 0);
+        stock.set(SLOT_ROBOTICON, 12);
+        for (int slot = 0; slot < SLOT_TYPES.length; slot++) {
+            journal(slot, stock.get(slot), LedgerReason.OPENING);
+        }
         cachePrices();
-        setRoboticons(12);
+    }
+
+    /**
+     * Journal a change to the market's stock made outside a trade, against {@link Ledger#WORLD}.
+     *
+     * @param slot   The slot index.
+     * @param amount The amount added; negative if removed.
+     * @param reason Why the stock changed.
+     */
+    private void journal(int slot, int amount, LedgerReason reason) {
+        if (ledger != null) {
+            ledger.record(Ledger.WORLD, Ledger.MARKET, Ledger.assetOf(SLOT_TYPES[slot]), amount, reason);
+        }
     }
 
     public void cachePrices() {
-        resourcePriceHistory.put(cacheID, new Tuple<ResourceGroupInteger>(resourceBuyingPrices.clone(), resourceSellingPrices.clone()));
+        ResourceGroupInteger buyingPrices = getResourceBuyingPrices();
+        ResourceGroupInteger sellingPrices = getResourceSellingPrices();
+        resourcePriceHistory.put(cacheID, new Tuple<ResourceGroupInteger>(buyingPrices, sellingPrices));
+        analytics.record(buyingPrices, sellingPrices);
         cacheID++;
+        version.incrementAndGet();
     }
 
-    public void updateResourceSellPrices() {
-        float elasticity = 0.7f;
-        float upgradeTotalSum = (float) resourceProductionTotals.sum();
-        float foodTotal = (float) resourceProductionTotals.getFood();
-        float energyTotal = (float) resourceProductionTotals.getEnergy();
-        float oreTotal = (float) resourceProductionTotals.getOre();
+    /**
+     * Get the market's version, which increases every time its stock, prices or price history change.
+     *
+     * @return The current version.
+     */
+    public long getVersion() {
+        return version.get();
+    }
 
-        if (upgradeTotalSum > 0) {
-            float newFood = (((1 - (foodTotal / upgradeTotalSum)) / elasticity) * STARTING_FOOD_SELL_PRICE) + STARTING_FOOD_SELL_PRICE;
-            float newEnergy = (((1 - (energyTotal / upgradeTotalSum) / elasticity)) * STARTING_ENERGY_SELL_PRICE) + STARTING_ENERGY_SELL_PRICE;
-            float newOre = (((1 - (oreTotal / upgradeTotalSum) / elasticity)) * STARTING_ORE_SELL_PRICE) + STARTING_ORE_SELL_PRICE;
-            ResourceGroupInteger newPrices = new ResourceGroupInteger((int) newFood, (int) newEnergy, (int) newOre);
-            resourceSellingPrices = newPrices;
+    /**
+     * Get an immutable snapshot of the market's prices and stock.
+     * The same instance is returned until the market next changes.
+     *
+     * @return The current price book.
+     */
+    public PriceBook getPriceBook() {
+        PriceBook book = priceBook;
+        long current = version.get();
+        if (book != null && book.getVersion() == current) {
+            return book;
         }
+
+        ResourceType[] types = ResourceType.values();
+        int[] sellPrices = new int[types.length];
+        int[] buyPrices = new int[types.length];
+        int[] stockLevels = new int[types.length];
+        for (ResourceType type : types) {
+            if (type.isValidResource()) {
+                sellPrices[type.ordinal()] = getSellPrice(type);
+                buyPrices[type.ordinal()] = getBuyPrice(type);
+                stockLevels[type.ordinal()] = getResource(type);
+            }
+        }
+        sellPrices[ResourceType.CUSTOMISATION.ordinal()] = getSellPrice(ResourceType.CUSTOMISATION);
+        stockLevels[ResourceType.CUSTOMISATION.ordinal()] = getResource(ResourceType.CUSTOMISATION);
+
+        // Anything that changed while we were reading will have bumped the version past this book,
+        // so the next caller rebuilds it.
+        book = new PriceBook(current, sellPrices, buyPrices, stockLevels);
+        priceBook = book;
+        return book;
     }
 
-    public void updateResourceBuyPrices() {
-        Random random = new Random();
-        ResourceGroupInteger.sub(resourceSellingPrices.clone(), ResourceGroupInteger.mult(resourceSellingPrices, ((float) 1 / (2 + random.nextInt(4)))));
+    /**
+     * Get the precomputed indicators over the market's price history.
+     *
+     * @return The market analytics.
+     */
+    public MarketAnalytics getAnalytics() {
+        return analytics;
+    }
+
+    /**
+     * Get the model used to price the common resources.
+     *
+     * @return The pricing model.
+     */
+    public PricingModel getPricingModel() {
+        return pricingModel;
+    }
+
+    /**
+     * Reprice the common resources from the current production and supply totals.
+     * Called once per market phase; trades in between only move along the model's precomputed curves.
+     */
+    public void updatePrices() {
+        ResourceGroupInteger supply = new ResourceGroupInteger(runningTotal.get(SLOT_FOOD), runningTotal.get(SLOT_ENERGY), runningTotal.get(SLOT_ORE));
+        pricingModel.reprice(getProductionTotals(), supply);
+        version.incrementAndGet();
     }
 
     public void updateMarketSupplyOnBuy(ResourceGroupInteger resourcesToBuy) {
-        runningTotal = ResourceGroupInteger.sub(runningTotal, resourcesToBuy);
+        runningTotal.addAndGet(SLOT_FOOD, -resourcesToBuy.getFood());
+        runningTotal.addAndGet(SLOT_ENERGY, -resourcesToBuy.getEnergy());
+        runningTotal.addAndGet(SLOT_ORE, -resourcesToBuy.getOre());
     }
 
     public void updateMarketSupplyOnSell(ResourceGroupInteger resourcesToSell) {
-        runningTotal = ResourceGroupInteger.add(runningTotal, resourcesToSell);
+        updateMarketSupply(resourcesToSell);
     }
 
     public void updateMarketSupply(ResourceGroupInteger r) {
-        runningTotal = ResourceGroupInteger.add(runningTotal, r);
+        runningTotal.addAndGet(SLOT_FOOD, r.getFood());
+        runningTotal.addAndGet(SLOT_ENERGY, r.getEnergy());
+        runningTotal.addAndGet(SLOT_ORE, r.getOre());
     }
 
+    /**
+     * Get the running supply total of a common resource, i.e. everything sold to the market minus everything
+     * bought from it.
+     *
+     * @param type The {@link ResourceType}.
+     * @return The running supply total.
+     */
+    public int getMarketSupply(ResourceType type) {
+        int slot = slotOf(type);
+        if (slot < 0 || slot == SLOT_ROBOTICON) {
+            throw new NotCommonResourceException(type);
+        }
+        return runningTotal.get(slot);
+    }
+
+    /**
+     * Rebuild the production totals from scratch by walking every player's roboticons and land plots.
+     * <p>
+     * The totals are maintained incrementally, so this is only needed to resynchronise them after
+     * state has been changed behind the market's back.
+     * </p>
+     */
     public void calculatePlayerResourceUpgrades() {
-        resourceProductionTotals = new ResourceGroupInteger();
+        int[] totals = new int[3];
         for (Player player : RoboticonQuest.getInstance().getPlayerList()) {
             for (Roboticon r : player.getRoboticons()) {
-                ResourceGroupInteger t = new ResourceGroupInteger();
-                t.setResource(r.getCustomisation(), 1);
-                resourceProductionTotals = ResourceGroupInteger.add(resourceProductionTotals, t);
+                int slot = slotOf(r.getCustomisation());
+                if (slot >= 0 && slot != SLOT_ROBOTICON) {
+                    totals[slot] += 1;
+                }
             }
             for (LandPlot p : player.getLandList()) {
-                resourceProductionTotals = ResourceGroupInteger.add(resourceProductionTotals, p.produceResources());
+                ResourceGroupInteger produced = p.produceResources();
+                totals[SLOT_FOOD] += produced.getFood();
+                totals[SLOT_ENERGY] += produced.getEnergy();
+                totals[SLOT_ORE] += produced.getOre();
             }
         }
+        for (int slot = 0; slot < totals.length; slot++) {
+            productionTotals.set(slot, totals[slot]);
+        }
+    }
+
+    /**
+     * Apply a change in production to the running totals.
+     *
+     * @param delta The change in production.
+     */
+    void adjustProductionTotals(ResourceGroupInteger delta) {
+        productionTotals.addAndGet(SLOT_FOOD, delta.getFood());
+        productionTotals.addAndGet(SLOT_ENERGY, delta.getEnergy());
+        productionTotals.addAndGet(SLOT_ORE, delta.getOre());
+    }
+
+    /**
+     * Apply a change in production of a single resource to the running totals.
+     * Types that are not produced (roboticons, uncustomised) are ignored.
+     *
+     * @param type  The {@link ResourceType}.
+     * @param delta The change in production.
+     */
+    void adjustProductionTotals(ResourceType type, int delta) {
+        int slot = slotOf(type);
+        if (slot >= 0 && slot != SLOT_ROBOTICON) {
+            productionTotals.addAndGet(slot, delta);
+        }
+    }
+
+    /**
+     * Get a snapshot of the production totals used for pricing.
+     *
+     * @return The production totals.
+     */
+    public ResourceGroupInteger getProductionTotals() {
+        return new ResourceGroupInteger(productionTotals.get(SLOT_FOOD), productionTotals.get(SLOT_ENERGY), productionTotals.get(SLOT_ORE));
     }
 
+    /**
+     * Get the prices the market currently pays for the common resources.
+     *
+     * @return A snapshot of the buying prices.
+     */
     public ResourceGroupInteger getResourceBuyingPrices() {
-        return resourceBuyingPrices;
+        return new ResourceGroupInteger(getBuyPrice(ResourceType.FOOD), getBuyPrice(ResourceType.ENERGY), getBuyPrice(ResourceType.ORE));
     }
 
+    /**
+     * Get the prices the market currently charges for the common resources.
+     *
+     * @return A snapshot of the selling prices.
+     */
     public ResourceGroupInteger getResourceSellingPrices() {
-        return resourceSellingPrices;
+        return new ResourceGroupInteger(getSellPrice(ResourceType.FOOD), getSellPrice(ResourceType.ENERGY), getSellPrice(ResourceType.ORE));
     }
 
     public HashMap<Integer, Tuple<ResourceGroupInteger>> getHistoricTradingData() {
         return resourcePriceHistory;
     }
     
+    /**
+     * Map a {@link ResourceType} to its slot in the stock array.
+     *
+     * @param type The {@link ResourceType}.
+     * @return The slot index, or -1 if the market does not stock that type.
+     */
+    private static int slotOf(ResourceType type) {
+        switch (type) {
+            case FOOD:
+                return SLOT_FOOD;
+            case ENERGY:
+                return SLOT_ENERGY;
+            case ORE:
+                return SLOT_ORE;
+            case ROBOTICON:
+                return SLOT_ROBOTICON;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Overwrite the stock held in a slot.
+     *
+     * @param slot   The slot index.
+     * @param amount The new amount.
+     * @param name   The resource name used in the error message.
+     * @throws IllegalArgumentException If the new amount if negative, this exception will be thrown.
+     */
+    private void setStock(int slot, int amount, String name) throws IllegalArgumentException {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Error: " + name + " can't be negative.");
+        }
+        int previous = stock.getAndSet(slot, amount);
+        version.incrementAndGet();
+        journal(slot, amount - previous, LedgerReason.ADJUSTMENT);
+    }
+
     /**
      * Get the amount of food in the market
      *
      * @return The amount of food in the market.
      */
     int getFood() {
-        return resources.getFood();
+        return stock.get(SLOT_FOOD);
     }
 
     /**
@@ -126,11 +385,8 @@ public class Market {
      * @param amount The amount of new food amount.
      * @throws IllegalArgumentException If the new amount if negative, this exception will be thrown.
      */
-    synchronized void setFood(int amount) throws IllegalArgumentException {
-        if (amount < 0) {
-            throw new IllegalArgumentException("Error: Food can't be negative.");
-        }
-        this.resources.setResource(ResourceType.FOOD, amount);
+    void setFood(int amount) throws IllegalArgumentException {
+        setStock(SLOT_FOOD, amount, "Food");
     }
 
     /**
@@ -139,7 +395,7 @@ public class Market {
      * @return The amount of energy in the market.
      */
     int getEnergy() {
-        return resources.getEnergy();
+        return stock.get(SLOT_ENERGY);
     }
 
     /**
@@ -148,11 +404,8 @@ public class Market {
      * @param amount The amount of new energy count.
      * @throws IllegalArgumentException If the new amount if negative, this exception will be thrown.
      */
-    synchronized void setEnergy(int amount) throws IllegalArgumentException {
-        if (amount < 0) {
-            throw new IllegalArgumentException("Error: Energy can't be negative.");
-        }
-        this.resources.setResource(ResourceType.ENERGY, amount);
+    void setEnergy(int amount) throws IllegalArgumentException {
+        setStock(SLOT_ENERGY, amount, "Energy");
     }
 
     /**
@@ -161,7 +414,7 @@ public class Market {
      * @return The amount of ore in the market.
      */
     int getOre() {
-        return resources.getOre();
+        return stock.get(SLOT_ORE);
     }
 
     /**
@@ -170,11 +423,8 @@ public class Market {
      * @param amount The amount of new ore count.
      * @throws IllegalArgumentException If the new amount if negative, this exception will be thrown.
      */
-    synchronized void setOre(int amount) throws IllegalArgumentException {
-        if (amount < 0) {
-            throw new IllegalArgumentException("Error: Ore can't be negative.");
-        }
-        this.resources.setResource(ResourceType.ORE, amount);
+    void setOre(int amount) throws IllegalArgumentException {
+        setStock(SLOT_ORE, amount, "Ore");
     }
 
     /**
@@ -183,7 +433,7 @@ public class Market {
      * @return The amount of roboticons in the market.
      */
     int getRoboticons() {
-        return roboticons;
+        return stock.get(SLOT_ROBOTICON);
     }
 
     /**
@@ -193,10 +443,7 @@ public class Market {
      * @throws IllegalArgumentException If the new amount if negative, this exception will be thrown.
      */
     void setRoboticons(int amount) throws IllegalArgumentException {
-        if (amount < 0) {
-            throw new IllegalArgumentException("Error: Roboticon can't be negative.");
-        }
-        roboticons = amount;
+        setStock(SLOT_ROBOTICON, amount, "Roboticon");
     }
 
     /**
@@ -204,8 +451,8 @@ public class Market {
      *
      * @return The total amount.
      */
-    private synchronized int getTotalResourceCount() {
-        return getFood() + getEnergy() + getOre() + roboticons;
+    private int getTotalResourceCount() {
+        return getFood() + getEnergy() + getOre() + getRoboticons();
     }
 
     /**
@@ -274,6 +521,67 @@ public class Market {
         return amount <= resource;
     }
 
+    /**
+     * Atomically reserve and remove resources from the market's stock.
+     * <p>
+     * Unlike {@link #hasEnoughResources(ResourceType, int)} followed by {@link #buyResourceFromMarket(ResourceType, int)},
+     * the check and the removal happen in a single compare-and-set, so two traders can never both take the last unit.
+     * </p>
+     *
+     * @param resource The {@link ResourceType}.
+     * @param amount   The amount to take.
+     * @return <code>true</code> if the stock was taken, <code>false</code> if the market did not have enough.
+     * @throws IllegalArgumentException If the amount is negative.
+     */
+    public boolean tryTake(ResourceType resource, int amount) throws IllegalArgumentException {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Error: Can't take a negative amount.");
+        }
+        if (resource == ResourceType.CUSTOMISATION) {
+            return amount <= getResource(resource);
+        }
+
+        int slot = slotOf(resource);
+        if (slot < 0) {
+            throw new NotCommonResourceException(resource);
+        }
+
+        if (!tryTakeStock(slot, amount)) {
+            return false;
+        }
+        if (slot != SLOT_ROBOTICON) {
+            runningTotal.addAndGet(slot, -amount);
+        }
+        return true;
+    }
+
+    /**
+     * Atomically add resources to the market's stock.
+     *
+     * @param resource The {@link ResourceType}.
+     * @param amount   The amount to add.
+     * @throws IllegalArgumentException If the amount is negative.
+     */
+    public void put(ResourceType resource, int amount) throws IllegalArgumentException {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Error: Can't put a negative amount.");
+        }
+        if (resource == ResourceType.CUSTOMISATION) {
+            return;
+        }
+
+        int slot = slotOf(resource);
+        if (slot < 0) {
+            throw new NotCommonResourceException(resource);
+        }
+
+        stock.addAndGet(slot, amount);
+        version.incrementAndGet();
+        if (slot != SLOT_ROBOTICON) {
+            runningTotal.addAndGet(slot, amount);
+        }
+    }
+
     /**
      * Get the single price for a resource type.
      *
@@ -283,11 +591,9 @@ public class Market {
     public int getBuyPrice(ResourceType resource) {
         switch (resource) {
             case ORE:
-                return resourceBuyingPrices.getOre();
             case ENERGY:
-                return resourceBuyingPrices.getEnergy();
             case FOOD:
-                return resourceBuyingPrices.getFood();
+                return pricingModel.buyPrice(resource, stock.get(slotOf(resource)));
             case ROBOTICON:
                 return 9;
             default:
@@ -305,11 +611,9 @@ public class Market {
     public int getSellPrice(ResourceType resource) {
         switch (resource) {
             case ORE:
-                return resourceSellingPrices.getOre();
             case ENERGY:
-                return resourceSellingPrices.getEnergy();
             case FOOD:
-                return resourceSellingPrices.getFood();
+                return pricingModel.sellPrice(resource, stock.get(slotOf(resource)));
             case ROBOTICON:
                 return 10;
             case CUSTOMISATION:
@@ -319,6 +623,44 @@ public class Market {
         }
     }
 
+    /**
+     * Get the total cost of buying several units of a resource from the market at its current stock.
+     * Common resources are priced unit by unit along the pricing model's curve.
+     *
+     * @param resource The {@link ResourceType}.
+     * @param amount   The amount to buy.
+     * @return The total cost.
+     */
+    public int getSellCost(ResourceType resource, int amount) {
+        switch (resource) {
+            case ORE:
+            case ENERGY:
+            case FOOD:
+                return pricingModel.sellCost(resource, stock.get(slotOf(resource)), amount);
+            default:
+                return amount * getSellPrice(resource);
+        }
+    }
+
+    /**
+     * Get the total the market pays for several units of a resource at its current stock.
+     * Common resources are priced unit by unit along the pricing model's curve.
+     *
+     * @param resource The {@link ResourceType}.
+     * @param amount   The amount to sell.
+     * @return The total value.
+     */
+    public int getBuyValue(ResourceType resource, int amount) {
+        switch (resource) {
+            case ORE:
+            case ENERGY:
+            case FOOD:
+                return pricingModel.buyValue(resource, stock.get(slotOf(resource)), amount);
+            default:
+                return amount * getBuyPrice(resource);
+        }
+    }
+
     /**
      * Sell Resource to the market, caller <i>must</i> be doing all the checks.
      * <p>
@@ -327,30 +669,24 @@ public class Market {
      * @param resource The {@link ResourceType}
      * @param amount   The amount of resource to buy in.
      */
-    public synchronized void sellResourceToMarket(ResourceType resource, int amount) {
-        if (resource == ResourceType.ORE || resource == ResourceType.ENERGY || resource == ResourceType.FOOD) {
-            ResourceGroupInteger t = new ResourceGroupInteger();
-            t.setResource(resource, amount);
-            updateMarketSupplyOnSell(t);
-        }
-        setResource(resource, getResource(resource) + amount);
+    public void sellResourceToMarket(ResourceType resource, int amount) {
+        put(resource, amount);
     }
 
     /**
      * Buy Resource from the market, caller <i>must</i> be doing all the checks.
      * <p>
      * This method will only decrease the amount of specified resource.
+     * Callers racing against other traders should prefer {@link #tryTake(ResourceType, int)}.
      *
      * @param resource The {@link ResourceType}
      * @param amount   The amount of resource to sell out.
+     * @throws IllegalArgumentException If the market does not have enough of the resource.
      */
-    public synchronized void buyResourceFromMarket(ResourceType resource, int amount) {
-        if (resource == ResourceType.ORE || resource == ResourceType.ENERGY || resource == ResourceType.FOOD) {
-            ResourceGroupInteger t = new ResourceGroupInteger();
-            t.setResource(resource, amount);
-            updateMarketSupplyOnBuy(t);
+    public void buyResourceFromMarket(ResourceType resource, int amount) throws IllegalArgumentException {
+        if (!tryTake(resource, amount)) {
+            throw new IllegalArgumentException("Error: " + resource + " can't be negative.");
         }
-        setResource(resource, getResource(resource) - amount);
     }
 
     /**
@@ -359,18 +695,31 @@ public class Market {
     public void generateRoboticon() {
         Random rand = new Random();
         int roboticonsToGenerate = rand.nextInt(3) + 0;
-        while (this.getOre() >= 2 && roboticonsToGenerate > 0) {
-            this.setResource(ResourceType.ORE, getOre() - 2);
-            this.roboticons += 1;
+        while (roboticonsToGenerate > 0 && tryTakeStock(SLOT_ORE, 2)) {
+            stock.incrementAndGet(SLOT_ROBOTICON);
+            version.incrementAndGet();
+            journal(SLOT_ORE, -2, LedgerReason.MANUFACTURE);
+            journal(SLOT_ROBOTICON, 1, LedgerReason.MANUFACTURE);
             roboticonsToGenerate -= 1;
         }
     }
-}
-
-
-
-
-
-
-
 
+    /**
+     * CAS-remove stock from a slot without touching the supply totals.
+     *
+     * @param slot   The slot index.
+     * @param amount The amount to remove.
+     * @return <code>true</code> if the stock was removed.
+     */
+    private boolean tryTakeStock(int slot, int amount) {
+        int current;
+        do {
+            current = stock.get(slot);
+            if (current < amount) {
+                return false;
+            }
+        } while (!stock.compareAndSet(slot, current, current - amount));
+        version.incrementAndGet();
+        return true;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,281 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity;
+
+import io.github.teamfractal.entity.enums.ResourceType;
+import io.github.teamfractal.entity.pricing.PricingModelType;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless stress test of a single {@link Market} shared by thousands of synthetic traders.
+ * <p>
+ * Each trader is a task on a fixed thread pool that performs a seeded random mix of buys, sells, price reads and
+ * roboticon generation. Afterwards the market's stock and running supply totals are reconciled against what the
+ * traders did, and throughput and latency percentiles are reported. Run with
+ * <code>gradle core:stressMarket -PstressArgs="traders operations threads SHARE_BASED|SUPPLY_DEMAND"</code>;
+ * every argument is optional.
+ * </p>
+ */
+public class MarketStressHarness {
+
+    private static final ResourceType[] COMMON = {ResourceType.FOOD, ResourceType.ENERGY, ResourceType.ORE};
+
+    /**
+     * Cumulative operation mix, out of 100
+     */
+    private static final int BUY_CHANCE = 35;
+    private static final int SELL_CHANCE = 70;
+    private static final int READ_CHANCE = 95;
+
+    private static final int MAX_TRADE = 5;
+
+    private final int traders;
+    private final int operationsPerTrader;
+    private final int threads;
+    private final PricingModelType pricingModelType;
+    private final long seed;
+
+    /**
+     * @param traders             Number of trader tasks.
+     * @param operationsPerTrader Operations each trader performs.
+     * @param threads             Size of the thread pool the traders run on.
+     * @param pricingModelType    Pricing model of the market under test.
+     * @param seed                Seed for the traders' random choices.
+     */
+    public MarketStressHarness(int traders, int operationsPerTrader, int threads, PricingModelType pricingModelType, long seed) {
+        if (traders < 1 || operationsPerTrader < 1 || threads < 1) {
+            throw new IllegalArgumentException("Error: Traders, operations and threads must be positive.");
+        }
+        this.traders = traders;
+        this.operationsPerTrader = operationsPerTrader;
+        this.threads = threads;
+        this.pricingModelType = pricingModelType;
+        this.seed = seed;
+    }
+
+    /**
+     * The outcome of a stress run.
+     */
+    public static class Report {
+        public long operations;
+        public long elapsedNanos;
+        public long rejectedBuys;
+        public long roboticonsGenerated;
+
+        /**
+         * Latency percentiles in nanoseconds
+         */
+        public long p50, p90, p99, p999, max;
+
+        /**
+         * Times a trader observed a negative stock level
+         */
+        public long negativeStockReads;
+
+        /**
+         * Final stock minus the stock expected from the traders' successful operations, indexed [ Food, Energy, Ore ]
+         */
+        public final int[] stockDrift = new int[3];
+
+        /**
+         * Final running supply total minus the expected total, indexed [ Food, Energy, Ore ]
+         */
+        public final int[] supplyDrift = new int[3];
+
+        /**
+         * @return Operations per second across all threads.
+         */
+        public double throughput() {
+            return operations * 1e9 / Math.max(elapsedNanos, 1);
+        }
+
+        /**
+         * @return The number of invariant violations observed.
+         */
+        public int violations() {
+            int violations = negativeStockReads > 0 ? 1 : 0;
+            for (int i = 0; i < 3; i++) {
+                if (stockDrift[i] != 0) {
+                    violations++;
+                }
+                if (supplyDrift[i] != 0) {
+                    violations++;
+                }
+            }
+            return violations;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d ops in %.1f ms (%.0f ops/s), %d buys rejected, %d roboticons generated%n"
+                            + "latency ns: p50 %d, p90 %d, p99 %d, p99.9 %d, max %d%n"
+                            + "negative stock reads: %d, stock drift %s, supply drift %s -> %d violation(s)",
+                    operations, elapsedNanos / 1e6, throughput(), rejectedBuys, roboticonsGenerated,
+                    p50, p90, p99, p999, max,
+                    negativeStockReads, Arrays.toString(stockDrift), Arrays.toString(supplyDrift), violations());
+        }
+    }
+
+    /**
+     * A single synthetic trader, keeping its own tallies so the traders never contend on anything but the market.
+     */
+    private class Trader implements Runnable {
+        private final Market market;
+        private final Random random;
+        private final CountDownLatch start;
+        private final CountDownLatch done;
+
+        final long[] latencies = new long[operationsPerTrader];
+        final int[] bought = new int[3];
+        final int[] sold = new int[3];
+        int rejectedBuys;
+        int negativeStockReads;
+
+        Trader(Market market, long seed, CountDownLatch start, CountDownLatch done) {
+            this.market = market;
+            this.random = new Random(seed);
+            this.start = start;
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            try {
+                start.await();
+                for (int op = 0; op < operationsPerTrader; op++) {
+                    int roll = random.nextInt(100);
+                    int r = random.nextInt(COMMON.length);
+                    int amount = random.nextInt(MAX_TRADE) + 1;
+
+                    long began = System.nanoTime();
+                    if (roll < BUY_CHANCE) {
+                        try {
+                            market.buyResourceFromMarket(COMMON[r], amount);
+                            bought[r] += amount;
+                        } catch (IllegalArgumentException e) {
+                            rejectedBuys++;
+                        }
+                    } else if (roll < SELL_CHANCE) {
+                        market.sellResourceToMarket(COMMON[r], amount);
+                        sold[r] += amount;
+                    } else if (roll < READ_CHANCE) {
+                        market.getSellPrice(COMMON[r]);
+                        market.getBuyPrice(COMMON[r]);
+                        if (market.getPriceBook().getStock(COMMON[r]) < 0 || market.getResource(COMMON[r]) < 0) {
+                            negativeStockReads++;
+                        }
+                    } else {
+                        market.generateRoboticon();
+                    }
+                    latencies[op] = System.nanoTime() - began;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                done.countDown();
+            }
+        }
+    }
+
+    /**
+     * Run every trader against a fresh market and reconcile the result.
+     *
+     * @return The report.
+     * @throws InterruptedException If interrupted while waiting for the traders.
+     */
+    public Report run() throws InterruptedException {
+        Market market = new Market(pricingModelType.create());
+        int[] initialStock = new int[3];
+        int[] initialSupply = new int[3];
+        for (int i = 0; i < 3; i++) {
+            initialStock[i] = market.getResource(COMMON[i]);
+            initialSupply[i] = market.getMarketSupply(COMMON[i]);
+        }
+        int initialRoboticons = market.getResource(ResourceType.ROBOTICON);
+
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(traders);
+        Trader[] pool = new Trader[traders];
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < traders; t++) {
+            pool[t] = new Trader(market, seed + t, start, done);
+            executor.execute(pool[t]);
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - began;
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        Report report = new Report();
+        report.elapsedNanos = elapsed;
+        report.operations = (long) traders * operationsPerTrader;
+        report.roboticonsGenerated = market.getResource(ResourceType.ROBOTICON) - initialRoboticons;
+
+        long[] latencies = new long[traders * operationsPerTrader];
+        int[] bought = new int[3];
+        int[] sold = new int[3];
+        for (int t = 0; t < traders; t++) {
+            System.arraycopy(pool[t].latencies, 0, latencies, t * operationsPerTrader, operationsPerTrader);
+            report.rejectedBuys += pool[t].rejectedBuys;
+            report.negativeStockReads += pool[t].negativeStockReads;
+            for (int i = 0; i < 3; i++) {
+                bought[i] += pool[t].bought[i];
+                sold[i] += pool[t].sold[i];
+            }
+        }
+
+        for (int i = 0; i < 3; i++) {
+            int expectedStock = initialStock[i] + sold[i] - bought[i];
+            if (COMMON[i] == ResourceType.ORE) {
+                // Every generated roboticon consumed two ore
+                expectedStock -= 2 * report.roboticonsGenerated;
+            }
+            report.stockDrift[i] = market.getResource(COMMON[i]) - expectedStock;
+            report.supplyDrift[i] = market.getMarketSupply(COMMON[i]) - (initialSupply[i] + sold[i] - bought[i]);
+            if (market.getResource(COMMON[i]) < 0) {
+                report.negativeStockReads++;
+            }
+        }
+
+        Arrays.sort(latencies);
+        report.p50 = percentile(latencies, 0.5);
+        report.p90 = percentile(latencies, 0.9);
+        report.p99 = percentile(latencies, 0.99);
+        report.p999 = percentile(latencies, 0.999);
+        report.max = latencies[latencies.length - 1];
+        return report;
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int traders = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors() * 2;
+        PricingModelType type = args.length > 3 ? PricingModelType.valueOf(args[3]) : PricingModelType.SHARE_BASED;
+
+        System.out.println(String.format("%d traders x %d operations on %d threads, %s pricing",
+                traders, operations, threads, type));
+        Report report = new MarketStressHarness(traders, operations, threads, type, 0).run();
+        System.out.println(report);
+        if (report.violations() > 0) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity;
+
+import java.util.Random;
+
+/**
+ * Index of which plots of a {@link PlotStore} each player owns and which are still free.
+ * <p>
+ * Plots are identified by id = y * width + x. Each owner has a bitset of its plots and a count, along with a
+ * bitset of every owned plot, so counting is O(1) and scanning an owner's territory reads 64 plots per word. The
+ * bitsets are split into pages of {@link #PAGE_SIZE} plots that are only allocated once a plot in them is owned,
+ * and the free plots are the ones missing from the combined bitset, so the index grows with the number of owned
+ * plots rather than with the area of the map. The free count of every page is also kept in a Fenwick tree, so the
+ * i-th free plot is found in O(log pages) without walking the pages before it. The index is updated by {@link LandPlot#setOwner} and
+ * {@link LandPlot#removeOwner} while they hold the plot's chunk, so it never disagrees with the store.
+ * </p>
+ */
+public class OwnershipIndex {
+
+    private static final int PAGE_SHIFT = 12;
+    static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int WORDS_PER_PAGE = PAGE_SIZE >> 6;
+
+    private final PlotStore store;
+    private final int size;
+    private final int pages;
+
+    /**
+     * Paged plot bitset and plot count of each owner, indexed by the store's owner id
+     */
+    private final long[][][] owned = new long[Byte.MAX_VALUE + 1][][];
+    private final int[] ownedCount = new int[Byte.MAX_VALUE + 1];
+
+    /**
+     * Paged bitset of every owned plot, with the number of owned plots in each page
+     */
+    private final long[][] taken;
+    private final int[] takenCount;
+    private int takenTotal;
+
+    /**
+     * Fenwick tree over the number of free plots in each page, 1-based
+     */
+    private final int[] freeTree;
+
+    OwnershipIndex(PlotStore store) {
+        this.store = store;
+        this.size = store.size();
+        this.pages = (size + PAGE_SIZE - 1) >> PAGE_SHIFT;
+        this.taken = new long[pages][];
+        this.takenCount = new int[pages];
+
+        // Every plot starts free; build the tree in place by pushing each node into its parent
+        this.freeTree = new int[pages + 1];
+        for (int node = 1; node <= pages; node++) {
+            freeTree[node] += Math.min(PAGE_SIZE, size - ((node - 1) << PAGE_SHIFT));
+            int parent = node + (node & -node);
+            if (parent <= pages) {
+                freeTree[parent] += freeTree[node];
+            }
+        }
+    }
+
+    /**
+     * Record that a free plot now belongs to an owner.
+     */
+    synchronized void claim(int id, byte owner) {
+        if (owned[owner] == null) {
+            owned[owner] = new long[pages][];
+        }
+        set(owned[owner], id);
+        ownedCount[owner]++;
+        set(taken, id);
+        takenCount[id >> PAGE_SHIFT]++;
+        takenTotal++;
+        adjustFree(id >> PAGE_SHIFT, -1);
+    }
+
+    /**
+     * Record that an owned plot is free again.
+     */
+    synchronized void release(int id, byte owner) {
+        clear(owned[owner], id);
+        ownedCount[owner]--;
+        clear(taken, id);
+        takenTotal--;
+        adjustFree(id >> PAGE_SHIFT, 1);
+        if (--takenCount[id >> PAGE_SHIFT] == 0) {
+            taken[id >> PAGE_SHIFT] = null;
+        }
+    }
+
+    private void adjustFree(int page, int delta) {
+        for (int node = page + 1; node <= pages; node += node & -node) {
+            freeTree[node] += delta;
+        }
+    }
+
+    private static void set(long[][] bits, int id) {
+        long[] page = bits[id >> PAGE_SHIFT];
+        if (page == null) {
+            page = bits[id >> PAGE_SHIFT] = new long[WORDS_PER_PAGE];
+        }
+        page[(id & (PAGE_SIZE - 1)) >> 6] |= 1L << id;
+    }
+
+    private static void clear(long[][] bits, int id) {
+        bits[id >> PAGE_SHIFT][(id & (PAGE_SIZE - 1)) >> 6] &= ~(1L << id);
+    }
+
+    private static boolean get(long[][] bits, int id) {
+        long[] page = bits[id >> PAGE_SHIFT];
+        return page != null && (page[(id & (PAGE_SIZE - 1)) >> 6] & (1L << id)) != 0;
+    }
+
+    /**
+     * @return The number of plots with no owner.
+     */
+    public synchronized int countFree() {
+        return size - takenTotal;
+    }
+
+    /**
+     * @return The number of plots with an owner.
+     */
+    public synchronized int countOwned() {
+        return takenTotal;
+    }
+
+    /**
+     * @param player The player.
+     * @return The number of plots the player owns.
+     */
+    public synchronized int countOwnedBy(Player player) {
+        byte owner = store.findOwnerId(player);
+        return owner == PlotStore.NO_OWNER ? 0 : ownedCount[owner];
+    }
+
+    /**
+     * @param id The plot id.
+     * @return True if the plot has no owner.
+     */
+    public synchronized boolean isFree(int id) {
+        checkId(id);
+        return !get(taken, id);
+    }
+
+    /**
+     * @param player The player.
+     * @param id     The plot id.
+     * @return True if the player owns the plot.
+     */
+    public synchronized boolean isOwnedBy(Player player, int id) {
+        checkId(id);
+        byte owner = store.findOwnerId(player);
+        return owner != PlotStore.NO_OWNER && owned[owner] != null && get(owned[owner], id);
+    }
+
+    /**
+     * Find the next plot a player owns, reading the player's bitset a word at a time and skipping empty pages.
+     *
+     * @param player The player.
+     * @param from   The plot id to start from, inclusive.
+     * @return The id of the first plot at or after from that the player owns, or -1 if there is none.
+     */
+    public synchronized int nextOwnedBy(Player player, int from) {
+        byte owner = store.findOwnerId(player);
+        if (owner == PlotStore.NO_OWNER || owned[owner] == null) {
+            return -1;
+        }
+        return next(owned[owner], Math.max(from, 0), false);
+    }
+
+    /**
+     * Find the next plot nobody owns.
+     *
+     * @param from The plot id to start from, inclusive.
+     * @return The id of the first free plot at or after from, or -1 if there is none.
+     */
+    public synchronized int nextFree(int from) {
+        return next(taken, Math.max(from, 0), true);
+    }
+
+    /**
+     * Find the first set bit at or after from, or the first clear bit if inverted.
+     */
+    private int next(long[][] bits, int from, boolean inverted) {
+        for (int p = from >> PAGE_SHIFT; p < pages; p++) {
+            long[] page = bits[p];
+            int pageStart = p << PAGE_SHIFT;
+            int start = Math.max(from, pageStart);
+            if (page == null) {
+                if (inverted) {
+                    return start;
+                }
+                continue;
+            }
+            int word = (start - pageStart) >> 6;
+            long current = (inverted ? ~page[word] : page[word]) & (-1L << start);
+            while (true) {
+                if (current != 0) {
+                    int id = pageStart + (word << 6) + Long.numberOfTrailingZeros(current);
+                    return id < size ? id : -1;
+                }
+                if (++word == WORDS_PER_PAGE) {
+                    break;
+                }
+                current = inverted ? ~page[word] : page[word];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param i Position in the free set, from 0 to {@link #countFree()} - 1.
+     * @return The id of the i-th free plot in id order, found in O(log pages). Positions change as plots are
+     * claimed.
+     */
+    public synchronized int getFree(int i) {
+        if (i < 0 || i >= size - takenTotal) {
+            throw new IndexOutOfBoundsException("Error: Free plot " + i + " of " + (size - takenTotal) + " requested.");
+        }
+        // Descend the Fenwick tree to the page holding the plot, then count through that page
+        int p = 0;
+        for (int step = Integer.highestOneBit(pages); step > 0; step >>= 1) {
+            if (p + step <= pages && freeTree[p + step] <= i) {
+                p += step;
+                i -= freeTree[p];
+            }
+        }
+        long[] page = taken[p];
+        if (page == null) {
+            return (p << PAGE_SHIFT) + i;
+        }
+        for (int word = 0; ; word++) {
+            long current = ~page[word];
+            int free = Long.bitCount(current);
+            if (i < free) {
+                for (; i > 0; i--) {
+                    current &= current - 1;
+                }
+                return (p << PAGE_SHIFT) + (word << 6) + Long.numberOfTrailingZeros(current);
+            }
+            i -= free;
+        }
+    }
+
+    /**
+     * @param random The random stream.
+     * @return The id of a free plot chosen uniformly at random in O(log pages), or -1 if every plot is owned.
+     */
+    public synchronized int randomFree(Random random) {
+        int free = size - takenTotal;
+        return free == 0 ? -1 : getFree(random.nextInt(free));
+    }
+
+    /**
+     * @param id The plot id.
+     * @return The plot's owner, or null if it is free.
+     */
+    public Player ownerOf(int id) {
+        checkId(id);
+        return store.getPlot(id % store.getWidth(), id / store.getWidth()).getOwner();
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Error: Plot id " + id + " is outside the map.");
+        }
+    }
+}
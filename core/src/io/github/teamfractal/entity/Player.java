@@ -7,11 +7,16 @@
 package io.github.teamfractal.entity;
 
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntIntMap;
 import io.github.teamfractal.RoboticonQuest;
 import io.github.teamfractal.entity.enums.GamePhase;
+import io.github.teamfractal.entity.enums.LedgerReason;
 import io.github.teamfractal.entity.enums.PurchaseStatus;
 import io.github.teamfractal.entity.enums.ResourceType;
+import io.github.teamfractal.entity.gambling.GambleStatistics;
+import io.github.teamfractal.entity.ledger.Ledger;
 import io.github.teamfractal.exception.NotCommonResourceException;
+import io.github.teamfractal.util.ResourceGroupInteger;
 
 import java.util.ArrayList;
 import java.util.Random;
@@ -21,17 +26,41 @@ public class Player {
     public RoboticonQuest game;
     Array<Roboticon> roboticonList;
     ArrayList<LandPlot> landList = new ArrayList<LandPlot>();
+    /**
+     * Position of each owned plot in landList, keyed by plot id, so plots can be removed without a search
+     */
+    private final IntIntMap landPositions = new IntIntMap();
     //<editor-fold desc="Resource getter and setter">
     private int money = 100;
     private int ore = 0;
     private int energy = 0;
     private int food = 0;
 
+    /**
+     * Lifetime gambling statistics, updated by the {@link io.github.teamfractal.entity.gambling.GamblingEngine}
+     */
+    private final GambleStatistics gambleStatistics = new GambleStatistics();
+
+    /**
+     * Effective production of every plot this player owns, kept up to date by the plots as deltas
+     */
+    private int producedFood;
+    private int producedEnergy;
+    private int producedOre;
+
+    /**
+     * The game's ledger and this player's account in it; null and -1 when the player isn't part of a game
+     */
+    private final Ledger ledger;
+    private final int ledgerAccount;
 
     public Player(RoboticonQuest game) {
         this.game = game;
         this.roboticonList = new Array<Roboticon>();
 
+        this.ledger = game == null ? null : game.ledger;
+        this.ledgerAccount = ledger == null ? -1 : ledger.openAccount();
+        journal(Ledger.ASSET_MONEY, 0, money, LedgerReason.OPENING);
     }
 
     public int getMoney() {
@@ -43,22 +72,87 @@ public class Player {
      *
      * @param money The amount of new money
      */
-    public synchronized void setMoney(int money) {
+    public void setMoney(int money) {
+        setMoney(money, LedgerReason.ADJUSTMENT);
+    }
+
+    /**
+     * Set the amount of money player has, journaling the change in the game's ledger
+     * <p>
+     * if amount less than 0 then the amount is set to 0, and the shortfall is journaled as destroyed.
+     * </p>
+     *
+     * @param money  The amount of new money
+     * @param reason Why the player's money changed
+     */
+    public synchronized void setMoney(int money, LedgerReason reason) {
+        int previous = this.money;
         if (money < 0) {
             this.money = 0;
         } else {
             this.money = money;
         }
+        journal(Ledger.ASSET_MONEY, previous, money, reason);
     }
 
     public void setGamblingMoney(int money) {
-        setMoney(money);
+        setMoney(money, LedgerReason.GAMBLE);
+    }
+
+    /**
+     * @return This player's account in the game's ledger, or -1 if there is no ledger
+     */
+    public int getLedgerAccount() {
+        return ledgerAccount;
+    }
+
+    /**
+     * Journal a change to one of this player's balances against the counterparty for the reason
+     * <p>
+     * A requested balance below 0 was clamped: the counterparty is still credited in full and the
+     * clamped amount is written off against {@link Ledger#VOID}.
+     * </p>
+     *
+     * @param asset     The ledger asset index
+     * @param previous  The balance before the change
+     * @param requested The balance that was asked for, before clamping
+     * @param reason    Why the balance changed
+     */
+    private void journal(int asset, int previous, int requested, LedgerReason reason) {
+        if (ledger == null) {
+            return;
+        }
+        ledger.record(Ledger.counterpartyFor(reason), ledgerAccount, asset, requested - previous, reason);
+        if (requested < 0) {
+            ledger.record(Ledger.VOID, ledgerAccount, asset, -requested, LedgerReason.CLAMP);
+        }
+    }
+
+    /**
+     * Journal a transfer of a resource this player doesn't keep a count of, such as roboticons
+     *
+     * @param resource The resource received
+     * @param amount   The amount received
+     * @param reason   Why it was received
+     */
+    private void journal(ResourceType resource, int amount, LedgerReason reason) {
+        if (ledger != null) {
+            ledger.record(Ledger.counterpartyFor(reason), ledgerAccount, Ledger.assetOf(resource), amount, reason);
+        }
+    }
+
+    public GambleStatistics getGambleStatistics() {
+        return gambleStatistics;
     }
 
     public int getOre() {
         return ore;
     }
 
+    void setOre(int amount) {
+        setOre(amount, LedgerReason.ADJUSTMENT);
+    }
+
     /**
      * Set the amount of ore player has
      * <p>
@@ -66,19 +160,26 @@ public class Player {
      * </p>
      *
      * @param amount The new amount for ore.
+     * @param reason Why the amount changed.
      */
-    synchronized void setOre(int amount) {
+    synchronized void setOre(int amount, LedgerReason reason) {
+        int previous = this.ore;
         if (amount < 0) {
             this.ore = 0;
         } else {
             this.ore = amount;
         }
+        journal(Ledger.assetOf(ResourceType.ORE), previous, amount, reason);
     }
 
     public int getEnergy() {
         return energy;
     }
 
+    void setEnergy(int amount) {
+        setEnergy(amount, LedgerReason.ADJUSTMENT);
+    }
+
     /**
      * Set the amount of energy player has
      * <p>
@@ -86,20 +187,26 @@ public class Player {
      * </p>
      *
      * @param amount The new amount for energy.
+     * @param reason Why the amount changed.
      */
-
-    synchronized void setEnergy(int amount) {
+    synchronized void setEnergy(int amount, LedgerReason reason) {
+        int previous = this.energy;
         if (amount < 0) {
             this.energy = 0;
         } else {
             this.energy = amount;
         }
+        journal(Ledger.assetOf(ResourceType.ENERGY), previous, amount, reason);
     }
 
     public int getFood() {
         return food;
     }
 
+    void setFood(int amount) {
+        setFood(amount, LedgerReason.ADJUSTMENT);
+    }
+
     /**
      * Set the amount of food player has
      * <p>
@@ -107,13 +214,16 @@ public class Player {
      * </p>
      *
      * @param amount The new amount for food.
+     * @param reason Why the amount changed.
      */
-    synchronized void setFood(int amount) {
+    synchronized void setFood(int amount, LedgerReason reason) {
+        int previous = this.food;
         if (amount < 0) {
             this.food = 0;
         } else {
             this.food = amount;
         }
+        journal(Ledger.assetOf(ResourceType.FOOD), previous, amount, reason);
     }
 
     /**
@@ -123,17 +233,28 @@ public class Player {
      * @param amount   The new amount.
      */
     public void setResource(ResourceType resource, int amount) {
+        setResource(resource, amount, LedgerReason.ADJUSTMENT);
+    }
+
+    /**
+     * Set the resource amount current player have, journaling the change in the game's ledger.
+     *
+     * @param resource The {@link ResourceType}
+     * @param amount   The new amount.
+     * @param reason   Why the amount changed.
+     */
+    public void setResource(ResourceType resource, int amount, LedgerReason reason) {
         switch (resource) {
             case ENERGY:
-                setEnergy(amount);
+                setEnergy(amount, reason);
                 break;
 
             case ORE:
-                setOre(amount);
+                setOre(amount, reason);
                 break;
 
             case FOOD:
-                setFood(amount);
+                setFood(amount, reason);
                 break;
 
             default:
@@ -185,8 +306,12 @@ public class Player {
             return PurchaseStatus.FailPlayerNotEnoughMoney;
         }
 
-        market.buyResourceFromMarket(ResourceType.ROBOTICON, amount);
-        setMoney(money - cost);
+        // The earlier check is only advisory; another trader may have emptied the stock since.
+        if (!market.tryTake(ResourceType.ROBOTICON, amount)) {
+            return PurchaseStatus.FailMarketNotEnoughResource;
+        }
+        setMoney(money - cost, LedgerReason.TRADE);
+        journal(ResourceType.ROBOTICON, amount, LedgerReason.TRADE);
         for (int roboticon = 0; roboticon < amount; roboticon++) {
             roboticonList.add(new Roboticon(random.nextInt(10000)));
         }
@@ -214,8 +339,10 @@ public class Player {
             return PurchaseStatus.FailPlayerNotEnoughMoney;
         }
 
-        market.buyResourceFromMarket(ResourceType.CUSTOMISATION, 1);
-        setMoney(money - cost);
+        if (!market.tryTake(ResourceType.CUSTOMISATION, 1)) {
+            return PurchaseStatus.FailMarketNotEnoughResource;
+        }
+        setMoney(money - cost, LedgerReason.TRADE);
         customiseRoboticon(roboticon, resource);
 
         return PurchaseStatus.Success;
@@ -236,15 +363,17 @@ public class Player {
             return PurchaseStatus.FailMarketNotEnoughResource;
         }
 
-        int cost = amount * market.getSellPrice(resource);
+        int cost = market.getSellCost(resource, amount);
         int money = getMoney();
         if (cost > money) {
             return PurchaseStatus.FailPlayerNotEnoughMoney;
         }
 
-        market.buyResourceFromMarket(resource, amount);
-        setMoney(money - cost);
-        setResource(resource, getResource(resource) + amount);
+        if (!market.tryTake(resource, amount)) {
+            return PurchaseStatus.FailMarketNotEnoughResource;
+        }
+        setMoney(money - cost, LedgerReason.TRADE);
+        setResource(resource, getResource(resource) + amount, LedgerReason.TRADE);
         return PurchaseStatus.Success;
     }
 
@@ -256,12 +385,12 @@ public class Player {
      * @param resource The resource type.
      */
     public void sellResourceToMarket(int amount, Market market, ResourceType resource) {
-        int resourcePrice = market.getBuyPrice(resource);
+        int value = market.getBuyValue(resource, amount);
 
         if (getResource(resource) >= amount) {
             market.sellResourceToMarket(resource, amount);
-            setResource(resource, getResource(resource) - amount);
-            setMoney(getMoney() + amount * resourcePrice);
+            setResource(resource, getResource(resource) - amount, LedgerReason.TRADE);
+            setMoney(getMoney() + value, LedgerReason.TRADE);
         }
     }
 
@@ -275,8 +404,7 @@ public class Player {
             return false;
         }
 
-        landList.add(plot);
-        this.setMoney(this.getMoney() - 10);
+        this.setMoney(this.getMoney() - 10, LedgerReason.LAND);
         plot.setOwner(this);
         game.landPurchasedThisTurn();
         return true;
@@ -286,12 +414,30 @@ public class Player {
      * Get a landplot to produce resources
      */
     public void produceResources() {
-        for (LandPlot plot : landList) {
-            energy += plot.produceResource(ResourceType.ENERGY);
-            ore += plot.produceResource(ResourceType.ORE);
+        ResourceGroupInteger production = getProduction();
+        setEnergy(energy + production.getEnergy(), LedgerReason.PRODUCTION);
+        setOre(ore + production.getOre(), LedgerReason.PRODUCTION);
+        setFood(food + production.getFood(), LedgerReason.PRODUCTION);
+    }
 
-            food += plot.produceResource(ResourceType.FOOD);
-        }
+    /**
+     * @return What this player's land plots produce each turn.
+     */
+    public synchronized ResourceGroupInteger getProduction() {
+        return new ResourceGroupInteger(producedFood, producedEnergy, producedOre);
+    }
+
+    /**
+     * Apply a change in one of this player's land plots' effective production to the player's production.
+     *
+     * @param food   The change in food.
+     * @param energy The change in energy.
+     * @param ore    The change in ore.
+     */
+    synchronized void adjustProduction(int food, int energy, int ore) {
+        producedFood += food;
+        producedEnergy += energy;
+        producedOre += ore;
     }
 
     /**
@@ -302,18 +448,45 @@ public class Player {
      * @return The roboticon
      */
     Roboticon customiseRoboticon(Roboticon roboticon, ResourceType type) {
+        ResourceType previous = roboticon.getCustomisation();
         roboticon.setCustomisation(type);
+        adjustProductionTotals(previous, -1);
+        adjustProductionTotals(type, 1);
         return roboticon;
     }
 
+    /**
+     * Post a change in production from one of this player's land plots to the market totals.
+     *
+     * @param delta The change in production.
+     */
+    void adjustProductionTotals(ResourceGroupInteger delta) {
+        if (game != null && game.market != null) {
+            game.market.adjustProductionTotals(delta);
+        }
+    }
+
+    /**
+     * Post a change in production of a single resource to the market totals.
+     *
+     * @param type  The resource type.
+     * @param delta The change in production.
+     */
+    void adjustProductionTotals(ResourceType type, int delta) {
+        if (game != null && game.market != null) {
+            game.market.adjustProductionTotals(type, delta);
+        }
+    }
+
     /**
      * Add landplot to current user.
      *
      * @param landPlot LandPlot to be bind to the user.
-     *                 <code>LandPlot.setOwner(this_user)</code> first.
+     *                 <code>LandPlot.setOwner(this_user)</code> first, which calls this once per purchase.
      */
     void addLandPlot(LandPlot landPlot) {
-        if (landPlot != null && !landList.contains(landPlot) && landPlot.getOwner() == this) {
+        if (landPlot != null && landPlot.getOwner() == this) {
+            landPositions.put(landPlot.getId(), landList.size());
             landList.add(landPlot);
         }
     }
@@ -325,8 +498,17 @@ public class Player {
      *                 <code>this_user</code> must be the current owner first.
      */
     void removeLandPlot(LandPlot landPlot) {
-        if (landPlot != null && landList.contains(landPlot) && landPlot.getOwner() == this) {
-            landList.add(landPlot);
+        if (landPlot != null && landPlot.getOwner() == this) {
+            int position = landPositions.remove(landPlot.getId(), -1);
+            if (position < 0) {
+                return;
+            }
+            // Move the last plot into the gap rather than shifting everything after it
+            LandPlot last = landList.remove(landList.size() - 1);
+            if (position < landList.size()) {
+                landList.set(position, last);
+                landPositions.put(last.getId(), position);
+            }
         }
     }
 
@@ -377,19 +559,14 @@ public class Player {
      * Generate resources produced from each LandPlot
      */
     public void generateResources() {
-        int energy = 0;
-        int food = 0;
-        int ore = 0;
-
-        for (LandPlot land : landList) {
-            energy += land.produceResource(ResourceType.ENERGY);
-            ore += land.produceResource(ResourceType.ORE);
-            food += land.produceResource(ResourceType.FOOD);
-        }
-
-        setEnergy(getEnergy() + energy);
-        setFood(getFood() + food);
-        setOre(getOre() + ore);
+        ResourceGroupInteger production = getProduction();
+        int energy = production.getEnergy();
+        int food = production.getFood();
+        int ore = production.getOre();
+
+        setEnergy(getEnergy() + energy, LedgerReason.PRODUCTION);
+        setFood(getFood() + food, LedgerReason.PRODUCTION);
+        setOre(getOre() + ore, LedgerReason.PRODUCTION);
 
         game.genOverlay.updateYieldLabels(energy, ore, food);
     }
@@ -12,6 +12,7 @@ import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.utils.Align;
+import io.github.teamfractal.entity.enums.LedgerReason;
 import io.github.teamfractal.entity.enums.ResourceType;
 import io.github.teamfractal.screens.GameScreen;
 import io.github.teamfractal.screens.Overlay;
@@ -140,15 +141,15 @@ public class PlayerEffect {
      */
     public void impose(Player player) {
         if (multiply) {
-            player.setResource(ResourceType.ORE, (int) ((float) player.getOre() * modifiers[0]));
-            player.setResource(ResourceType.ENERGY, (int) ((float) player.getEnergy() * modifiers[1]));
-            player.setResource(ResourceType.FOOD, (int) ((float) player.getFood() * modifiers[2]));
-            player.setMoney((int) ((float) player.getMoney() * modifiers[3]));
+            player.setResource(ResourceType.ORE, (int) ((float) player.getOre() * modifiers[0]), LedgerReason.EFFECT);
+            player.setResource(ResourceType.ENERGY, (int) ((float) player.getEnergy() * modifiers[1]), LedgerReason.EFFECT);
+            player.setResource(ResourceType.FOOD, (int) ((float) player.getFood() * modifiers[2]), LedgerReason.EFFECT);
+            player.setMoney((int) ((float) player.getMoney() * modifiers[3]), LedgerReason.EFFECT);
         } else {
-            player.setResource(ResourceType.ORE, player.getOre() + (int) modifiers[0]);
-            player.setResource(ResourceType.ENERGY, player.getEnergy() + (int) modifiers[1]);
-            player.setResource(ResourceType.FOOD, player.getFood() + (int) modifiers[2]);
-            player.setMoney(player.getMoney() + (int) modifiers[3]);
+            player.setResource(ResourceType.ORE, player.getOre() + (int) modifiers[0], LedgerReason.EFFECT);
+            player.setResource(ResourceType.ENERGY, player.getEnergy() + (int) modifiers[1], LedgerReason.EFFECT);
+            player.setResource(ResourceType.FOOD, player.getFood() + (int) modifiers[2], LedgerReason.EFFECT);
+            player.setMoney(player.getMoney() + (int) modifiers[3], LedgerReason.EFFECT);
         }
     }
 
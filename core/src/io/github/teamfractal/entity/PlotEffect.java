@@ -156,29 +156,29 @@ public class PlotEffect extends Array<ResourceGroupFloat> {
 
         //Assume that the modifiers on the top of the stack are the modifiers to be imposed
         newModifiers = super.pop();
-        originalModifiers.setResource(ResourceType.FOOD, plot.productionModifiers.getFood().floatValue());
-        originalModifiers.setResource(ResourceType.ENERGY, plot.productionModifiers.getEnergy().floatValue());
-        originalModifiers.setResource(ResourceType.ORE, plot.productionModifiers.getOre().floatValue());
+        originalModifiers.setResource(ResourceType.FOOD, (float) plot.getProductionModifier(ResourceType.FOOD));
+        originalModifiers.setResource(ResourceType.ENERGY, (float) plot.getProductionModifier(ResourceType.ENERGY));
+        originalModifiers.setResource(ResourceType.ORE, (float) plot.getProductionModifier(ResourceType.ORE));
 
 
         switch (mode) {
             case (0):
                 //MODE 0: Add/subtract to/from the original modifiers
-                plot.productionModifiers.setResource(ResourceType.FOOD, plot.productionModifiers.getFood().intValue() + newModifiers.getFood().intValue());
-                plot.productionModifiers.setResource(ResourceType.ENERGY, plot.productionModifiers.getEnergy().intValue() + newModifiers.getEnergy().intValue());
-                plot.productionModifiers.setResource(ResourceType.ORE, plot.productionModifiers.getOre().intValue() + newModifiers.getOre().intValue());
+                plot.setProductionModifier(ResourceType.FOOD, plot.getProductionModifier(ResourceType.FOOD) + newModifiers.getFood().intValue());
+                plot.setProductionModifier(ResourceType.ENERGY, plot.getProductionModifier(ResourceType.ENERGY) + newModifiers.getEnergy().intValue());
+                plot.setProductionModifier(ResourceType.ORE, plot.getProductionModifier(ResourceType.ORE) + newModifiers.getOre().intValue());
                 break;
             case (1):
                 //MODE 1: Multiply the original modifier
-                plot.productionModifiers.setResource(ResourceType.FOOD, new Float(plot.productionModifiers.getFood() * newModifiers.getFood()).intValue());
-                plot.productionModifiers.setResource(ResourceType.ENERGY, new Float(plot.productionModifiers.getEnergy() * newModifiers.getEnergy()).intValue());
-                plot.productionModifiers.setResource(ResourceType.ORE, new Float(plot.productionModifiers.getOre() * newModifiers.getOre()).intValue());
+                plot.setProductionModifier(ResourceType.FOOD, (int) (plot.getProductionModifier(ResourceType.FOOD) * newModifiers.getFood()));
+                plot.setProductionModifier(ResourceType.ENERGY, (int) (plot.getProductionModifier(ResourceType.ENERGY) * newModifiers.getEnergy()));
+                plot.setProductionModifier(ResourceType.ORE, (int) (plot.getProductionModifier(ResourceType.ORE) * newModifiers.getOre()));
                 break;
             case (2):
                 //MODE 2: Replace the original modifiers
-                plot.productionModifiers.setResource(ResourceType.FOOD, newModifiers.getFood().intValue());
-                plot.productionModifiers.setResource(ResourceType.ENERGY, newModifiers.getEnergy().intValue());
-                plot.productionModifiers.setResource(ResourceType.ORE, newModifiers.getOre().intValue());
+                plot.setProductionModifier(ResourceType.FOOD, newModifiers.getFood().intValue());
+                plot.setProductionModifier(ResourceType.ENERGY, newModifiers.getEnergy().intValue());
+                plot.setProductionModifier(ResourceType.ORE, newModifiers.getOre().intValue());
                 break;
         }
 
@@ -208,9 +208,9 @@ public class PlotEffect extends Array<ResourceGroupFloat> {
             lastPlot = plotRegister.pop();
             //Retrieve the last plot that this effect was imposed upon
 
-            lastPlot.productionModifiers.setResource(ResourceType.FOOD, originalModifiers.getFood().intValue());
-            lastPlot.productionModifiers.setResource(ResourceType.ENERGY, originalModifiers.getEnergy().intValue());
-            lastPlot.productionModifiers.setResource(ResourceType.ORE, originalModifiers.getOre().intValue());
+            lastPlot.setProductionModifier(ResourceType.FOOD, originalModifiers.getFood().intValue());
+            lastPlot.setProductionModifier(ResourceType.ENERGY, originalModifiers.getEnergy().intValue());
+            lastPlot.setProductionModifier(ResourceType.ORE, originalModifiers.getOre().intValue());
 
             //Restore the original production modifiers of the aforementioned plot
         }
@@ -0,0 +1,748 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity;
+
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.utils.Disposable;
+import io.github.teamfractal.entity.enums.ResourceType;
+import io.github.teamfractal.entity.enums.TerrainType;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Storage for every land plot on a map, laid out as structure-of-arrays.
+ * <p>
+ * The map is split into square chunks, and each chunk keeps one primitive array per field: base yields,
+ * production modifiers, owner id, roboticon id and flags. {@link LandPlot} objects are lightweight views onto a
+ * single slot, so scans over ownership or production walk contiguous memory and a plot costs a few dozen bytes
+ * rather than a graph of objects.
+ * </p>
+ * <p>
+ * A store made with {@link #paged} only keeps a bounded number of chunks on the heap and pages the rest to a
+ * file, for maps too large to hold in memory. Its chunks can be filled in by a {@link ChunkInitialiser} the first
+ * time each is used, so only the parts of the map that are played on are ever set up or written to the file.
+ * A paged store is safe to use from several threads: a chunk being filled in is only handed to other threads once
+ * its fill has finished, and every write pins its chunk so it can't be paged out while the write is under way.
+ * </p>
+ */
+public class PlotStore implements Disposable {
+
+    static final int CHUNK_SHIFT = 6;
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * Flag set once a plot's base yields have been written
+     */
+    static final byte INITIALISED = 1;
+
+    /**
+     * Flag set while a roboticon is installed on a plot
+     */
+    static final byte HAS_ROBOTICON = 2;
+
+    /**
+     * Owner id of a plot nobody owns
+     */
+    static final byte NO_OWNER = 0;
+
+    private final int width;
+    private final int height;
+    private final int chunksX;
+    private final int chunksY;
+
+    /**
+     * Every chunk when the store is held in memory, or null when it is paged
+     */
+    private final Chunk[] chunks;
+    private final ChunkPager pager;
+    private final OwnershipIndex ownership;
+    private final TerritoryIndex territories;
+    private final YieldIndex yields;
+
+    /**
+     * Players that have owned a plot in this store; a player's owner id is its index plus one
+     */
+    private final ArrayList<Player> owners = new ArrayList<Player>();
+
+    private final CopyOnWriteArrayList<PlotListener> listeners = new CopyOnWriteArrayList<PlotListener>();
+
+    private TiledMapTileLayer mapLayer;
+    private TiledMapTileLayer playerOverlay;
+    private TiledMapTileLayer roboticonOverlay;
+
+    private volatile ChunkInitialiser initialiser;
+
+    /**
+     * Notified whenever a plot's owner, roboticon or production modifiers change.
+     */
+    public interface PlotListener {
+        /**
+         * @param x The x index of the plot that changed.
+         * @param y The y index of the plot that changed.
+         */
+        void plotChanged(int x, int y);
+
+        /**
+         * Called once a paged store has filled in a rectangle of plots on first use.
+         *
+         * @param x0 First plot column.
+         * @param y0 First plot row.
+         * @param x1 Last plot column, exclusive.
+         * @param y1 Last plot row, exclusive.
+         */
+        void plotsFilled(int x0, int y0, int x1, int y1);
+    }
+
+    /**
+     * Fills in the plots of a paged store's chunk the first time it is used.
+     */
+    public interface ChunkInitialiser {
+        /**
+         * Write the yields and terrain of every plot in a rectangle, through {@link #setYields} and
+         * {@link #setTerrain}. Called on whichever thread first uses the chunk.
+         *
+         * @param x0 First plot column.
+         * @param y0 First plot row.
+         * @param x1 Last plot column, exclusive.
+         * @param y1 Last plot row, exclusive.
+         */
+        void initialise(int x0, int y0, int x1, int y1);
+    }
+
+    /**
+     * One square of the map. Every array is indexed by the plot's position within the chunk.
+     */
+    static final class Chunk {
+        final int stride;
+
+        /**
+         * Base yields and production modifiers, indexed [ Ore, Energy, Food ][ plot ]
+         */
+        final short[][] yields;
+        final int[][] modifiers;
+
+        /**
+         * Effective production of each plot, indexed [ Ore, Energy, Food ][ plot ]: what it yields its owner each
+         * turn, which is zero until a roboticon is installed. Kept up to date by {@link #refreshOutput}.
+         */
+        final int[][] output;
+
+        final byte[] owner;
+        final int[] roboticon;
+        final byte[] flags;
+
+        /**
+         * Number of edge-adjacent plots with the same owner, maintained by {@link AdjacencyBonus}
+         */
+        final byte[] neighbours;
+
+        /**
+         * Terrain of each plot, as a {@link TerrainType} ordinal
+         */
+        final byte[] terrain;
+
+        /**
+         * Number of pins keeping a paged chunk resident, guarded by the pager
+         */
+        int pins;
+
+        /**
+         * Set on a paged chunk that has never been written back and is still to be filled in by the initialiser.
+         * Only cleared once the fill has finished.
+         */
+        volatile boolean fresh;
+
+        /**
+         * The thread filling the chunk in, guarded by the chunk's monitor
+         */
+        Thread filling;
+
+        Chunk(int width, int height) {
+            int area = width * height;
+            stride = width;
+            yields = new short[3][area];
+            modifiers = new int[3][area];
+            output = new int[3][area];
+            owner = new byte[area];
+            roboticon = new int[area];
+            flags = new byte[area];
+            neighbours = new byte[area];
+            terrain = new byte[area];
+            Arrays.fill(terrain, (byte) TerrainType.GRASS.ordinal());
+        }
+    }
+
+    /**
+     * @param width  Width of the map in plots.
+     * @param height Height of the map in plots.
+     */
+    public PlotStore(int width, int height) {
+        this(width, height, null, 0);
+    }
+
+    private PlotStore(int width, int height, File pageFile, int maxResidentChunks) {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("Error: Plot store dimensions must be positive.");
+        }
+        this.width = width;
+        this.height = height;
+        this.chunksX = (width + CHUNK_MASK) >> CHUNK_SHIFT;
+        this.chunksY = (height + CHUNK_MASK) >> CHUNK_SHIFT;
+        if (pageFile == null) {
+            this.pager = null;
+            this.chunks = new Chunk[chunksX * chunksY];
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = createChunk(i);
+            }
+        } else {
+            this.chunks = null;
+            this.pager = new ChunkPager(this, chunksX * chunksY, pageFile, maxResidentChunks);
+        }
+        this.ownership = new OwnershipIndex(this);
+        this.territories = new TerritoryIndex(this);
+        this.yields = new YieldIndex(this, chunksX * chunksY);
+    }
+
+    /**
+     * Create a store that pages its chunks to a memory-mapped file, keeping at most [maxResidentChunks] of them
+     * on the heap. Call {@link #dispose} once the store is no longer needed.
+     *
+     * @param width             Width of the map in plots.
+     * @param height            Height of the map in plots.
+     * @param pageFile          The file to page to. Any contents are discarded.
+     * @param maxResidentChunks The most chunks to keep on the heap.
+     * @return The store.
+     */
+    public static PlotStore paged(int width, int height, File pageFile, int maxResidentChunks) {
+        return new PlotStore(width, height, pageFile, maxResidentChunks);
+    }
+
+    /**
+     * Delete page files in a directory that no paged store holds open, such as those left by a killed process.
+     *
+     * @param directory The directory the page files are created in.
+     * @param prefix    The start of the page files' names.
+     * @param suffix    The end of the page files' names.
+     * @return The number of files deleted.
+     */
+    public static int deleteStalePageFiles(File directory, String prefix, String suffix) {
+        return ChunkPager.deleteStale(directory, prefix, suffix);
+    }
+
+    /**
+     * Fill in each chunk of a paged store the first time it is used, rather than every chunk up front.
+     *
+     * @param initialiser Writes the plots of a chunk.
+     * @throws IllegalStateException If the store is not paged.
+     */
+    public void setInitialiser(ChunkInitialiser initialiser) {
+        if (pager == null) {
+            throw new IllegalStateException("Error: Only paged stores fill in their chunks as they are used.");
+        }
+        this.initialiser = initialiser;
+    }
+
+    /**
+     * @return True if the store pages its chunks to a file.
+     */
+    public boolean isPaged() {
+        return pager != null;
+    }
+
+    /**
+     * @return The number of chunks currently on the heap.
+     */
+    public int getResidentChunks() {
+        return pager == null ? chunks.length : pager.getResidentCount();
+    }
+
+    /**
+     * @return The number of chunks read ahead that have not been touched yet.
+     */
+    int getStagedChunks() {
+        return pager == null ? 0 : pager.getStagedCount();
+    }
+
+    /**
+     * Read the chunks covering a rectangle of plots, plus a margin of one chunk, ahead on a background thread.
+     * Does nothing unless the store is paged.
+     *
+     * @param x0 First plot column.
+     * @param y0 First plot row.
+     * @param x1 Last plot column, inclusive.
+     * @param y1 Last plot row, inclusive.
+     */
+    public void prefetch(int x0, int y0, int x1, int y1) {
+        if (pager == null) {
+            return;
+        }
+        int cx0 = Math.max(0, (Math.max(0, x0) >> CHUNK_SHIFT) - 1);
+        int cy0 = Math.max(0, (Math.max(0, y0) >> CHUNK_SHIFT) - 1);
+        int cx1 = Math.min(chunksX - 1, (Math.min(width - 1, x1) >> CHUNK_SHIFT) + 1);
+        int cy1 = Math.min(chunksY - 1, (Math.min(height - 1, y1) >> CHUNK_SHIFT) + 1);
+        // Reading ahead more than fits in memory would only evict what was just read
+        if (cx0 > cx1 || cy0 > cy1 || (cx1 - cx0 + 1) * (cy1 - cy0 + 1) > pager.getMaxResident()) {
+            return;
+        }
+        pager.prefetch(cx0, cy0, cx1, cy1);
+    }
+
+    /**
+     * Keep the chunk holding a plot resident until {@link #unpinChunk} is called, so a worker can fill it
+     * without it being paged out under it. Does nothing unless the store is paged.
+     */
+    public void pinChunk(int x, int y) {
+        checkBounds(x, y);
+        if (pager != null) {
+            pager.pin(chunkIndex(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT));
+        }
+    }
+
+    public void unpinChunk(int x, int y) {
+        checkBounds(x, y);
+        if (pager != null) {
+            pager.unpin(chunkIndex(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT));
+        }
+    }
+
+    /**
+     * Stop paging and close the page file. Does nothing unless the store is paged.
+     */
+    @Override
+    public void dispose() {
+        if (pager != null) {
+            pager.close();
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return True if the plot is inside the map.
+     */
+    public boolean contains(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    /**
+     * @return The number of plots in the store.
+     */
+    public int size() {
+        return width * height;
+    }
+
+    /**
+     * Attach the map layers whose cells the plot views hand out.
+     *
+     * @param mapLayer         The terrain layer.
+     * @param playerOverlay    The ownership overlay.
+     * @param roboticonOverlay The roboticon overlay.
+     */
+    public void attachLayers(TiledMapTileLayer mapLayer, TiledMapTileLayer playerOverlay,
+                             TiledMapTileLayer roboticonOverlay) {
+        this.mapLayer = mapLayer;
+        this.playerOverlay = playerOverlay;
+        this.roboticonOverlay = roboticonOverlay;
+    }
+
+    /**
+     * Get a view of the plot at a position.
+     *
+     * @param x The x index.
+     * @param y The y index.
+     * @return A view of the plot.
+     */
+    public LandPlot getPlot(int x, int y) {
+        checkBounds(x, y);
+        return new LandPlot(this, x, y);
+    }
+
+    /**
+     * Write a plot's base yields and mark it initialised.
+     *
+     * @param x      The x index.
+     * @param y      The y index.
+     * @param ore    Base amount of ore.
+     * @param energy Base amount of energy.
+     * @param food   Base amount of food.
+     */
+    public void setYields(int x, int y, int ore, int energy, int food) {
+        checkBounds(x, y);
+        short oreYield = toYield(ore);
+        short energyYield = toYield(energy);
+        short foodYield = toYield(food);
+        Chunk chunk = acquire(x, y);
+        try {
+            int i = localIndex(x, y);
+            chunk.yields[LandPlot.IndexOre][i] = oreYield;
+            chunk.yields[LandPlot.IndexEnergy][i] = energyYield;
+            chunk.yields[LandPlot.IndexFood][i] = foodYield;
+            chunk.flags[i] |= INITIALISED;
+            refreshOutput(chunk, i);
+        } finally {
+            release(x, y);
+        }
+        yields.markStale(chunkIndexOf(x, y));
+    }
+
+    /**
+     * Read a plot's base yield in place, without creating a view of the plot.
+     *
+     * @param x        The x index.
+     * @param y        The y index.
+     * @param resource The resource, one of ore, energy and food.
+     * @return The plot's base yield of the resource.
+     */
+    public int getYield(int x, int y, ResourceType resource) {
+        checkBounds(x, y);
+        return chunkAt(x, y).yields[LandPlot.resourceTypeToIndex(resource)][localIndex(x, y)];
+    }
+
+    /**
+     * Record the terrain a plot sits on.
+     *
+     * @param x       The x index.
+     * @param y       The y index.
+     * @param terrain The terrain.
+     */
+    public void setTerrain(int x, int y, TerrainType terrain) {
+        checkBounds(x, y);
+        Chunk chunk = acquire(x, y);
+        try {
+            chunk.terrain[localIndex(x, y)] = (byte) terrain.ordinal();
+        } finally {
+            release(x, y);
+        }
+    }
+
+    /**
+     * @param x The x index.
+     * @param y The y index.
+     * @return The terrain code of the plot, the ordinal of its {@link TerrainType}.
+     */
+    public byte getTerrainCode(int x, int y) {
+        checkBounds(x, y);
+        return chunkAt(x, y).terrain[localIndex(x, y)];
+    }
+
+    /**
+     * Read a plot's effective production in place, without creating a view of the plot.
+     *
+     * @param x        The x index.
+     * @param y        The y index.
+     * @param resource The resource, one of ore, energy and food.
+     * @return What the plot yields its owner of the resource each turn, zero unless a roboticon is installed.
+     */
+    public int getOutput(int x, int y, ResourceType resource) {
+        checkBounds(x, y);
+        return chunkAt(x, y).output[LandPlot.resourceTypeToIndex(resource)][localIndex(x, y)];
+    }
+
+    /**
+     * Read a plot's owner in place, without creating a view of the plot.
+     *
+     * @param x The x index.
+     * @param y The y index.
+     * @return The owner, or null if nobody owns the plot.
+     */
+    public Player getOwner(int x, int y) {
+        checkBounds(x, y);
+        return ownerOf(chunkAt(x, y).owner[localIndex(x, y)]);
+    }
+
+    /**
+     * Check whether a plot has been filled in, without filling it in. Every plot of a store held in memory has;
+     * a plot of a paged store has once its chunk has first been used.
+     *
+     * @param x The x index.
+     * @param y The y index.
+     * @return True if the plot's chunk has been filled in.
+     */
+    public boolean isFilled(int x, int y) {
+        checkBounds(x, y);
+        return pager == null || yields.covers(chunkIndexOf(x, y));
+    }
+
+    /**
+     * @param x The x index.
+     * @param y The y index.
+     * @return True if the plot's base yields have been written.
+     */
+    public boolean isInitialised(int x, int y) {
+        checkBounds(x, y);
+        return (chunkAt(x, y).flags[localIndex(x, y)] & INITIALISED) != 0;
+    }
+
+    /**
+     * @return The number of plots that have an owner.
+     */
+    public int countOwned() {
+        return ownership.countOwned();
+    }
+
+    /**
+     * @return The index of which plots each player owns and which are free.
+     */
+    public OwnershipIndex getOwnership() {
+        return ownership;
+    }
+
+    /**
+     * @return The index of each player's connected regions of plots.
+     */
+    public TerritoryIndex getTerritories() {
+        return territories;
+    }
+
+    /**
+     * @return The index of the best yields among each chunk's free plots.
+     */
+    public YieldIndex getYieldIndex() {
+        return yields;
+    }
+
+    public void addListener(PlotListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(PlotListener listener) {
+        listeners.remove(listener);
+    }
+
+    void firePlotChanged(int x, int y) {
+        for (PlotListener listener : listeners) {
+            listener.plotChanged(x, y);
+        }
+    }
+
+    /**
+     * A plot's production of one resource, whether or not a roboticon is installed:
+     * modifier * (base yield + same-owner neighbours * bonus).
+     */
+    static int produced(Chunk chunk, int slot, int index) {
+        int bonus = chunk.neighbours[slot] * AdjacencyBonus.BONUS_PER_NEIGHBOUR;
+        return (chunk.yields[index][slot] + bonus) * chunk.modifiers[index][slot];
+    }
+
+    private static int output(Chunk chunk, int slot, int index) {
+        return (chunk.flags[slot] & HAS_ROBOTICON) == 0 ? 0 : produced(chunk, slot, index);
+    }
+
+    /**
+     * Recompute a plot's cached effective production after its yields, modifiers, neighbours or roboticon changed,
+     * posting the difference to its owner's production.
+     */
+    void refreshOutput(Chunk chunk, int slot) {
+        int ore = output(chunk, slot, LandPlot.IndexOre) - chunk.output[LandPlot.IndexOre][slot];
+        int energy = output(chunk, slot, LandPlot.IndexEnergy) - chunk.output[LandPlot.IndexEnergy][slot];
+        int food = output(chunk, slot, LandPlot.IndexFood) - chunk.output[LandPlot.IndexFood][slot];
+        if (ore == 0 && energy == 0 && food == 0) {
+            return;
+        }
+        chunk.output[LandPlot.IndexOre][slot] += ore;
+        chunk.output[LandPlot.IndexEnergy][slot] += energy;
+        chunk.output[LandPlot.IndexFood][slot] += food;
+
+        Player owner = ownerOf(chunk.owner[slot]);
+        if (owner != null) {
+            owner.adjustProduction(food, energy, ore);
+        }
+    }
+
+    /**
+     * Fill in the cached effective production of every plot in a chunk read back from a page file.
+     */
+    static void computeOutput(Chunk chunk) {
+        for (int index = 0; index < chunk.output.length; index++) {
+            for (int slot = 0; slot < chunk.owner.length; slot++) {
+                chunk.output[index][slot] = output(chunk, slot, index);
+            }
+        }
+    }
+
+    private static short toYield(int amount) {
+        if (amount < 0 || amount > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Error: Base yield " + amount + " is out of range.");
+        }
+        return (short) amount;
+    }
+
+    /**
+     * Get the id a player is stored under, registering the player on first use.
+     */
+    synchronized byte ownerId(Player player) {
+        int index = owners.indexOf(player);
+        if (index < 0) {
+            if (owners.size() == Byte.MAX_VALUE) {
+                throw new IllegalStateException("Error: Too many plot owners.");
+            }
+            owners.add(player);
+            index = owners.size() - 1;
+        }
+        return (byte) (index + 1);
+    }
+
+    /**
+     * @return The player's owner id, or NO_OWNER if the player has never owned a plot of this store.
+     */
+    synchronized byte findOwnerId(Player player) {
+        return (byte) (owners.indexOf(player) + 1);
+    }
+
+    synchronized Player ownerOf(byte id) {
+        return id == NO_OWNER ? null : owners.get(id - 1);
+    }
+
+    TiledMapTileLayer getMapLayer() {
+        return mapLayer;
+    }
+
+    TiledMapTileLayer getPlayerOverlay() {
+        return playerOverlay;
+    }
+
+    TiledMapTileLayer getRoboticonOverlay() {
+        return roboticonOverlay;
+    }
+
+    /**
+     * Get the chunk holding a plot for reading. A paged chunk may be written out once this returns, so use
+     * {@link #acquire} to write to it.
+     */
+    Chunk chunkAt(int x, int y) {
+        return chunk(chunkIndexOf(x, y));
+    }
+
+    /**
+     * Get a chunk by its index for reading, as {@link #chunkAt}.
+     */
+    Chunk chunk(int index) {
+        if (pager == null) {
+            return chunks[index];
+        }
+        Chunk chunk = pager.get(index);
+        return chunk.fresh ? initialise(index) : chunk;
+    }
+
+    /**
+     * Get the chunk holding a plot for writing, keeping a paged chunk resident until {@link #release} is called so
+     * the writes can't be lost to another thread paging it out.
+     */
+    Chunk acquire(int x, int y) {
+        int index = chunkIndexOf(x, y);
+        if (pager == null) {
+            return chunks[index];
+        }
+        Chunk chunk = pager.pin(index);
+        if (chunk.fresh) {
+            boolean filled = false;
+            try {
+                initialise(index);
+                filled = true;
+            } finally {
+                if (!filled) {
+                    pager.unpin(index);
+                }
+            }
+        }
+        return chunk;
+    }
+
+    void release(int x, int y) {
+        if (pager != null) {
+            pager.unpin(chunkIndexOf(x, y));
+        }
+    }
+
+    /**
+     * Fill in a paged chunk on first use. The chunk is pinned and its monitor held meanwhile, and it stays fresh
+     * until the fill has finished, so other threads wait for the fill rather than reading empty plots. The
+     * initialiser's own writes come back here on the filling thread and return straight away.
+     *
+     * @return The filled chunk, which is the one resident until it is next written out.
+     */
+    private Chunk initialise(int index) {
+        // Pinned before it is filled, so the chunk filled is the one the initialiser's writes reach
+        Chunk chunk = pager.pin(index);
+        try {
+            synchronized (chunk) {
+                if (!chunk.fresh || chunk.filling == Thread.currentThread()) {
+                    return chunk;
+                }
+                int x0 = (index % chunksX) << CHUNK_SHIFT;
+                int y0 = (index / chunksX) << CHUNK_SHIFT;
+                int x1 = x0 + chunk.stride;
+                int y1 = y0 + chunk.owner.length / chunk.stride;
+                ChunkInitialiser filler = initialiser;
+                if (filler != null) {
+                    chunk.filling = Thread.currentThread();
+                    try {
+                        filler.initialise(x0, y0, x1, y1);
+                    } finally {
+                        chunk.filling = null;
+                    }
+                }
+                chunk.fresh = false;
+                yields.summarise(index, chunk);
+                for (PlotListener listener : listeners) {
+                    listener.plotsFilled(x0, y0, x1, y1);
+                }
+                return chunk;
+            }
+        } finally {
+            pager.unpin(index);
+        }
+    }
+
+    int chunkIndex(int cx, int cy) {
+        return cy * chunksX + cx;
+    }
+
+    int chunkIndexOf(int x, int y) {
+        return chunkIndex(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT);
+    }
+
+    /**
+     * @return The id, y * width + x, of the plot in a slot of a chunk.
+     */
+    int plotId(int index, Chunk chunk, int slot) {
+        int x = ((index % chunksX) << CHUNK_SHIFT) + slot % chunk.stride;
+        int y = ((index / chunksX) << CHUNK_SHIFT) + slot / chunk.stride;
+        return y * width + x;
+    }
+
+    /**
+     * Create an empty chunk sized for its place in the map.
+     */
+    Chunk createChunk(int index) {
+        int cx = index % chunksX;
+        int cy = index / chunksX;
+        return new Chunk(Math.min(CHUNK_SIZE, width - (cx << CHUNK_SHIFT)),
+                Math.min(CHUNK_SIZE, height - (cy << CHUNK_SHIFT)));
+    }
+
+    int localIndex(int x, int y) {
+        int stride = Math.min(CHUNK_SIZE, width - (x & ~CHUNK_MASK));
+        return (y & CHUNK_MASK) * stride + (x & CHUNK_MASK);
+    }
+
+    private void checkBounds(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException("Error: Plot (" + x + ", " + y + ") is outside the map.");
+        }
+    }
+}
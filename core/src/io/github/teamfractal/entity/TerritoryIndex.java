@@ -0,0 +1,240 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+
+import java.util.Arrays;
+
+/**
+ * Each player's territories: the connected regions of plots they own, joined across the edges of the staggered
+ * isometric grid as in {@link AdjacencyBonus}.
+ * <p>
+ * Owned plots are kept in a union-find with union by size and path halving, so claiming a plot only merges it with
+ * its same-owner neighbours and every query is near O(1). Union-find cannot split a region, so releasing a plot
+ * marks its owner stale and that owner's regions are rebuilt from its remaining plots on the next query. Only owned
+ * plots are held, so the index grows with the number of owned plots rather than the area of the map. The index is
+ * updated by {@link LandPlot#setOwner} and {@link LandPlot#removeOwner} while they hold the plot's chunk.
+ * </p>
+ */
+public class TerritoryIndex {
+
+    private static final int OWNERS = Byte.MAX_VALUE + 1;
+
+    private final PlotStore store;
+
+    /**
+     * Slot of each owned plot, keyed by plot id
+     */
+    private final IntIntMap slots = new IntIntMap();
+
+    /**
+     * Per slot: union-find parent, region size (valid at roots), plot id and owner id, or NO_OWNER if unused
+     */
+    private int[] parent = new int[16];
+    private int[] size = new int[16];
+    private int[] plotId = new int[16];
+    private byte[] owner = new byte[16];
+    private int used;
+    private final IntArray freeSlots = new IntArray();
+
+    /**
+     * Per owner id: number of regions, size of the largest and whether a release has invalidated both
+     */
+    private final int[] territories = new int[OWNERS];
+    private final int[] largest = new int[OWNERS];
+    private final boolean[] stale = new boolean[OWNERS];
+
+    TerritoryIndex(PlotStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Record that a plot now belongs to an owner, merging it with its same-owner neighbours.
+     */
+    synchronized void claim(int id, byte owner) {
+        int slot = allocate(id, owner);
+        if (stale[owner]) {
+            // The whole owner is rebuilt on its next query anyway
+            return;
+        }
+        territories[owner]++;
+        largest[owner] = Math.max(largest[owner], 1);
+        joinNeighbours(slot);
+    }
+
+    /**
+     * Record that an owned plot is free again.
+     */
+    synchronized void release(int id, byte owner) {
+        int slot = slots.remove(id, -1);
+        if (slot < 0) {
+            return;
+        }
+        this.owner[slot] = PlotStore.NO_OWNER;
+        freeSlots.add(slot);
+        stale[owner] = true;
+    }
+
+    private int allocate(int id, byte owner) {
+        int slot;
+        if (freeSlots.size > 0) {
+            slot = freeSlots.pop();
+        } else {
+            if (used == parent.length) {
+                int capacity = used * 2;
+                parent = Arrays.copyOf(parent, capacity);
+                size = Arrays.copyOf(size, capacity);
+                plotId = Arrays.copyOf(plotId, capacity);
+                this.owner = Arrays.copyOf(this.owner, capacity);
+            }
+            slot = used++;
+        }
+        parent[slot] = slot;
+        size[slot] = 1;
+        plotId[slot] = id;
+        this.owner[slot] = owner;
+        slots.put(id, slot);
+        return slot;
+    }
+
+    /**
+     * Union a slot with the slots of its edge-adjacent plots that have the same owner.
+     */
+    private void joinNeighbours(int slot) {
+        int width = store.getWidth();
+        int x = plotId[slot] % width;
+        int y = plotId[slot] / width;
+        for (int direction = 0; direction < AdjacencyBonus.DIRECTIONS; direction++) {
+            int nx = AdjacencyBonus.neighbourX(x, y, direction);
+            int ny = AdjacencyBonus.neighbourY(y, direction);
+            if (store.contains(nx, ny)) {
+                int neighbour = slots.get(ny * width + nx, -1);
+                if (neighbour >= 0 && owner[neighbour] == owner[slot]) {
+                    union(slot, neighbour);
+                }
+            }
+        }
+    }
+
+    private int find(int slot) {
+        while (parent[slot] != slot) {
+            parent[slot] = parent[parent[slot]];
+            slot = parent[slot];
+        }
+        return slot;
+    }
+
+    private void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return;
+        }
+        if (size[rootA] < size[rootB]) {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parent[rootB] = rootA;
+        size[rootA] += size[rootB];
+
+        byte id = owner[rootA];
+        territories[id]--;
+        largest[id] = Math.max(largest[id], size[rootA]);
+    }
+
+    /**
+     * Rebuild every region of an owner from scratch, after a release split or shrank one.
+     */
+    private void rebuild(byte id) {
+        stale[id] = false;
+        territories[id] = 0;
+        largest[id] = 0;
+        for (int slot = 0; slot < used; slot++) {
+            if (owner[slot] == id) {
+                parent[slot] = slot;
+                size[slot] = 1;
+                territories[id]++;
+                largest[id] = 1;
+            }
+        }
+        for (int slot = 0; slot < used; slot++) {
+            if (owner[slot] == id) {
+                joinNeighbours(slot);
+            }
+        }
+    }
+
+    /**
+     * Get a player's owner id with its regions up to date, or NO_OWNER if the player has never owned a plot.
+     */
+    private byte freshOwner(Player player) {
+        byte id = store.findOwnerId(player);
+        if (id != PlotStore.NO_OWNER && stale[id]) {
+            rebuild(id);
+        }
+        return id;
+    }
+
+    /**
+     * @param player The player.
+     * @return The number of separate regions the player owns.
+     */
+    public synchronized int countTerritories(Player player) {
+        byte id = freshOwner(player);
+        return id == PlotStore.NO_OWNER ? 0 : territories[id];
+    }
+
+    /**
+     * @param player The player.
+     * @return The number of plots in the player's largest region, or 0 if they own none.
+     */
+    public synchronized int largestTerritory(Player player) {
+        byte id = freshOwner(player);
+        return id == PlotStore.NO_OWNER ? 0 : largest[id];
+    }
+
+    /**
+     * @param x The x index of the plot.
+     * @param y The y index of the plot.
+     * @return The number of plots in the region the plot belongs to, or 0 if nobody owns it.
+     */
+    public synchronized int territorySize(int x, int y) {
+        int slot = slotAt(x, y);
+        if (slot < 0) {
+            return 0;
+        }
+        if (stale[owner[slot]]) {
+            rebuild(owner[slot]);
+        }
+        return size[find(slot)];
+    }
+
+    /**
+     * @return True if both plots are owned and belong to the same region.
+     */
+    public synchronized boolean sameTerritory(int x1, int y1, int x2, int y2) {
+        int a = slotAt(x1, y1);
+        int b = slotAt(x2, y2);
+        if (a < 0 || b < 0 || owner[a] != owner[b]) {
+            return false;
+        }
+        if (stale[owner[a]]) {
+            rebuild(owner[a]);
+        }
+        return find(a) == find(b);
+    }
+
+    private int slotAt(int x, int y) {
+        if (!store.contains(x, y)) {
+            throw new IndexOutOfBoundsException("Error: Plot (" + x + ", " + y + ") is outside the map.");
+        }
+        return slots.get(y * store.getWidth() + x, -1);
+    }
+}
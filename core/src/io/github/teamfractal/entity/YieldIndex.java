@@ -0,0 +1,225 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity;
+
+import com.badlogic.gdx.utils.IntArray;
+import io.github.teamfractal.entity.enums.ResourceType;
+
+import java.util.Arrays;
+
+/**
+ * The best base yield of each resource among the free plots of every chunk of a {@link PlotStore}.
+ * <p>
+ * Each resource has a max tree over the chunks, so the free plot with the highest yield is found by descending to
+ * the best chunk and scanning only that chunk, rather than the whole map. A chunk is summarised when it is filled
+ * in, and again on the next query after one of its plots is claimed or has its yields rewritten; releasing a plot
+ * can only raise its chunk's best, so that is applied in place. Chunks of a paged store that have never been used
+ * are not summarised, so on a paged map the index only covers the parts of the map that have been played on. The
+ * index holds a few ints per chunk, so it stays small however large the map is.
+ * </p>
+ */
+public class YieldIndex {
+
+    private static final int RESOURCES = 3;
+
+    /**
+     * Value of a chunk with no free plot, or not summarised yet
+     */
+    private static final int NONE = -1;
+
+    private final PlotStore store;
+    private final int leaves;
+
+    /**
+     * Max trees indexed [ Ore, Energy, Food ][ node ]; node 1 is the root and chunk i is leaf node leaves + i
+     */
+    private final int[][] tree;
+
+    /**
+     * Chunks the index covers, and the ones whose summary is out of date. Both are read without the lock so the
+     * store's writes only take it when a flag actually changes, and stale flags are only cleared under it.
+     */
+    private final boolean[] known;
+    private final boolean[] stale;
+    private final IntArray staleChunks = new IntArray();
+    private int knownCount;
+
+    YieldIndex(PlotStore store, int chunkCount) {
+        this.store = store;
+        int size = 1;
+        while (size < chunkCount) {
+            size <<= 1;
+        }
+        this.leaves = size;
+        this.tree = new int[RESOURCES][2 * leaves];
+        for (int[] nodes : tree) {
+            Arrays.fill(nodes, NONE);
+        }
+        this.known = new boolean[chunkCount];
+        this.stale = new boolean[chunkCount];
+        if (!store.isPaged()) {
+            // Chunks held in memory are all filled in before play starts, so each is summarised on the first query
+            Arrays.fill(known, true);
+            knownCount = chunkCount;
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                markStale(chunk);
+            }
+        }
+    }
+
+    /**
+     * @return True if a chunk has been filled in and is covered by the index.
+     */
+    boolean covers(int chunk) {
+        return known[chunk];
+    }
+
+    /**
+     * @return True if every chunk is covered, as it always is for a store held in memory.
+     */
+    public synchronized boolean isComplete() {
+        return knownCount == known.length;
+    }
+
+    /**
+     * Find a free plot with the highest base yield of a resource, among the chunks the index covers.
+     *
+     * @param resource The resource, one of ore, energy and food.
+     * @return The id of the plot, or -1 if no covered chunk has a free plot.
+     */
+    public int bestFree(ResourceType resource) {
+        int index = LandPlot.resourceTypeToIndex(resource);
+        while (true) {
+            refresh();
+            int chunk;
+            int best;
+            synchronized (this) {
+                if (staleChunks.size > 0) {
+                    // Changed while the others were being summarised
+                    continue;
+                }
+                int[] nodes = tree[index];
+                best = nodes[1];
+                if (best == NONE) {
+                    return -1;
+                }
+                int node = 1;
+                while (node < leaves) {
+                    node = nodes[2 * node] == best ? 2 * node : 2 * node + 1;
+                }
+                chunk = node - leaves;
+            }
+
+            PlotStore.Chunk data = store.chunk(chunk);
+            short[] yields = data.yields[index];
+            for (int slot = 0; slot < yields.length; slot++) {
+                if (yields[slot] == best && data.owner[slot] == PlotStore.NO_OWNER) {
+                    return store.plotId(chunk, data, slot);
+                }
+            }
+            // Claimed since the chunk was summarised
+            markStale(chunk);
+        }
+    }
+
+    /**
+     * Summarise every stale chunk, reading the chunks without holding the lock.
+     */
+    private void refresh() {
+        int[] pending;
+        synchronized (this) {
+            if (staleChunks.size == 0) {
+                return;
+            }
+            pending = staleChunks.toArray();
+            staleChunks.clear();
+        }
+        for (int chunk : pending) {
+            if (stale[chunk]) {
+                summarise(chunk, store.chunk(chunk));
+            }
+        }
+    }
+
+    /**
+     * Record that a covered chunk's yields or free plots may have changed, so it is summarised on the next query.
+     */
+    void markStale(int chunk) {
+        if (!known[chunk] || stale[chunk]) {
+            return;
+        }
+        synchronized (this) {
+            if (!stale[chunk]) {
+                stale[chunk] = true;
+                staleChunks.add(chunk);
+            }
+        }
+    }
+
+    /**
+     * Recompute a chunk's best free yields from its plots, adding it to the chunks the index covers.
+     */
+    synchronized void summarise(int chunk, PlotStore.Chunk data) {
+        stale[chunk] = false;
+        if (!known[chunk]) {
+            known[chunk] = true;
+            knownCount++;
+        }
+        for (int index = 0; index < RESOURCES; index++) {
+            short[] yields = data.yields[index];
+            int best = NONE;
+            for (int slot = 0; slot < yields.length; slot++) {
+                if (yields[slot] > best && data.owner[slot] == PlotStore.NO_OWNER) {
+                    best = yields[slot];
+                }
+            }
+            set(index, chunk, best);
+        }
+    }
+
+    /**
+     * Record that a plot has been claimed, marking its chunk stale if the plot may have been one of its best.
+     */
+    void claimed(int chunk, PlotStore.Chunk data, int slot) {
+        synchronized (this) {
+            if (!known[chunk] || stale[chunk]) {
+                return;
+            }
+            boolean best = false;
+            for (int index = 0; index < RESOURCES; index++) {
+                best |= data.yields[index][slot] >= tree[index][leaves + chunk];
+            }
+            if (!best) {
+                return;
+            }
+        }
+        markStale(chunk);
+    }
+
+    /**
+     * Record that a plot is free again, raising its chunk's best yields.
+     */
+    synchronized void released(int chunk, PlotStore.Chunk data, int slot) {
+        if (!known[chunk]) {
+            return;
+        }
+        for (int index = 0; index < RESOURCES; index++) {
+            if (data.yields[index][slot] > tree[index][leaves + chunk]) {
+                set(index, chunk, data.yields[index][slot]);
+            }
+        }
+    }
+
+    private void set(int index, int chunk, int value) {
+        int[] nodes = tree[index];
+        int node = leaves + chunk;
+        nodes[node] = value;
+        for (node >>= 1; node > 0; node >>= 1) {
+            nodes[node] = Math.max(nodes[2 * node], nodes[2 * node + 1]);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity.enums;
+
+/**
+ * The possible outcomes of a single gamble.
+ */
+public enum GambleOutcome {
+	WIN,
+	DRAW,
+	LOSS
+}
@@ -0,0 +1,23 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity.enums;
+
+/**
+ * Why a transfer was recorded in the {@link io.github.teamfractal.entity.ledger.Ledger}.
+ */
+public enum LedgerReason {
+	OPENING,
+	ADJUSTMENT,
+	TRADE,
+	LAND,
+	PRODUCTION,
+	EFFECT,
+	CHANCELLOR,
+	GAMBLE,
+	MANUFACTURE,
+	CLAMP
+}
@@ -0,0 +1,41 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity.enums;
+
+/**
+ * The kinds of terrain a land plot can sit on, with the base yields each one gives.
+ * A plot's yield of each resource is its terrain's base plus a random bonus.
+ */
+public enum TerrainType {
+	CITY(1, 2, 3),
+	FOREST(2, 3, 1),
+	WATER(3, 1, 2),
+	HILL(3, 2, 1),
+	GRASS(2, 2, 2);
+
+	private final int baseOre;
+	private final int baseEnergy;
+	private final int baseFood;
+
+	TerrainType(int baseOre, int baseEnergy, int baseFood) {
+		this.baseOre = baseOre;
+		this.baseEnergy = baseEnergy;
+		this.baseFood = baseFood;
+	}
+
+	public int getBaseOre() {
+		return baseOre;
+	}
+
+	public int getBaseEnergy() {
+		return baseEnergy;
+	}
+
+	public int getBaseFood() {
+		return baseFood;
+	}
+}
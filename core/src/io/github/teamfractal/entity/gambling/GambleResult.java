@@ -0,0 +1,51 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity.gambling;
+
+import io.github.teamfractal.entity.enums.GambleOutcome;
+
+/**
+ * The outcome of a single settled gamble.
+ */
+public class GambleResult {
+    private final int playerRoll;
+    private final int houseRoll;
+    private final int stake;
+    private final int moneyChange;
+    private final GambleOutcome outcome;
+
+    public GambleResult(int playerRoll, int houseRoll, int stake, int moneyChange, GambleOutcome outcome) {
+        this.playerRoll = playerRoll;
+        this.houseRoll = houseRoll;
+        this.stake = stake;
+        this.moneyChange = moneyChange;
+        this.outcome = outcome;
+    }
+
+    public int getPlayerRoll() {
+        return playerRoll;
+    }
+
+    public int getHouseRoll() {
+        return houseRoll;
+    }
+
+    public int getStake() {
+        return stake;
+    }
+
+    /**
+     * @return The change to the player's money: positive on a win, negative on a loss, zero on a draw.
+     */
+    public int getMoneyChange() {
+        return moneyChange;
+    }
+
+    public GambleOutcome getOutcome() {
+        return outcome;
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity.gambling;
+
+import io.github.teamfractal.entity.enums.GambleOutcome;
+
+/**
+ * Running gambling statistics, kept as primitive counters.
+ */
+public class GambleStatistics {
+    private int gambles;
+    private int wins;
+    private int draws;
+    private int losses;
+    private int moneyWon;
+    private int moneyLost;
+
+    /**
+     * Count a settled gamble.
+     *
+     * @param result The gamble's result.
+     */
+    public void record(GambleResult result) {
+        record(result.getOutcome(), result.getMoneyChange());
+    }
+
+    /**
+     * Count a settled gamble.
+     *
+     * @param outcome     The gamble's outcome.
+     * @param moneyChange The change to the player's money.
+     */
+    void record(GambleOutcome outcome, int moneyChange) {
+        gambles++;
+        switch (outcome) {
+            case WIN:
+                wins++;
+                moneyWon += moneyChange;
+                break;
+            case LOSS:
+                losses++;
+                moneyLost -= moneyChange;
+                break;
+            default:
+                draws++;
+                break;
+        }
+    }
+
+    /**
+     * Clear every counter.
+     */
+    public void reset() {
+        gambles = 0;
+        wins = 0;
+        draws = 0;
+        losses = 0;
+        moneyWon = 0;
+        moneyLost = 0;
+    }
+
+    public int getGambles() {
+        return gambles;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public int getDraws() {
+        return draws;
+    }
+
+    public int getLosses() {
+        return losses;
+    }
+
+    public int getMoneyWon() {
+        return moneyWon;
+    }
+
+    public int getMoneyLost() {
+        return moneyLost;
+    }
+
+    /**
+     * @return The number of wins minus the number of losses.
+     */
+    public int getWinLoss() {
+        return wins - losses;
+    }
+
+    /**
+     * @return The money won minus the money lost.
+     */
+    public int getNet() {
+        return moneyWon - moneyLost;
+    }
+}
@@ -0,0 +1,208 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity.gambling;
+
+import io.github.teamfractal.entity.Player;
+import io.github.teamfractal.entity.enums.GambleOutcome;
+
+import java.util.Random;
+
+/**
+ * Owns the rules of the pub's dice game and settles gambles against players.
+ * <p>
+ * The player and the house each roll a die; the higher roll wins and a draw returns the stake. A win pays the
+ * stake times the payout multiplier, a loss forfeits the stake. Outcome probabilities and the expected value of
+ * every stake the AI considers are worked out once, in closed form, when the engine is created.
+ * </p>
+ */
+public class GamblingEngine {
+
+    /**
+     * Stakes the AI chooses between
+     */
+    public static final int[] AI_STAKES = {10, 25, 50, 100, 200};
+
+    /**
+     * Tolerance on expected values, so a fair game isn't refused over floating point rounding
+     */
+    private static final double EPSILON = 1e-9;
+
+    private final int playerDieSides;
+    private final int houseDieSides;
+    private final float payout;
+    private final Random random;
+
+    private final double winProbability;
+    private final double drawProbability;
+    private final double lossProbability;
+
+    /**
+     * Expected money change for each of {@link #AI_STAKES}
+     */
+    private final double[] stakeExpectedValues = new double[AI_STAKES.length];
+
+    /**
+     * Create an engine with the standard rules: two six-sided dice, paying even money.
+     */
+    public GamblingEngine() {
+        this(6, 6, 1f, new Random());
+    }
+
+    /**
+     * Create an engine with custom rules.
+     *
+     * @param playerDieSides Number of sides on the player's die.
+     * @param houseDieSides  Number of sides on the house's die.
+     * @param payout         Multiple of the stake paid out on a win.
+     * @param random         Source of the dice rolls.
+     */
+    public GamblingEngine(int playerDieSides, int houseDieSides, float payout, Random random) {
+        if (playerDieSides < 1 || houseDieSides < 1) {
+            throw new IllegalArgumentException("Error: Dice must have at least one side.");
+        }
+        if (payout < 0) {
+            throw new IllegalArgumentException("Error: Payout can't be negative.");
+        }
+        this.playerDieSides = playerDieSides;
+        this.houseDieSides = houseDieSides;
+        this.payout = payout;
+        this.random = random;
+
+        // The player wins a roll of p against any of the min(p - 1, houseDieSides) lower house rolls
+        long winningPairs = 0;
+        for (int p = 1; p <= playerDieSides; p++) {
+            winningPairs += Math.min(p - 1, houseDieSides);
+        }
+        double pairs = (double) playerDieSides * houseDieSides;
+        winProbability = winningPairs / pairs;
+        drawProbability = Math.min(playerDieSides, houseDieSides) / pairs;
+        lossProbability = 1 - winProbability - drawProbability;
+
+        for (int i = 0; i < AI_STAKES.length; i++) {
+            stakeExpectedValues[i] = expectedValue(AI_STAKES[i]);
+        }
+    }
+
+    public double getWinProbability() {
+        return winProbability;
+    }
+
+    public double getDrawProbability() {
+        return drawProbability;
+    }
+
+    public double getLossProbability() {
+        return lossProbability;
+    }
+
+    /**
+     * Get the expected money change of a single gamble.
+     *
+     * @param stake The amount staked.
+     * @return The expected value.
+     */
+    public double expectedValue(int stake) {
+        return winProbability * winnings(stake) - lossProbability * stake;
+    }
+
+    /**
+     * Pick the stake the AI should place, from the precomputed expected value table.
+     *
+     * @param budget The most the AI is willing to risk.
+     * @return The largest stake within budget that is not expected to lose money, or 0 if there is none.
+     */
+    public int chooseAIStake(int budget) {
+        for (int i = AI_STAKES.length - 1; i >= 0; i--) {
+            if (AI_STAKES[i] <= budget && stakeExpectedValues[i] >= -EPSILON) {
+                return AI_STAKES[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Play a single gamble for a player, settling the result against their money and statistics.
+     *
+     * @param player The player gambling.
+     * @param stake  The amount staked.
+     * @return The result of the gamble.
+     * @throws IllegalArgumentException If the stake is not positive or the player can't afford it.
+     */
+    public GambleResult gamble(Player player, int stake) throws IllegalArgumentException {
+        checkStake(player, stake);
+        int playerRoll = random.nextInt(playerDieSides) + 1;
+        int houseRoll = random.nextInt(houseDieSides) + 1;
+        GambleOutcome outcome = outcomeOf(playerRoll, houseRoll);
+        int moneyChange = settle(player, stake, outcome);
+        return new GambleResult(playerRoll, houseRoll, stake, moneyChange, outcome);
+    }
+
+    /**
+     * Play several gambles in a row at the same stake, stopping early if the player can no longer cover it.
+     *
+     * @param player The player gambling.
+     * @param stake  The amount staked on each roll.
+     * @param rolls  The number of rolls to play.
+     * @return The total change to the player's money.
+     * @throws IllegalArgumentException If the stake is not positive or the player can't afford it.
+     */
+    public int playSession(Player player, int stake, int rolls) throws IllegalArgumentException {
+        checkStake(player, stake);
+        int total = 0;
+        for (int i = 0; i < rolls && stake <= player.getMoney(); i++) {
+            int playerRoll = random.nextInt(playerDieSides) + 1;
+            int houseRoll = random.nextInt(houseDieSides) + 1;
+            total += settle(player, stake, outcomeOf(playerRoll, houseRoll));
+        }
+        return total;
+    }
+
+    private void checkStake(Player player, int stake) {
+        if (stake < 1) {
+            throw new IllegalArgumentException("Error: Stake must be positive.");
+        }
+        if (stake > player.getMoney()) {
+            throw new IllegalArgumentException("Error: Player can't afford the stake.");
+        }
+    }
+
+    private static GambleOutcome outcomeOf(int playerRoll, int houseRoll) {
+        if (playerRoll > houseRoll) {
+            return GambleOutcome.WIN;
+        }
+        return playerRoll == houseRoll ? GambleOutcome.DRAW : GambleOutcome.LOSS;
+    }
+
+    private int winnings(int stake) {
+        return (int) (stake * payout);
+    }
+
+    /**
+     * Apply an outcome to the player's money and statistics.
+     *
+     * @return The change to the player's money.
+     */
+    private int settle(Player player, int stake, GambleOutcome outcome) {
+        int moneyChange;
+        switch (outcome) {
+            case WIN:
+                moneyChange = winnings(stake);
+                break;
+            case LOSS:
+                moneyChange = -stake;
+                break;
+            default:
+                moneyChange = 0;
+                break;
+        }
+        if (moneyChange != 0) {
+            player.setGamblingMoney(player.getMoney() + moneyChange);
+        }
+        player.getGambleStatistics().record(outcome, moneyChange);
+        return moneyChange;
+    }
+}
@@ -0,0 +1,323 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity.ledger;
+
+import io.github.teamfractal.entity.enums.LedgerReason;
+import io.github.teamfractal.entity.enums.ResourceType;
+
+import java.util.ArrayList;
+
+/**
+ * Append-only double-entry journal of every transfer of money and resources in a game.
+ * <p>
+ * Each entry moves an amount of one asset from one account to another. Entries are packed into fixed-size
+ * chunks of primitive arrays; balances and per-reason totals are kept as running sums, so every query is O(1).
+ * Once more than a set number of chunks are held, the oldest chunk is folded into the opening balances and
+ * its arrays are reused, which bounds the memory used by long simulations.
+ * </p>
+ * <p>
+ * Fixed accounts: {@link #WORLD} is the source and sink of everything produced, granted or spent outside the
+ * economy; {@link #VOID} absorbs value destroyed when a balance is clamped to 0, so its balance is minus the
+ * total destroyed; {@link #HOUSE} is the pub's bank and {@link #MARKET} is the market's stock and till.
+ * </p>
+ */
+public class Ledger {
+
+    public static final int WORLD = 0;
+    public static final int VOID = 1;
+    public static final int HOUSE = 2;
+    public static final int MARKET = 3;
+
+    /**
+     * Asset index of money; resources use {@link #assetOf(ResourceType)}
+     */
+    public static final int ASSET_MONEY = 0;
+    public static final int ASSET_COUNT = 1 + ResourceType.values().length;
+
+    /**
+     * Account ids are packed two to an int
+     */
+    private static final int MAX_ACCOUNTS = 1 << 16;
+
+    private static final int CHUNK_SIZE = 4096;
+    private static final int DEFAULT_RETAINED_CHUNKS = 64;
+
+    private static final LedgerReason[] REASONS = LedgerReason.values();
+
+    /**
+     * A block of entries, stored as parallel primitive arrays
+     */
+    private static final class Chunk {
+        /**
+         * (from << 16) | to
+         */
+        final int[] accounts = new int[CHUNK_SIZE];
+        final int[] amounts = new int[CHUNK_SIZE];
+        /**
+         * (asset << 8) | reason
+         */
+        final short[] codes = new short[CHUNK_SIZE];
+    }
+
+    private final int maxRetainedChunks;
+    private final ArrayList<Chunk> chunks = new ArrayList<Chunk>();
+
+    /**
+     * Number of entries in the newest chunk
+     */
+    private int tail = CHUNK_SIZE;
+
+    private long compactedEntries;
+    private int accounts;
+
+    /**
+     * Indexed [account][asset]
+     */
+    private long[][] balances = new long[8][];
+    private long[][] openingBalances = new long[8][];
+
+    /**
+     * Total amount moved, indexed [reason][asset]
+     */
+    private final long[][] reasonTotals = new long[REASONS.length][ASSET_COUNT];
+
+    public Ledger() {
+        this(DEFAULT_RETAINED_CHUNKS);
+    }
+
+    /**
+     * @param maxRetainedChunks The number of chunks of entries kept before the oldest is compacted.
+     */
+    public Ledger(int maxRetainedChunks) {
+        if (maxRetainedChunks < 1) {
+            throw new IllegalArgumentException("Error: Ledger must retain at least one chunk.");
+        }
+        this.maxRetainedChunks = maxRetainedChunks;
+        for (int i = 0; i <= MARKET; i++) {
+            openAccount();
+        }
+    }
+
+    /**
+     * Get the asset index of a resource.
+     *
+     * @param resource The {@link ResourceType}.
+     * @return The asset index.
+     */
+    public static int assetOf(ResourceType resource) {
+        return 1 + resource.ordinal();
+    }
+
+    /**
+     * Get the account on the other side of a transfer made by a player for the given reason.
+     *
+     * @param reason The reason for the transfer.
+     * @return The counterparty account.
+     */
+    public static int counterpartyFor(LedgerReason reason) {
+        switch (reason) {
+            case TRADE:
+                return MARKET;
+            case GAMBLE:
+                return HOUSE;
+            default:
+                return WORLD;
+        }
+    }
+
+    /**
+     * Open a new account with an empty balance.
+     *
+     * @return The account id.
+     */
+    public synchronized int openAccount() {
+        if (accounts == MAX_ACCOUNTS) {
+            throw new IllegalStateException("Error: Ledger is out of accounts.");
+        }
+        if (accounts == balances.length) {
+            balances = grow(balances);
+            openingBalances = grow(openingBalances);
+        }
+        balances[accounts] = new long[ASSET_COUNT];
+        openingBalances[accounts] = new long[ASSET_COUNT];
+        return accounts++;
+    }
+
+    private static long[][] grow(long[][] array) {
+        long[][] grown = new long[array.length * 2][];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+
+    /**
+     * Journal a transfer. A negative amount is recorded as a transfer in the other direction, and a zero amount
+     * is not recorded at all.
+     *
+     * @param from   The account paying.
+     * @param to     The account receiving.
+     * @param asset  The asset index.
+     * @param amount The amount moved.
+     * @param reason Why the transfer happened.
+     */
+    public synchronized void record(int from, int to, int asset, int amount, LedgerReason reason) {
+        if (amount == 0) {
+            return;
+        }
+        if (from < 0 || from >= accounts || to < 0 || to >= accounts) {
+            throw new IllegalArgumentException("Error: Unknown ledger account.");
+        }
+        if (amount < 0) {
+            int swap = from;
+            from = to;
+            to = swap;
+            amount = -amount;
+        }
+
+        if (tail == CHUNK_SIZE) {
+            chunks.add(chunks.size() == maxRetainedChunks ? compactOldest() : new Chunk());
+            tail = 0;
+        }
+        Chunk chunk = chunks.get(chunks.size() - 1);
+        chunk.accounts[tail] = (from << 16) | to;
+        chunk.amounts[tail] = amount;
+        chunk.codes[tail] = (short) ((asset << 8) | reason.ordinal());
+        tail++;
+
+        balances[from][asset] -= amount;
+        balances[to][asset] += amount;
+        reasonTotals[reason.ordinal()][asset] += amount;
+    }
+
+    /**
+     * Fold the oldest chunk into the opening balances.
+     *
+     * @return The emptied chunk, ready for reuse.
+     */
+    private Chunk compactOldest() {
+        Chunk oldest = chunks.remove(0);
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            apply(openingBalances, oldest, i);
+        }
+        compactedEntries += CHUNK_SIZE;
+        return oldest;
+    }
+
+    private static void apply(long[][] target, Chunk chunk, int i) {
+        int packed = chunk.accounts[i];
+        int asset = chunk.codes[i] >> 8;
+        target[packed >>> 16][asset] -= chunk.amounts[i];
+        target[packed & 0xFFFF][asset] += chunk.amounts[i];
+    }
+
+    /**
+     * @return The current balance of an asset in an account.
+     */
+    public synchronized long balance(int account, int asset) {
+        return balances[account][asset];
+    }
+
+    /**
+     * @return The total amount of an asset moved for a reason.
+     */
+    public synchronized long totalFor(LedgerReason reason, int asset) {
+        return reasonTotals[reason.ordinal()][asset];
+    }
+
+    /**
+     * @return The total amount of an asset destroyed by clamping balances to 0.
+     */
+    public synchronized long destroyed(int asset) {
+        return -balances[VOID][asset];
+    }
+
+    /**
+     * @return The number of accounts opened, including the fixed ones.
+     */
+    public synchronized int getAccountCount() {
+        return accounts;
+    }
+
+    /**
+     * @return The number of entries ever recorded.
+     */
+    public synchronized long size() {
+        return compactedEntries + getRetainedEntries();
+    }
+
+    /**
+     * @return The number of entries folded into the opening balances.
+     */
+    public synchronized long getCompactedEntries() {
+        return compactedEntries;
+    }
+
+    /**
+     * @return The number of entries still held individually.
+     */
+    public synchronized int getRetainedEntries() {
+        return chunks.isEmpty() ? 0 : (chunks.size() - 1) * CHUNK_SIZE + tail;
+    }
+
+    public synchronized int entryFrom(int index) {
+        return chunkOf(index).accounts[index % CHUNK_SIZE] >>> 16;
+    }
+
+    public synchronized int entryTo(int index) {
+        return chunkOf(index).accounts[index % CHUNK_SIZE] & 0xFFFF;
+    }
+
+    public synchronized int entryAsset(int index) {
+        return chunkOf(index).codes[index % CHUNK_SIZE] >> 8;
+    }
+
+    public synchronized int entryAmount(int index) {
+        return chunkOf(index).amounts[index % CHUNK_SIZE];
+    }
+
+    public synchronized LedgerReason entryReason(int index) {
+        return REASONS[chunkOf(index).codes[index % CHUNK_SIZE] & 0xFF];
+    }
+
+    private Chunk chunkOf(int index) {
+        if (index < 0 || index >= getRetainedEntries()) {
+            throw new IndexOutOfBoundsException("Error: No retained entry at index " + index + ".");
+        }
+        return chunks.get(index / CHUNK_SIZE);
+    }
+
+    /**
+     * Audit the ledger by replaying every retained entry over the opening balances.
+     *
+     * @return True if the replay reproduces the running balances and every asset sums to zero across accounts.
+     */
+    public synchronized boolean verify() {
+        long[][] replay = new long[accounts][];
+        for (int a = 0; a < accounts; a++) {
+            replay[a] = openingBalances[a].clone();
+        }
+        for (int c = 0; c < chunks.size(); c++) {
+            int entries = c == chunks.size() - 1 ? tail : CHUNK_SIZE;
+            for (int i = 0; i < entries; i++) {
+                apply(replay, chunks.get(c), i);
+            }
+        }
+
+        for (int asset = 0; asset < ASSET_COUNT; asset++) {
+            long sum = 0;
+            for (int a = 0; a < accounts; a++) {
+                if (replay[a][asset] != balances[a][asset]) {
+                    return false;
+                }
+                sum += balances[a][asset];
+            }
+            if (sum != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
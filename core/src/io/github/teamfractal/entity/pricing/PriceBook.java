@@ -0,0 +1,72 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity.pricing;
+
+import io.github.teamfractal.entity.enums.ResourceType;
+
+/**
+ * Immutable snapshot of the market's prices and stock, published by {@link io.github.teamfractal.entity.Market}.
+ * <p>
+ * Every change to the market's stock, prices or price history bumps its version, so a consumer that remembers
+ * the version it last rendered can skip the refresh whenever the version is unchanged. Being immutable, a book
+ * can be handed to any thread without copying or locking.
+ * </p>
+ */
+public final class PriceBook {
+
+    private static final int TYPES = ResourceType.values().length;
+
+    private final long version;
+
+    /**
+     * Indexed by {@link ResourceType#ordinal()}; 0 for types the market doesn't price or stock
+     */
+    private final int[] sellPrices = new int[TYPES];
+    private final int[] buyPrices = new int[TYPES];
+    private final int[] stock = new int[TYPES];
+
+    /**
+     * @param version    The market version the snapshot was taken at.
+     * @param sellPrices The market's selling prices, indexed by {@link ResourceType#ordinal()}.
+     * @param buyPrices  The market's buying prices, indexed by {@link ResourceType#ordinal()}.
+     * @param stock      The market's stock, indexed by {@link ResourceType#ordinal()}.
+     */
+    public PriceBook(long version, int[] sellPrices, int[] buyPrices, int[] stock) {
+        this.version = version;
+        System.arraycopy(sellPrices, 0, this.sellPrices, 0, TYPES);
+        System.arraycopy(buyPrices, 0, this.buyPrices, 0, TYPES);
+        System.arraycopy(stock, 0, this.stock, 0, TYPES);
+    }
+
+    /**
+     * @return The market version this snapshot was taken at.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return The price the market charges for a unit of the resource.
+     */
+    public int getSellPrice(ResourceType resource) {
+        return sellPrices[resource.ordinal()];
+    }
+
+    /**
+     * @return The price the market pays for a unit of the resource.
+     */
+    public int getBuyPrice(ResourceType resource) {
+        return buyPrices[resource.ordinal()];
+    }
+
+    /**
+     * @return The amount of the resource the market holds.
+     */
+    public int getStock(ResourceType resource) {
+        return stock[resource.ordinal()];
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity.pricing;
+
+import io.github.teamfractal.entity.enums.ResourceType;
+import io.github.teamfractal.util.ResourceGroupInteger;
+
+/**
+ * Strategy used by the {@link io.github.teamfractal.entity.Market} to price the common resources.
+ * <p>
+ * Prices may depend on the market's stock. By convention the sell price at stock <i>s</i> is what the next
+ * unit bought from the market costs, and the buy price at stock <i>s</i> is what the next unit sold to the
+ * market earns.
+ * </p>
+ */
+public interface PricingModel {
+
+    /**
+     * @return A human readable name for the model.
+     */
+    String getName();
+
+    /**
+     * Recalculate the model's prices, called once per market phase.
+     *
+     * @param productionTotals The production totals across every player.
+     * @param marketSupply     The running supply totals: everything sold to the market minus everything bought.
+     */
+    void reprice(ResourceGroupInteger productionTotals, ResourceGroupInteger marketSupply);
+
+    /**
+     * Get the price of the next unit bought from the market.
+     *
+     * @param resource The resource type.
+     * @param stock    The market's current stock.
+     * @return The unit price.
+     */
+    int sellPrice(ResourceType resource, int stock);
+
+    /**
+     * Get the price the market pays for the next unit sold to it.
+     *
+     * @param resource The resource type.
+     * @param stock    The market's current stock.
+     * @return The unit price.
+     */
+    int buyPrice(ResourceType resource, int stock);
+
+    /**
+     * Get the total cost of buying several units from the market, one after another.
+     *
+     * @param resource The resource type.
+     * @param stock    The market's current stock.
+     * @param amount   The number of units to buy.
+     * @return The total cost.
+     */
+    int sellCost(ResourceType resource, int stock, int amount);
+
+    /**
+     * Get the total the market pays for several units sold to it, one after another.
+     *
+     * @param resource The resource type.
+     * @param stock    The market's current stock.
+     * @param amount   The number of units to sell.
+     * @return The total value.
+     */
+    int buyValue(ResourceType resource, int stock, int amount);
+}
@@ -0,0 +1,84 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity.pricing;
+
+import io.github.teamfractal.entity.enums.ResourceType;
+import io.github.teamfractal.util.ResourceGroupInteger;
+
+import java.util.Random;
+
+/**
+ * Side-by-side micro benchmark of every {@link PricingModelType}.
+ * <p>
+ * Each model is driven through the same seeded sequence of market phases and trades, timing reprices, unit
+ * price reads and multi-unit trade costs. Run with <code>gradle core:benchmarkPricing</code>.
+ * </p>
+ */
+public class PricingModelBenchmark {
+
+    private static final ResourceType[] RESOURCES = {ResourceType.FOOD, ResourceType.ENERGY, ResourceType.ORE};
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int REPRICES = 2000;
+    private static final int READS = 2000000;
+
+    public static void main(String[] args) {
+        System.out.println(String.format("%-20s %14s %14s %14s", "Model", "reprice (ns)", "price (ns)", "cost (ns)"));
+        for (PricingModelType type : PricingModelType.values()) {
+            PricingModel model = type.create();
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                run(model);
+            }
+            long[] timings = run(model);
+            System.out.println(String.format("%-20s %14.1f %14.1f %14.1f", model.getName(),
+                    (double) timings[0] / REPRICES, (double) timings[1] / READS, (double) timings[2] / READS));
+        }
+    }
+
+    /**
+     * Drive a model through a fixed sequence of reprices and reads.
+     *
+     * @param model The model to time.
+     * @return Total nanoseconds spent on [ reprices, price reads, trade costs ].
+     */
+    private static long[] run(PricingModel model) {
+        Random random = new Random(0);
+        long[] timings = new long[3];
+        long sink = 0;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < REPRICES; i++) {
+            ResourceGroupInteger production = new ResourceGroupInteger(random.nextInt(50), random.nextInt(50), random.nextInt(50));
+            ResourceGroupInteger supply = new ResourceGroupInteger(random.nextInt(65) - 32, random.nextInt(65) - 32, random.nextInt(65) - 32);
+            model.reprice(production, supply);
+        }
+        timings[0] = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < READS; i++) {
+            ResourceType resource = RESOURCES[i % RESOURCES.length];
+            int stock = i & 127;
+            sink += model.sellPrice(resource, stock) + model.buyPrice(resource, stock);
+        }
+        timings[1] = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < READS; i++) {
+            ResourceType resource = RESOURCES[i % RESOURCES.length];
+            int stock = i & 127;
+            int amount = (i >> 7) & 15;
+            sink += model.sellCost(resource, stock, Math.min(amount, stock)) + model.buyValue(resource, stock, amount);
+        }
+        timings[2] = System.nanoTime() - start;
+
+        // Keep the reads from being optimised away
+        if (sink == Long.MIN_VALUE) {
+            System.out.println(sink);
+        }
+        return timings;
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity.pricing;
+
+/**
+ * The pricing models that can be selected for a game.
+ */
+public enum PricingModelType {
+    SHARE_BASED {
+        @Override
+        public PricingModel create() {
+            return new ShareBasedPricingModel();
+        }
+    },
+    SUPPLY_DEMAND {
+        @Override
+        public PricingModel create() {
+            return new SupplyDemandPricingModel();
+        }
+    };
+
+    /**
+     * Create a fresh instance of the model for a new game.
+     *
+     * @return The pricing model.
+     */
+    public abstract PricingModel create();
+}
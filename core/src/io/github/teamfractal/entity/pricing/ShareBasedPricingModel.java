@@ -0,0 +1,81 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity.pricing;
+
+import io.github.teamfractal.entity.enums.ResourceType;
+import io.github.teamfractal.util.ResourceGroupInteger;
+
+import java.util.Random;
+
+/**
+ * The original pricing model: a resource's price rises as its share of total production falls.
+ * <p>
+ * Prices do not depend on the market's stock. The market buys back at a random discount of between a half
+ * and a fifth of its selling price, drawn on every reprice.
+ * </p>
+ */
+public class ShareBasedPricingModel extends TabulatedPricingModel {
+
+    private static final float ELASTICITY = 0.7f;
+
+    private static final int STARTING_FOOD_SELL_PRICE = 10;
+    private static final int STARTING_ENERGY_SELL_PRICE = 10;
+    private static final int STARTING_ORE_SELL_PRICE = 10;
+
+    private static final int STARTING_FOOD_BUY_PRICE = 10;
+    private static final int STARTING_ENERGY_BUY_PRICE = 10;
+    private static final int STARTING_ORE_BUY_PRICE = 10;
+
+    private final Random random = new Random();
+
+    /**
+     * Current prices, indexed [ Food, Energy, Ore ]
+     */
+    private final int[] sellPrices = {STARTING_FOOD_SELL_PRICE, STARTING_ENERGY_SELL_PRICE, STARTING_ORE_SELL_PRICE};
+    private final int[] buyPrices = {STARTING_FOOD_BUY_PRICE, STARTING_ENERGY_BUY_PRICE, STARTING_ORE_BUY_PRICE};
+
+    public ShareBasedPricingModel() {
+        rebuildTables();
+    }
+
+    @Override
+    public String getName() {
+        return "Share of production";
+    }
+
+    @Override
+    protected void prepare(ResourceGroupInteger productionTotals, ResourceGroupInteger marketSupply) {
+        float upgradeTotalSum = (float) productionTotals.sum();
+        float foodTotal = (float) productionTotals.getFood();
+        float energyTotal = (float) productionTotals.getEnergy();
+        float oreTotal = (float) productionTotals.getOre();
+
+        if (upgradeTotalSum > 0) {
+            float newFood = (((1 - (foodTotal / upgradeTotalSum)) / ELASTICITY) * STARTING_FOOD_SELL_PRICE) + STARTING_FOOD_SELL_PRICE;
+            float newEnergy = (((1 - (energyTotal / upgradeTotalSum) / ELASTICITY)) * STARTING_ENERGY_SELL_PRICE) + STARTING_ENERGY_SELL_PRICE;
+            float newOre = (((1 - (oreTotal / upgradeTotalSum) / ELASTICITY)) * STARTING_ORE_SELL_PRICE) + STARTING_ORE_SELL_PRICE;
+            sellPrices[0] = (int) newFood;
+            sellPrices[1] = (int) newEnergy;
+            sellPrices[2] = (int) newOre;
+        }
+
+        float discount = (float) 1 / (2 + random.nextInt(4));
+        for (int i = 0; i < 3; i++) {
+            buyPrices[i] = sellPrices[i] - (int) (sellPrices[i] * discount);
+        }
+    }
+
+    @Override
+    protected int computeSellPrice(ResourceType resource, int stock) {
+        return sellPrices[indexOf(resource)];
+    }
+
+    @Override
+    protected int computeBuyPrice(ResourceType resource, int stock) {
+        return buyPrices[indexOf(resource)];
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity.pricing;
+
+import io.github.teamfractal.entity.enums.ResourceType;
+import io.github.teamfractal.util.ResourceGroupInteger;
+
+/**
+ * Pricing model following a supply/demand curve.
+ * <p>
+ * The price of a unit rises as the market's stock falls below a reference level, and the whole curve is
+ * shifted up when players have been net buyers of a resource (negative running supply) or down when they
+ * have been net sellers. The market buys a unit back at a fixed spread below what it would charge to sell
+ * that same unit again, so a round trip can never make a profit.
+ * </p>
+ */
+public class SupplyDemandPricingModel extends TabulatedPricingModel {
+
+    private static final int BASE_PRICE = 10;
+    private static final int MIN_PRICE = 1;
+    private static final int MAX_PRICE = 100;
+
+    /**
+     * Stock level at which the curve gives the base price
+     */
+    private static final int REFERENCE_STOCK = 16;
+
+    /**
+     * How strongly the price responds to stock
+     */
+    private static final float ELASTICITY = 0.5f;
+
+    /**
+     * How strongly the running supply shifts the curve, per reference stock's worth of supply
+     */
+    private static final float DEMAND_WEIGHT = 0.5f;
+
+    /**
+     * Fraction of the selling price paid when buying back
+     */
+    private static final float SPREAD = 0.8f;
+
+    /**
+     * Multiplier applied to each curve, indexed [ Food, Energy, Ore ]
+     */
+    private final float[] demand = {1f, 1f, 1f};
+
+    public SupplyDemandPricingModel() {
+        rebuildTables();
+    }
+
+    @Override
+    public String getName() {
+        return "Supply and demand";
+    }
+
+    @Override
+    protected void prepare(ResourceGroupInteger productionTotals, ResourceGroupInteger marketSupply) {
+        for (int i = 0; i < RESOURCES.length; i++) {
+            float pressure = -marketSupply.getResource(RESOURCES[i]) / (float) REFERENCE_STOCK * DEMAND_WEIGHT;
+            demand[i] = 1f + Math.max(-0.5f, Math.min(1f, pressure));
+        }
+    }
+
+    @Override
+    protected int computeSellPrice(ResourceType resource, int stock) {
+        double scarcity = Math.pow((REFERENCE_STOCK + 1.0) / (stock + 1.0), ELASTICITY);
+        int price = (int) Math.round(BASE_PRICE * demand[indexOf(resource)] * scarcity);
+        return Math.max(MIN_PRICE, Math.min(MAX_PRICE, price));
+    }
+
+    @Override
+    protected int computeBuyPrice(ResourceType resource, int stock) {
+        // Selling a unit at stock s lets it be bought back at stock s + 1
+        return Math.max(MIN_PRICE, (int) (computeSellPrice(resource, stock + 1) * SPREAD));
+    }
+}
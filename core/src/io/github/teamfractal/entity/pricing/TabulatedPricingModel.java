@@ -0,0 +1,153 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity.pricing;
+
+import io.github.teamfractal.entity.enums.ResourceType;
+import io.github.teamfractal.exception.NotCommonResourceException;
+import io.github.teamfractal.util.ResourceGroupInteger;
+
+/**
+ * Base for pricing models that precompute their prices over stock levels.
+ * <p>
+ * Every reprice fills a price table and its prefix sums for each resource, so a unit price is a single array
+ * read and the cost of trading any amount is the difference of two prefix sums. Stock levels past the end of
+ * the table are priced at the last entry. Each rebuild fills fresh tables and publishes them through one volatile
+ * reference, so readers on other threads always see tables that agree with their prefix sums.
+ * </p>
+ */
+public abstract class TabulatedPricingModel implements PricingModel {
+
+    /**
+     * Number of stock levels held in each table
+     */
+    public static final int TABLE_SIZE = 257;
+
+    protected static final ResourceType[] RESOURCES = {ResourceType.FOOD, ResourceType.ENERGY, ResourceType.ORE};
+
+    /**
+     * One consistent set of price tables and their prefix sums
+     */
+    private static final class Tables {
+        final int[][] sellTable = new int[3][TABLE_SIZE];
+        final int[][] buyTable = new int[3][TABLE_SIZE];
+
+        /**
+         * cumulative[i] is the sum of the first i table entries
+         */
+        final long[][] sellCumulative = new long[3][TABLE_SIZE + 1];
+        final long[][] buyCumulative = new long[3][TABLE_SIZE + 1];
+    }
+
+    private volatile Tables tables = new Tables();
+
+    @Override
+    public void reprice(ResourceGroupInteger productionTotals, ResourceGroupInteger marketSupply) {
+        prepare(productionTotals, marketSupply);
+        rebuildTables();
+    }
+
+    /**
+     * Update the model's parameters before the tables are rebuilt.
+     *
+     * @param productionTotals The production totals across every player.
+     * @param marketSupply     The running supply totals.
+     */
+    protected abstract void prepare(ResourceGroupInteger productionTotals, ResourceGroupInteger marketSupply);
+
+    /**
+     * Compute the price of the next unit bought from the market at the given stock level.
+     */
+    protected abstract int computeSellPrice(ResourceType resource, int stock);
+
+    /**
+     * Compute the price paid for the next unit sold to the market at the given stock level.
+     */
+    protected abstract int computeBuyPrice(ResourceType resource, int stock);
+
+    /**
+     * Refill every table from the model's current parameters.
+     */
+    protected final void rebuildTables() {
+        Tables next = new Tables();
+        for (int r = 0; r < RESOURCES.length; r++) {
+            for (int stock = 0; stock < TABLE_SIZE; stock++) {
+                next.sellTable[r][stock] = computeSellPrice(RESOURCES[r], stock);
+                next.buyTable[r][stock] = computeBuyPrice(RESOURCES[r], stock);
+                next.sellCumulative[r][stock + 1] = next.sellCumulative[r][stock] + next.sellTable[r][stock];
+                next.buyCumulative[r][stock + 1] = next.buyCumulative[r][stock] + next.buyTable[r][stock];
+            }
+        }
+        tables = next;
+    }
+
+    @Override
+    public int sellPrice(ResourceType resource, int stock) {
+        return tables.sellTable[indexOf(resource)][clamp(stock)];
+    }
+
+    @Override
+    public int buyPrice(ResourceType resource, int stock) {
+        return tables.buyTable[indexOf(resource)][clamp(stock)];
+    }
+
+    @Override
+    public int sellCost(ResourceType resource, int stock, int amount) {
+        // Units are bought at stock levels [stock - amount + 1, stock]
+        Tables current = tables;
+        int r = indexOf(resource);
+        return (int) (cumulative(current.sellTable[r], current.sellCumulative[r], stock + 1)
+                - cumulative(current.sellTable[r], current.sellCumulative[r], stock - amount + 1));
+    }
+
+    @Override
+    public int buyValue(ResourceType resource, int stock, int amount) {
+        // Units are sold at stock levels [stock, stock + amount - 1]
+        Tables current = tables;
+        int r = indexOf(resource);
+        return (int) (cumulative(current.buyTable[r], current.buyCumulative[r], stock + amount)
+                - cumulative(current.buyTable[r], current.buyCumulative[r], stock));
+    }
+
+    /**
+     * Sum of the prices at stock levels [0, end), extending the last table entry past the end of the table.
+     */
+    private static long cumulative(int[] table, long[] prefix, int end) {
+        if (end <= 0) {
+            return 0;
+        }
+        if (end <= TABLE_SIZE) {
+            return prefix[end];
+        }
+        return prefix[TABLE_SIZE] + (long) (end - TABLE_SIZE) * table[TABLE_SIZE - 1];
+    }
+
+    private static int clamp(int stock) {
+        if (stock < 0) {
+            return 0;
+        }
+        return stock < TABLE_SIZE ? stock : TABLE_SIZE - 1;
+    }
+
+    /**
+     * Get the table row for a resource.
+     *
+     * @param resource The resource type.
+     * @return The row index.
+     */
+    protected static int indexOf(ResourceType resource) {
+        switch (resource) {
+            case FOOD:
+                return 0;
+            case ENERGY:
+                return 1;
+            case ORE:
+                return 2;
+            default:
+                throw new NotCommonResourceException(resource);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.map;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs work over a map one square chunk at a time, spreading the chunks across a worker pool.
+ * <p>
+ * Chunks never overlap, so tasks may write to per-tile storage without locking. Tasks that need randomness should
+ * seed it from {@link #chunkSeed} so the result does not depend on which thread ran which chunk.
+ * </p>
+ */
+public final class ChunkExecutor {
+
+    public static final int DEFAULT_CHUNK_SIZE = 64;
+
+    private ChunkExecutor() {
+    }
+
+    /**
+     * Work done on one rectangular chunk of the map, covering [x0, x1) by [y0, y1).
+     */
+    public interface ChunkTask {
+        void run(int x0, int y0, int x1, int y1);
+    }
+
+    /**
+     * Split a map into square chunks and run a task on each one across a worker pool.
+     * Returns once every chunk is done; writes made by the tasks are visible to the caller.
+     *
+     * @param width     Width of the map in tiles.
+     * @param height    Height of the map in tiles.
+     * @param chunkSize Side length of each chunk.
+     * @param threads   Size of the worker pool.
+     * @param task      The task to run on every chunk.
+     */
+    public static void forEachChunk(int width, int height, int chunkSize, int threads, final ChunkTask task) {
+        if (threads == 1) {
+            for (int y = 0; y < height; y += chunkSize) {
+                for (int x = 0; x < width; x += chunkSize) {
+                    task.run(x, y, Math.min(x + chunkSize, width), Math.min(y + chunkSize, height));
+                }
+            }
+            return;
+        }
+
+        List<Callable<Void>> jobs = new ArrayList<Callable<Void>>();
+        for (int y = 0; y < height; y += chunkSize) {
+            for (int x = 0; x < width; x += chunkSize) {
+                final int x0 = x;
+                final int y0 = y;
+                final int x1 = Math.min(x + chunkSize, width);
+                final int y1 = Math.min(y + chunkSize, height);
+                jobs.add(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        task.run(x0, y0, x1, y1);
+                        return null;
+                    }
+                });
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, jobs.size()));
+        try {
+            for (Future<Void> future : executor.invokeAll(jobs)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Error: Interrupted while processing the map.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error: Processing a map chunk failed.", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Derive the seed for one chunk's random stream from a map seed and the chunk's origin.
+     *
+     * @param seed The map seed.
+     * @param x0   X index of the chunk's first tile.
+     * @param y0   Y index of the chunk's first tile.
+     * @return A well mixed seed unique to the chunk.
+     */
+    public static long chunkSeed(long seed, int x0, int y0) {
+        long h = seed ^ (x0 * 0x9E3779B97F4A7C15L) ^ (y0 * 0xC2B2AE3D27D4EB4FL);
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
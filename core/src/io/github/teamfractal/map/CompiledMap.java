@@ -0,0 +1,303 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.map;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BooleanArray;
+import com.badlogic.gdx.utils.ByteArray;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * A map compiled ahead of time by {@link MapCompiler}, read straight from a memory-mapped file.
+ * <p>
+ * The file holds the map's size, each tile set with the image, terrain code and yield ranges of every tile, and
+ * the tile ids of every layer. Only the header is decoded when the file is opened. The terrain and yield ranges
+ * become the map's {@link TerrainTable} as they are, and the layers built by {@link #toTiledMap} read each tile id
+ * from the mapping when it is asked for, so opening and loading cost the same however large the map is. All values
+ * are big-endian, and rows are stored bottom-up as in {@link TiledMapTileLayer}.
+ * </p>
+ */
+public class CompiledMap {
+
+    static final int MAGIC = 0x52514D50;
+    static final int VERSION = 2;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final ByteBuffer data;
+    private final int width;
+    private final int height;
+    private final int tileWidth;
+    private final int tileHeight;
+
+    private final String[] tileSetNames;
+    private final int[] tileSetFirstGid;
+    private final int[][] tileGid;
+    private final String[][] tileImage;
+    private final TerrainTable terrainTable;
+
+    private final String[] layerNames;
+    private final boolean[] layerVisible;
+    private final float[] layerOpacity;
+    private final int[] layerOffset;
+
+    private CompiledMap(ByteBuffer data) {
+        this.data = data;
+        if (data.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Error: Not a compiled map.");
+        }
+        int version = data.getInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Error: Compiled map version " + version + " is not supported.");
+        }
+        width = data.getInt();
+        height = data.getInt();
+        tileWidth = data.getInt();
+        tileHeight = data.getInt();
+
+        int tileSets = data.getInt();
+        tileSetNames = new String[tileSets];
+        tileSetFirstGid = new int[tileSets];
+        tileGid = new int[tileSets][];
+        tileImage = new String[tileSets][];
+        // The terrain and yield ranges of every tile of every set, in one list for the table
+        IntArray ids = new IntArray();
+        ByteArray codes = new ByteArray();
+        BooleanArray declared = new BooleanArray();
+        Array<short[]> ranges = new Array<short[]>(short[].class);
+        for (int set = 0; set < tileSets; set++) {
+            tileSetNames[set] = readString(data);
+            tileSetFirstGid[set] = data.getInt();
+            int tiles = data.getInt();
+            tileGid[set] = new int[tiles];
+            tileImage[set] = new String[tiles];
+            for (int tile = 0; tile < tiles; tile++) {
+                tileGid[set][tile] = data.getInt();
+                tileImage[set][tile] = readString(data);
+                ids.add(tileGid[set][tile]);
+                codes.add(data.get());
+                declared.add(data.get() != 0);
+                short[] range = new short[6];
+                for (int i = 0; i < range.length; i++) {
+                    range[i] = data.getShort();
+                }
+                ranges.add(range);
+            }
+        }
+        terrainTable = TerrainTable.of(ids.toArray(), codes.toArray(), declared.toArray(), ranges.toArray());
+
+        int layers = data.getInt();
+        layerNames = new String[layers];
+        layerVisible = new boolean[layers];
+        layerOpacity = new float[layers];
+        layerOffset = new int[layers];
+        for (int layer = 0; layer < layers; layer++) {
+            layerNames[layer] = readString(data);
+            layerVisible[layer] = data.get() != 0;
+            layerOpacity[layer] = data.getFloat();
+            layerOffset[layer] = data.getInt();
+        }
+    }
+
+    /**
+     * Open a compiled map, memory-mapping it if it is a file on disk and reading it into memory otherwise
+     * (for example from inside a jar).
+     *
+     * @param handle The compiled map.
+     * @return The map.
+     */
+    public static CompiledMap open(FileHandle handle) {
+        File file = handle.file();
+        if (file.isFile()) {
+            return open(file);
+        }
+        return new CompiledMap(ByteBuffer.wrap(handle.readBytes()));
+    }
+
+    /**
+     * Open a compiled map by memory-mapping it.
+     *
+     * @param file The compiled map.
+     * @return The map.
+     */
+    public static CompiledMap open(File file) {
+        RandomAccessFile raf = null;
+        try {
+            raf = new RandomAccessFile(file, "r");
+            // The mapping stays valid after the channel is closed
+            return new CompiledMap(raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length()));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error: Could not map " + file + ".", e);
+        } finally {
+            if (raf != null) {
+                try {
+                    raf.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private static String readString(ByteBuffer data) {
+        byte[] bytes = new byte[data.getShort() & 0xFFFF];
+        data.get(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getTileWidth() {
+        return tileWidth;
+    }
+
+    public int getTileHeight() {
+        return tileHeight;
+    }
+
+    public int getLayerCount() {
+        return layerNames.length;
+    }
+
+    public String getLayerName(int layer) {
+        return layerNames[layer];
+    }
+
+    /**
+     * @param name A layer name.
+     * @return The index of the layer, or -1 if there is none with that name.
+     */
+    public int getLayerIndex(String name) {
+        for (int layer = 0; layer < layerNames.length; layer++) {
+            if (layerNames[layer].equals(name)) {
+                return layer;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The global tile id of a cell, or 0 if the cell is empty.
+     */
+    public int getGid(int layer, int x, int y) {
+        return data.getInt(layerOffset[layer] + 4 * index(x, y));
+    }
+
+    /**
+     * @return The terrain and yield ranges of the map's tiles, as compiled from the TMX.
+     */
+    public TerrainTable getTerrainTable() {
+        return terrainTable;
+    }
+
+    private int index(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException("Error: Cell (" + x + ", " + y + ") is outside the map.");
+        }
+        return y * width + x;
+    }
+
+    /**
+     * Build a tiled map from the compiled data, loading each tile image once. Its layers hold no cells: each reads
+     * its tile ids from the mapping and keeps only the tiles changed since, so building one takes the same time
+     * however large the map is. The tiles carry no terrain or yield properties; use {@link #getTerrainTable}.
+     *
+     * @param imageRoot The directory tile image paths are relative to, usually the one the TMX was in.
+     * @return The map, which owns the textures it loaded.
+     */
+    public TiledMap toTiledMap(FileHandle imageRoot) {
+        TiledMap map = new TiledMap();
+        ObjectMap<String, Texture> textures = new ObjectMap<String, Texture>();
+        Array<Disposable> owned = new Array<Disposable>();
+
+        int size = 0;
+        for (int[] gids : tileGid) {
+            for (int gid : gids) {
+                size = Math.max(size, gid + 1);
+            }
+        }
+        TiledMapTile[] tiles = new TiledMapTile[size];
+        for (int set = 0; set < tileSetNames.length; set++) {
+            TiledMapTileSet tileSet = new TiledMapTileSet();
+            tileSet.setName(tileSetNames[set]);
+            tileSet.getProperties().put("firstgid", tileSetFirstGid[set]);
+            for (int i = 0; i < tileGid[set].length; i++) {
+                Texture texture = textures.get(tileImage[set][i]);
+                if (texture == null) {
+                    texture = new Texture(imageRoot.child(tileImage[set][i]));
+                    texture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+                    textures.put(tileImage[set][i], texture);
+                    owned.add(texture);
+                }
+                StaticTiledMapTile tile = new StaticTiledMapTile(new TextureRegion(texture));
+                tile.setId(tileGid[set][i]);
+                tileSet.putTile(tileGid[set][i], tile);
+                tiles[tileGid[set][i]] = tile;
+            }
+            map.getTileSets().addTileSet(tileSet);
+        }
+
+        for (int layer = 0; layer < layerNames.length; layer++) {
+            MappedLayer mapped = new MappedLayer(layerNames[layer], layer, tiles);
+            mapped.setVisible(layerVisible[layer]);
+            mapped.setOpacity(layerOpacity[layer]);
+            map.getLayers().add(mapped);
+        }
+
+        map.getProperties().put("width", width);
+        map.getProperties().put("height", height);
+        map.getProperties().put("tilewidth", tileWidth);
+        map.getProperties().put("tileheight", tileHeight);
+        map.setOwnedResources(owned);
+        return map;
+    }
+
+    /**
+     * A layer of a built map, showing the tile with the id read from the mapping wherever it hasn't been changed.
+     */
+    private final class MappedLayer extends OverlayTileLayer {
+        private final int layer;
+        private final TiledMapTile[] tiles;
+
+        /**
+         * @param tiles Tiles indexed by global id.
+         */
+        MappedLayer(String name, int layer, TiledMapTile[] tiles) {
+            super(name, width, height, tileWidth, tileHeight, null);
+            this.layer = layer;
+            this.tiles = tiles;
+        }
+
+        @Override
+        protected TiledMapTile getBaseTile(int x, int y) {
+            int gid = getGid(layer, x, y);
+            return gid > 0 && gid < tiles.length ? tiles[gid] : null;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.map;
+
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+
+/**
+ * A tile layer that works out each tile when asked rather than holding a {@link Cell} for every tile, so the
+ * memory it takes does not grow with the size of the map.
+ * <p>
+ * {@link #getCell} hands out a view of one tile that reads and writes through to the layer, so code written
+ * against TiledMapTileLayer keeps working. A view is created on every call; code that reads many tiles, such as
+ * {@link TileLayerCache}, should call {@link #getTile} instead.
+ * </p>
+ */
+public abstract class ComputedTileLayer extends TiledMapTileLayer {
+
+    private final int width;
+    private final int height;
+
+    /**
+     * @param name       The layer's name.
+     * @param width      Width of the layer in tiles.
+     * @param height     Height of the layer in tiles.
+     * @param tileWidth  Width of a tile in pixels.
+     * @param tileHeight Height of a tile in pixels.
+     */
+    protected ComputedTileLayer(String name, int width, int height, int tileWidth, int tileHeight) {
+        // The inherited cell grid is never used, so keep it to a single cell
+        super(1, 1, tileWidth, tileHeight);
+        this.width = width;
+        this.height = height;
+        setName(name);
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @param x The x index, inside the layer.
+     * @param y The y index, inside the layer.
+     * @return The tile drawn there, or null for none.
+     */
+    public abstract TiledMapTile getTile(int x, int y);
+
+    /**
+     * Change the tile drawn at a position. Layers whose tiles can't change throw UnsupportedOperationException.
+     *
+     * @param x    The x index, inside the layer.
+     * @param y    The y index, inside the layer.
+     * @param tile The new tile, or null for none.
+     */
+    public void setTile(int x, int y, TiledMapTile tile) {
+        throw new UnsupportedOperationException("Error: The tiles of layer " + getName() + " can't be changed.");
+    }
+
+    /**
+     * @return A view of the tile at the position, or null if it is outside the layer.
+     */
+    @Override
+    public Cell getCell(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return null;
+        }
+        return new TileView(x, y);
+    }
+
+    /**
+     * Set the tile at a position to the cell's tile. The cell itself isn't kept, so later changes to it are not
+     * seen by the layer.
+     */
+    @Override
+    public void setCell(int x, int y, Cell cell) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return;
+        }
+        setTile(x, y, cell == null ? null : cell.getTile());
+    }
+
+    /**
+     * One position of the layer, reading and writing its tile through to the layer.
+     */
+    private final class TileView extends Cell {
+        private final int x;
+        private final int y;
+
+        TileView(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public TiledMapTile getTile() {
+            return ComputedTileLayer.this.getTile(x, y);
+        }
+
+        @Override
+        public Cell setTile(TiledMapTile tile) {
+            ComputedTileLayer.this.setTile(x, y, tile);
+            return this;
+        }
+    }
+}
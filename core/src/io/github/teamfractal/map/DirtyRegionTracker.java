@@ -0,0 +1,87 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.map;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Records which cells of a layer have changed since the layer was last redrawn from its cache.
+ * <p>
+ * Changes are kept per page of {@link TileLayerCache#PAGE_SIZE} tiles square, as a 64 bit mask of the page's rows
+ * plus a list of the pages that have any change, so marking a cell is O(1) and draining costs the number of
+ * changed rows rather than the size of the map.
+ * </p>
+ */
+public class DirtyRegionTracker {
+
+    /**
+     * Receives each dirty page when the tracker is drained.
+     */
+    public interface RowVisitor {
+        /**
+         * @param page    Index of the page, row-major in pages.
+         * @param rowMask Bit n is set if row n of the page has changed.
+         */
+        void visit(int page, long rowMask);
+    }
+
+    private final int width;
+    private final int height;
+    private final int pagesX;
+    private final long[] dirtyRows;
+    private final IntArray dirtyPages = new IntArray();
+
+    /**
+     * @param width  Width of the layer in tiles.
+     * @param height Height of the layer in tiles.
+     */
+    public DirtyRegionTracker(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.pagesX = (width + TileLayerCache.PAGE_SIZE - 1) / TileLayerCache.PAGE_SIZE;
+        int pagesY = (height + TileLayerCache.PAGE_SIZE - 1) / TileLayerCache.PAGE_SIZE;
+        this.dirtyRows = new long[pagesX * pagesY];
+    }
+
+    /**
+     * Record that a cell has changed.
+     *
+     * @param x The x index.
+     * @param y The y index.
+     */
+    public synchronized void markDirty(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException("Error: Cell (" + x + ", " + y + ") is outside the layer.");
+        }
+        int page = (y / TileLayerCache.PAGE_SIZE) * pagesX + x / TileLayerCache.PAGE_SIZE;
+        if (dirtyRows[page] == 0) {
+            dirtyPages.add(page);
+        }
+        dirtyRows[page] |= 1L << (y % TileLayerCache.PAGE_SIZE);
+    }
+
+    /**
+     * @return True if nothing has changed since the last drain.
+     */
+    public synchronized boolean isClean() {
+        return dirtyPages.size == 0;
+    }
+
+    /**
+     * Hand every dirty page to a visitor and forget the changes.
+     *
+     * @param visitor The visitor.
+     */
+    public synchronized void drain(RowVisitor visitor) {
+        for (int i = 0; i < dirtyPages.size; i++) {
+            int page = dirtyPages.get(i);
+            visitor.visit(page, dirtyRows[page]);
+            dirtyRows[page] = 0;
+        }
+        dirtyPages.clear();
+    }
+}
@@ -0,0 +1,287 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.map;
+
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapLayers;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSets;
+import io.github.teamfractal.entity.enums.TerrainType;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The output of a {@link MapGenerator}: a terrain type and a variant for every tile.
+ * <p>
+ * The map holds no tile ids or yields of its own. {@link #applyTo} draws each terrain from the tiles that declare
+ * it in the loaded map's {@link TerrainTable}, the variant picking one where several do, and PlotManager rolls the
+ * plots' yields from those tiles' ranges just as it does for a map loaded from city.tmx.
+ * </p>
+ * <p>
+ * Tiles are stored in square blocks of {@link #BLOCK_SIZE} tiles, each holding flat byte arrays row by row. Smaller
+ * maps generate every block up front; maps of {@link #ON_DEMAND_THRESHOLD} tiles or more generate a block the first
+ * time one of its tiles is read and keep only the {@link #MAX_CACHED_BLOCKS} most recently used, since every tile is
+ * a pure function of the seed and its coordinates. The layers built by {@link #applyTo} read from the blocks too, so
+ * the memory a map takes does not grow with its area.
+ * </p>
+ */
+public class GeneratedMap {
+
+    private static final int TILE_WIDTH = 100;
+    private static final int TILE_HEIGHT = 50;
+
+    /**
+     * Side length of a block of tiles
+     */
+    static final int BLOCK_SIZE = 64;
+
+    /**
+     * Maps with at least this many tiles generate their blocks on demand
+     */
+    static final long ON_DEMAND_THRESHOLD = 1L << 22;
+
+    /**
+     * Blocks of an on-demand map kept in memory
+     */
+    static final int MAX_CACHED_BLOCKS = 64;
+
+    private final MapGenerator generator;
+    private final int width;
+    private final int height;
+    private final long seed;
+    private final int blocksX;
+
+    /**
+     * Every block, when they are generated up front, or null
+     */
+    private final Block[] blocks;
+
+    /**
+     * Recently read blocks of an on-demand map, least recently used first, or null
+     */
+    private final LinkedHashMap<Integer, Block> cached;
+
+    /**
+     * One square of the map. Every array is indexed by the tile's position within the block.
+     */
+    static final class Block {
+        final int x0;
+        final int y0;
+        final int width;
+        final int height;
+        final byte[] terrain;
+        final byte[] variant;
+
+        Block(int x0, int y0, int width, int height) {
+            this.x0 = x0;
+            this.y0 = y0;
+            this.width = width;
+            this.height = height;
+            int size = width * height;
+            terrain = new byte[size];
+            variant = new byte[size];
+        }
+
+        int index(int x, int y) {
+            return (y - y0) * width + (x - x0);
+        }
+    }
+
+    /**
+     * @param generator The generator the blocks come from.
+     * @param onDemand  True to generate blocks as they are read, false to leave every block to be filled up front.
+     */
+    GeneratedMap(MapGenerator generator, int width, int height, long seed, boolean onDemand) {
+        this.generator = generator;
+        this.width = width;
+        this.height = height;
+        this.seed = seed;
+        this.blocksX = (width + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int blocksY = (height + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        if (onDemand) {
+            blocks = null;
+            cached = new LinkedHashMap<Integer, Block>(MAX_CACHED_BLOCKS * 2, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Block> eldest) {
+                    return size() > MAX_CACHED_BLOCKS;
+                }
+            };
+        } else {
+            cached = null;
+            blocks = new Block[blocksX * blocksY];
+            for (int i = 0; i < blocks.length; i++) {
+                blocks[i] = createBlock(i);
+            }
+        }
+    }
+
+    private Block createBlock(int index) {
+        int x0 = (index % blocksX) * BLOCK_SIZE;
+        int y0 = (index / blocksX) * BLOCK_SIZE;
+        return new Block(x0, y0, Math.min(BLOCK_SIZE, width - x0), Math.min(BLOCK_SIZE, height - y0));
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return True if blocks are generated as they are read rather than all up front.
+     */
+    public boolean isOnDemand() {
+        return blocks == null;
+    }
+
+    public TerrainType getTerrain(int x, int y) {
+        Block block = blockAt(x, y);
+        return TerrainType.values()[block.terrain[block.index(x, y)]];
+    }
+
+    /**
+     * @return The tile's variant, which picks between the tiles declaring its terrain.
+     */
+    public int getVariant(int x, int y) {
+        Block block = blockAt(x, y);
+        return block.variant[block.index(x, y)];
+    }
+
+    /**
+     * Get the block holding a tile, generating it first if the map is on demand and the block isn't cached.
+     */
+    Block blockAt(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException("Error: Tile (" + x + ", " + y + ") is outside the map.");
+        }
+        int index = (y / BLOCK_SIZE) * blocksX + x / BLOCK_SIZE;
+        if (blocks != null) {
+            return blocks[index];
+        }
+        synchronized (cached) {
+            Block block = cached.get(index);
+            if (block == null) {
+                block = createBlock(index);
+                generator.generateBlock(block);
+                cached.put(index, block);
+            }
+            return block;
+        }
+    }
+
+    /**
+     * Replace the MapData, PlayerOverlay and RoboticonOverlay layers of a loaded map with layers drawn from this
+     * map, reusing the loaded map's tile sets. No layer holds a cell per tile: the terrain is read from this map's
+     * blocks, and the overlays only keep the tiles that have been changed, starting from the tile in the first cell
+     * of the overlays they replace.
+     *
+     * @param map The loaded map to rebuild, whose tile properties declare the terrains.
+     * @throws IllegalArgumentException if no tile in the map's tile sets declares one of the terrains.
+     */
+    public void applyTo(TiledMap map) {
+        applyTo(map, TerrainTable.compile(map.getTileSets()));
+    }
+
+    /**
+     * @param map   The loaded map to rebuild.
+     * @param table The terrain of the map's tiles.
+     * @throws IllegalArgumentException if no tile in the map's tile sets declares one of the terrains.
+     * @see #applyTo(TiledMap)
+     */
+    public void applyTo(TiledMap map, TerrainTable table) {
+        TiledMapTileSets tiles = map.getTileSets();
+        TerrainType[] terrains = TerrainType.values();
+        TiledMapTile[][] terrainTiles = new TiledMapTile[terrains.length][];
+        for (TerrainType terrain : terrains) {
+            int[] ids = table.tilesOf(terrain);
+            if (ids.length == 0) {
+                throw new IllegalArgumentException("Error: No tile declares the terrain " + terrain + ".");
+            }
+            terrainTiles[terrain.ordinal()] = new TiledMapTile[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                terrainTiles[terrain.ordinal()][i] = tiles.getTile(ids[i]);
+            }
+        }
+
+        MapLayers layers = map.getLayers();
+        TiledMapTile playerTile = blankTile(layers, "PlayerOverlay");
+        TiledMapTile roboticonTile = blankTile(layers, "RoboticonOverlay");
+        replaceLayer(layers, new TerrainLayer(terrainTiles));
+        replaceLayer(layers, new OverlayTileLayer("PlayerOverlay", width, height, TILE_WIDTH, TILE_HEIGHT,
+                playerTile));
+        replaceLayer(layers, new OverlayTileLayer("RoboticonOverlay", width, height, TILE_WIDTH, TILE_HEIGHT,
+                roboticonTile));
+        map.getProperties().put("width", width);
+        map.getProperties().put("height", height);
+    }
+
+    /**
+     * @return The tile an overlay shows before anything is changed, or null if the map has no such overlay.
+     */
+    private static TiledMapTile blankTile(MapLayers layers, String name) {
+        MapLayer layer = layers.get(name);
+        if (layer instanceof OverlayTileLayer) {
+            return ((OverlayTileLayer) layer).getDefaultTile();
+        }
+        if (layer instanceof TiledMapTileLayer) {
+            TiledMapTileLayer.Cell cell = ((TiledMapTileLayer) layer).getCell(0, 0);
+            return cell == null ? null : cell.getTile();
+        }
+        return null;
+    }
+
+    /**
+     * The MapData layer of a generated map, picking each tile from those declaring its terrain by its variant.
+     */
+    private final class TerrainLayer extends ComputedTileLayer {
+        private final TiledMapTile[][] terrainTiles;
+
+        TerrainLayer(TiledMapTile[][] terrainTiles) {
+            super("MapData", width, height, TILE_WIDTH, TILE_HEIGHT);
+            this.terrainTiles = terrainTiles;
+        }
+
+        @Override
+        public TiledMapTile getTile(int x, int y) {
+            Block block = blockAt(x, y);
+            int i = block.index(x, y);
+            TiledMapTile[] choices = terrainTiles[block.terrain[i]];
+            return choices[block.variant[i] % choices.length];
+        }
+    }
+
+    /**
+     * Swap a layer for the one of the same name, keeping its position in the draw order.
+     */
+    static void replaceLayer(MapLayers layers, MapLayer replacement) {
+        int index = layers.getIndex(replacement.getName());
+        if (index < 0) {
+            layers.add(replacement);
+            return;
+        }
+        MapLayer old = layers.get(index);
+        replacement.setVisible(old.isVisible());
+        replacement.setOpacity(old.getOpacity());
+        layers.remove(index);
+        layers.add(replacement);
+        // MapLayers only appends, so move the other layers back behind the replacement
+        for (int i = layers.getCount() - 2; i >= index; i--) {
+            MapLayer moved = layers.get(index);
+            layers.remove(index);
+            layers.add(moved);
+        }
+    }
+}
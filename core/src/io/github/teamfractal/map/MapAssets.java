@@ -0,0 +1,132 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.map;
+
+import com.badlogic.gdx.maps.MapLayers;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * A map loaded once and reused by every game, so starting a game never reloads tile sets or textures.
+ * <p>
+ * The MapData, PlayerOverlay and RoboticonOverlay layers of the loaded map are kept, along with the tile each
+ * overlay cell started with, and the terrain of the map's tiles. {@link #reset} puts the map back into its loaded
+ * state, touching only the overlay cells, or lays a generated map over it.
+ * </p>
+ */
+public class MapAssets implements Disposable {
+
+    private final TiledMap map;
+    private final TiledMapTileLayer mapData;
+    private final TiledMapTileLayer playerOverlay;
+    private final TiledMapTileLayer roboticonOverlay;
+    private final TiledMapTile[] playerTiles;
+    private final TiledMapTile[] roboticonTiles;
+    private final TerrainTable terrainTable;
+
+    /**
+     * @param map A freshly loaded map with MapData, PlayerOverlay and RoboticonOverlay layers, whose tile
+     *            properties declare their terrain. Disposed with this.
+     */
+    public MapAssets(TiledMap map) {
+        this(map, TerrainTable.compile(map.getTileSets()));
+    }
+
+    /**
+     * @param map          A freshly loaded map with MapData, PlayerOverlay and RoboticonOverlay layers. Disposed
+     *                     with this.
+     * @param terrainTable The terrain of the map's tiles.
+     */
+    public MapAssets(TiledMap map, TerrainTable terrainTable) {
+        this.map = map;
+        this.terrainTable = terrainTable;
+        MapLayers layers = map.getLayers();
+        this.mapData = (TiledMapTileLayer) layers.get("MapData");
+        this.playerOverlay = (TiledMapTileLayer) layers.get("PlayerOverlay");
+        this.roboticonOverlay = (TiledMapTileLayer) layers.get("RoboticonOverlay");
+        if (mapData == null || playerOverlay == null || roboticonOverlay == null) {
+            throw new IllegalArgumentException("Error: Map is missing the MapData or overlay layers.");
+        }
+        this.playerTiles = snapshot(playerOverlay);
+        this.roboticonTiles = snapshot(roboticonOverlay);
+    }
+
+    /**
+     * @return The tile of every cell of the layer, or null if the layer can revert its changes itself.
+     */
+    private static TiledMapTile[] snapshot(TiledMapTileLayer layer) {
+        if (layer instanceof OverlayTileLayer) {
+            return null;
+        }
+        TiledMapTile[] tiles = new TiledMapTile[layer.getWidth() * layer.getHeight()];
+        for (int y = 0; y < layer.getHeight(); y++) {
+            for (int x = 0; x < layer.getWidth(); x++) {
+                TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+                tiles[y * layer.getWidth() + x] = cell == null ? null : cell.getTile();
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Prepare the map for a new game.
+     *
+     * @param generated The generated map to lay over the loaded one, or null to play on the loaded map.
+     * @return The map, with the layers for the new game.
+     */
+    public TiledMap reset(GeneratedMap generated) {
+        if (generated != null) {
+            generated.applyTo(map, terrainTable);
+            return map;
+        }
+
+        MapLayers layers = map.getLayers();
+        if (layers.get("MapData") != mapData) {
+            GeneratedMap.replaceLayer(layers, mapData);
+            GeneratedMap.replaceLayer(layers, playerOverlay);
+            GeneratedMap.replaceLayer(layers, roboticonOverlay);
+            map.getProperties().put("width", mapData.getWidth());
+            map.getProperties().put("height", mapData.getHeight());
+        }
+        restore(playerOverlay, playerTiles);
+        restore(roboticonOverlay, roboticonTiles);
+        return map;
+    }
+
+    private static void restore(TiledMapTileLayer layer, TiledMapTile[] tiles) {
+        if (tiles == null) {
+            ((OverlayTileLayer) layer).revert();
+            return;
+        }
+        for (int y = 0; y < layer.getHeight(); y++) {
+            for (int x = 0; x < layer.getWidth(); x++) {
+                TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+                if (cell != null) {
+                    cell.setTile(tiles[y * layer.getWidth() + x]);
+                }
+            }
+        }
+    }
+
+    public TiledMap getMap() {
+        return map;
+    }
+
+    /**
+     * @return The terrain and yield ranges of the map's tiles.
+     */
+    public TerrainTable getTerrainTable() {
+        return terrainTable;
+    }
+
+    @Override
+    public void dispose() {
+        map.dispose();
+    }
+}
@@ -0,0 +1,211 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.map;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSets;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.XmlReader;
+import io.github.teamfractal.entity.enums.ResourceType;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Compiles a TMX map into the binary format read by {@link CompiledMap}, so games can start without parsing XML.
+ * <p>
+ * Run at build time by the compileMaps Gradle task. Only what the game uses is kept: the map and tile size, tile
+ * sets made of individual tile images, CSV-encoded tile layers, and the terrain and yield ranges of every tile as
+ * compiled by {@link TerrainTable}. Tile flip flags are dropped.
+ * </p>
+ */
+public class MapCompiler {
+
+    /**
+     * Tiled stores flip flags in the top three bits of a global tile id
+     */
+    private static final int GID_MASK = 0x1FFFFFFF;
+
+    private static final ResourceType[] YIELDS = {ResourceType.ORE, ResourceType.ENERGY, ResourceType.FOOD};
+
+    private MapCompiler() {
+    }
+
+    /**
+     * Compile a TMX file.
+     *
+     * @param tmx    The TMX map.
+     * @param output The file to write the compiled map to.
+     * @throws IOException If either file cannot be read or written.
+     */
+    public static void compile(File tmx, File output) throws IOException {
+        Reader reader = new FileReader(tmx);
+        byte[] compiled;
+        try {
+            compiled = compile(new XmlReader().parse(reader));
+        } finally {
+            reader.close();
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(output)));
+        try {
+            out.write(compiled);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Compile a parsed TMX document.
+     *
+     * @param map The root map element.
+     * @return The compiled map.
+     */
+    static byte[] compile(XmlReader.Element map) throws IOException {
+        int width = map.getIntAttribute("width");
+        int height = map.getIntAttribute("height");
+
+        // Tiles carrying only their properties are enough for the terrain table
+        Array<XmlReader.Element> tileSetElements = map.getChildrenByName("tileset");
+        TiledMapTileSets propertyTiles = new TiledMapTileSets();
+        for (XmlReader.Element tileSetElement : tileSetElements) {
+            if (tileSetElement.getAttribute("source", null) != null) {
+                throw new IllegalArgumentException("Error: External tile set " + tileSetElement.getAttribute("source")
+                        + " is not supported.");
+            }
+            if (tileSetElement.getChildByName("image") != null) {
+                throw new IllegalArgumentException("Error: Tile set " + tileSetElement.getAttribute("name", "")
+                        + " is a single image; only tile sets of individual images are supported.");
+            }
+            int firstGid = tileSetElement.getIntAttribute("firstgid");
+            TiledMapTileSet tileSet = new TiledMapTileSet();
+            for (XmlReader.Element tileElement : tileSetElement.getChildrenByName("tile")) {
+                StaticTiledMapTile tile = new StaticTiledMapTile((TextureRegion) null);
+                tile.setId(firstGid + tileElement.getIntAttribute("id"));
+                XmlReader.Element properties = tileElement.getChildByName("properties");
+                if (properties != null) {
+                    for (XmlReader.Element property : properties.getChildrenByName("property")) {
+                        tile.getProperties().put(property.getAttribute("name"), property.getAttribute("value", ""));
+                    }
+                }
+                tileSet.putTile(tile.getId(), tile);
+            }
+            propertyTiles.addTileSet(tileSet);
+        }
+        TerrainTable terrain = TerrainTable.compile(propertyTiles);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(CompiledMap.MAGIC);
+        out.writeInt(CompiledMap.VERSION);
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeInt(map.getIntAttribute("tilewidth"));
+        out.writeInt(map.getIntAttribute("tileheight"));
+
+        out.writeInt(tileSetElements.size);
+        for (int set = 0; set < tileSetElements.size; set++) {
+            XmlReader.Element tileSetElement = tileSetElements.get(set);
+            int firstGid = tileSetElement.getIntAttribute("firstgid");
+            Array<XmlReader.Element> tiles = tileSetElement.getChildrenByName("tile");
+            out.writeUTF(tileSetElement.getAttribute("name", ""));
+            out.writeInt(firstGid);
+            out.writeInt(tiles.size);
+            for (XmlReader.Element tileElement : tiles) {
+                int gid = firstGid + tileElement.getIntAttribute("id");
+                TiledMapTile tile = propertyTiles.getTileSet(set).getTile(gid);
+                out.writeInt(gid);
+                out.writeUTF(tileElement.getChildByName("image").getAttribute("source"));
+                out.writeByte(terrain.codeOf(tile));
+                out.writeBoolean(terrain.isDeclared(tile));
+                for (ResourceType resource : YIELDS) {
+                    out.writeShort(terrain.getMinimumYield(tile, resource));
+                    out.writeShort(terrain.getMaximumYield(tile, resource));
+                }
+            }
+        }
+
+        Array<XmlReader.Element> layers = map.getChildrenByName("layer");
+        int cells = width * height;
+        int[][] gids = new int[layers.size][];
+        for (int i = 0; i < layers.size; i++) {
+            gids[i] = readLayer(layers.get(i), width, height);
+        }
+
+        // Layer data follows the header, so its offsets are known once the header's size is
+        int headerSize = out.size() + 4;
+        for (XmlReader.Element layer : layers) {
+            headerSize += 2 + layer.getAttribute("name", "").getBytes("UTF-8").length + 1 + 4 + 4;
+        }
+        out.writeInt(layers.size);
+        for (int i = 0; i < layers.size; i++) {
+            XmlReader.Element layer = layers.get(i);
+            out.writeUTF(layer.getAttribute("name", ""));
+            out.writeByte(layer.getIntAttribute("visible", 1));
+            out.writeFloat(layer.getFloatAttribute("opacity", 1));
+            out.writeInt(headerSize + 4 * cells * i);
+        }
+
+        for (int i = 0; i < layers.size; i++) {
+            for (int cell = 0; cell < cells; cell++) {
+                out.writeInt(gids[i][cell]);
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Read a CSV layer into bottom-up rows, as TiledMapTileLayer stores them.
+     */
+    private static int[] readLayer(XmlReader.Element layer, int width, int height) {
+        XmlReader.Element data = layer.getChildByName("data");
+        if (data == null || !"csv".equals(data.getAttribute("encoding", null))) {
+            throw new IllegalArgumentException("Error: Layer " + layer.getAttribute("name", "")
+                    + " is not CSV encoded.");
+        }
+        String[] values = data.getText().trim().split("\\s*,\\s*");
+        if (values.length != width * height) {
+            throw new IllegalArgumentException("Error: Layer " + layer.getAttribute("name", "") + " has "
+                    + values.length + " cells, expected " + width * height + ".");
+        }
+        int[] gids = new int[width * height];
+        for (int row = 0; row < height; row++) {
+            int y = height - 1 - row;
+            for (int x = 0; x < width; x++) {
+                gids[y * width + x] = (int) (Long.parseLong(values[row * width + x].trim()) & GID_MASK);
+            }
+        }
+        return gids;
+    }
+
+    /**
+     * Compile maps given as pairs of TMX input and compiled output paths.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0 || args.length % 2 != 0) {
+            System.err.println("Usage: MapCompiler <input.tmx> <output.rqmap> [<input.tmx> <output.rqmap> ...]");
+            System.exit(1);
+        }
+        for (int i = 0; i < args.length; i += 2) {
+            long start = System.nanoTime();
+            File output = new File(args[i + 1]);
+            compile(new File(args[i]), output);
+            System.out.println(String.format("Compiled %s to %s (%d bytes) in %.0f ms", args[i], args[i + 1],
+                    output.length(), (System.nanoTime() - start) / 1e6));
+        }
+    }
+}
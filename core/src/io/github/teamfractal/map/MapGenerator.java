@@ -0,0 +1,222 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.map;
+
+import io.github.teamfractal.entity.enums.TerrainType;
+
+/**
+ * Seeded procedural generator of maps.
+ * <p>
+ * Terrain comes from layered value noise: low elevation is water, high elevation is hills, and the lowlands in
+ * between are split into city, forest and grass by two further noise fields. Every value is a pure function of
+ * the seed and the tile's coordinates, so the map is split into square chunks that are generated in parallel on a
+ * worker pool, and the same seed always gives the same map whatever the chunk size or number of threads. Maps too
+ * large to hold are not generated up front at all; their blocks are generated as they are read.
+ * </p>
+ */
+public class MapGenerator {
+
+    /**
+     * Feature size of the largest noise octave, in tiles
+     */
+    private static final float FEATURE_SIZE = 24f;
+    private static final int OCTAVES = 3;
+
+    private static final float WATER_LEVEL = 0.36f;
+    private static final float HILL_LEVEL = 0.66f;
+    private static final float CITY_LEVEL = 0.62f;
+    private static final float FOREST_LEVEL = 0.55f;
+
+    /**
+     * Salts that give each noise field its own stream from one seed
+     */
+    private static final long ELEVATION = 0x1L;
+    private static final long MOISTURE = 0x2L;
+    private static final long URBAN = 0x3L;
+
+    /**
+     * Number of distinct tile variants; a terrain declared by more tiles than this only uses the first few
+     */
+    private static final int VARIANTS = 0x80;
+
+    private final int width;
+    private final int height;
+    private final long seed;
+    private final int chunkSize;
+    private final int threads;
+
+    /**
+     * Create a generator using every available processor.
+     *
+     * @param width  Width of the map in tiles.
+     * @param height Height of the map in tiles.
+     * @param seed   Seed the map is derived from.
+     */
+    public MapGenerator(int width, int height, long seed) {
+        this(width, height, seed, ChunkExecutor.DEFAULT_CHUNK_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param width     Width of the map in tiles.
+     * @param height    Height of the map in tiles.
+     * @param seed      Seed the map is derived from.
+     * @param chunkSize Side length of the square chunks generated as one task.
+     * @param threads   Size of the worker pool.
+     */
+    public MapGenerator(int width, int height, long seed, int chunkSize, int threads) {
+        if (width < 1 || height < 1 || chunkSize < 1 || threads < 1) {
+            throw new IllegalArgumentException("Error: Map size, chunk size and threads must be positive.");
+        }
+        if ((long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Error: Map is too large.");
+        }
+        this.width = width;
+        this.height = height;
+        this.seed = seed;
+        this.chunkSize = chunkSize;
+        this.threads = threads;
+    }
+
+    /**
+     * Generate the map's terrain, up front unless the map has at least
+     * {@link GeneratedMap#ON_DEMAND_THRESHOLD} tiles.
+     *
+     * @return The generated map.
+     */
+    public GeneratedMap generate() {
+        return generate((long) width * height >= GeneratedMap.ON_DEMAND_THRESHOLD);
+    }
+
+    /**
+     * @param onDemand True to generate blocks as they are read, false to generate every tile now.
+     */
+    GeneratedMap generate(boolean onDemand) {
+        final GeneratedMap map = new GeneratedMap(this, width, height, seed, onDemand);
+        if (onDemand) {
+            return map;
+        }
+        ChunkExecutor.forEachChunk(width, height, chunkSize, threads, new ChunkExecutor.ChunkTask() {
+            @Override
+            public void run(int x0, int y0, int x1, int y1) {
+                for (int y = y0; y < y1; y++) {
+                    for (int x = x0; x < x1; x++) {
+                        generateTile(map.blockAt(x, y), x, y);
+                    }
+                }
+            }
+        });
+        return map;
+    }
+
+    /**
+     * Fill in every tile of a block of an on-demand map.
+     */
+    void generateBlock(GeneratedMap.Block block) {
+        for (int y = block.y0; y < block.y0 + block.height; y++) {
+            for (int x = block.x0; x < block.x0 + block.width; x++) {
+                generateTile(block, x, y);
+            }
+        }
+    }
+
+    private void generateTile(GeneratedMap.Block block, int x, int y) {
+        float elevation = fractalNoise(seed ^ ELEVATION, x, y);
+        TerrainType terrain;
+        if (elevation < WATER_LEVEL) {
+            terrain = TerrainType.WATER;
+        } else if (elevation > HILL_LEVEL) {
+            terrain = TerrainType.HILL;
+        } else if (fractalNoise(seed ^ URBAN, x, y) > CITY_LEVEL) {
+            terrain = TerrainType.CITY;
+        } else if (fractalNoise(seed ^ MOISTURE, x, y) > FOREST_LEVEL) {
+            terrain = TerrainType.FOREST;
+        } else {
+            terrain = TerrainType.GRASS;
+        }
+
+        int i = block.index(x, y);
+        block.terrain[i] = (byte) terrain.ordinal();
+        block.variant[i] = (byte) (hash(seed, x, y) & (VARIANTS - 1));
+    }
+
+    /**
+     * Sum of several octaves of value noise, normalised to [0, 1).
+     */
+    private static float fractalNoise(long seed, int x, int y) {
+        float sum = 0;
+        float amplitude = 1;
+        float total = 0;
+        float scale = FEATURE_SIZE;
+        for (int octave = 0; octave < OCTAVES; octave++) {
+            sum += amplitude * valueNoise(seed + octave, x / scale, y / scale);
+            total += amplitude;
+            amplitude *= 0.5f;
+            scale *= 0.5f;
+        }
+        return sum / total;
+    }
+
+    /**
+     * Smoothly interpolated random values on an integer lattice.
+     */
+    private static float valueNoise(long seed, float x, float y) {
+        int x0 = (int) Math.floor(x);
+        int y0 = (int) Math.floor(y);
+        float tx = smooth(x - x0);
+        float ty = smooth(y - y0);
+
+        float top = lerp(lattice(seed, x0, y0), lattice(seed, x0 + 1, y0), tx);
+        float bottom = lerp(lattice(seed, x0, y0 + 1), lattice(seed, x0 + 1, y0 + 1), tx);
+        return lerp(top, bottom, ty);
+    }
+
+    private static float lattice(long seed, int x, int y) {
+        return (hash(seed, x, y) & 0xFFFFFF) / (float) 0x1000000;
+    }
+
+    private static float smooth(float t) {
+        return t * t * (3 - 2 * t);
+    }
+
+    private static float lerp(float a, float b, float t) {
+        return a + (b - a) * t;
+    }
+
+    /**
+     * Mix a seed and a coordinate pair into 32 well distributed bits.
+     */
+    static int hash(long seed, int x, int y) {
+        return (int) (ChunkExecutor.chunkSeed(seed, x, y) >>> 32);
+    }
+
+    /**
+     * Time the generation of a large map: <code>MapGenerator [width] [height] [seed]</code>.
+     */
+    public static void main(String[] args) {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+        int height = args.length > 1 ? Integer.parseInt(args[1]) : width;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+
+        long start = System.nanoTime();
+        GeneratedMap map = new MapGenerator(width, height, seed).generate();
+        long elapsed = System.nanoTime() - start;
+
+        // Reading every tile also generates the blocks of an on-demand map
+        int[] counts = new int[TerrainType.values().length];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                counts[map.getTerrain(x, y).ordinal()]++;
+            }
+        }
+        long read = System.nanoTime() - start - elapsed;
+        System.out.println(String.format("Generated %dx%d map in %.0f ms (%s), read every tile in %.0f ms", width,
+                height, elapsed / 1e6, map.isOnDemand() ? "on demand" : "up front", read / 1e6));
+        for (TerrainType terrain : TerrainType.values()) {
+            System.out.println(String.format("%-8s %5.1f%%", terrain, 100.0 * counts[terrain.ordinal()] / ((long) width * height)));
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.map;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.scenes.scene2d.InputEvent;
+import com.badlogic.gdx.scenes.scene2d.ui.Image;
+import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
+import io.github.teamfractal.RoboticonQuest;
+import io.github.teamfractal.entity.LandPlot;
+import io.github.teamfractal.entity.PlotStore;
+
+/**
+ * An overview of plot ownership and roboticons, kept in an offscreen {@link FrameBuffer}.
+ * <p>
+ * Each plot maps to one texel (several plots share a texel on maps larger than {@link #MAX_TEXTURE_SIZE}). The
+ * minimap listens to the plot store and repaints only the texels of plots whose owner or roboticon has changed, so
+ * drawing it each frame is a single textured quad whatever the size of the map. Clicking it centres the camera on
+ * the clicked point.
+ * </p>
+ */
+public class Minimap implements Disposable, PlotStore.PlotListener {
+
+    static final int MAX_TEXTURE_SIZE = 1024;
+
+    private static final Color UNOWNED = new Color(0.18f, 0.24f, 0.16f, 1);
+    /**
+     * Colour of each player by index, shared with the zoomed out overview
+     */
+    static final Color[] PLAYER_COLOURS = {
+            new Color(0.85f, 0.2f, 0.2f, 1),
+            new Color(0.2f, 0.4f, 0.9f, 1),
+            new Color(0.9f, 0.8f, 0.2f, 1),
+            new Color(0.6f, 0.3f, 0.8f, 1)
+    };
+
+    /**
+     * How much lighter a plot with a roboticon is drawn than its owner's colour
+     */
+    private static final float ROBOTICON_HIGHLIGHT = 0.45f;
+
+    private final RoboticonQuest game;
+    private final PlotStore plots;
+    private final OrthographicCamera camera;
+    private final int textureWidth;
+    private final int textureHeight;
+    private final float worldWidth;
+    private final float worldHeight;
+
+    private final FrameBuffer frameBuffer;
+    private final ShapeRenderer shapes;
+    private final Image image;
+    private final Color texel = new Color();
+
+    /**
+     * Plots changed since the last update, as y * width + x
+     */
+    private final IntArray pending = new IntArray();
+    private boolean cleared;
+
+    /**
+     * @param game     The game, used to find each owner's colour.
+     * @param plots    The plot store to show.
+     * @param mapLayer The terrain layer, giving the map's size in world space.
+     * @param camera   The camera moved by clicking the minimap.
+     * @param maxSize  Largest width or height of the minimap on screen.
+     */
+    public Minimap(RoboticonQuest game, PlotStore plots, TiledMapTileLayer mapLayer,
+                   final OrthographicCamera camera, float maxSize) {
+        this.game = game;
+        this.plots = plots;
+        this.camera = camera;
+        this.textureWidth = Math.min(plots.getWidth(), MAX_TEXTURE_SIZE);
+        this.textureHeight = Math.min(plots.getHeight(), MAX_TEXTURE_SIZE);
+        this.worldWidth = mapLayer.getWidth() * mapLayer.getTileWidth();
+        this.worldHeight = (mapLayer.getHeight() + 1) * mapLayer.getTileHeight() / 2;
+
+        frameBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, textureWidth, textureHeight, false);
+        shapes = new ShapeRenderer();
+        shapes.getProjectionMatrix().setToOrtho2D(0, 0, textureWidth, textureHeight);
+
+        // Frame buffer textures are upside down relative to screen space
+        TextureRegion region = new TextureRegion(frameBuffer.getColorBufferTexture());
+        region.flip(false, true);
+        image = new Image(region);
+
+        float scale = maxSize / Math.max(worldWidth, worldHeight);
+        image.setSize(worldWidth * scale, worldHeight * scale);
+        image.addListener(new ClickListener() {
+            @Override
+            public void clicked(InputEvent event, float x, float y) {
+                camera.position.x = x / image.getWidth() * worldWidth;
+                camera.position.y = y / image.getHeight() * worldHeight;
+                event.stop();
+            }
+        });
+
+        plots.addListener(this);
+    }
+
+    /**
+     * @return The actor that shows the minimap; add it to the stage.
+     */
+    public Image getImage() {
+        return image;
+    }
+
+    @Override
+    public void plotChanged(int x, int y) {
+        synchronized (pending) {
+            pending.add(y * plots.getWidth() + x);
+        }
+    }
+
+    @Override
+    public void plotsFilled(int x0, int y0, int x1, int y1) {
+        // Plots are filled in unowned, which is how the minimap starts out
+    }
+
+    /**
+     * Repaint the texels of every plot that has changed. Must be called outside any other batch, before the
+     * stage is drawn.
+     */
+    public void update() {
+        synchronized (pending) {
+            if (cleared && pending.size == 0) {
+                return;
+            }
+
+            frameBuffer.begin();
+            if (!cleared) {
+                // The minimap is created with the map, before anything is owned
+                Gdx.gl.glClearColor(UNOWNED.r, UNOWNED.g, UNOWNED.b, UNOWNED.a);
+                Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+                cleared = true;
+            }
+            shapes.begin(ShapeRenderer.ShapeType.Filled);
+            for (int i = 0; i < pending.size; i++) {
+                int plot = pending.get(i);
+                int x = plot % plots.getWidth();
+                int y = plot / plots.getWidth();
+                shapes.setColor(colourOf(plots.getPlot(x, y)));
+                shapes.rect((long) x * textureWidth / plots.getWidth(), (long) y * textureHeight / plots.getHeight(), 1, 1);
+            }
+            shapes.end();
+            frameBuffer.end();
+            pending.clear();
+        }
+    }
+
+    private Color colourOf(LandPlot plot) {
+        if (!plot.hasOwner()) {
+            return UNOWNED;
+        }
+        int index = game.getPlayerIndex(plot.getOwner());
+        texel.set(playerColour(index));
+        if (plot.hasRoboticon()) {
+            texel.lerp(Color.WHITE, ROBOTICON_HIGHLIGHT);
+        }
+        return texel;
+    }
+
+    static Color playerColour(int index) {
+        return PLAYER_COLOURS[Math.max(index, 0) % PLAYER_COLOURS.length];
+    }
+
+    @Override
+    public void dispose() {
+        plots.removeListener(this);
+        image.remove();
+        frameBuffer.dispose();
+        shapes.dispose();
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.map;
+
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.utils.IntMap;
+
+/**
+ * An overlay layer that shows its base tiles everywhere except where they have been changed, such as the ownership
+ * and roboticon overlays of a generated map, whose base is the same tile everywhere.
+ * <p>
+ * Only the changed tiles are stored, keyed by y * width + x, so the layer grows with the number of plots bought
+ * or worked rather than with the area of the map. Setting a tile back to its base tile forgets it again. Layers
+ * whose base differs from tile to tile, such as those of a {@link CompiledMap}, override {@link #getBaseTile}.
+ * </p>
+ */
+public class OverlayTileLayer extends ComputedTileLayer {
+
+    private final TiledMapTile defaultTile;
+    private final IntMap<TiledMapTile> changed = new IntMap<TiledMapTile>();
+
+    /**
+     * @param name        The layer's name.
+     * @param width       Width of the layer in tiles.
+     * @param height      Height of the layer in tiles.
+     * @param tileWidth   Width of a tile in pixels.
+     * @param tileHeight  Height of a tile in pixels.
+     * @param defaultTile The tile shown wherever no other has been set.
+     */
+    public OverlayTileLayer(String name, int width, int height, int tileWidth, int tileHeight,
+                            TiledMapTile defaultTile) {
+        super(name, width, height, tileWidth, tileHeight);
+        this.defaultTile = defaultTile;
+    }
+
+    @Override
+    public TiledMapTile getTile(int x, int y) {
+        int index = index(x, y);
+        if (changed.size > 0 && changed.containsKey(index)) {
+            return changed.get(index);
+        }
+        return getBaseTile(x, y);
+    }
+
+    @Override
+    public void setTile(int x, int y, TiledMapTile tile) {
+        int index = index(x, y);
+        if (tile == getBaseTile(x, y)) {
+            changed.remove(index);
+        } else {
+            changed.put(index, tile);
+        }
+    }
+
+    /**
+     * @param x The x index, inside the layer.
+     * @param y The y index, inside the layer.
+     * @return The tile shown at the position until it is changed; the default tile unless overridden.
+     */
+    protected TiledMapTile getBaseTile(int x, int y) {
+        return defaultTile;
+    }
+
+    /**
+     * Forget every change, showing the base tiles again.
+     */
+    public void revert() {
+        changed.clear();
+    }
+
+    /**
+     * @return The tile shown wherever no other has been set.
+     */
+    public TiledMapTile getDefaultTile() {
+        return defaultTile;
+    }
+
+    /**
+     * @return The number of tiles that differ from the default.
+     */
+    public int getChangedCount() {
+        return changed.size;
+    }
+
+    private int index(int x, int y) {
+        if (x < 0 || x >= getWidth() || y < 0 || y >= getHeight()) {
+            throw new IndexOutOfBoundsException("Error: Tile (" + x + ", " + y + ") is outside the layer.");
+        }
+        return y * getWidth() + x;
+    }
+}
@@ -0,0 +1,324 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.map;
+
+import io.github.teamfractal.RoboticonQuest;
+import io.github.teamfractal.entity.Player;
+import io.github.teamfractal.entity.PlotStore;
+import io.github.teamfractal.entity.enums.ResourceType;
+
+import java.util.Arrays;
+
+/**
+ * Plot data summarised over square cells of {@link #CELL_SIZE} by {@link #CELL_SIZE} plots, or larger cells on maps
+ * more than {@link #MAX_CELLS} cells across, for drawing the map when zoomed out too far for individual tiles to be
+ * seen.
+ * <p>
+ * Each cell records the player owning the most of its plots, what share of it is owned, the resource its plots
+ * yield most of, and how much of that yield is being produced. Cells are only recomputed after one of their plots
+ * changes, and read the plots in place without allocating. Base yields never change once a plot is filled in, so a
+ * cell's dominant resource is only worked out once. Plots of a paged store that have not been filled in yet are
+ * left out rather than filled in to be summarised, and their cells are summarised again once the store fills them.
+ * </p>
+ */
+public class OverviewGrid implements PlotStore.PlotListener {
+
+    /**
+     * Side length of a cell in plots, on maps small enough
+     */
+    public static final int CELL_SIZE = 4;
+
+    /**
+     * Most cells along either side; larger maps double the cell size until the grid fits, so the grid's memory and
+     * texture stay bounded however large the map is
+     */
+    static final int MAX_CELLS = 1024;
+
+    /**
+     * Production per plot at which a cell counts as fully productive
+     */
+    static final float FULL_HEAT = 8;
+
+    /**
+     * Receives each cell as it is recomputed.
+     */
+    public interface CellVisitor {
+        void cellChanged(int cellX, int cellY);
+    }
+
+    private static final byte UNKNOWN = -1;
+
+    /**
+     * Dominant resource of a cell being worked out; a fill meanwhile resets it to UNKNOWN so the result isn't kept
+     */
+    private static final byte PENDING = -2;
+    private static final byte ORE = 0;
+    private static final byte ENERGY = 1;
+    private static final byte FOOD = 2;
+
+    private final RoboticonQuest game;
+    private final PlotStore plots;
+    private final int cellSize;
+    private final int width;
+    private final int height;
+    private final DirtyRegionTracker changes;
+
+    /**
+     * Index of the player owning the most of the cell's plots, or -1 if none are owned
+     */
+    private final byte[] owner;
+    private final float[] ownedShare;
+    private final byte[] dominantResource;
+    private final float[] heat;
+
+    /**
+     * Plots owned by each player in the cell being summarised, reused from cell to cell
+     */
+    private int[] ownedCounts = new int[0];
+
+    /**
+     * @param game  The game, used to find each owner's index.
+     * @param plots The plots to summarise.
+     */
+    public OverviewGrid(RoboticonQuest game, PlotStore plots) {
+        this.game = game;
+        this.plots = plots;
+        int size = CELL_SIZE;
+        while ((plots.getWidth() + size - 1) / size > MAX_CELLS || (plots.getHeight() + size - 1) / size > MAX_CELLS) {
+            size *= 2;
+        }
+        this.cellSize = size;
+        this.width = (plots.getWidth() + cellSize - 1) / cellSize;
+        this.height = (plots.getHeight() + cellSize - 1) / cellSize;
+        this.changes = new DirtyRegionTracker(width, height);
+        this.owner = new byte[width * height];
+        this.ownedShare = new float[width * height];
+        this.dominantResource = new byte[width * height];
+        this.heat = new float[width * height];
+        Arrays.fill(dominantResource, UNKNOWN);
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                changes.markDirty(x, y);
+            }
+        }
+        plots.addListener(this);
+    }
+
+    /**
+     * @return Side length of a cell in plots: {@link #CELL_SIZE}, or a larger power of two multiple on large maps.
+     */
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public void plotChanged(int x, int y) {
+        changes.markDirty(x / cellSize, y / cellSize);
+    }
+
+    @Override
+    public void plotsFilled(int x0, int y0, int x1, int y1) {
+        for (int cellY = y0 / cellSize; cellY <= (y1 - 1) / cellSize; cellY++) {
+            for (int cellX = x0 / cellSize; cellX <= (x1 - 1) / cellSize; cellX++) {
+                synchronized (dominantResource) {
+                    dominantResource[cellY * width + cellX] = UNKNOWN;
+                }
+                changes.markDirty(cellX, cellY);
+            }
+        }
+    }
+
+    /**
+     * @return True if no cell needs recomputing.
+     */
+    public boolean isClean() {
+        return changes.isClean();
+    }
+
+    /**
+     * Recompute every cell whose plots have changed. Changes are tracked by row, so the other cells of a changed row
+     * within the same page are recomputed too.
+     *
+     * @param visitor Told about each recomputed cell, or null.
+     */
+    public void refresh(final CellVisitor visitor) {
+        final int pagesX = (width + TileLayerCache.PAGE_SIZE - 1) / TileLayerCache.PAGE_SIZE;
+        changes.drain(new DirtyRegionTracker.RowVisitor() {
+            @Override
+            public void visit(int page, long rowMask) {
+                int x0 = (page % pagesX) * TileLayerCache.PAGE_SIZE;
+                int y0 = (page / pagesX) * TileLayerCache.PAGE_SIZE;
+                int x1 = Math.min(x0 + TileLayerCache.PAGE_SIZE, width);
+                for (int row = 0; row < TileLayerCache.PAGE_SIZE; row++) {
+                    if ((rowMask & (1L << row)) == 0) {
+                        continue;
+                    }
+                    for (int x = x0; x < x1; x++) {
+                        summarise(x, y0 + row);
+                        if (visitor != null) {
+                            visitor.cellChanged(x, y0 + row);
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    private void summarise(int cellX, int cellY) {
+        int x0 = cellX * cellSize;
+        int y0 = cellY * cellSize;
+        int x1 = Math.min(x0 + cellSize, plots.getWidth());
+        int y1 = Math.min(y0 + cellSize, plots.getHeight());
+        int cell = cellY * width + cellX;
+
+        int players = game.getPlayerList().size();
+        if (ownedCounts.length < players) {
+            ownedCounts = new int[players];
+        } else {
+            Arrays.fill(ownedCounts, 0, players, 0);
+        }
+        boolean findDominant;
+        synchronized (dominantResource) {
+            findDominant = dominantResource[cell] == UNKNOWN;
+            if (findDominant) {
+                dominantResource[cell] = PENDING;
+            }
+        }
+
+        int count = 0;
+        int owned = 0;
+        int food = 0, energy = 0, ore = 0, produced = 0;
+        for (int y = y0; y < y1; y++) {
+            for (int x = x0; x < x1; x++) {
+                if (!plots.isFilled(x, y)) {
+                    continue;
+                }
+                count++;
+                if (findDominant) {
+                    food += plots.getYield(x, y, ResourceType.FOOD);
+                    energy += plots.getYield(x, y, ResourceType.ENERGY);
+                    ore += plots.getYield(x, y, ResourceType.ORE);
+                }
+
+                Player player = plots.getOwner(x, y);
+                int index = player == null ? -1 : game.getPlayerIndex(player);
+                if (index >= 0) {
+                    ownedCounts[index]++;
+                    owned++;
+                    produced += plots.getOutput(x, y, ResourceType.FOOD) + plots.getOutput(x, y, ResourceType.ENERGY)
+                            + plots.getOutput(x, y, ResourceType.ORE);
+                }
+            }
+        }
+
+        int best = -1;
+        int bestCount = 0;
+        for (int i = 0; i < players; i++) {
+            if (ownedCounts[i] > bestCount) {
+                best = i;
+                bestCount = ownedCounts[i];
+            }
+        }
+        owner[cell] = (byte) best;
+        if (count == 0) {
+            // Nothing filled in yet to summarise
+            ownedShare[cell] = 0;
+            heat[cell] = 0;
+            synchronized (dominantResource) {
+                if (dominantResource[cell] == PENDING) {
+                    dominantResource[cell] = UNKNOWN;
+                }
+            }
+            return;
+        }
+        ownedShare[cell] = (float) owned / count;
+        heat[cell] = Math.min(1, produced / (count * FULL_HEAT));
+
+        if (findDominant) {
+            byte dominant;
+            if (ore >= energy && ore >= food) {
+                dominant = ORE;
+            } else if (energy >= food) {
+                dominant = ENERGY;
+            } else {
+                dominant = FOOD;
+            }
+            synchronized (dominantResource) {
+                // Otherwise a fill reset it, and has marked the cell to be summarised again
+                if (dominantResource[cell] == PENDING) {
+                    dominantResource[cell] = dominant;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The index of the player owning the most of the cell's plots, or -1 if none are owned.
+     */
+    public int getOwner(int cellX, int cellY) {
+        return owner[index(cellX, cellY)];
+    }
+
+    /**
+     * @return The fraction of the cell's plots that are owned by anyone.
+     */
+    public float getOwnedShare(int cellX, int cellY) {
+        return ownedShare[index(cellX, cellY)];
+    }
+
+    /**
+     * @return The resource with the highest total base yield over the cell, or null if none of its plots have been
+     * filled in yet.
+     */
+    public ResourceType getDominantResource(int cellX, int cellY) {
+        byte dominant;
+        synchronized (dominantResource) {
+            dominant = dominantResource[index(cellX, cellY)];
+        }
+        switch (dominant) {
+            case UNKNOWN:
+            case PENDING:
+                return null;
+            case ORE:
+                return ResourceType.ORE;
+            case ENERGY:
+                return ResourceType.ENERGY;
+            default:
+                return ResourceType.FOOD;
+        }
+    }
+
+    /**
+     * @return The cell's production, from 0 when nothing is produced to 1 at {@link #FULL_HEAT} per plot.
+     */
+    public float getHeat(int cellX, int cellY) {
+        return heat[index(cellX, cellY)];
+    }
+
+    private int index(int cellX, int cellY) {
+        if (cellX < 0 || cellX >= width || cellY < 0 || cellY >= height) {
+            throw new IndexOutOfBoundsException("Error: Cell (" + cellX + ", " + cellY + ") is outside the grid.");
+        }
+        return cellY * width + cellX;
+    }
+
+    /**
+     * Stop listening to the plot store.
+     */
+    public void dispose() {
+        plots.removeListener(this);
+    }
+}
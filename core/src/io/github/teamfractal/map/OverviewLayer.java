@@ -0,0 +1,164 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.map;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Disposable;
+import io.github.teamfractal.RoboticonQuest;
+import io.github.teamfractal.entity.PlotStore;
+import io.github.teamfractal.entity.enums.ResourceType;
+
+/**
+ * Draws an {@link OverviewGrid} in place of the tile layers once the camera is zoomed out past
+ * {@link #ZOOM_THRESHOLD}.
+ * <p>
+ * Every cell is one texel of a single texture, coloured by its dominant resource, tinted towards the colour of the
+ * player owning most of it, and brightened by how much it produces. Cells of a paged map that has not been played
+ * on yet are drawn in a plain colour until their plots are filled in. Only recomputed cells are repainted, and the
+ * texture is drawn as one quad per {@link #CELLS_PER_QUAD} by {@link #CELLS_PER_QUAD} cells on screen. The grid is
+ * never more than {@link OverviewGrid#MAX_CELLS} cells across, so even the largest maps take a few thousand quads
+ * when zoomed out.
+ * </p>
+ */
+public class OverviewLayer implements Disposable {
+
+    /**
+     * Camera zoom above which the overview is drawn instead of the tiles
+     */
+    public static final float ZOOM_THRESHOLD = 4f;
+
+    private static final Color ORE = new Color(0.55f, 0.45f, 0.38f, 1);
+    private static final Color ENERGY = new Color(0.9f, 0.8f, 0.25f, 1);
+    private static final Color FOOD = new Color(0.35f, 0.7f, 0.3f, 1);
+    private static final Color UNFILLED = new Color(0.3f, 0.3f, 0.3f, 1);
+
+    /**
+     * Brightness of a cell producing nothing, relative to one at full heat
+     */
+    private static final float COLD = 0.55f;
+
+    /**
+     * Cells per side of the square drawn as one quad
+     */
+    private static final int CELLS_PER_QUAD = 16;
+
+    private final OverviewGrid grid;
+    private final float tileWidth;
+    private final float tileHeight;
+    private final float surfaceOffsetY;
+
+    private final Pixmap pixmap;
+    private final Texture texture;
+    private final SpriteBatch batch;
+    private final Color colour = new Color();
+    private boolean painted;
+
+    /**
+     * @param game   The game, used to find each owner's colour.
+     * @param plots  The plots to summarise.
+     * @param picker The picker for the same map, giving the tile geometry.
+     */
+    public OverviewLayer(RoboticonQuest game, PlotStore plots, TilePicker picker) {
+        this.grid = new OverviewGrid(game, plots);
+        this.tileWidth = picker.getTileWidth();
+        this.tileHeight = picker.getTileHeight();
+        this.surfaceOffsetY = picker.getSurfaceOffsetY();
+
+        pixmap = new Pixmap(grid.getWidth(), grid.getHeight(), Pixmap.Format.RGBA8888);
+        texture = new Texture(pixmap);
+        texture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        batch = new SpriteBatch();
+    }
+
+    /**
+     * @return True if the camera is zoomed out far enough for the overview to replace the tiles.
+     */
+    public static boolean isVisible(OrthographicCamera camera) {
+        return camera.zoom > ZOOM_THRESHOLD;
+    }
+
+    /**
+     * Repaint the cells whose plots have changed and draw the quads the camera can see.
+     *
+     * @param camera The camera the map is viewed through.
+     */
+    public void render(OrthographicCamera camera) {
+        if (!grid.isClean()) {
+            grid.refresh(new OverviewGrid.CellVisitor() {
+                @Override
+                public void cellChanged(int cellX, int cellY) {
+                    pixmap.drawPixel(cellX, cellY, cellColour(cellX, cellY));
+                    painted = true;
+                }
+            });
+        }
+        if (painted) {
+            texture.draw(pixmap, 0, 0);
+            painted = false;
+        }
+
+        // A plot's share of the plane is tileWidth by tileHeight / 2, offset by a quarter tile for the stagger
+        float cellWidth = grid.getCellSize() * tileWidth;
+        float cellHeight = grid.getCellSize() * tileHeight / 2;
+        float originX = -tileWidth / 4;
+        float originY = tileHeight / 4 + surfaceOffsetY;
+
+        float halfWidth = camera.viewportWidth * camera.zoom / 2;
+        float halfHeight = camera.viewportHeight * camera.zoom / 2;
+        float quadWidth = CELLS_PER_QUAD * cellWidth;
+        float quadHeight = CELLS_PER_QUAD * cellHeight;
+        int quadsX = (grid.getWidth() + CELLS_PER_QUAD - 1) / CELLS_PER_QUAD;
+        int quadsY = (grid.getHeight() + CELLS_PER_QUAD - 1) / CELLS_PER_QUAD;
+        int minX = Math.max(0, (int) Math.floor((camera.position.x - halfWidth - originX) / quadWidth));
+        int maxX = Math.min(quadsX - 1, (int) Math.floor((camera.position.x + halfWidth - originX) / quadWidth));
+        int minY = Math.max(0, (int) Math.floor((camera.position.y - halfHeight - originY) / quadHeight));
+        int maxY = Math.min(quadsY - 1, (int) Math.floor((camera.position.y + halfHeight - originY) / quadHeight));
+
+        batch.setProjectionMatrix(camera.combined);
+        batch.begin();
+        for (int quadY = minY; quadY <= maxY; quadY++) {
+            for (int quadX = minX; quadX <= maxX; quadX++) {
+                int cellX = quadX * CELLS_PER_QUAD;
+                int cellY = quadY * CELLS_PER_QUAD;
+                int cellsX = Math.min(CELLS_PER_QUAD, grid.getWidth() - cellX);
+                int cellsY = Math.min(CELLS_PER_QUAD, grid.getHeight() - cellY);
+                // Pixmap row 0 is cell row 0, at the bottom of the map, so flip vertically
+                batch.draw(texture, originX + cellX * cellWidth, originY + cellY * cellHeight,
+                        cellsX * cellWidth, cellsY * cellHeight, cellX, cellY, cellsX, cellsY, false, true);
+            }
+        }
+        batch.end();
+    }
+
+    private int cellColour(int cellX, int cellY) {
+        ResourceType resource = grid.getDominantResource(cellX, cellY);
+        if (resource == null) {
+            return Color.rgba8888(UNFILLED);
+        }
+        colour.set(resource == ResourceType.ORE ? ORE : resource == ResourceType.ENERGY ? ENERGY : FOOD);
+
+        int owner = grid.getOwner(cellX, cellY);
+        if (owner >= 0) {
+            colour.lerp(Minimap.playerColour(owner), grid.getOwnedShare(cellX, cellY));
+        }
+        float brightness = COLD + (1 - COLD) * grid.getHeat(cellX, cellY);
+        colour.mul(brightness, brightness, brightness, 1);
+        return Color.rgba8888(colour);
+    }
+
+    @Override
+    public void dispose() {
+        grid.dispose();
+        pixmap.dispose();
+        texture.dispose();
+        batch.dispose();
+    }
+}
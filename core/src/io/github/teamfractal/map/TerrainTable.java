@@ -0,0 +1,282 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.map;
+
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSets;
+import com.badlogic.gdx.utils.IntArray;
+import io.github.teamfractal.entity.enums.ResourceType;
+import io.github.teamfractal.entity.enums.TerrainType;
+import io.github.teamfractal.exception.NotCommonResourceException;
+
+import java.util.Random;
+
+/**
+ * Terrain and yield ranges of every tile in a map's tile sets, compiled from tile properties at load time.
+ * <p>
+ * A tile declares its terrain with a {@value #TERRAIN} property naming a {@link TerrainType}, and may declare the
+ * range each yield is rolled from with {@value #ORE}, {@value #ENERGY} and {@value #FOOD} properties of the form
+ * "min-max" or a single number. Tiles without a terrain are grass, and missing ranges default to the terrain's base
+ * yield plus a bonus below {@link #DEFAULT_YIELD_BONUS}. Everything is stored in arrays indexed by tile id, so
+ * classifying a tile is a single array read. The table also lists the tiles that declare each terrain, which
+ * generated maps draw their terrain from.
+ * </p>
+ */
+public class TerrainTable {
+
+    public static final String TERRAIN = "terrain";
+    public static final String ORE = "ore";
+    public static final String ENERGY = "energy";
+    public static final String FOOD = "food";
+
+    /**
+     * Largest random bonus added to a terrain's base yield when a tile declares no range, exclusive
+     */
+    public static final int DEFAULT_YIELD_BONUS = 6;
+
+    private static final TerrainType[] TERRAINS = TerrainType.values();
+    private static final int DEFAULT = TerrainType.GRASS.ordinal();
+
+    /**
+     * Terrain code of each tile id, as a {@link TerrainType} ordinal
+     */
+    private final byte[] terrain;
+
+    /**
+     * Smallest yield and number of possible yields, indexed [ Ore, Energy, Food ][ tile id ]; the last entry of
+     * each holds the defaults for tiles that are missing or outside the table
+     */
+    private final short[][] minimum;
+    private final short[][] span;
+
+    /**
+     * Ids of the tiles that declare each terrain, indexed by terrain code
+     */
+    private final IntArray[] declared = new IntArray[TERRAINS.length];
+
+    private TerrainTable(int size) {
+        terrain = new byte[size + 1];
+        minimum = new short[3][size + 1];
+        span = new short[3][size + 1];
+        for (int id = 0; id <= size; id++) {
+            setTerrain(id, DEFAULT);
+        }
+        for (int code = 0; code < declared.length; code++) {
+            declared[code] = new IntArray();
+        }
+    }
+
+    /**
+     * Compile the table from the properties of every tile.
+     *
+     * @param tiles The map's tile sets.
+     * @return The table.
+     */
+    public static TerrainTable compile(TiledMapTileSets tiles) {
+        int size = 0;
+        for (TiledMapTileSet set : tiles) {
+            for (TiledMapTile tile : set) {
+                size = Math.max(size, tile.getId() + 1);
+            }
+        }
+
+        TerrainTable table = new TerrainTable(size);
+        for (TiledMapTileSet set : tiles) {
+            for (TiledMapTile tile : set) {
+                table.load(tile.getId(), tile.getProperties());
+            }
+        }
+        // Tile sets aren't iterated in id order, so sort the lists to keep them the same from one load to the next
+        for (IntArray ids : table.declared) {
+            ids.sort();
+        }
+        return table;
+    }
+
+    /**
+     * Build a table from the terrain and yield ranges {@link MapCompiler} wrote out, without going back through
+     * tile properties.
+     *
+     * @param ids      Tile ids.
+     * @param codes    Terrain code of each tile.
+     * @param declared Whether each tile declares its terrain, rather than being grass for want of one.
+     * @param ranges   Yield ranges of each tile: smallest and largest ore, energy then food.
+     * @return The table.
+     */
+    static TerrainTable of(int[] ids, byte[] codes, boolean[] declared, short[][] ranges) {
+        int size = 0;
+        for (int id : ids) {
+            size = Math.max(size, id + 1);
+        }
+
+        TerrainTable table = new TerrainTable(size);
+        for (int i = 0; i < ids.length; i++) {
+            int id = ids[i];
+            if (codes[i] < 0 || codes[i] >= TERRAINS.length) {
+                throw new IllegalArgumentException("Error: Tile " + id + " has unknown terrain code " + codes[i] + ".");
+            }
+            table.terrain[id] = codes[i];
+            for (int resource = 0; resource < 3; resource++) {
+                table.setRange(id, resource, ranges[i][2 * resource], ranges[i][2 * resource + 1]);
+            }
+            if (declared[i]) {
+                table.declared[codes[i]].add(id);
+            }
+        }
+        for (IntArray list : table.declared) {
+            list.sort();
+        }
+        return table;
+    }
+
+    private void load(int id, MapProperties properties) {
+        String name = properties.get(TERRAIN, String.class);
+        if (name != null) {
+            int code;
+            try {
+                code = TerrainType.valueOf(name.trim().toUpperCase()).ordinal();
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Error: Tile " + id + " has unknown terrain \"" + name + "\".");
+            }
+            setTerrain(id, code);
+            declared[code].add(id);
+        }
+        loadRange(id, 0, properties.get(ORE));
+        loadRange(id, 1, properties.get(ENERGY));
+        loadRange(id, 2, properties.get(FOOD));
+    }
+
+    private void setTerrain(int id, int code) {
+        TerrainType type = TERRAINS[code];
+        terrain[id] = (byte) code;
+        setRange(id, 0, type.getBaseOre(), type.getBaseOre() + DEFAULT_YIELD_BONUS - 1);
+        setRange(id, 1, type.getBaseEnergy(), type.getBaseEnergy() + DEFAULT_YIELD_BONUS - 1);
+        setRange(id, 2, type.getBaseFood(), type.getBaseFood() + DEFAULT_YIELD_BONUS - 1);
+    }
+
+    private void loadRange(int id, int resource, Object value) {
+        if (value == null) {
+            return;
+        }
+        String range = value.toString().trim();
+        int dash = range.indexOf('-', 1);
+        try {
+            if (dash < 0) {
+                int amount = Integer.parseInt(range);
+                setRange(id, resource, amount, amount);
+            } else {
+                setRange(id, resource, Integer.parseInt(range.substring(0, dash).trim()),
+                        Integer.parseInt(range.substring(dash + 1).trim()));
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Error: Tile " + id + " has malformed yield range \"" + range + "\".");
+        }
+    }
+
+    private void setRange(int id, int resource, int min, int max) {
+        if (min < 0 || max < min || max > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Error: Tile " + id + " has invalid yield range " + min + "-" + max + ".");
+        }
+        minimum[resource][id] = (short) min;
+        span[resource][id] = (short) (max - min + 1);
+    }
+
+    /**
+     * @return The row of the table for a tile; missing tiles use the grass defaults in the last row.
+     */
+    private int rowOf(TiledMapTile tile) {
+        if (tile == null || tile.getId() < 0 || tile.getId() >= terrain.length - 1) {
+            return terrain.length - 1;
+        }
+        return tile.getId();
+    }
+
+    /**
+     * @param tile A tile, or null for an empty cell.
+     * @return The tile's terrain code, the ordinal of its {@link TerrainType}.
+     */
+    public byte codeOf(TiledMapTile tile) {
+        return terrain[rowOf(tile)];
+    }
+
+    /**
+     * @param tile A tile, or null for an empty cell.
+     * @return The terrain the tile depicts.
+     */
+    public TerrainType terrainOf(TiledMapTile tile) {
+        return TERRAINS[codeOf(tile)];
+    }
+
+    /**
+     * @param code A terrain code.
+     * @return The terrain with that code.
+     */
+    public static TerrainType terrainOf(byte code) {
+        return TERRAINS[code];
+    }
+
+    /**
+     * @return True if the tile declares its terrain with a {@value #TERRAIN} property.
+     */
+    boolean isDeclared(TiledMapTile tile) {
+        return tile != null && declared[codeOf(tile)].contains(tile.getId());
+    }
+
+    /**
+     * @param terrain A terrain.
+     * @return Ids of the tiles that declare the terrain with a {@value #TERRAIN} property, in ascending order.
+     *         Tiles that are grass only because they declare no terrain are not included.
+     */
+    public int[] tilesOf(TerrainType terrain) {
+        return declared[terrain.ordinal()].toArray();
+    }
+
+    /**
+     * Roll a yield for a plot on a tile from the tile's range.
+     *
+     * @param tile     A tile, or null for an empty cell.
+     * @param resource The resource.
+     * @param random   The random stream to roll from.
+     * @return The yield.
+     */
+    public int rollYield(TiledMapTile tile, ResourceType resource, Random random) {
+        int row = rowOf(tile);
+        int index = indexOf(resource);
+        return minimum[index][row] + random.nextInt(span[index][row]);
+    }
+
+    /**
+     * @return The smallest yield of a resource a plot on the tile can have.
+     */
+    public int getMinimumYield(TiledMapTile tile, ResourceType resource) {
+        return minimum[indexOf(resource)][rowOf(tile)];
+    }
+
+    /**
+     * @return The largest yield of a resource a plot on the tile can have.
+     */
+    public int getMaximumYield(TiledMapTile tile, ResourceType resource) {
+        int row = rowOf(tile);
+        int index = indexOf(resource);
+        return minimum[index][row] + span[index][row] - 1;
+    }
+
+    private static int indexOf(ResourceType resource) {
+        switch (resource) {
+            case ORE:
+                return 0;
+            case ENERGY:
+                return 1;
+            case FOOD:
+                return 2;
+            default:
+                throw new NotCommonResourceException(resource);
+        }
+    }
+}
@@ -0,0 +1,326 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.map;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSets;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.ArrayList;
+
+/**
+ * Draws a tile layer from vertex data baked into {@link SpriteCache}s rather than rebuilt every frame.
+ * <p>
+ * The layer is split into pages of {@link #PAGE_SIZE} by {@link #PAGE_SIZE} tiles. A page is baked the first time
+ * it comes into view, with each of its rows stored as a separate cache so rows can still be drawn back to front
+ * across pages, exactly as IsometricStaggeredTiledMapRenderer orders them. Only pages overlapping the camera are
+ * drawn, and at most {@link #MAX_RESIDENT_PAGES} are kept baked, the least recently drawn being rebaked in place
+ * when another is needed, so frame time and memory stay flat however large the map is. Tiles of a
+ * {@link ComputedTileLayer} are read straight from the layer rather than through a cell.
+ * </p>
+ * <p>
+ * Layers that change, such as the overlays, pass their {@link DirtyRegionTracker} to {@link #refresh} before
+ * drawing; only the changed rows of baked pages are re-uploaded.
+ * </p>
+ */
+public class TileLayerCache implements Disposable {
+
+    /**
+     * Side length of a page in tiles; a page holds at most PAGE_SIZE * PAGE_SIZE sprites, below SpriteCache's
+     * limit of 8191 with indices, and its rows fit the 64 bit masks of {@link DirtyRegionTracker}
+     */
+    public static final int PAGE_SIZE = 64;
+
+    static final int MAX_RESIDENT_PAGES = 48;
+
+    private final TiledMapTileLayer layer;
+
+    /**
+     * The layer, if it computes its tiles, or null
+     */
+    private final ComputedTileLayer computed;
+    private final int tileWidth;
+    private final int tileHeight;
+    private final int pagesX;
+
+    /**
+     * Height of the tallest tile image, used to widen the rows considered visible
+     */
+    private final float maxImageHeight;
+
+    /**
+     * Resident page for each page index, or null if not baked
+     */
+    private final Page[] pageAt;
+    private final ArrayList<Page> resident = new ArrayList<Page>();
+    private long frame;
+
+    /**
+     * Scratch list of the distinct textures in the row being baked
+     */
+    private final ArrayList<Texture> rowTextures = new ArrayList<Texture>();
+
+    /**
+     * Rebakes the changed rows of each dirty page handed over by a tracker
+     */
+    private final DirtyRegionTracker.RowVisitor rebaker = new DirtyRegionTracker.RowVisitor() {
+        @Override
+        public void visit(int index, long rowMask) {
+            Page page = pageAt[index];
+            if (page == null) {
+                return;
+            }
+            for (int row = 0; row < PAGE_SIZE; row++) {
+                if ((rowMask & (1L << row)) == 0) {
+                    continue;
+                }
+                int y = (index / pagesX) * PAGE_SIZE + row;
+                if (page.rowCache[row] < 0 || countSprites(index, y) > page.rowSprites[row]) {
+                    // The row has outgrown its slot in the cache, so the whole page has to be rebuilt
+                    bake(page, index);
+                    return;
+                }
+                page.cache.beginCache(page.rowCache[row]);
+                addRow(page, index, y);
+                page.cache.endCache();
+            }
+        }
+    };
+
+    /**
+     * A baked page: one cache id per row, or -1 where the row has no tiles, and the number of sprites each row
+     * was first baked with, which a rebake of that row alone may not exceed.
+     */
+    private static final class Page {
+        final SpriteCache cache = new SpriteCache(PAGE_SIZE * PAGE_SIZE, true);
+        final int[] rowCache = new int[PAGE_SIZE];
+        final int[] rowSprites = new int[PAGE_SIZE];
+        int index = -1;
+        long lastDrawn;
+    }
+
+    /**
+     * @param layer The static layer to draw.
+     * @param tiles The tile sets the layer's tiles come from, giving the tallest tile without reading every cell.
+     */
+    public TileLayerCache(TiledMapTileLayer layer, TiledMapTileSets tiles) {
+        this.layer = layer;
+        this.computed = layer instanceof ComputedTileLayer ? (ComputedTileLayer) layer : null;
+        this.tileWidth = (int) layer.getTileWidth();
+        this.tileHeight = (int) layer.getTileHeight();
+        this.pagesX = (layer.getWidth() + PAGE_SIZE - 1) / PAGE_SIZE;
+        int pagesY = (layer.getHeight() + PAGE_SIZE - 1) / PAGE_SIZE;
+        this.pageAt = new Page[pagesX * pagesY];
+
+        float tallest = tileHeight;
+        for (TiledMapTileSet tileSet : tiles) {
+            for (TiledMapTile tile : tileSet) {
+                if (tile.getTextureRegion() != null) {
+                    tallest = Math.max(tallest, tile.getTextureRegion().getRegionHeight() + tile.getOffsetY());
+                }
+            }
+        }
+        this.maxImageHeight = tallest;
+    }
+
+    /**
+     * Draw the part of the layer the camera can see.
+     *
+     * @param camera The camera the map is viewed through.
+     */
+    public void render(OrthographicCamera camera) {
+        frame++;
+        float halfWidth = camera.viewportWidth * camera.zoom / 2;
+        float halfHeight = camera.viewportHeight * camera.zoom / 2;
+        float left = camera.position.x - halfWidth;
+        float right = camera.position.x + halfWidth;
+        float bottom = camera.position.y - halfHeight;
+        float top = camera.position.y + halfHeight;
+
+        // Row y is drawn from y * tileHeight / 2 up to that plus the tallest image
+        int minY = Math.max(0, (int) Math.floor((bottom - maxImageHeight) / (tileHeight / 2f)));
+        int maxY = Math.min(layer.getHeight() - 1, (int) Math.ceil(top / (tileHeight / 2f)));
+        // Column x spans x * tileWidth, less half a tile on odd rows, to that plus a tile
+        int minX = Math.max(0, (int) Math.floor(left / tileWidth) - 1);
+        int maxX = Math.min(layer.getWidth() - 1, (int) Math.ceil(right / tileWidth));
+        if (minY > maxY || minX > maxX) {
+            return;
+        }
+
+        int minPageX = minX / PAGE_SIZE;
+        int maxPageX = maxX / PAGE_SIZE;
+        Page current = null;
+        for (int y = maxY; y >= minY; y--) {
+            int pageY = y / PAGE_SIZE;
+            for (int pageX = minPageX; pageX <= maxPageX; pageX++) {
+                Page page = page(pageY * pagesX + pageX);
+                int id = page.rowCache[y % PAGE_SIZE];
+                if (id < 0) {
+                    continue;
+                }
+                if (page != current) {
+                    if (current != null) {
+                        current.cache.end();
+                    }
+                    current = page;
+                    current.cache.setProjectionMatrix(camera.combined);
+                    current.cache.begin();
+                }
+                current.cache.draw(id);
+            }
+        }
+        if (current != null) {
+            current.cache.end();
+        }
+    }
+
+    /**
+     * Get a baked page, baking it into the least recently drawn slot if needed.
+     */
+    private Page page(int index) {
+        Page page = pageAt[index];
+        if (page == null) {
+            page = leastRecentlyDrawn();
+            if (page == null) {
+                page = new Page();
+                resident.add(page);
+            } else {
+                pageAt[page.index] = null;
+            }
+            bake(page, index);
+            pageAt[index] = page;
+        }
+        page.lastDrawn = frame;
+        return page;
+    }
+
+    /**
+     * Find a page to rebake once the resident limit is reached. Pages already drawn this frame are never chosen,
+     * so the limit is exceeded rather than evicting a page that is still on screen.
+     *
+     * @return The page to rebake, or null if a new page should be created.
+     */
+    private Page leastRecentlyDrawn() {
+        if (resident.size() < MAX_RESIDENT_PAGES) {
+            return null;
+        }
+        Page oldest = null;
+        for (Page candidate : resident) {
+            if (candidate.lastDrawn < frame && (oldest == null || candidate.lastDrawn < oldest.lastDrawn)) {
+                oldest = candidate;
+            }
+        }
+        return oldest;
+    }
+
+    /**
+     * Re-upload the rows of baked pages that have changed. Pages that are not baked simply pick the changes up
+     * when they are next baked.
+     *
+     * @param tracker The tracker recording changes to this cache's layer.
+     */
+    public void refresh(DirtyRegionTracker tracker) {
+        tracker.drain(rebaker);
+    }
+
+    /**
+     * Bake every row of a page into its own cache.
+     */
+    private void bake(Page page, int index) {
+        page.index = index;
+        page.cache.clear();
+        int y0 = (index / pagesX) * PAGE_SIZE;
+
+        for (int row = 0; row < PAGE_SIZE; row++) {
+            int y = y0 + row;
+            page.rowCache[row] = -1;
+            page.rowSprites[row] = 0;
+            if (y >= layer.getHeight()) {
+                continue;
+            }
+            int sprites = countSprites(index, y);
+            if (sprites == 0) {
+                continue;
+            }
+            page.cache.beginCache();
+            addRow(page, index, y);
+            page.rowCache[row] = page.cache.endCache();
+            page.rowSprites[row] = sprites;
+        }
+    }
+
+    private int countSprites(int index, int y) {
+        int x0 = (index % pagesX) * PAGE_SIZE;
+        int x1 = Math.min(x0 + PAGE_SIZE, layer.getWidth());
+        int sprites = 0;
+        for (int x = x0; x < x1; x++) {
+            if (tileAt(x, y) != null) {
+                sprites++;
+            }
+        }
+        return sprites;
+    }
+
+    /**
+     * Add one row of a page to the cache being defined. Tiles in one row never overlap each other, so the row
+     * is grouped by texture to keep the number of texture switches down to the number of distinct tiles.
+     */
+    private void addRow(Page page, int index, int y) {
+        int x0 = (index % pagesX) * PAGE_SIZE;
+        int x1 = Math.min(x0 + PAGE_SIZE, layer.getWidth());
+
+        rowTextures.clear();
+        for (int x = x0; x < x1; x++) {
+            TiledMapTile tile = tileAt(x, y);
+            if (tile != null && !rowTextures.contains(tile.getTextureRegion().getTexture())) {
+                rowTextures.add(tile.getTextureRegion().getTexture());
+            }
+        }
+
+        float offsetX = (y & 1) == 1 ? tileWidth / 2f : 0;
+        for (Texture texture : rowTextures) {
+            for (int x = x0; x < x1; x++) {
+                TiledMapTile tile = tileAt(x, y);
+                if (tile == null || tile.getTextureRegion().getTexture() != texture) {
+                    continue;
+                }
+                TextureRegion region = tile.getTextureRegion();
+                page.cache.add(region, x * tileWidth - offsetX + tile.getOffsetX(),
+                        y * tileHeight / 2f + tile.getOffsetY());
+            }
+        }
+    }
+
+    private TiledMapTile tileAt(int x, int y) {
+        if (computed != null) {
+            return computed.getTile(x, y);
+        }
+        TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+        return cell == null ? null : cell.getTile();
+    }
+
+    /**
+     * @return The number of pages currently baked.
+     */
+    public int getResidentPages() {
+        return resident.size();
+    }
+
+    @Override
+    public void dispose() {
+        for (Page page : resident) {
+            page.cache.dispose();
+        }
+        resident.clear();
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.map;
+
+/**
+ * Exact hit testing of world positions against the diamonds of a staggered isometric map.
+ * <p>
+ * The layout drawn by IsometricStaggeredTiledMapRenderer repeats every tile width across and every two rows up.
+ * One such block holds a whole even-row diamond and a corner of four odd-row neighbours, so a mask with one entry
+ * per pixel of the block says which of the five diamonds the pixel belongs to. Picking is then a floor, a mask
+ * read and a table lookup, with no allocation.
+ * </p>
+ */
+public class TilePicker {
+
+    /**
+     * Returned when a position is not over any tile of the map
+     */
+    public static final int NONE = -1;
+
+    /**
+     * Tile offsets from the block's even-row diamond, indexed by mask value:
+     * [ centre, bottom left, bottom right, top left, top right ]
+     */
+    private static final int[] OFFSET_X = {0, 0, 1, 0, 1};
+    private static final int[] OFFSET_Y = {0, -1, -1, 1, 1};
+
+    private final int mapWidth;
+    private final int mapHeight;
+    private final int tileWidth;
+    private final int tileHeight;
+    private final float surfaceOffsetY;
+    private final byte[] mask;
+
+    /**
+     * @param mapWidth       Width of the map in tiles.
+     * @param mapHeight      Height of the map in tiles.
+     * @param tileWidth      Width of a tile's diamond in pixels.
+     * @param tileHeight     Height of a tile's diamond in pixels, i.e. the distance between two rows of the
+     *                       same parity.
+     * @param surfaceOffsetY Height of the diamond's bottom corner above the bottom of the tile image.
+     */
+    public TilePicker(int mapWidth, int mapHeight, int tileWidth, int tileHeight, float surfaceOffsetY) {
+        if (mapWidth < 1 || mapHeight < 1 || tileWidth < 2 || tileHeight < 2) {
+            throw new IllegalArgumentException("Error: Map and tile dimensions must be positive.");
+        }
+        this.mapWidth = mapWidth;
+        this.mapHeight = mapHeight;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.surfaceOffsetY = surfaceOffsetY;
+        this.mask = buildMask(tileWidth, tileHeight);
+    }
+
+    /**
+     * Classify every pixel of one block by the diamond that contains its centre.
+     */
+    private static byte[] buildMask(int width, int height) {
+        byte[] mask = new byte[width * height];
+        float halfWidth = width / 2f;
+        float halfHeight = height / 2f;
+        for (int py = 0; py < height; py++) {
+            float dy = (py + 0.5f - halfHeight) / halfHeight;
+            for (int px = 0; px < width; px++) {
+                float dx = (px + 0.5f - halfWidth) / halfWidth;
+                byte region;
+                if (Math.abs(dx) + Math.abs(dy) <= 1) {
+                    region = 0;
+                } else if (dy < 0) {
+                    region = (byte) (dx < 0 ? 1 : 2);
+                } else {
+                    region = (byte) (dx < 0 ? 3 : 4);
+                }
+                mask[py * width + px] = region;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Find the tile under a world position.
+     *
+     * @param worldX The x position in world space.
+     * @param worldY The y position in world space.
+     * @return The id of the tile, <code>y * mapWidth + x</code>, or {@link #NONE}.
+     */
+    public int pick(float worldX, float worldY) {
+        float y = worldY - surfaceOffsetY;
+        int blockX = (int) Math.floor(worldX / tileWidth);
+        int blockY = (int) Math.floor(y / tileHeight);
+        int px = clamp((int) (worldX - blockX * (float) tileWidth), tileWidth);
+        int py = clamp((int) (y - blockY * (float) tileHeight), tileHeight);
+
+        int region = mask[py * tileWidth + px];
+        int tileX = blockX + OFFSET_X[region];
+        int tileY = blockY * 2 + OFFSET_Y[region];
+        if (tileX < 0 || tileX >= mapWidth || tileY < 0 || tileY >= mapHeight) {
+            return NONE;
+        }
+        return tileY * mapWidth + tileX;
+    }
+
+    private static int clamp(int value, int size) {
+        return value < 0 ? 0 : value >= size ? size - 1 : value;
+    }
+
+    /**
+     * @param tile A tile id returned by {@link #pick}.
+     * @return The tile's x index.
+     */
+    public int tileX(int tile) {
+        return tile % mapWidth;
+    }
+
+    /**
+     * @param tile A tile id returned by {@link #pick}.
+     * @return The tile's y index.
+     */
+    public int tileY(int tile) {
+        return tile / mapWidth;
+    }
+
+    /**
+     * @return The x position in world space of the centre of a tile's diamond.
+     */
+    public float centreX(int x, int y) {
+        return x * tileWidth - ((y & 1) == 1 ? tileWidth / 2f : 0) + tileWidth / 2f;
+    }
+
+    /**
+     * @return The y position in world space of the centre of a tile's diamond.
+     */
+    public float centreY(int x, int y) {
+        return y * tileHeight / 2f + tileHeight / 2f + surfaceOffsetY;
+    }
+
+    public int getTileWidth() {
+        return tileWidth;
+    }
+
+    public int getTileHeight() {
+        return tileHeight;
+    }
+
+    public float getSurfaceOffsetY() {
+        return surfaceOffsetY;
+    }
+}
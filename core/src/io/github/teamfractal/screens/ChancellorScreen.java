@@ -11,6 +11,7 @@ import com.badlogic.gdx.scenes.scene2d.Stage;
 import io.github.teamfractal.RoboticonQuest;
 import io.github.teamfractal.actors.ChancellorActor;
 import io.github.teamfractal.entity.Player;
+import io.github.teamfractal.entity.enums.LedgerReason;
 
 /**
  * Created by Matt TP on 06/04/2017.
@@ -92,7 +93,7 @@ public class ChancellorScreen extends Stage {
         if (chancellorIsDisplayed) {
             System.out.println("Chancellor Clicked!");
             Player p = RoboticonQuest.getInstance().getPlayer();
-            p.setMoney(p.getMoney() + 15);
+            p.setMoney(p.getMoney() + 15, LedgerReason.CHANCELLOR);
             hideChancellor();
             endPhase();
         }
@@ -8,13 +8,15 @@ package io.github.teamfractal.screens;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.maps.tiled.*;
-import com.badlogic.gdx.maps.tiled.renderers.IsometricStaggeredTiledMapRenderer;
-import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
+import com.badlogic.gdx.scenes.scene2d.InputListener;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.scenes.scene2d.utils.DragListener;
@@ -24,7 +26,15 @@ import io.github.teamfractal.actors.GameScreenActors;
 import io.github.teamfractal.entity.AIPlayer;
 import io.github.teamfractal.entity.LandPlot;
 import io.github.teamfractal.entity.Player;
+import io.github.teamfractal.entity.enums.GamePhase;
 import io.github.teamfractal.entity.enums.ResourceType;
+import io.github.teamfractal.map.CompiledMap;
+import io.github.teamfractal.map.GeneratedMap;
+import io.github.teamfractal.map.MapAssets;
+import io.github.teamfractal.map.Minimap;
+import io.github.teamfractal.map.OverviewLayer;
+import io.github.teamfractal.map.TileLayerCache;
+import io.github.teamfractal.map.TilePicker;
 import io.github.teamfractal.util.TileConverter;
 
 import java.util.ArrayList;
@@ -33,12 +43,55 @@ public class GameScreen extends AbstractAnimationScreen implements Screen  {
 	private final RoboticonQuest game;
 	private final OrthographicCamera camera;
 	private final Stage stage;
-	private IsometricStaggeredTiledMapRenderer renderer;
+	/**
+	 * Each layer is drawn from baked vertex data; the overlays re-upload only the rows the plot manager has
+	 * marked as changed
+	 */
+	private TileLayerCache mapCache;
+	private TileLayerCache playerOverlayCache;
+	private TileLayerCache roboticonOverlayCache;
 
 	private TiledMap tmx;
+	private MapAssets mapAssets;
+	private static final String MAP_FILE = "tiles/city.tmx";
+	private static final String COMPILED_MAP_FILE = "tiles/city.rqmap";
+	private GeneratedMap generatedMap;
 	private TiledMapTileLayer mapLayer;
 	private TiledMapTileLayer playerOverlay;
 
+	/**
+	 * Height of a tile's top face above the bottom of its image; the tile art is 15px deeper than a map row
+	 */
+	private static final float TILE_SURFACE_OFFSET = 15;
+
+	private TilePicker picker;
+	private final Vector3 pickPoint = new Vector3();
+	private int hoveredTile = TilePicker.NONE;
+	private final ShapeRenderer hoverRenderer;
+
+	/**
+	 * Overview of plot ownership in the bottom-left corner; clicking it moves the camera.
+	 */
+	private Minimap minimap;
+	private static final float MINIMAP_SIZE = 180;
+
+	/**
+	 * Summary of the plots drawn in place of the tiles once zoomed out past OverviewLayer.ZOOM_THRESHOLD
+	 */
+	private OverviewLayer overview;
+
+	/**
+	 * Zoom limits; the largest zoom is raised on big maps until the whole map fits on screen
+	 */
+	private static final float MIN_ZOOM = 0.5f;
+	private static final float ZOOM_STEP = 1.2f;
+	private final Vector3 zoomPoint = new Vector3();
+
+	/**
+	 * Defines the amount of pixels from each edge over which the map can be dragged off-screen
+	 */
+	private static final int SPACE_EDGE_PADDING = 0;
+
 	private float oldX;
 	private float oldY;
 
@@ -58,12 +111,8 @@ public class GameScreen extends AbstractAnimationScreen implements Screen  {
 		camera.setToOrtho(false, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
 		camera.update();
 
-		/**
-		 * Defines the amount of pixels from each edge over which the map can be dragged off-screen
-		 */
-		final int spaceEdgePadding = 0;
-
 		this.game = game;
+		this.hoverRenderer = new ShapeRenderer();
 
 		this.stage = new Stage(new ScreenViewport());
 		this.actors = new GameScreenActors(game, this);
@@ -110,11 +159,8 @@ public class GameScreen extends AbstractAnimationScreen implements Screen  {
 				float deltaY = y - oldY;
 
 				// The camera translates in a different direction...
-				camera.translate(-deltaX, -deltaY);
-				if (camera.position.x < 188 - spaceEdgePadding) camera.position.x = 188 - spaceEdgePadding;
-				if (camera.position.y < 100 - spaceEdgePadding) camera.position.y = 100 - spaceEdgePadding;
-				if (camera.position.x > 462 + spaceEdgePadding) camera.position.x = 462 + spaceEdgePadding;
-				if (camera.position.y > 255 + spaceEdgePadding) camera.position.y = 255 + spaceEdgePadding;
+				camera.translate(-deltaX * camera.zoom, -deltaY * camera.zoom);
+				clampCamera();
 
 				// Record cords
 				oldX = x;
@@ -125,6 +171,15 @@ public class GameScreen extends AbstractAnimationScreen implements Screen  {
 		});
 
 
+		// Zoom towards the mouse with the scroll wheel.
+		stage.addListener(new InputListener() {
+			@Override
+			public boolean scrolled(InputEvent event, float x, float y, int amount) {
+				zoomAt(x, Gdx.graphics.getHeight() - y, amount);
+				return true;
+			}
+		});
+
 		// Set initial camera position
 		camera.position.x = 325;
 		camera.position.y = 220;
@@ -157,33 +212,13 @@ public class GameScreen extends AbstractAnimationScreen implements Screen  {
 				}
 
 				// The Y from screen starts from bottom left.
-				Vector3 cord = new Vector3(x, Gdx.graphics.getHeight() - y, 0);
-				camera.unproject(cord);
-
-				// Padding offset
-				cord.y -= 20;  // Padding from tile
-				cord.x += 50;
-
-				// Convert to grid index
-				// http://2dengine.com/doc/gs_isometric.html
-
-				float tile_height = mapLayer.getTileHeight();
-				float tile_width = mapLayer.getTileWidth();
-
-				float ty = cord.y - cord.x/2 - tile_height;
-				float tx = cord.x + ty;
-				ty = MathUtils.ceil(-ty/(tile_width/2));
-				tx = MathUtils.ceil(tx/(tile_width/2)) + 1;
-				int tileIndexX = MathUtils.floor((tx + ty)/2);
-				int tileIndexY = -(int)(ty - tx);
-
-				// Those magic numbers based on observation of number patterns
-				tileIndexX -= 1;
-				if (tileIndexY % 2 == 0) {
-					tileIndexX --;
+				int tile = pickTile(x, Gdx.graphics.getHeight() - y);
+				if (tile == TilePicker.NONE) {
+					setSelectedPlot(null);
+					return;
 				}
 
-                setSelectedPlot(game.plotManager.getPlot(tileIndexX, tileIndexY));
+                setSelectedPlot(game.plotManager.getPlot(picker.tileX(tile), picker.tileY(tile)));
 				if (selectedPlot != null) {
 					actors.tileClicked(selectedPlot, x, y);
 				}
@@ -238,26 +273,122 @@ public class GameScreen extends AbstractAnimationScreen implements Screen  {
 	 * UPDATED: Takes the number of players as an argument.
 	 */
 	public void newGame(int numberOfPlayers) {
-		// Setup the game board.
-		if (tmx != null) tmx.dispose();
-		if (renderer != null) renderer.dispose();
-		this.tmx = new TmxMapLoader().load("tiles/city.tmx");
+		newGame(numberOfPlayers, null);
+	}
+
+	/**
+	 * Reset to new game status on a procedurally generated map.
+	 * The tile sets still come from city.tmx; its layers are replaced by the generated ones.
+	 * @param numberOfPlayers The number of players.
+	 * @param generated       The generated map, or null to play on city.tmx itself.
+	 */
+	public void newGame(int numberOfPlayers, GeneratedMap generated) {
+		// Setup the game board. The map is only loaded for the first game; later games reset its overlays.
+		if (mapAssets == null) {
+			mapAssets = loadMap();
+		}
+		this.tmx = mapAssets.reset(generated);
+		this.generatedMap = generated;
 		tiles = tmx.getTileSets();
 		TileConverter.setup(tiles, game);
-		renderer = new IsometricStaggeredTiledMapRenderer(tmx);
 		game.reset(numberOfPlayers);
 
+		TiledMapTileLayer previousMapLayer = mapLayer;
 		mapLayer = (TiledMapTileLayer)tmx.getLayers().get("MapData");
 		playerOverlay = (TiledMapTileLayer)tmx.getLayers().get("PlayerOverlay");
-
-        game.plotManager.setup(tiles, tmx.getLayers());
+		// The terrain is unchanged when replaying the same map, so its baked pages can be kept too
+		if (mapCache == null || mapLayer != previousMapLayer) {
+			if (mapCache != null) mapCache.dispose();
+			mapCache = new TileLayerCache(mapLayer, tiles);
+		}
+		disposeOverlayCaches();
+		playerOverlayCache = new TileLayerCache(playerOverlay, tiles);
+		roboticonOverlayCache = new TileLayerCache((TiledMapTileLayer)tmx.getLayers().get("RoboticonOverlay"), tiles);
+		picker = new TilePicker(mapLayer.getWidth(), mapLayer.getHeight(),
+				(int) mapLayer.getTileWidth(), (int) mapLayer.getTileHeight(), TILE_SURFACE_OFFSET);
+		hoveredTile = TilePicker.NONE;
+
+        game.plotManager.setup(mapAssets.getTerrainTable(), tmx.getLayers(), generatedMap);
+		createPlotViews();
         game.nextPhase();
 	}
 
     public void plotmanagerSetup() {
-        game.plotManager.setup(tiles, tmx.getLayers());
+        game.plotManager.setup(mapAssets.getTerrainTable(), tmx.getLayers(), generatedMap);
+		createPlotViews();
     }
 
+	/**
+	 * Load the map, from the copy precompiled by the compileMaps Gradle task when there is an up to date one.
+	 * A compiled map brings its terrain table with it; a TMX map's is compiled from its tile properties.
+	 * @return The loaded map.
+	 */
+	private MapAssets loadMap() {
+		FileHandle source = Gdx.files.internal(MAP_FILE);
+		FileHandle compiled = Gdx.files.internal(COMPILED_MAP_FILE);
+		if (compiled.exists() && compiled.lastModified() >= source.lastModified()) {
+			CompiledMap map = CompiledMap.open(compiled);
+			return new MapAssets(map.toTiledMap(compiled.parent()), map.getTerrainTable());
+		}
+		return new MapAssets(new TmxMapLoader().load(MAP_FILE));
+	}
+
+	/**
+	 * Replace the minimap and zoomed out overview with ones showing the plot store the plot manager has just set up.
+	 */
+	private void createPlotViews() {
+		if (minimap != null) minimap.dispose();
+		minimap = new Minimap(game, game.plotManager.getPlotStore(), mapLayer, camera, MINIMAP_SIZE);
+		minimap.getImage().setPosition(8, 8);
+		stage.addActor(minimap.getImage());
+
+		if (overview != null) overview.dispose();
+		overview = new OverviewLayer(game, game.plotManager.getPlotStore(), picker);
+		camera.zoom = 1;
+		clampCamera();
+	}
+
+	/**
+	 * Zoom the camera in or out a step, keeping the world point under the mouse where it is.
+	 * @param screenX Mouse x, from the left of the screen.
+	 * @param screenY Mouse y, from the top of the screen.
+	 * @param amount  Scroll amount; positive zooms out.
+	 */
+	private void zoomAt(float screenX, float screenY, int amount) {
+		camera.unproject(zoomPoint.set(screenX, screenY, 0));
+		float worldX = zoomPoint.x;
+		float worldY = zoomPoint.y;
+
+		float zoom = camera.zoom * (float) Math.pow(ZOOM_STEP, amount);
+		camera.zoom = Math.max(MIN_ZOOM, Math.min(zoom, maxZoom()));
+		camera.update();
+
+		camera.unproject(zoomPoint.set(screenX, screenY, 0));
+		camera.translate(worldX - zoomPoint.x, worldY - zoomPoint.y);
+		clampCamera();
+	}
+
+	/**
+	 * @return The zoom at which the whole map fits on screen, or 1 if it already fits.
+	 */
+	private float maxZoom() {
+		float worldWidth = mapLayer.getWidth() * mapLayer.getTileWidth();
+		float worldHeight = (mapLayer.getHeight() + 1) * mapLayer.getTileHeight() / 2;
+		return Math.max(1, Math.max(worldWidth / camera.viewportWidth, worldHeight / camera.viewportHeight));
+	}
+
+	/**
+	 * Keep the centre of the view over the map, allowing SPACE_EDGE_PADDING pixels beyond the outermost tiles.
+	 */
+	private void clampCamera() {
+		float minX = picker.centreX(0, 1) - SPACE_EDGE_PADDING;
+		float maxX = picker.centreX(mapLayer.getWidth() - 1, 0) + SPACE_EDGE_PADDING;
+		float minY = picker.centreY(0, 0) - SPACE_EDGE_PADDING;
+		float maxY = picker.centreY(0, mapLayer.getHeight() - 1) + SPACE_EDGE_PADDING;
+		camera.position.x = Math.max(minX, Math.min(camera.position.x, maxX));
+		camera.position.y = Math.max(minY, Math.min(camera.position.y, maxY));
+	}
+
 	@Override
 	public void show() {
 		Gdx.input.setInputProcessor(stage);
@@ -270,9 +401,19 @@ public class GameScreen extends AbstractAnimationScreen implements Screen  {
 		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
 		camera.update();
-
-		renderer.setView(camera);
-		renderer.render();
+		prefetchVisiblePlots();
+
+		if (OverviewLayer.isVisible(camera)) {
+			overview.render(camera);
+		} else {
+			mapCache.render(camera);
+			playerOverlayCache.refresh(game.plotManager.getPlayerOverlayChanges());
+			playerOverlayCache.render(camera);
+			roboticonOverlayCache.refresh(game.plotManager.getRoboticonOverlayChanges());
+			roboticonOverlayCache.render(camera);
+		}
+		updateHover();
+		minimap.update();
 
 		stage.act(delta);
 		stage.draw();
@@ -309,6 +450,84 @@ public class GameScreen extends AbstractAnimationScreen implements Screen  {
 		}
 	}
 
+	/**
+	 * Find the tile under a screen position.
+	 * @param screenX The x position, from the left of the screen.
+	 * @param screenY The y position, from the top of the screen.
+	 * @return The tile id from the {@link TilePicker}, or {@link TilePicker#NONE}.
+	 */
+	private int pickTile(float screenX, float screenY) {
+		if (picker == null) {
+			return TilePicker.NONE;
+		}
+		pickPoint.set(screenX, screenY, 0);
+		camera.unproject(pickPoint);
+		return picker.pick(pickPoint.x, pickPoint.y);
+	}
+
+	/**
+	 * Whether the map is currently taking mouse input, i.e. no dialog or overlay is in front of it.
+	 */
+	private boolean hoverEnabled() {
+		if (!overlayStack.isEmpty() || actors.getBuyLandPlotBtn().isVisible() || actors.installRoboticonVisible()
+				|| OverviewLayer.isVisible(camera)) {
+			return false;
+		}
+		return game.getPhase() == GamePhase.TILE_ACQUISITION || game.getPhase() == GamePhase.ROBOTICON_CUSTOMISATION;
+	}
+
+	/**
+	 * Pick the tile under the mouse, outline it and keep its tooltip up to date.
+	 * Runs every frame, and only touches the tooltip text when the hovered tile changes.
+	 */
+	private void updateHover() {
+		int tile = hoverEnabled() ? pickTile(Gdx.input.getX(), Gdx.input.getY()) : TilePicker.NONE;
+		if (tile != hoveredTile) {
+			hoveredTile = tile;
+			if (tile == TilePicker.NONE) {
+				actors.hideHoverStats();
+			} else {
+				actors.showHoverStats(game.plotManager.getPlot(picker.tileX(tile), picker.tileY(tile)));
+			}
+		}
+		if (tile == TilePicker.NONE) {
+			return;
+		}
+
+		actors.moveHoverStats(Gdx.input.getX() + 16, Gdx.graphics.getHeight() - Gdx.input.getY() - 16);
+
+		int x = picker.tileX(tile);
+		int y = picker.tileY(tile);
+		float centreX = picker.centreX(x, y);
+		float centreY = picker.centreY(x, y);
+		float halfWidth = picker.getTileWidth() / 2f;
+		float halfHeight = picker.getTileHeight() / 2f;
+
+		hoverRenderer.setProjectionMatrix(camera.combined);
+		hoverRenderer.begin(ShapeRenderer.ShapeType.Line);
+		hoverRenderer.setColor(Color.WHITE);
+		hoverRenderer.line(centreX - halfWidth, centreY, centreX, centreY + halfHeight);
+		hoverRenderer.line(centreX, centreY + halfHeight, centreX + halfWidth, centreY);
+		hoverRenderer.line(centreX + halfWidth, centreY, centreX, centreY - halfHeight);
+		hoverRenderer.line(centreX, centreY - halfHeight, centreX - halfWidth, centreY);
+		hoverRenderer.end();
+	}
+
+	/**
+	 * Ask the plot manager to read ahead the plots the camera can see, so paged maps have them in memory
+	 * before they are hovered or clicked.
+	 */
+	private void prefetchVisiblePlots() {
+		float halfWidth = camera.viewportWidth * camera.zoom / 2;
+		float halfHeight = camera.viewportHeight * camera.zoom / 2;
+		float rowHeight = picker.getTileHeight() / 2f;
+		game.plotManager.prefetch(
+				(int) Math.floor((camera.position.x - halfWidth) / picker.getTileWidth()) - 1,
+				(int) Math.floor((camera.position.y - halfHeight) / rowHeight) - 1,
+				(int) Math.ceil((camera.position.x + halfWidth) / picker.getTileWidth()),
+				(int) Math.ceil((camera.position.y + halfHeight) / rowHeight));
+	}
+
 	/**
 	 * Resize the viewport as the render window's size change.
      * @param width   The new x
@@ -350,15 +569,28 @@ public class GameScreen extends AbstractAnimationScreen implements Screen  {
 
 	@Override
 	public void dispose() {
-		if(tmx != null){
-			tmx.dispose();
+		if (mapAssets != null) {
+			mapAssets.dispose();
+		}
+		if (mapCache != null) {
+			mapCache.dispose();
 		}
-		if(renderer != null) {
-			renderer.dispose();
+		disposeOverlayCaches();
+		if (minimap != null) {
+			minimap.dispose();
+			overview.dispose();
 		}
 		if(stage != null) {
 			stage.dispose();
 		}
+		hoverRenderer.dispose();
+	}
+
+	private void disposeOverlayCaches() {
+		if (playerOverlayCache != null) {
+			playerOverlayCache.dispose();
+			roboticonOverlayCache.dispose();
+		}
 	}
 
 	@Override
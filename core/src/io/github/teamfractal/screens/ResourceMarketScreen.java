@@ -9,8 +9,9 @@ package io.github.teamfractal.screens;
 import com.badlogic.gdx.graphics.Color;
 import io.github.teamfractal.RoboticonQuest;
 import io.github.teamfractal.actors.ResourceMarketActors;
-
-import java.util.Random;
+import io.github.teamfractal.entity.Player;
+import io.github.teamfractal.entity.gambling.GambleResult;
+import io.github.teamfractal.entity.gambling.GambleStatistics;
 
 /**
  * Created by Joseph on 17/02/2017.
@@ -28,20 +29,9 @@ public class ResourceMarketScreen extends Overlay {
     private ResourceMarketActors actors;
 
     /**
-     * Tracks the total amount of money won by the current player while taking gambles during the current turn
+     * Tracks the gambles taken by the current player during the current turn
      */
-    private int gambleMoneyWonCounter;
-
-    /**
-     * Tracks the total amount of money lost by the current player while taking gambles during the current turn
-     */
-    private int gambleMoneyLostCounter;
-
-    /**
-     * Tracks the difference between the numbers of wins and losses the current player experiences while gambling in
-     * the current turn
-     */
-    private int gambleWinLossCounter;
+    private final GambleStatistics turnStatistics = new GambleStatistics();
 
     /**
      * Constructs the market's interface in the space of an overlay using the actors defined and instantiated in the
@@ -78,47 +68,57 @@ public class ResourceMarketScreen extends Overlay {
      * Will only gamble non-empty, valid amounts of money that the current player can actually afford to lose
      */
     public void gamble() {
-        int playerRoll;
-        int AIRoll;
+        String value = actors.gambleFieldValue();
 
-        if (actors.gambleFieldValue().isEmpty()) {
+        if (value.isEmpty()) {
             actors.setGambleStatusLabel("NO VALUE\nGIVEN", Color.RED);
             //Check to see if the player has actually provided an amount of money to gamble
-        } else if (Integer.parseInt(actors.gambleFieldValue()) < 1) {
+        } else {
+            int stake;
+            try {
+                stake = Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                stake = -1;
+            }
+            //Parse the field once; anything too large to be an int can't be afforded anyway
+
+            gamble(stake);
+        }
+    }
+
+    /**
+     * Attempts to process a gamble of the given stake for the current player and renders the result
+     *
+     * @param stake The amount of money to gamble
+     */
+    public void gamble(int stake) {
+        Player player = game.getPlayer();
+
+        if (stake < 1) {
             actors.setGambleStatusLabel("INVALID VALUE\nGIVEN", Color.RED);
             //Check to see if the player has tried to gamble with no money at all
-        } else if (Integer.parseInt(actors.gambleFieldValue()) > game.getPlayer().getMoney()) {
+        } else if (stake > player.getMoney()) {
             actors.setGambleStatusLabel("CANNOT AFFORD\nGAMBLE", Color.RED);
             //Check to see if the player can afford to make their specified gamble
         } else {
-            Random RNGesus = new Random();
-            Random RNGudas = new Random();
-
-            playerRoll = RNGesus.nextInt(6) + 1;
-            AIRoll = RNGudas.nextInt(6) + 1;
-            //Roll two die
-
-            if (playerRoll == AIRoll) {
-                actors.setGambleStatusLabel("YOU\nDREW", Color.YELLOW);
-                //Do nothing if both dice produce equal values
-            } else if (playerRoll > AIRoll) {
-                actors.setGambleStatusLabel("YOU\nWON", Color.GREEN);
-                game.getPlayer().setMoney(game.getPlayer().getMoney() + Integer.parseInt(actors.gambleFieldValue()));
-                gambleMoneyWonCounter += Integer.parseInt(actors.gambleFieldValue());
-                gambleWinLossCounter += 1;
-                //If the player's dice produces a higher value, add the amount of money that they gambled on to their
-                //current stack of funds
-            } else {
-                actors.setGambleStatusLabel("YOU\nLOST", Color.RED);
-                game.getPlayer().setMoney(game.getPlayer().getMoney() - Integer.parseInt(actors.gambleFieldValue()));
-                gambleMoneyLostCounter += Integer.parseInt(actors.gambleFieldValue());
-                gambleWinLossCounter -= 1;
-                //If the AI's dice produces a higher value, subtract the amount of money that they gambled from their
-                //current stack of funds
+            GambleResult result = game.gamblingEngine.gamble(player, stake);
+            turnStatistics.record(result);
+            //Let the engine roll the dice and settle the player's money
+
+            switch (result.getOutcome()) {
+                case WIN:
+                    actors.setGambleStatusLabel("YOU\nWON", Color.GREEN);
+                    break;
+                case LOSS:
+                    actors.setGambleStatusLabel("YOU\nLOST", Color.RED);
+                    break;
+                default:
+                    actors.setGambleStatusLabel("YOU\nDREW", Color.YELLOW);
+                    break;
             }
 
-            actors.setGambleRollLabels(playerRoll, AIRoll);
-            actors.setGambleStatisticsLabels(gambleMoneyWonCounter, gambleMoneyLostCounter, gambleWinLossCounter);
+            actors.setGambleRollLabels(result.getPlayerRoll(), result.getHouseRoll());
+            actors.setGambleStatisticsLabels(turnStatistics.getMoneyWon(), turnStatistics.getMoneyLost(), turnStatistics.getWinLoss());
             //Update the market interface to reflect the outcomes of the player's latest gamble
         }
     }
@@ -127,9 +127,7 @@ public class ResourceMarketScreen extends Overlay {
      * Resets the market's gambling statistics and updates the market's interface to reflect this reset
      */
     public void gambleStatisticsReset() {
-        gambleMoneyWonCounter = 0;
-        gambleMoneyLostCounter = 0;
-        gambleWinLossCounter = 0;
+        turnStatistics.reset();
 
         actors.setGambleStatusLabel( "\n ", Color.WHITE);
         actors.setGambleRollLabels("-", "-");
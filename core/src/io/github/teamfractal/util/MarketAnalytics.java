@@ -0,0 +1,91 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.util;
+
+import io.github.teamfractal.entity.enums.ResourceType;
+import io.github.teamfractal.exception.NotCommonResourceException;
+
+/**
+ * Precomputed indicators over the market's buying and selling price history.
+ * <p>
+ * The market appends to this every time it caches its prices, so the UI and the AI can read trends without
+ * scanning the price history.
+ * </p>
+ */
+public class MarketAnalytics {
+
+    /**
+     * Series of the prices the market pays for resources, indexed [ Food, Energy, Ore ]
+     */
+    private final PriceSeries[] buySeries = new PriceSeries[3];
+
+    /**
+     * Series of the prices the market charges for resources, indexed [ Food, Energy, Ore ]
+     */
+    private final PriceSeries[] sellSeries = new PriceSeries[3];
+
+    /**
+     * Constructor for the analytics
+     *
+     * @param window    The number of turns used by moving averages and volatility
+     * @param barLength The number of turns per OHLC bar
+     */
+    public MarketAnalytics(int window, int barLength) {
+        for (int i = 0; i < 3; i++) {
+            buySeries[i] = new PriceSeries(window, barLength);
+            sellSeries[i] = new PriceSeries(window, barLength);
+        }
+    }
+
+    /**
+     * Append a snapshot of the market's prices
+     *
+     * @param buyingPrices  The prices the market pays
+     * @param sellingPrices The prices the market charges
+     */
+    public void record(ResourceGroupInteger buyingPrices, ResourceGroupInteger sellingPrices) {
+        buySeries[0].add(buyingPrices.getFood());
+        buySeries[1].add(buyingPrices.getEnergy());
+        buySeries[2].add(buyingPrices.getOre());
+        sellSeries[0].add(sellingPrices.getFood());
+        sellSeries[1].add(sellingPrices.getEnergy());
+        sellSeries[2].add(sellingPrices.getOre());
+    }
+
+    /**
+     * Get the series of prices the market pays for a resource (the player's selling price)
+     *
+     * @param resource The resource type
+     * @return The price series
+     */
+    public PriceSeries buySeries(ResourceType resource) {
+        return buySeries[indexOf(resource)];
+    }
+
+    /**
+     * Get the series of prices the market charges for a resource (the player's buying price)
+     *
+     * @param resource The resource type
+     * @return The price series
+     */
+    public PriceSeries sellSeries(ResourceType resource) {
+        return sellSeries[indexOf(resource)];
+    }
+
+    private static int indexOf(ResourceType resource) {
+        switch (resource) {
+            case FOOD:
+                return 0;
+            case ENERGY:
+                return 1;
+            case ORE:
+                return 2;
+            default:
+                throw new NotCommonResourceException(resource);
+        }
+    }
+}
@@ -10,25 +10,47 @@ import com.badlogic.gdx.maps.MapLayers;
 import com.badlogic.gdx.maps.tiled.TiledMapTile;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.maps.tiled.TiledMapTileSets;
+import com.badlogic.gdx.utils.Disposable;
 import io.github.teamfractal.entity.LandPlot;
+import io.github.teamfractal.entity.OwnershipIndex;
+import io.github.teamfractal.entity.PlotStore;
+import io.github.teamfractal.entity.TerritoryIndex;
+import io.github.teamfractal.entity.enums.ResourceType;
+import io.github.teamfractal.map.ChunkExecutor;
+import io.github.teamfractal.map.ComputedTileLayer;
+import io.github.teamfractal.map.DirtyRegionTracker;
+import io.github.teamfractal.map.GeneratedMap;
+import io.github.teamfractal.map.TerrainTable;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Random;
 
-public class PlotManager {
+public class PlotManager implements Disposable {
+	/**
+	 * Maps with at least this many plots page their plot data to a temporary file instead of holding it all
+	 */
+	public static final long PAGING_THRESHOLD = 1L << 22;
+
+	/**
+	 * Chunks of a paged map kept on the heap
+	 */
+	public static final int MAX_RESIDENT_CHUNKS = 256;
+
+	private static final String PAGE_FILE_PREFIX = "plots";
+	private static final String PAGE_FILE_SUFFIX = ".page";
+
     public int x;
     public int y;
-    private LandPlot[][] plots;
-	private TiledMapTileSets tiles;
+    private PlotStore plots;
+	private File pageFile;
 	private TiledMapTileLayer mapLayer;
 	private TiledMapTileLayer playerOverlay;
 	private TiledMapTileLayer roboticonOverlay;
-	private TiledMapTile cityTile;
-	private TiledMapTile waterTile;
-	private TiledMapTile forestTile;
-	private TiledMapTile hillTile1;
-	private TiledMapTile hillTile2;
-	private TiledMapTile hillTile3;
-	private TiledMapTile hillTile4;
+	private TerrainTable terrainTable;
+	private DirtyRegionTracker playerOverlayChanges;
+	private DirtyRegionTracker roboticonOverlayChanges;
+	private long seed;
 
 	public PlotManager() {
 
@@ -40,27 +62,139 @@ public class PlotManager {
 	 * @param layers   Layers.
 	 */
 	public void setup(TiledMapTileSets tiles, MapLayers layers) {
-		this.tiles = tiles;
+		setup(tiles, layers, null);
+	}
+
+	/**
+	 * Set up the plot manager for a procedurally generated map.
+	 * The yields are rolled from the map's seed, so the same seed gives the same plots as well as the same terrain.
+	 * @param tiles        Tiles.
+	 * @param layers       Layers, as built by {@link GeneratedMap#applyTo}.
+	 * @param generatedMap The generated map the layers were built from, or null to roll the yields from a new seed.
+	 */
+	public void setup(TiledMapTileSets tiles, MapLayers layers, GeneratedMap generatedMap) {
+		setup(TerrainTable.compile(tiles), layers, generatedMap);
+	}
+
+	/**
+	 * Set up the plot manager with terrain that has already been compiled, such as a
+	 * {@link io.github.teamfractal.map.CompiledMap}'s.
+	 * @param terrainTable The terrain and yield ranges of the map's tiles.
+	 * @param layers       Layers.
+	 * @param generatedMap The generated map the layers were built from, or null to roll the yields from a new seed.
+	 */
+	public void setup(TerrainTable terrainTable, MapLayers layers, GeneratedMap generatedMap) {
+		long seed = generatedMap == null ? new Random().nextLong() : generatedMap.getSeed();
+		setup(terrainTable, layers, seed, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Set up the plot manager and initialise the plots, classifying the tiles from their properties.
+	 * @param tiles        Tiles.
+	 * @param layers       Layers.
+	 * @param seed         Seed the plot yields are rolled from.
+	 * @param threads      Size of the worker pool.
+	 */
+	public void setup(TiledMapTileSets tiles, MapLayers layers, long seed, int threads) {
+		setup(TerrainTable.compile(tiles), layers, seed, threads);
+	}
+
+	/**
+	 * Set up the plot manager and initialise the plots.
+	 * Plots are initialised chunk by chunk, each chunk rolling its yields from its own seed, so the same seed gives
+	 * the same plots whatever the number of threads. Maps held in memory are initialised up front across a worker
+	 * pool; paged maps initialise each chunk the first time it is used, on whichever thread uses it. The store
+	 * makes any other thread using that chunk wait for it to be filled, so plots of either kind of map are safe to
+	 * read from AI worker threads.
+	 * @param terrainTable The terrain and yield ranges of the map's tiles.
+	 * @param layers       Layers.
+	 * @param seed         Seed the plot yields are rolled from.
+	 * @param threads      Size of the worker pool.
+	 */
+	public void setup(TerrainTable terrainTable, MapLayers layers, long seed, int threads) {
+		this.terrainTable = terrainTable;
+		this.seed = seed;
 		this.mapLayer = (TiledMapTileLayer)layers.get("MapData");
 		this.playerOverlay = (TiledMapTileLayer)layers.get("PlayerOverlay");
 		this.roboticonOverlay = (TiledMapTileLayer)layers.get("RoboticonOverlay");
 
-		this.cityTile = tiles.getTile(60);
-		this.waterTile = tiles.getTile(9);
-		this.forestTile = tiles.getTile(61);
-		this.hillTile1 = tiles.getTile(4);
-		this.hillTile2 = tiles.getTile(5);
-		this.hillTile3 = tiles.getTile(6);
-		this.hillTile4 = tiles.getTile(7);
-
         this.x = mapLayer.getWidth();
 
         this.y = mapLayer.getHeight();
 
-        this.plots = new LandPlot[x][y];
+        disposeStore();
+        this.plots = createStore(x, y);
+        this.plots.attachLayers(mapLayer, playerOverlay, roboticonOverlay);
+		this.playerOverlayChanges = new DirtyRegionTracker(x, y);
+		this.roboticonOverlayChanges = new DirtyRegionTracker(x, y);
 
+		final ChunkExecutor.ChunkTask fill = new ChunkExecutor.ChunkTask() {
+			@Override
+			public void run(int x0, int y0, int x1, int y1) {
+				Random random = new Random(ChunkExecutor.chunkSeed(PlotManager.this.seed, x0, y0));
+				for (int j = y0; j < y1; j++) {
+					for (int i = x0; i < x1; i++) {
+						initialisePlot(i, j, random);
+					}
+				}
+			}
+		};
+		if (plots.isPaged()) {
+			// Setting up every chunk of a map this large would write the whole page file before play starts
+			plots.setInitialiser(new PlotStore.ChunkInitialiser() {
+				@Override
+				public void initialise(int x0, int y0, int x1, int y1) {
+					fill.run(x0, y0, x1, y1);
+				}
+			});
+		} else {
+			ChunkExecutor.forEachChunk(x, y, PlotStore.CHUNK_SIZE, threads, fill);
+		}
     }
 
+	/**
+	 * Create the plot store, paging it to a temporary file if the map is too large to hold in memory.
+	 */
+	private PlotStore createStore(int width, int height) {
+		if ((long) width * height < PAGING_THRESHOLD) {
+			return new PlotStore(width, height);
+		}
+		// deleteOnExit does nothing for a process that is killed, so clear up after any that were
+		PlotStore.deleteStalePageFiles(new File(System.getProperty("java.io.tmpdir")), PAGE_FILE_PREFIX,
+				PAGE_FILE_SUFFIX);
+		try {
+			pageFile = File.createTempFile(PAGE_FILE_PREFIX, PAGE_FILE_SUFFIX);
+		} catch (IOException e) {
+			throw new IllegalStateException("Error: Could not create a page file for the plots.", e);
+		}
+		pageFile.deleteOnExit();
+		return PlotStore.paged(width, height, pageFile, MAX_RESIDENT_CHUNKS);
+	}
+
+	private void disposeStore() {
+		if (plots != null) {
+			plots.dispose();
+			plots = null;
+		}
+		if (pageFile != null) {
+			pageFile.delete();
+			pageFile = null;
+		}
+	}
+
+	/**
+	 * Read the plots in a rectangle ahead of use. Only paged maps do any work; call it as the camera moves.
+	 * @param x0 First plot column.
+	 * @param y0 First plot row.
+	 * @param x1 Last plot column, inclusive.
+	 * @param y1 Last plot row, inclusive.
+	 */
+	public void prefetch(int x0, int y0, int x1, int y1) {
+		if (plots != null) {
+			plots.prefetch(x0, y0, x1, y1);
+		}
+	}
+
 	/**
 	 * Get {@link LandPlot} at specific position.
 	 * @param x   The x index.
@@ -71,65 +205,31 @@ public class PlotManager {
         if (x < 0 || x >= this.x || y < 0 || y >= this.y)
             return null;
 
-		// Lazy load
-		LandPlot p = this.plots[x][y];
-		if (p == null) {
-			p = createLandPlot(x, y);
-		}
-
-		return p;
+		return plots.getPlot(x, y);
 	}
 
     /**
-     * Function to return a random number in range
-     *
-     * @return random int value between min and max
-     */
-    private int randomResourceVal() {
-        Random rand = new Random();
-        int max = 6;
-        int min = 0;
-        return rand.nextInt(max) + min;
-
-    }
-
-    /**
-     * Creates a landplot from a tile tile on the tiled map
+     * Writes the terrain and base yields of a landplot from a tile on the tiled map
 	 * @param x - x coordinate on tiled map
 	 * @param y - y coordinate on tiled map
-	 * @return new Landplot with statistics determined by tile on tiled map
-	 */
-	private LandPlot createLandPlot(int x, int y) {
-		int ore, energy, food;
-		TiledMapTile tile = mapLayer.getCell(x, y).getTile();
-
-        if (tile == cityTile) {
-            ore = 1 + this.randomResourceVal();
-            energy = 2 + this.randomResourceVal();
-            food = 3 + this.randomResourceVal();
-        } else if (tile == forestTile) {
-            ore = 2 + this.randomResourceVal();
-            energy = 3 + this.randomResourceVal();
-            food = 1 + this.randomResourceVal();
-        } else if (tile == waterTile) {
-            ore = 3 + this.randomResourceVal();
-            energy = 1 + this.randomResourceVal();
-            food = 2 + this.randomResourceVal();
-        } else if (tile == hillTile1 || tile == hillTile2 || tile == hillTile3 || tile == hillTile4) {
-            ore = 3 + this.randomResourceVal();
-            energy = 2 + this.randomResourceVal();
-            food = 1 + this.randomResourceVal();
-        } else {
-            ore = 2 + this.randomResourceVal();
-            energy = 2 + this.randomResourceVal();
-            food = 2 + this.randomResourceVal();
-        }
-
-
-		LandPlot p = new LandPlot(ore, energy, food);
-		p.setupTile(this, x, y);
-		this.plots[x][y] = p;
-		return p;
+	 * @param random - the random stream of the chunk the plot is in
+	 */
+	private void initialisePlot(int x, int y, Random random) {
+		// Computed layers, such as a generated map's, would otherwise build a cell for every plot
+		TiledMapTile tile = mapLayer instanceof ComputedTileLayer
+				? ((ComputedTileLayer) mapLayer).getTile(x, y) : mapLayer.getCell(x, y).getTile();
+
+		plots.setTerrain(x, y, terrainTable.terrainOf(tile));
+		plots.setYields(x, y, terrainTable.rollYield(tile, ResourceType.ORE, random),
+				terrainTable.rollYield(tile, ResourceType.ENERGY, random),
+				terrainTable.rollYield(tile, ResourceType.FOOD, random));
+	}
+
+	/**
+	 * @return The terrain and yield ranges of the current map's tiles.
+	 */
+	public TerrainTable getTerrainTable() {
+		return terrainTable;
 	}
 
 	public TiledMapTileLayer getMapLayer() {
@@ -144,8 +244,68 @@ public class PlotManager {
 		return roboticonOverlay;
 	}
 
-	public LandPlot[][] getLandPlots(){
+	/**
+	 * Show a tile over a plot on the ownership overlay, recording the change for the renderer.
+	 * @param plot The plot.
+	 * @param tile The overlay tile.
+	 */
+	public void setPlayerTile(LandPlot plot, TiledMapTile tile) {
+		plot.getPlayerTile().setTile(tile);
+		playerOverlayChanges.markDirty(plot.getX(), plot.getY());
+	}
+
+	/**
+	 * Show a tile over a plot on the roboticon overlay, recording the change for the renderer.
+	 * @param plot The plot.
+	 * @param tile The overlay tile.
+	 */
+	public void setRoboticonTile(LandPlot plot, TiledMapTile tile) {
+		plot.getRoboticonTile().setTile(tile);
+		roboticonOverlayChanges.markDirty(plot.getX(), plot.getY());
+	}
+
+	/**
+	 * @return The cells of the ownership overlay changed since the renderer last caught up.
+	 */
+	public DirtyRegionTracker getPlayerOverlayChanges() {
+		return playerOverlayChanges;
+	}
+
+	/**
+	 * @return The cells of the roboticon overlay changed since the renderer last caught up.
+	 */
+	public DirtyRegionTracker getRoboticonOverlayChanges() {
+		return roboticonOverlayChanges;
+	}
+
+	/**
+	 * @return The seed the current plots' yields were rolled from.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	public PlotStore getPlotStore() {
 		return this.plots;
 	}
 
+	/**
+	 * @return The index of which plots each player owns and which are free, kept up to date by the plots.
+	 */
+	public OwnershipIndex getOwnershipIndex() {
+		return plots.getOwnership();
+	}
+
+	/**
+	 * @return The index of each player's connected regions of plots, kept up to date by the plots.
+	 */
+	public TerritoryIndex getTerritories() {
+		return plots.getTerritories();
+	}
+
+	@Override
+	public void dispose() {
+		disposeStore();
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,267 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.util;
+
+import io.github.teamfractal.entity.enums.ResourceType;
+import io.github.teamfractal.exception.NotCommonResourceException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Streams price histories out of an archive written by {@link PriceArchiveWriter}.
+ * <p>
+ * Only the index footer is read onto the heap. Blocks are decoded straight out of memory-mapped windows of the
+ * file, so reading a series in order touches each page once and allocates nothing per turn.
+ * </p>
+ */
+public class PriceArchiveReader {
+
+    private static final int INDEX_ENTRY_BYTES = 24;
+    private static final int TRAILER_BYTES = 20;
+
+    /**
+     * Size of each memory-mapped window of the file
+     */
+    private static final long WINDOW_BYTES = 64L << 20;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final long size;
+
+    private final int blocks;
+    private final int[] blockSeries;
+    private final int[] blockFirstTurn;
+    private final int[] blockTurns;
+    private final long[] blockOffset;
+    private final int[] blockLength;
+
+    /**
+     * First block of each series, plus a sentinel, indexed by series id
+     */
+    private final int[] seriesFirstBlock;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    /**
+     * @param archive The archive file.
+     * @throws IOException If the file can't be read or isn't an archive.
+     */
+    public PriceArchiveReader(File archive) throws IOException {
+        file = new RandomAccessFile(archive, "r");
+        channel = file.getChannel();
+        size = channel.size();
+        if (size < PriceArchiveWriter.HEADER_BYTES + TRAILER_BYTES) {
+            close();
+            throw new IOException("Error: " + archive + " is not a price archive.");
+        }
+
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, PriceArchiveWriter.HEADER_BYTES);
+        MappedByteBuffer trailer = channel.map(FileChannel.MapMode.READ_ONLY, size - TRAILER_BYTES, TRAILER_BYTES);
+        if (header.getInt(0) != PriceArchiveWriter.MAGIC || trailer.getInt(16) != PriceArchiveWriter.MAGIC) {
+            close();
+            throw new IOException("Error: " + archive + " is not a price archive.");
+        }
+        if (header.getInt(4) != PriceArchiveWriter.FORMAT_VERSION) {
+            close();
+            throw new IOException("Error: Unsupported price archive version " + header.getInt(4) + ".");
+        }
+
+        blocks = trailer.getInt(0);
+        int series = trailer.getInt(4);
+        long footer = trailer.getLong(8);
+        blockSeries = new int[blocks];
+        blockFirstTurn = new int[blocks];
+        blockTurns = new int[blocks];
+        blockOffset = new long[blocks];
+        blockLength = new int[blocks];
+
+        MappedByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, footer, (long) blocks * INDEX_ENTRY_BYTES);
+        for (int i = 0; i < blocks; i++) {
+            blockSeries[i] = index.getInt();
+            blockFirstTurn[i] = index.getInt();
+            blockTurns[i] = index.getInt();
+            blockOffset[i] = index.getLong();
+            blockLength[i] = index.getInt();
+        }
+
+        seriesFirstBlock = new int[series + 1];
+        for (int s = 0, b = 0; s <= series; s++) {
+            while (b < blocks && blockSeries[b] < s) {
+                b++;
+            }
+            seriesFirstBlock[s] = b;
+        }
+    }
+
+    /**
+     * @return The number of series in the archive.
+     */
+    public int getSeriesCount() {
+        return seriesFirstBlock.length - 1;
+    }
+
+    /**
+     * @return The number of blocks in the archive.
+     */
+    public int getBlockCount() {
+        return blocks;
+    }
+
+    /**
+     * @param series The series id.
+     * @return The number of turns recorded for the series.
+     */
+    public int getTurnCount(int series) {
+        checkSeries(series);
+        int turns = 0;
+        for (int b = seriesFirstBlock[series]; b < seriesFirstBlock[series + 1]; b++) {
+            turns += blockTurns[b];
+        }
+        return turns;
+    }
+
+    /**
+     * Open a cursor over the turns of a series.
+     *
+     * @param series The series id.
+     * @return A cursor positioned before the first turn.
+     */
+    public Cursor cursor(int series) {
+        checkSeries(series);
+        return new Cursor(seriesFirstBlock[series], seriesFirstBlock[series + 1]);
+    }
+
+    private void checkSeries(int series) {
+        if (series < 0 || series >= getSeriesCount()) {
+            throw new IndexOutOfBoundsException("Error: No series " + series + " in the archive.");
+        }
+    }
+
+    /**
+     * Map the window of the file holding a block, reusing the most recent window when it already covers it.
+     */
+    private void mapBlock(int b) throws IOException {
+        long start = blockOffset[b];
+        long end = start + blockLength[b];
+        if (window == null || start < windowStart || end > windowStart + window.capacity()) {
+            long length = Math.max(Math.min(WINDOW_BYTES, size - start), blockLength[b]);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            windowStart = start;
+        }
+    }
+
+    /**
+     * Release the archive's file handle.
+     *
+     * @throws IOException If the file can't be closed.
+     */
+    public void close() throws IOException {
+        window = null;
+        file.close();
+    }
+
+    /**
+     * Forward-only iterator over the turns of one series.
+     */
+    public class Cursor {
+        private int nextBlock;
+        private final int endBlock;
+
+        /**
+         * The window holding the current block; kept per cursor so cursors can be interleaved
+         */
+        private MappedByteBuffer buffer;
+        private int position;
+        private int turnsLeft;
+        private int turn = -1;
+        private final int[] prices = new int[PriceArchiveWriter.FIELDS];
+
+        private Cursor(int firstBlock, int endBlock) {
+            this.nextBlock = firstBlock;
+            this.endBlock = endBlock;
+        }
+
+        /**
+         * Advance to the next turn.
+         *
+         * @return <code>false</code> once the series is exhausted.
+         * @throws IOException If the next block can't be mapped.
+         */
+        public boolean next() throws IOException {
+            if (turnsLeft == 0) {
+                if (nextBlock == endBlock) {
+                    return false;
+                }
+                mapBlock(nextBlock);
+                buffer = window;
+                position = (int) (blockOffset[nextBlock] - windowStart);
+                turnsLeft = blockTurns[nextBlock];
+                nextBlock++;
+                for (int i = 0; i < prices.length; i++) {
+                    prices[i] = 0;
+                }
+            }
+            for (int i = 0; i < prices.length; i++) {
+                prices[i] += readVarint();
+            }
+            turnsLeft--;
+            turn++;
+            return true;
+        }
+
+        private int readVarint() {
+            int zigzag = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get(position++);
+                zigzag |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        /**
+         * @return The index of the current turn within the series.
+         */
+        public int getTurn() {
+            return turn;
+        }
+
+        /**
+         * @return The price the market paid for the resource on the current turn.
+         */
+        public int getBuyPrice(ResourceType resource) {
+            return prices[indexOf(resource)];
+        }
+
+        /**
+         * @return The price the market charged for the resource on the current turn.
+         */
+        public int getSellPrice(ResourceType resource) {
+            return prices[3 + indexOf(resource)];
+        }
+    }
+
+    private static int indexOf(ResourceType resource) {
+        switch (resource) {
+            case FOOD:
+                return 0;
+            case ENERGY:
+                return 1;
+            case ORE:
+                return 2;
+            default:
+                throw new NotCommonResourceException(resource);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.util;
+
+import io.github.teamfractal.entity.Market;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Writes market price histories into a compact archive readable by {@link PriceArchiveReader}.
+ * <p>
+ * Layout: a header (magic, format version), then blocks of turns, then an index footer. Each turn holds the six
+ * prices of a market buy/sell tuple, [ buy Food, Energy, Ore, sell Food, Energy, Ore ], stored as zig-zag varint
+ * deltas from the previous turn. Deltas restart at the start of every block, so any block can be decoded on its
+ * own. A block never spans two series (games). The footer lists, for every block, its series, first turn, turn
+ * count, file offset and byte length, followed by the block count, the series count, the footer's offset and the
+ * magic again.
+ * </p>
+ */
+public class PriceArchiveWriter {
+
+    static final int MAGIC = 0x52515041;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    static final int FIELDS = 6;
+
+    private static final int DEFAULT_BLOCK_TURNS = 4096;
+
+    private final DataOutputStream out;
+    private final int blockTurns;
+    private long offset;
+
+    /**
+     * Encoded bytes of the block being filled
+     */
+    private byte[] block = new byte[1024];
+    private int blockBytes;
+    private int blockTurnCount;
+    private final int[] previous = new int[FIELDS];
+
+    private int series = -1;
+    private int seriesTurns;
+
+    /**
+     * Index entries, as parallel primitive arrays
+     */
+    private int blocks;
+    private int[] indexSeries = new int[64];
+    private int[] indexFirstTurn = new int[64];
+    private int[] indexTurns = new int[64];
+    private long[] indexOffset = new long[64];
+    private int[] indexLength = new int[64];
+
+    public PriceArchiveWriter(File file) throws IOException {
+        this(file, DEFAULT_BLOCK_TURNS);
+    }
+
+    /**
+     * @param file       The archive file to create, overwriting any existing file.
+     * @param blockTurns The maximum number of turns per block.
+     * @throws IOException If the file can't be created.
+     */
+    public PriceArchiveWriter(File file, int blockTurns) throws IOException {
+        if (blockTurns < 1) {
+            throw new IllegalArgumentException("Error: Blocks must hold at least one turn.");
+        }
+        this.blockTurns = blockTurns;
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+        boolean written = false;
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            written = true;
+        } finally {
+            if (!written) {
+                out.close();
+            }
+        }
+        offset = HEADER_BYTES;
+    }
+
+    /**
+     * Start a new series; subsequent turns belong to it.
+     *
+     * @return The id of the new series.
+     * @throws IOException If the previous block can't be written.
+     */
+    public int beginSeries() throws IOException {
+        flushBlock();
+        seriesTurns = 0;
+        return ++series;
+    }
+
+    /**
+     * Append a turn to the current series.
+     *
+     * @param buying  The market's buying prices.
+     * @param selling The market's selling prices.
+     * @throws IOException If a completed block can't be written.
+     */
+    public void append(ResourceGroupInteger buying, ResourceGroupInteger selling) throws IOException {
+        append(buying.getFood(), buying.getEnergy(), buying.getOre(), selling.getFood(), selling.getEnergy(), selling.getOre());
+    }
+
+    /**
+     * Append a turn to the current series.
+     *
+     * @throws IOException If a completed block can't be written.
+     */
+    public void append(int buyFood, int buyEnergy, int buyOre, int sellFood, int sellEnergy, int sellOre) throws IOException {
+        if (series < 0) {
+            throw new IllegalStateException("Error: No series has been started.");
+        }
+        ensureBlockCapacity(FIELDS * 5);
+        writeField(0, buyFood);
+        writeField(1, buyEnergy);
+        writeField(2, buyOre);
+        writeField(3, sellFood);
+        writeField(4, sellEnergy);
+        writeField(5, sellOre);
+        blockTurnCount++;
+        seriesTurns++;
+        if (blockTurnCount == blockTurns) {
+            flushBlock();
+        }
+    }
+
+    /**
+     * Write a market's whole price history as a new series.
+     *
+     * @param market The market.
+     * @return The id of the new series.
+     * @throws IOException If the archive can't be written.
+     */
+    public int writeSeries(Market market) throws IOException {
+        int id = beginSeries();
+        HashMap<Integer, Tuple<ResourceGroupInteger>> history = market.getHistoricTradingData();
+        // The market keys its history by turn, starting from -1
+        for (int turn = -1; history.containsKey(turn); turn++) {
+            Tuple<ResourceGroupInteger> prices = history.get(turn);
+            append(prices.getHead(), prices.getTail());
+        }
+        return id;
+    }
+
+    private void writeField(int field, int value) {
+        int delta = value - previous[field];
+        previous[field] = value;
+
+        // Zig-zag so small negative deltas stay short, then 7 bits per byte
+        int zigzag = (delta << 1) ^ (delta >> 31);
+        while ((zigzag & ~0x7F) != 0) {
+            block[blockBytes++] = (byte) ((zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+        block[blockBytes++] = (byte) zigzag;
+    }
+
+    private void ensureBlockCapacity(int extra) {
+        if (blockBytes + extra > block.length) {
+            block = Arrays.copyOf(block, Math.max(block.length * 2, blockBytes + extra));
+        }
+    }
+
+    /**
+     * Write out the block being filled, if it holds any turns, and index it.
+     */
+    private void flushBlock() throws IOException {
+        if (blockTurnCount == 0) {
+            return;
+        }
+        if (blocks == indexSeries.length) {
+            int size = blocks * 2;
+            indexSeries = Arrays.copyOf(indexSeries, size);
+            indexFirstTurn = Arrays.copyOf(indexFirstTurn, size);
+            indexTurns = Arrays.copyOf(indexTurns, size);
+            indexOffset = Arrays.copyOf(indexOffset, size);
+            indexLength = Arrays.copyOf(indexLength, size);
+        }
+        indexSeries[blocks] = series;
+        indexFirstTurn[blocks] = seriesTurns - blockTurnCount;
+        indexTurns[blocks] = blockTurnCount;
+        indexOffset[blocks] = offset;
+        indexLength[blocks] = blockBytes;
+        blocks++;
+
+        out.write(block, 0, blockBytes);
+        offset += blockBytes;
+        blockBytes = 0;
+        blockTurnCount = 0;
+        Arrays.fill(previous, 0);
+    }
+
+    /**
+     * Write the final block and the index footer, then close the file.
+     *
+     * @throws IOException If the archive can't be written.
+     */
+    public void close() throws IOException {
+        try {
+            flushBlock();
+            long footer = offset;
+            for (int i = 0; i < blocks; i++) {
+                out.writeInt(indexSeries[i]);
+                out.writeInt(indexFirstTurn[i]);
+                out.writeInt(indexTurns[i]);
+                out.writeLong(indexOffset[i]);
+                out.writeInt(indexLength[i]);
+            }
+            out.writeInt(blocks);
+            out.writeInt(series + 1);
+            out.writeLong(footer);
+            out.writeInt(MAGIC);
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,328 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.util;
+
+import java.util.Arrays;
+
+/**
+ * Incrementally maintained indicators over a single price series.
+ * <p>
+ * Every indicator is updated in O(1) as each price is appended, so reading them never walks the history.
+ * </p>
+ */
+public class PriceSeries {
+
+    /**
+     * Number of samples used by the moving averages and volatility
+     */
+    private final int window;
+
+    /**
+     * Number of samples that make up a single OHLC bar
+     */
+    private final int barLength;
+
+    /**
+     * Smoothing factor for the exponential moving average
+     */
+    private final float alpha;
+
+    /**
+     * Ring buffers holding the last [window] prices and price changes
+     */
+    private final int[] prices;
+    private final int[] changes;
+
+    private int count;
+    private int last;
+    private long priceSum;
+    private long changeSum;
+    private long changeSquareSum;
+    private float ema;
+
+    /**
+     * Completed OHLC bars, stored as parallel primitive arrays
+     */
+    private int[] barOpen = new int[8];
+    private int[] barHigh = new int[8];
+    private int[] barLow = new int[8];
+    private int[] barClose = new int[8];
+    private int bars;
+
+    /**
+     * The bar currently being filled
+     */
+    private int open, high, low, barSamples;
+
+    /**
+     * Current run lengths of non-falling and non-rising changes
+     */
+    private int risingStreak;
+    private int fallingStreak;
+
+    /**
+     * reached[n]: how many times a run reached length n; ended[n]: how many of those runs broke right after
+     */
+    private int[] risingReached = new int[8];
+    private int[] risingEnded = new int[8];
+    private int[] fallingReached = new int[8];
+    private int[] fallingEnded = new int[8];
+
+    /**
+     * Constructor for the series
+     *
+     * @param window    The number of samples used by moving averages and volatility
+     * @param barLength The number of samples per OHLC bar
+     */
+    public PriceSeries(int window, int barLength) {
+        if (window < 1 || barLength < 1) {
+            throw new IllegalArgumentException("Error: Window and bar length must be positive.");
+        }
+        this.window = window;
+        this.barLength = barLength;
+        this.alpha = 2f / (window + 1);
+        this.prices = new int[window];
+        this.changes = new int[window];
+    }
+
+    /**
+     * Append the next price to the series and update every indicator
+     *
+     * @param price The new price
+     */
+    public void add(int price) {
+        int slot = count % window;
+
+        if (count >= window) {
+            priceSum -= prices[slot];
+        }
+        prices[slot] = price;
+        priceSum += price;
+
+        if (count == 0) {
+            ema = price;
+        } else {
+            int change = price - last;
+            // Changes lag prices by one sample, so the ring only fills after window + 1 prices
+            int changeSlot = (count - 1) % window;
+            if (count > window) {
+                changeSum -= changes[changeSlot];
+                changeSquareSum -= (long) changes[changeSlot] * changes[changeSlot];
+            }
+            changes[changeSlot] = change;
+            changeSum += change;
+            changeSquareSum += (long) change * change;
+
+            ema += alpha * (price - ema);
+            updateStreaks(change);
+        }
+
+        if (barSamples == 0) {
+            open = high = low = price;
+        } else {
+            high = Math.max(high, price);
+            low = Math.min(low, price);
+        }
+        barSamples++;
+        if (barSamples == barLength) {
+            closeBar(price);
+        }
+
+        last = price;
+        count++;
+    }
+
+    /**
+     * Update the rising/falling run lengths and their historic outcome counters
+     *
+     * @param change The latest price change
+     */
+    private void updateStreaks(int change) {
+        if (change >= 0) {
+            risingStreak++;
+            risingReached = grow(risingReached, risingStreak);
+            risingReached[risingStreak]++;
+        } else {
+            if (risingStreak > 0) {
+                risingEnded = grow(risingEnded, risingStreak);
+                risingEnded[risingStreak]++;
+            }
+            risingStreak = 0;
+        }
+
+        if (change <= 0) {
+            fallingStreak++;
+            fallingReached = grow(fallingReached, fallingStreak);
+            fallingReached[fallingStreak]++;
+        } else {
+            if (fallingStreak > 0) {
+                fallingEnded = grow(fallingEnded, fallingStreak);
+                fallingEnded[fallingStreak]++;
+            }
+            fallingStreak = 0;
+        }
+    }
+
+    /**
+     * Store the bar that has just been filled
+     *
+     * @param close The closing price of the bar
+     */
+    private void closeBar(int close) {
+        barOpen = grow(barOpen, bars);
+        barHigh = grow(barHigh, bars);
+        barLow = grow(barLow, bars);
+        barClose = grow(barClose, bars);
+
+        barOpen[bars] = open;
+        barHigh[bars] = high;
+        barLow[bars] = low;
+        barClose[bars] = close;
+        bars++;
+        barSamples = 0;
+    }
+
+    /**
+     * Make sure an array can hold the given index, doubling it if necessary
+     */
+    private static int[] grow(int[] array, int index) {
+        if (index < array.length) {
+            return array;
+        }
+        return Arrays.copyOf(array, Math.max(array.length * 2, index + 1));
+    }
+
+    /**
+     * @return The number of prices recorded
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * @return The most recent price, or 0 if none have been recorded
+     */
+    public int last() {
+        return last;
+    }
+
+    /**
+     * @return The change between the two most recent prices
+     */
+    public int lastChange() {
+        if (count < 2) {
+            return 0;
+        }
+        return changes[(count - 2) % window];
+    }
+
+    /**
+     * @return The simple moving average over the last [window] prices
+     */
+    public float simpleMovingAverage() {
+        if (count == 0) {
+            return 0;
+        }
+        return (float) priceSum / Math.min(count, window);
+    }
+
+    /**
+     * @return The exponential moving average with a span of [window] prices
+     */
+    public float exponentialMovingAverage() {
+        return ema;
+    }
+
+    /**
+     * @return The standard deviation of the last [window] price changes
+     */
+    public float volatility() {
+        int n = Math.min(count - 1, window);
+        if (n < 2) {
+            return 0;
+        }
+        double mean = (double) changeSum / n;
+        double variance = ((double) changeSquareSum - n * mean * mean) / (n - 1);
+        return (float) Math.sqrt(Math.max(variance, 0));
+    }
+
+    /**
+     * @return The number of completed OHLC bars
+     */
+    public int barCount() {
+        return bars;
+    }
+
+    public int barOpen(int bar) {
+        checkBar(bar);
+        return barOpen[bar];
+    }
+
+    public int barHigh(int bar) {
+        checkBar(bar);
+        return barHigh[bar];
+    }
+
+    public int barLow(int bar) {
+        checkBar(bar);
+        return barLow[bar];
+    }
+
+    public int barClose(int bar) {
+        checkBar(bar);
+        return barClose[bar];
+    }
+
+    private void checkBar(int bar) {
+        if (bar < 0 || bar >= bars) {
+            throw new IndexOutOfBoundsException("Error: No completed bar at index " + bar + ".");
+        }
+    }
+
+    /**
+     * @return The number of consecutive changes that were zero or positive
+     */
+    public int risingStreak() {
+        return risingStreak;
+    }
+
+    /**
+     * @return The number of consecutive changes that were zero or negative
+     */
+    public int fallingStreak() {
+        return fallingStreak;
+    }
+
+    /**
+     * Historic probability that a rising run of the given length breaks on the next change
+     *
+     * @param streak The run length
+     * @return The observed probability, or 0.5 when there is no history for that length
+     */
+    public float risingStreakEndProbability(int streak) {
+        return endProbability(risingReached, risingEnded, streak);
+    }
+
+    /**
+     * Historic probability that a falling run of the given length breaks on the next change
+     *
+     * @param streak The run length
+     * @return The observed probability, or 0.5 when there is no history for that length
+     */
+    public float fallingStreakEndProbability(int streak) {
+        return endProbability(fallingReached, fallingEnded, streak);
+    }
+
+    private static float endProbability(int[] reached, int[] ended, int streak) {
+        int total = streak < reached.length ? reached[streak] : 0;
+        int count = streak < ended.length ? ended[streak] : 0;
+        if (total == 0) {
+            return 0.5f;
+        }
+        return (float) count / total;
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity;
+
+import io.github.teamfractal.TesterFile;
+import io.github.teamfractal.entity.enums.ResourceType;
+import io.github.teamfractal.util.ResourceGroupInteger;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AdjacencyBonusTest extends TesterFile {
+    private PlotStore store;
+    private Player player;
+    private Player rival;
+
+    @Before
+    public void setUp() {
+        store = new PlotStore(6, 6);
+        for (int y = 0; y < store.getHeight(); y++) {
+            for (int x = 0; x < store.getWidth(); x++) {
+                store.setYields(x, y, 2, 2, 2);
+            }
+        }
+        player = new Player(null);
+        rival = new Player(null);
+    }
+
+    @Test
+    public void neighboursShouldBeSymmetric() {
+        for (int y = 0; y < 4; y++) {
+            for (int x = 0; x < 4; x++) {
+                for (int direction = 0; direction < AdjacencyBonus.DIRECTIONS; direction++) {
+                    int nx = AdjacencyBonus.neighbourX(x, y, direction);
+                    int ny = AdjacencyBonus.neighbourY(y, direction);
+                    boolean found = false;
+                    for (int back = 0; back < AdjacencyBonus.DIRECTIONS; back++) {
+                        found |= AdjacencyBonus.neighbourX(nx, ny, back) == x && AdjacencyBonus.neighbourY(ny, back) == y;
+                    }
+                    assertTrue(found);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void evenAndOddRowsShouldUseStaggeredColumns() {
+        // Even rows border columns x and x + 1 of the rows above and below, odd rows columns x - 1 and x
+        assertEquals(3, AdjacencyBonus.neighbourX(2, 2, 1));
+        assertEquals(1, AdjacencyBonus.neighbourX(2, 3, 0));
+    }
+
+    @Test
+    public void sameOwnerNeighboursShouldAddProduction() {
+        LandPlot centre = store.getPlot(2, 2);
+        centre.setOwner(player);
+        centre.setProductionModifier(ResourceType.ORE, 1);
+        assertEquals(new ResourceGroupInteger(0, 0, 2), centre.produceResources());
+
+        store.getPlot(2, 1).setOwner(player);
+        store.getPlot(3, 3).setOwner(player);
+        store.getPlot(2, 3).setOwner(rival);
+        // Only shares a corner with the centre
+        store.getPlot(2, 4).setOwner(player);
+
+        assertEquals(2, centre.getSameOwnerNeighbours());
+        assertEquals(new ResourceGroupInteger(0, 0, 4), centre.produceResources());
+        assertEquals(1, store.getPlot(2, 1).getSameOwnerNeighbours());
+        assertEquals(0, store.getPlot(2, 3).getSameOwnerNeighbours());
+
+        store.getPlot(2, 1).removeOwner();
+        assertEquals(1, centre.getSameOwnerNeighbours());
+        assertEquals(0, store.getPlot(2, 1).getSameOwnerNeighbours());
+        assertEquals(new ResourceGroupInteger(0, 0, 3), centre.produceResources());
+    }
+
+    @Test
+    public void edgePlotsShouldIgnoreNeighboursOutsideTheMap() {
+        store.getPlot(0, 0).setOwner(player);
+        store.getPlot(0, 1).setOwner(player);
+        assertEquals(1, store.getPlot(0, 0).getSameOwnerNeighbours());
+        assertEquals(1, store.getPlot(0, 1).getSameOwnerNeighbours());
+    }
+}
@@ -0,0 +1,216 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity;
+
+import io.github.teamfractal.TesterFile;
+import io.github.teamfractal.entity.enums.ResourceType;
+import io.github.teamfractal.entity.enums.TerrainType;
+import io.github.teamfractal.util.ResourceGroupInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ChunkPagerTest extends TesterFile {
+    private static final int RESIDENT = 4;
+    private static final int[] STEPS = { 104711, 104717, 104723, 104729 };
+
+    private File file;
+    private PlotStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("plots", ".page");
+        // Three by three chunks with partial edge chunks, more than can stay resident
+        store = PlotStore.paged(PlotStore.CHUNK_SIZE * 2 + 7, PlotStore.CHUNK_SIZE * 2 + 3, file, RESIDENT);
+    }
+
+    @After
+    public void tearDown() {
+        store.dispose();
+        file.delete();
+    }
+
+    @Test
+    public void evictedChunksShouldKeepTheirPlots() {
+        for (int y = 0; y < store.getHeight(); y++) {
+            for (int x = 0; x < store.getWidth(); x++) {
+                store.setYields(x, y, x % 100, y % 100, (x + y) % 100);
+                if ((x + y) % 5 == 0) {
+                    store.setTerrain(x, y, TerrainType.HILL);
+                }
+            }
+        }
+        assertTrue(store.isPaged());
+        assertTrue(store.getResidentChunks() <= RESIDENT);
+
+        for (int y = 0; y < store.getHeight(); y++) {
+            for (int x = 0; x < store.getWidth(); x++) {
+                assertEquals(new ResourceGroupInteger((x + y) % 100, y % 100, x % 100), store.getPlot(x, y).getAllResources());
+                assertEquals((x + y) % 5 == 0 ? TerrainType.HILL : TerrainType.GRASS, store.getPlot(x, y).getTerrain());
+            }
+        }
+        assertTrue(store.getResidentChunks() <= RESIDENT);
+    }
+
+    @Test
+    public void chunksShouldBeInitialisedOnFirstUse() {
+        final int[] calls = new int[1];
+        store.setInitialiser(new PlotStore.ChunkInitialiser() {
+            @Override
+            public void initialise(int x0, int y0, int x1, int y1) {
+                calls[0]++;
+                for (int y = y0; y < y1; y++) {
+                    for (int x = x0; x < x1; x++) {
+                        store.setYields(x, y, x % 100, y % 100, 1);
+                    }
+                }
+            }
+        });
+        assertEquals(0, calls[0]);
+
+        assertEquals(new ResourceGroupInteger(1, 3, PlotStore.CHUNK_SIZE + 2),
+                store.getPlot(PlotStore.CHUNK_SIZE + 2, 3).getAllResources());
+        assertEquals(1, calls[0]);
+
+        // Touch every chunk, evicting the first, then read it back from the page file
+        for (int y = 0; y < store.getHeight(); y += PlotStore.CHUNK_SIZE) {
+            for (int x = 0; x < store.getWidth(); x += PlotStore.CHUNK_SIZE) {
+                assertTrue(store.isInitialised(x, y));
+            }
+        }
+        assertEquals(9, calls[0]);
+        store.getPlot(PlotStore.CHUNK_SIZE + 2, 3).setProductionModifier(ResourceType.ORE, 3);
+        for (int y = 0; y < store.getHeight(); y += PlotStore.CHUNK_SIZE) {
+            for (int x = 0; x < store.getWidth(); x += PlotStore.CHUNK_SIZE) {
+                store.isInitialised(x, y);
+            }
+        }
+        assertEquals(9, calls[0]);
+        assertEquals(3, store.getPlot(PlotStore.CHUNK_SIZE + 2, 3).getProductionModifier(ResourceType.ORE));
+    }
+
+    @Test
+    public void threadsShouldOnlySeeFilledChunksAndKeepTheirWrites() throws InterruptedException {
+        store.setInitialiser(new PlotStore.ChunkInitialiser() {
+            @Override
+            public void initialise(int x0, int y0, int x1, int y1) {
+                for (int y = y0; y < y1; y++) {
+                    for (int x = x0; x < x1; x++) {
+                        store.setYields(x, y, 0, 0, 1);
+                    }
+                    // Give the other threads every chance to read the chunk half filled
+                    Thread.yield();
+                }
+            }
+        });
+
+        final int threads = STEPS.length;
+        final int[] unfilled = new int[threads];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            workers[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    // Walk the map in a different order on each thread, stepping by a prime larger than the map,
+                    // so the threads keep evicting each other's chunks
+                    for (int i = 0; i < store.size(); i++) {
+                        int plot = (int) ((i * (long) STEPS[id]) % store.size());
+                        int x = plot % store.getWidth();
+                        int y = plot / store.getWidth();
+                        if (store.getYield(x, y, ResourceType.FOOD) != 1) {
+                            unfilled[id]++;
+                        }
+                        if (x % threads == id) {
+                            store.getPlot(x, y).setProductionModifier(ResourceType.ORE, id + 2);
+                        }
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        for (int t = 0; t < threads; t++) {
+            assertEquals(0, unfilled[t]);
+        }
+        for (int y = 0; y < store.getHeight(); y++) {
+            for (int x = 0; x < store.getWidth(); x++) {
+                assertEquals(x % threads + 2, store.getPlot(x, y).getProductionModifier(ResourceType.ORE));
+            }
+        }
+    }
+
+    @Test
+    public void viewsShouldFollowTheirChunkAfterEviction() {
+        Player player = new Player(null);
+
+        LandPlot plot = store.getPlot(3, 3);
+        store.setYields(3, 3, 2, 2, 2);
+        plot.setProductionModifier(ResourceType.ORE, 3);
+        // Touch every other chunk so the first is written back
+        for (int y = 0; y < store.getHeight(); y += PlotStore.CHUNK_SIZE) {
+            for (int x = PlotStore.CHUNK_SIZE; x < store.getWidth(); x += PlotStore.CHUNK_SIZE) {
+                store.isInitialised(x, y);
+            }
+        }
+
+        assertTrue(plot.setOwner(player));
+        assertSame(player, store.getPlot(3, 3).getOwner());
+        assertEquals(3, store.getPlot(3, 3).getProductionModifier(ResourceType.ORE));
+        assertTrue(store.getOwnership().isOwnedBy(player, plot.getId()));
+    }
+
+    @Test
+    public void pinnedChunksShouldStayResident() {
+        store.pinChunk(0, 0);
+        LandPlot plot = store.getPlot(0, 0);
+        for (int y = 0; y < store.getHeight(); y += PlotStore.CHUNK_SIZE) {
+            for (int x = 0; x < store.getWidth(); x += PlotStore.CHUNK_SIZE) {
+                store.isInitialised(x, y);
+            }
+        }
+        store.setYields(0, 0, 9, 9, 9);
+        store.unpinChunk(0, 0);
+        assertEquals(new ResourceGroupInteger(9, 9, 9), plot.getAllResources());
+    }
+
+    @Test
+    public void prefetchShouldReadChunksAhead() throws InterruptedException {
+        store.prefetch(0, 0, 1, 1);
+        for (int i = 0; i < 200 && store.getStagedChunks() < RESIDENT; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(RESIDENT, store.getStagedChunks());
+        assertEquals(0, store.getResidentChunks());
+    }
+
+    @Test
+    public void onlyUnlockedPageFilesShouldBeDeletedAsStale() throws IOException {
+        File stale = File.createTempFile("plots", ".page");
+        PlotStore.deleteStalePageFiles(file.getParentFile(), "plots", ".page");
+
+        assertFalse(stale.exists());
+        // The store's own file is locked while it is open
+        assertTrue(file.exists());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooSmallAWorkingSetShouldBeRejected() {
+        PlotStore.paged(10, 10, file, ChunkPager.MIN_RESIDENT - 1);
+    }
+}
@@ -30,26 +30,26 @@ public class LandPlotTest extends TesterFile {
         roboticon.setCustomisation(ResourceType.ORE);
         assertTrue(plot.installRoboticon(roboticon));
 
-        productionModifiers = plot.productionModifiers.clone();
+        productionModifiers = plot.getProductionModifiers();
         assertEquals(new ResourceGroupInteger(0, 0, 1), productionModifiers);
 
 
         Roboticon roboticon2 = new Roboticon(0);
         roboticon2.setCustomisation(ResourceType.ENERGY);
         assertTrue(plot.installRoboticon(roboticon2));
-        productionModifiers = plot.productionModifiers.clone();
+        productionModifiers = plot.getProductionModifiers();
         assertEquals(new ResourceGroupInteger(0, 1, 1), productionModifiers);
 
         Roboticon roboticon3 = new Roboticon(0);
         roboticon3.setCustomisation(ResourceType.ORE);
         assertTrue(plot.installRoboticon(roboticon3));
-        productionModifiers = plot.productionModifiers.clone();
+        productionModifiers = plot.getProductionModifiers();
         assertEquals(new ResourceGroupInteger(0, 1, 2), productionModifiers);
 
         Roboticon roboticon4 = new Roboticon(0);
         roboticon4.setCustomisation(ResourceType.FOOD);
         assertTrue(plot.installRoboticon(roboticon4));
-        productionModifiers = plot.productionModifiers.clone();
+        productionModifiers = plot.getProductionModifiers();
         assertEquals(new ResourceGroupInteger(1, 1, 2), productionModifiers);
     }
 
@@ -61,11 +61,11 @@ public class LandPlotTest extends TesterFile {
         roboticon.setCustomisation(ResourceType.ORE);
         assertTrue(plot.installRoboticon(roboticon));
 
-        productionModifiers = plot.productionModifiers.clone();
+        productionModifiers = plot.getProductionModifiers();
         assertEquals(new ResourceGroupInteger(0, 0, 1), productionModifiers);
 
         assertFalse(plot.installRoboticon(roboticon));
-        productionModifiers = plot.productionModifiers.clone();
+        productionModifiers = plot.getProductionModifiers();
         assertEquals(new ResourceGroupInteger(0, 0, 1), productionModifiers);
     }
 
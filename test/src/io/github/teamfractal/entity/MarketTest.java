@@ -6,8 +6,12 @@
 **/
 package io.github.teamfractal.entity;
 
+import io.github.teamfractal.RoboticonQuest;
 import io.github.teamfractal.TesterFile;
 import io.github.teamfractal.entity.enums.ResourceType;
+import io.github.teamfractal.entity.pricing.PriceBook;
+import io.github.teamfractal.entity.pricing.PricingModelType;
+import io.github.teamfractal.entity.pricing.SupplyDemandPricingModel;
 import io.github.teamfractal.util.ResourceGroupInteger;
 import org.junit.Before;
 import org.junit.Rule;
@@ -18,6 +22,8 @@ import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class MarketTest extends TesterFile {
 	@Rule
@@ -144,4 +150,148 @@ public class MarketTest extends TesterFile {
 
 		assertEquals(10 - ((roboticons - 10)* 2),market.getOre());
 	}
+
+	/**
+	 * test: tryTake()
+	 * The market should refuse to take more than it holds and leave the stock untouched.
+	 */
+	@Test
+	public void marketTryTakeShouldNotOversell() {
+		market.setOre(3);
+
+		assertTrue(market.tryTake(ResourceType.ORE, 2));
+		assertEquals(1, market.getOre());
+		assertFalse(market.tryTake(ResourceType.ORE, 2));
+		assertEquals(1, market.getOre());
+		assertEquals(-2, market.getMarketSupply(ResourceType.ORE));
+	}
+
+	/**
+	 * test: tryTake()
+	 * Concurrent traders racing for the same stock should never take more than the market held.
+	 */
+	@Test
+	public void marketTryTakeShouldBeSafeUnderContention() throws Exception {
+		final int stock = 1000;
+		final int traders = 8;
+		final int[] taken = new int[traders];
+		market.setFood(stock);
+
+		Thread[] threads = new Thread[traders];
+		for (int i = 0; i < traders; i++) {
+			final int id = i;
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					while (market.tryTake(ResourceType.FOOD, 1)) {
+						taken[id]++;
+					}
+				}
+			});
+			threads[i].start();
+		}
+
+		int total = 0;
+		for (int i = 0; i < traders; i++) {
+			threads[i].join();
+			total += taken[i];
+		}
+
+		assertEquals(stock, total);
+		assertEquals(0, market.getFood());
+	}
+
+	/**
+	 * test: getProductionTotals()
+	 * Production totals should follow customisation, installation and ownership changes by delta.
+	 */
+	@Test
+	public void marketShouldTrackProductionTotalsIncrementally() {
+		RoboticonQuest game = new RoboticonQuest();
+		Market gameMarket = game.market;
+		Player player = new Player(game);
+		LandPlot plot = new LandPlot(3, 0, 0);
+
+		Roboticon roboticon = new Roboticon(0);
+		player.customiseRoboticon(roboticon, ResourceType.ORE);
+		assertEquals(new ResourceGroupInteger(0, 0, 1), gameMarket.getProductionTotals());
+
+		plot.installRoboticon(roboticon);
+		assertEquals(new ResourceGroupInteger(0, 0, 1), gameMarket.getProductionTotals());
+
+		plot.setOwner(player);
+		assertEquals(new ResourceGroupInteger(0, 0, 4), gameMarket.getProductionTotals());
+
+		plot.removeOwner();
+		assertEquals(new ResourceGroupInteger(0, 0, 1), gameMarket.getProductionTotals());
+		assertFalse(player.getLandList().contains(plot));
+	}
+
+	/**
+	 * test: getSellCost(), getBuyValue()
+	 * Under the supply/demand model prices should rise as stock falls, and a round trip should never profit.
+	 */
+	@Test
+	public void supplyDemandMarketShouldPriceAlongTheCurve() {
+		Market curveMarket = new Market(new SupplyDemandPricingModel());
+		int startingPrice = curveMarket.getSellPrice(ResourceType.FOOD);
+		assertEquals(10, startingPrice);
+
+		int cost = curveMarket.getSellCost(ResourceType.FOOD, 8);
+		assertTrue(cost > 8 * startingPrice);
+
+		curveMarket.buyResourceFromMarket(ResourceType.FOOD, 8);
+		assertTrue(curveMarket.getSellPrice(ResourceType.FOOD) > startingPrice);
+		assertTrue(curveMarket.getBuyValue(ResourceType.FOOD, 8) < cost);
+
+		curveMarket.sellResourceToMarket(ResourceType.FOOD, 8);
+		assertEquals(startingPrice, curveMarket.getSellPrice(ResourceType.FOOD));
+	}
+
+	/**
+	 * test: updatePrices()
+	 * Net buying should push the supply/demand curve up.
+	 */
+	@Test
+	public void supplyDemandMarketShouldRespondToNetBuying() {
+		Market curveMarket = new Market(new SupplyDemandPricingModel());
+		int startingPrice = curveMarket.getSellPrice(ResourceType.ENERGY);
+
+		curveMarket.updateMarketSupplyOnBuy(new ResourceGroupInteger(0, 16, 0));
+		curveMarket.updatePrices();
+		assertTrue(curveMarket.getSellPrice(ResourceType.ENERGY) > startingPrice);
+	}
+
+	/**
+	 * test: getPriceBook()
+	 * The price book should only be republished, with a higher version, after the market changes.
+	 */
+	@Test
+	public void marketShouldPublishVersionedPriceBooks() {
+		PriceBook book = market.getPriceBook();
+		assertSame(book, market.getPriceBook());
+		assertEquals(16, book.getStock(ResourceType.FOOD));
+		assertEquals(10, book.getSellPrice(ResourceType.FOOD));
+		assertEquals(9, book.getBuyPrice(ResourceType.ROBOTICON));
+
+		market.buyResourceFromMarket(ResourceType.FOOD, 4);
+		PriceBook updated = market.getPriceBook();
+		assertTrue(updated.getVersion() > book.getVersion());
+		assertEquals(12, updated.getStock(ResourceType.FOOD));
+		assertEquals(16, book.getStock(ResourceType.FOOD));
+
+		assertFalse(market.tryTake(ResourceType.ORE, 1));
+		assertSame(updated, market.getPriceBook());
+	}
+
+	/**
+	 * Many traders hammering one market should never drive stock negative, lose an update or
+	 * let the running supply totals drift.
+	 */
+	@Test
+	public void marketShouldSurviveConcurrentStress() throws InterruptedException {
+		MarketStressHarness.Report report = new MarketStressHarness(200, 200, 8, PricingModelType.SUPPLY_DEMAND, 7).run();
+		assertEquals(40000, report.operations);
+		assertEquals(report.toString(), 0, report.violations());
+	}
 }
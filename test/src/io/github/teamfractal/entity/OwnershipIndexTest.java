@@ -0,0 +1,144 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity;
+
+import io.github.teamfractal.TesterFile;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OwnershipIndexTest extends TesterFile {
+    private PlotStore store;
+    private OwnershipIndex index;
+    private Player player;
+    private Player rival;
+
+    @Before
+    public void setUp() {
+        store = new PlotStore(70, 3);
+        index = store.getOwnership();
+        player = new Player(null);
+        rival = new Player(null);
+    }
+
+    @Test
+    public void indexShouldFollowOwnershipChanges() {
+        assertEquals(store.size(), index.countFree());
+
+        store.getPlot(1, 0).setOwner(player);
+        store.getPlot(65, 1).setOwner(player);
+        store.getPlot(2, 2).setOwner(rival);
+
+        assertEquals(store.size() - 3, index.countFree());
+        assertEquals(3, store.countOwned());
+        assertEquals(2, index.countOwnedBy(player));
+        assertEquals(1, index.countOwnedBy(rival));
+        assertEquals(0, index.countOwnedBy(new Player(null)));
+
+        int id = store.getPlot(65, 1).getId();
+        assertTrue(index.isOwnedBy(player, id));
+        assertFalse(index.isOwnedBy(rival, id));
+        assertFalse(index.isFree(id));
+        assertEquals(player, index.ownerOf(id));
+
+        store.getPlot(65, 1).removeOwner();
+        assertTrue(index.isFree(id));
+        assertNull(index.ownerOf(id));
+        assertEquals(1, index.countOwnedBy(player));
+        assertEquals(store.size() - 2, index.countFree());
+    }
+
+    @Test
+    public void nextOwnedShouldWalkTheBitsetAcrossWords() {
+        store.getPlot(3, 0).setOwner(player);
+        store.getPlot(68, 0).setOwner(player);
+        store.getPlot(0, 2).setOwner(player);
+
+        int first = index.nextOwnedBy(player, 0);
+        int second = index.nextOwnedBy(player, first + 1);
+        int third = index.nextOwnedBy(player, second + 1);
+        assertEquals(3, first);
+        assertEquals(68, second);
+        assertEquals(140, third);
+        assertEquals(-1, index.nextOwnedBy(player, third + 1));
+        assertEquals(-1, index.nextOwnedBy(rival, 0));
+    }
+
+    @Test
+    public void freeSetShouldOnlyHoldFreePlots() {
+        Random random = new Random(1);
+        for (int i = 0; i < 150; i++) {
+            int id = index.randomFree(random);
+            store.getPlot(id % store.getWidth(), id / store.getWidth()).setOwner(i % 2 == 0 ? player : rival);
+        }
+        assertEquals(store.size() - 150, index.countFree());
+
+        HashSet<Integer> seen = new HashSet<Integer>();
+        for (int i = 0; i < index.countFree(); i++) {
+            int id = index.getFree(i);
+            assertTrue(seen.add(id));
+            assertFalse(store.getPlot(id % store.getWidth(), id / store.getWidth()).hasOwner());
+        }
+
+        for (int i = index.countFree(); i > 0; i--) {
+            int id = index.randomFree(random);
+            store.getPlot(id % store.getWidth(), id / store.getWidth()).setOwner(player);
+        }
+        assertEquals(0, index.countFree());
+        assertEquals(-1, index.randomFree(random));
+    }
+
+    @Test
+    public void freeSetShouldSpanSparsePages() {
+        PlotStore large = new PlotStore(100, 100);
+        OwnershipIndex pagedIndex = large.getOwnership();
+        int[] claimed = { 0, 1, 63, 64, OwnershipIndex.PAGE_SIZE - 1, OwnershipIndex.PAGE_SIZE, 9999 };
+        for (int id : claimed) {
+            large.getPlot(id % 100, id / 100).setOwner(player);
+        }
+        large.getPlot(64 % 100, 64 / 100).removeOwner();
+
+        int position = 0;
+        for (int id = pagedIndex.nextFree(0); id >= 0; id = pagedIndex.nextFree(id + 1)) {
+            assertTrue(pagedIndex.isFree(id));
+            assertEquals(id, pagedIndex.getFree(position++));
+        }
+        assertEquals(pagedIndex.countFree(), position);
+        assertEquals(large.size() - 6, position);
+        assertEquals(2, pagedIndex.nextFree(0));
+        assertEquals(9999, pagedIndex.nextOwnedBy(player, OwnershipIndex.PAGE_SIZE + 1));
+        assertEquals(-1, pagedIndex.nextFree(9999));
+    }
+
+    @Test
+    public void getFreeShouldFindPlotsAcrossManyPages() {
+        PlotStore large = new PlotStore(200, 200);
+        OwnershipIndex pagedIndex = large.getOwnership();
+        Random random = new Random(7);
+        for (int i = 0; i < 5000; i++) {
+            int id = pagedIndex.randomFree(random);
+            large.getPlot(id % 200, id / 200).setOwner(i % 3 == 0 ? rival : player);
+        }
+        // Free a whole page again so its free count goes back up
+        for (int id = 3 * OwnershipIndex.PAGE_SIZE; id < 4 * OwnershipIndex.PAGE_SIZE; id++) {
+            large.getPlot(id % 200, id / 200).removeOwner();
+        }
+
+        int position = 0;
+        for (int id = pagedIndex.nextFree(0); id >= 0; id = pagedIndex.nextFree(id + 1)) {
+            assertEquals(id, pagedIndex.getFree(position++));
+        }
+        assertEquals(pagedIndex.countFree(), position);
+    }
+}
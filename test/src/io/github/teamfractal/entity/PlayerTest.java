@@ -161,4 +161,67 @@ public class PlayerTest extends TesterFile {
         assertEquals(ResourceType.ENERGY, player.roboticonList.get(1).getCustomisation());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void productionShouldFollowPlotChangesByDeltas() {
+        PlotStore store = new PlotStore(4, 4);
+        for (int y = 0; y < store.getHeight(); y++) {
+            for (int x = 0; x < store.getWidth(); x++) {
+                store.setYields(x, y, 2, 2, 2);
+            }
+        }
+        LandPlot top = store.getPlot(1, 0);
+        top.setOwner(player);
+        top.setProductionModifier(ResourceType.ORE, 2);
+        assertEquals(0, (int) player.getProduction().getOre());
+
+        top.setHasRoboticon(true);
+        assertEquals(4, (int) player.getProduction().getOre());
+
+        // (1, 1) shares an edge with (1, 0), so both gain the adjacency bonus
+        LandPlot below = store.getPlot(1, 1);
+        below.setProductionModifier(ResourceType.ORE, 1);
+        below.setHasRoboticon(true);
+        below.setOwner(player);
+        assertEquals(9, (int) player.getProduction().getOre());
+        assertEquals(top.produceResource(ResourceType.ORE) + below.produceResource(ResourceType.ORE),
+                (int) player.getProduction().getOre());
+
+        below.removeOwner();
+        assertEquals(4, (int) player.getProduction().getOre());
+        assertEquals(0, (int) player.getProduction().getFood());
+    }
+
+    @Test
+    public void produceResourcesShouldAddTheAggregateProduction() {
+        LandPlot plot = new LandPlot(3, 0, 0);
+        plot.setOwner(player);
+        plot.setProductionModifier(ResourceType.ORE, 2);
+        plot.setHasRoboticon(true);
+
+        player.produceResources();
+        assertEquals(6, player.getOre());
+        assertEquals(0, player.getEnergy());
+    }
+
+    @Test
+    public void removingAPlotShouldKeepTheRestOfTheLandList() {
+        PlotStore store = new PlotStore(4, 4);
+        LandPlot first = store.getPlot(0, 0);
+        LandPlot middle = store.getPlot(1, 2);
+        LandPlot last = store.getPlot(3, 3);
+        first.setOwner(player);
+        middle.setOwner(player);
+        last.setOwner(player);
+
+        middle.removeOwner();
+        assertEquals(2, player.getLandList().size());
+        Assert.assertTrue(player.getLandList().contains(first));
+        Assert.assertTrue(player.getLandList().contains(last));
+
+        // The plot moved into the gap must still be removable
+        last.removeOwner();
+        first.removeOwner();
+        Assert.assertTrue(player.getLandList().isEmpty());
+    }
+
+}
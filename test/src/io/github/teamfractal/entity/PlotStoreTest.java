@@ -0,0 +1,114 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity;
+
+import com.badlogic.gdx.utils.IntArray;
+import io.github.teamfractal.TesterFile;
+import io.github.teamfractal.entity.enums.ResourceType;
+import io.github.teamfractal.util.ResourceGroupInteger;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PlotStoreTest extends TesterFile {
+    private PlotStore store;
+
+    @Before
+    public void setUp() {
+        // Not a multiple of the chunk size, so the edge chunks are partial
+        store = new PlotStore(PlotStore.CHUNK_SIZE + 5, PlotStore.CHUNK_SIZE * 2 + 1);
+    }
+
+    @Test
+    public void viewsOfTheSamePlotShouldShareState() {
+        store.setYields(66, 100, 4, 5, 6);
+        LandPlot a = store.getPlot(66, 100);
+        LandPlot b = store.getPlot(66, 100);
+
+        assertNotSame(a, b);
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertFalse(a.equals(store.getPlot(65, 100)));
+
+        a.setProductionModifier(ResourceType.ENERGY, 2);
+        assertEquals(2, b.getProductionModifier(ResourceType.ENERGY));
+        assertEquals(new ResourceGroupInteger(6, 5, 4), b.getAllResources());
+        assertEquals(new ResourceGroupInteger(0, 10, 0), b.produceResources());
+    }
+
+    @Test
+    public void plotsShouldNotOverlapAcrossChunks() {
+        for (int y = 0; y < store.getHeight(); y++) {
+            for (int x = 0; x < store.getWidth(); x++) {
+                store.setYields(x, y, x % 100, y % 100, (x + y) % 100);
+            }
+        }
+        for (int y = 0; y < store.getHeight(); y++) {
+            for (int x = 0; x < store.getWidth(); x++) {
+                assertEquals(new ResourceGroupInteger((x + y) % 100, y % 100, x % 100), store.getPlot(x, y).getAllResources());
+            }
+        }
+    }
+
+    @Test
+    public void ownershipShouldBeCountedAcrossTheStore() {
+        Player player = new Player(null);
+        assertEquals(0, store.countOwned());
+        assertFalse(store.isInitialised(3, 3));
+
+        LandPlot plot = store.getPlot(3, 3);
+        assertTrue(plot.setOwner(player));
+        assertTrue(store.getPlot(PlotStore.CHUNK_SIZE, PlotStore.CHUNK_SIZE * 2).setOwner(player));
+        assertFalse(store.getPlot(3, 3).setOwner(player));
+
+        assertEquals(2, store.countOwned());
+        assertEquals(player, store.getPlot(3, 3).getOwner());
+        assertTrue(player.getLandList().contains(store.getPlot(3, 3)));
+
+        store.getPlot(3, 3).removeOwner();
+        assertEquals(1, store.countOwned());
+        assertNull(plot.getOwner());
+        assertFalse(player.getLandList().contains(plot));
+    }
+
+    @Test
+    public void listenersShouldHearOwnershipChanges() {
+        final IntArray changed = new IntArray();
+        PlotStore.PlotListener listener = new PlotStore.PlotListener() {
+            @Override
+            public void plotChanged(int x, int y) {
+                changed.add(y * store.getWidth() + x);
+            }
+
+            @Override
+            public void plotsFilled(int x0, int y0, int x1, int y1) {
+            }
+        };
+        store.addListener(listener);
+
+        Player player = new Player(null);
+        store.getPlot(7, 70).setOwner(player);
+        store.getPlot(7, 70).setOwner(player);
+        store.getPlot(7, 70).removeOwner();
+        assertEquals(2, changed.size);
+        assertEquals(70 * store.getWidth() + 7, changed.get(0));
+
+        store.removeListener(listener);
+        store.getPlot(8, 70).setOwner(player);
+        assertEquals(2, changed.size);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void storeShouldRejectPlotsOutsideTheMap() {
+        store.getPlot(store.getWidth(), 0);
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity;
+
+import io.github.teamfractal.TesterFile;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TerritoryIndexTest extends TesterFile {
+    private PlotStore store;
+    private TerritoryIndex territories;
+    private Player player;
+    private Player rival;
+
+    @Before
+    public void setUp() {
+        store = new PlotStore(6, 6);
+        territories = store.getTerritories();
+        player = new Player(null);
+        rival = new Player(null);
+    }
+
+    @Test
+    public void claimsShouldMergeAcrossStaggeredEdges() {
+        // (1, 1) sits on an odd row, so it shares edges with (1, 0) and (1, 2) above and below
+        store.getPlot(1, 0).setOwner(player);
+        store.getPlot(1, 2).setOwner(player);
+        assertEquals(2, territories.countTerritories(player));
+        assertEquals(1, territories.largestTerritory(player));
+
+        store.getPlot(1, 1).setOwner(player);
+        assertEquals(1, territories.countTerritories(player));
+        assertEquals(3, territories.largestTerritory(player));
+        assertEquals(3, territories.territorySize(1, 0));
+        assertTrue(territories.sameTerritory(1, 0, 1, 2));
+
+        // Horizontal neighbours only touch at a corner
+        store.getPlot(2, 0).setOwner(player);
+        assertEquals(2, territories.countTerritories(player));
+        assertFalse(territories.sameTerritory(1, 0, 2, 0));
+    }
+
+    @Test
+    public void otherOwnersShouldNotJoinRegions() {
+        store.getPlot(1, 0).setOwner(player);
+        store.getPlot(1, 1).setOwner(rival);
+        store.getPlot(1, 2).setOwner(player);
+
+        assertEquals(2, territories.countTerritories(player));
+        assertEquals(1, territories.countTerritories(rival));
+        assertFalse(territories.sameTerritory(1, 0, 1, 1));
+        assertEquals(0, territories.territorySize(4, 4));
+        assertEquals(0, territories.countTerritories(new Player(null)));
+    }
+
+    @Test
+    public void releasingAPlotShouldSplitItsRegion() {
+        store.getPlot(1, 0).setOwner(player);
+        store.getPlot(1, 1).setOwner(player);
+        store.getPlot(1, 2).setOwner(player);
+        store.getPlot(1, 3).setOwner(player);
+
+        store.getPlot(1, 1).removeOwner();
+        assertEquals(2, territories.countTerritories(player));
+        assertEquals(2, territories.largestTerritory(player));
+        assertEquals(1, territories.territorySize(1, 0));
+        assertEquals(2, territories.territorySize(1, 3));
+        assertEquals(0, territories.territorySize(1, 1));
+
+        store.getPlot(1, 1).setOwner(player);
+        assertEquals(1, territories.countTerritories(player));
+        assertEquals(4, territories.largestTerritory(player));
+    }
+
+    @Test
+    public void regionsShouldMatchAFloodFill() {
+        Random random = new Random(3);
+        for (int i = 0; i < 60; i++) {
+            LandPlot plot = store.getPlot(random.nextInt(6), random.nextInt(6));
+            if (plot.hasOwner()) {
+                plot.removeOwner();
+            } else {
+                plot.setOwner(random.nextBoolean() ? player : rival);
+            }
+        }
+        assertEquals(floodFillRegions(player), territories.countTerritories(player));
+        assertEquals(floodFillRegions(rival), territories.countTerritories(rival));
+    }
+
+    private int floodFillRegions(Player owner) {
+        boolean[] seen = new boolean[store.size()];
+        int regions = 0;
+        for (int y = 0; y < store.getHeight(); y++) {
+            for (int x = 0; x < store.getWidth(); x++) {
+                if (!seen[y * store.getWidth() + x] && store.getPlot(x, y).getOwner() == owner) {
+                    regions++;
+                    fill(owner, x, y, seen);
+                }
+            }
+        }
+        return regions;
+    }
+
+    private void fill(Player owner, int x, int y, boolean[] seen) {
+        if (!store.contains(x, y) || seen[y * store.getWidth() + x] || store.getPlot(x, y).getOwner() != owner) {
+            return;
+        }
+        seen[y * store.getWidth() + x] = true;
+        for (int direction = 0; direction < AdjacencyBonus.DIRECTIONS; direction++) {
+            fill(owner, AdjacencyBonus.neighbourX(x, y, direction), AdjacencyBonus.neighbourY(y, direction), seen);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity;
+
+import io.github.teamfractal.TesterFile;
+import io.github.teamfractal.entity.enums.ResourceType;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class YieldIndexTest extends TesterFile {
+
+    @Test
+    public void bestFreeShouldFollowClaimsReleasesAndYields() {
+        PlotStore store = new PlotStore(PlotStore.CHUNK_SIZE * 2 + 5, PlotStore.CHUNK_SIZE + 9);
+        for (int y = 0; y < store.getHeight(); y++) {
+            for (int x = 0; x < store.getWidth(); x++) {
+                store.setYields(x, y, 1, 1, 1);
+            }
+        }
+        store.setYields(130, 70, 9, 1, 1);
+        store.setYields(3, 4, 7, 1, 1);
+        YieldIndex index = store.getYieldIndex();
+        assertTrue(index.isComplete());
+        assertEquals(store.getPlot(130, 70).getId(), index.bestFree(ResourceType.ORE));
+
+        Player player = new Player(null);
+        store.getPlot(130, 70).setOwner(player);
+        assertEquals(store.getPlot(3, 4).getId(), index.bestFree(ResourceType.ORE));
+
+        store.setYields(64, 0, 1, 1, 8);
+        assertEquals(store.getPlot(64, 0).getId(), index.bestFree(ResourceType.FOOD));
+        assertEquals(store.getPlot(3, 4).getId(), index.bestFree(ResourceType.ORE));
+
+        store.getPlot(130, 70).removeOwner();
+        assertEquals(store.getPlot(130, 70).getId(), index.bestFree(ResourceType.ORE));
+    }
+
+    @Test
+    public void bestFreeShouldBeMinusOneOnceEveryPlotIsOwned() {
+        PlotStore store = new PlotStore(2, 2);
+        Player player = new Player(null);
+        for (int y = 0; y < 2; y++) {
+            for (int x = 0; x < 2; x++) {
+                store.setYields(x, y, x, y, 1);
+                store.getPlot(x, y).setOwner(player);
+            }
+        }
+        assertEquals(-1, store.getYieldIndex().bestFree(ResourceType.ENERGY));
+    }
+
+    @Test
+    public void pagedStoresShouldOnlyCoverChunksThatHaveBeenUsed() throws IOException {
+        File file = File.createTempFile("plots", ".page");
+        final PlotStore store = PlotStore.paged(PlotStore.CHUNK_SIZE * 3, PlotStore.CHUNK_SIZE * 3, file, 4);
+        try {
+            store.setInitialiser(new PlotStore.ChunkInitialiser() {
+                @Override
+                public void initialise(int x0, int y0, int x1, int y1) {
+                    for (int y = y0; y < y1; y++) {
+                        for (int x = x0; x < x1; x++) {
+                            store.setYields(x, y, x % 50, 1, 1);
+                        }
+                    }
+                }
+            });
+            YieldIndex index = store.getYieldIndex();
+            assertFalse(index.isComplete());
+            assertEquals(-1, index.bestFree(ResourceType.ORE));
+
+            store.isInitialised(PlotStore.CHUNK_SIZE, 0);
+            assertEquals(store.getPlot(99, 0).getId(), index.bestFree(ResourceType.ORE));
+            assertEquals(1, store.getResidentChunks());
+        } finally {
+            store.dispose();
+            file.delete();
+        }
+    }
+}
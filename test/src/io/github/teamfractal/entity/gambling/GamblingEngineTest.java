@@ -0,0 +1,71 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity.gambling;
+
+import io.github.teamfractal.TesterFile;
+import io.github.teamfractal.entity.Player;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class GamblingEngineTest extends TesterFile {
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
+
+    private Player player;
+
+    @Before
+    public void setUp() {
+        player = new Player(null);
+        player.setMoney(1000);
+    }
+
+    @Test
+    public void standardDiceShouldBeFair() {
+        GamblingEngine engine = new GamblingEngine();
+        assertEquals(15.0 / 36, engine.getWinProbability(), 1e-9);
+        assertEquals(6.0 / 36, engine.getDrawProbability(), 1e-9);
+        assertEquals(15.0 / 36, engine.getLossProbability(), 1e-9);
+        assertEquals(0, engine.expectedValue(100), 1e-9);
+        assertEquals(200, engine.chooseAIStake(250));
+    }
+
+    @Test
+    public void unevenDiceShouldMatchEnumeratedOdds() {
+        GamblingEngine engine = new GamblingEngine(4, 6, 1f, new Random(0));
+        // Winning pairs: 0 + 1 + 2 + 3 = 6 of 24, draws: 4 of 24
+        assertEquals(6.0 / 24, engine.getWinProbability(), 1e-9);
+        assertEquals(4.0 / 24, engine.getDrawProbability(), 1e-9);
+        assertEquals(14.0 / 24, engine.getLossProbability(), 1e-9);
+        assertEquals(0, engine.chooseAIStake(1000));
+    }
+
+    @Test
+    public void sessionShouldSettleMoneyAndStatistics() {
+        GamblingEngine engine = new GamblingEngine(6, 6, 1f, new Random(42));
+        int net = engine.playSession(player, 10, 50);
+
+        GambleStatistics stats = player.getGambleStatistics();
+        assertEquals(1000 + net, player.getMoney());
+        assertEquals(net, stats.getNet());
+        assertEquals(50, stats.getGambles());
+        assertEquals(50, stats.getWins() + stats.getDraws() + stats.getLosses());
+        assertEquals(stats.getWins() * 10, stats.getMoneyWon());
+    }
+
+    @Test
+    public void gambleShouldRejectUnaffordableStake() {
+        GamblingEngine engine = new GamblingEngine();
+        exception.expect(IllegalArgumentException.class);
+        engine.gamble(player, 1001);
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.entity.ledger;
+
+import io.github.teamfractal.RoboticonQuest;
+import io.github.teamfractal.TesterFile;
+import io.github.teamfractal.entity.Market;
+import io.github.teamfractal.entity.Player;
+import io.github.teamfractal.entity.enums.LedgerReason;
+import io.github.teamfractal.entity.enums.ResourceType;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LedgerTest extends TesterFile {
+
+    @Test
+    public void transfersShouldMoveBalancesBetweenAccounts() {
+        Ledger ledger = new Ledger();
+        int account = ledger.openAccount();
+
+        ledger.record(Ledger.WORLD, account, Ledger.ASSET_MONEY, 100, LedgerReason.OPENING);
+        ledger.record(Ledger.MARKET, account, Ledger.ASSET_MONEY, -30, LedgerReason.TRADE);
+
+        assertEquals(70, ledger.balance(account, Ledger.ASSET_MONEY));
+        assertEquals(30, ledger.balance(Ledger.MARKET, Ledger.ASSET_MONEY));
+        assertEquals(-100, ledger.balance(Ledger.WORLD, Ledger.ASSET_MONEY));
+        assertEquals(30, ledger.totalFor(LedgerReason.TRADE, Ledger.ASSET_MONEY));
+        assertEquals(account, ledger.entryFrom(1));
+        assertEquals(Ledger.MARKET, ledger.entryTo(1));
+        assertTrue(ledger.verify());
+    }
+
+    @Test
+    public void compactionShouldPreserveBalances() {
+        Ledger ledger = new Ledger(1);
+        int account = ledger.openAccount();
+        for (int i = 0; i < 10000; i++) {
+            ledger.record(Ledger.WORLD, account, Ledger.assetOf(ResourceType.ORE), 1, LedgerReason.PRODUCTION);
+        }
+
+        assertEquals(10000, ledger.size());
+        assertTrue(ledger.getCompactedEntries() > 0);
+        assertEquals(10000, ledger.getCompactedEntries() + ledger.getRetainedEntries());
+        assertEquals(10000, ledger.balance(account, Ledger.assetOf(ResourceType.ORE)));
+        assertTrue(ledger.verify());
+    }
+
+    @Test
+    public void gameLedgerShouldMatchPlayerAndMarket() {
+        RoboticonQuest game = new RoboticonQuest();
+        Ledger ledger = game.ledger;
+        Market market = game.market;
+        Player player = game.getPlayer();
+        int account = player.getLedgerAccount();
+
+        player.purchaseResourceFromMarket(5, market, ResourceType.FOOD);
+        player.sellResourceToMarket(2, market, ResourceType.FOOD);
+        player.purchaseRoboticonsFromMarket(1, market);
+
+        assertEquals(player.getMoney(), ledger.balance(account, Ledger.ASSET_MONEY));
+        assertEquals(player.getFood(), ledger.balance(account, Ledger.assetOf(ResourceType.FOOD)));
+        assertEquals(market.getResource(ResourceType.FOOD), ledger.balance(Ledger.MARKET, Ledger.assetOf(ResourceType.FOOD)));
+        assertEquals(market.getResource(ResourceType.ROBOTICON), ledger.balance(Ledger.MARKET, Ledger.assetOf(ResourceType.ROBOTICON)));
+
+        int money = player.getMoney();
+        player.setMoney(-50, LedgerReason.EFFECT);
+        assertEquals(0, ledger.balance(account, Ledger.ASSET_MONEY));
+        assertEquals(50, ledger.destroyed(Ledger.ASSET_MONEY));
+        assertEquals(money + 50, ledger.totalFor(LedgerReason.EFFECT, Ledger.ASSET_MONEY));
+        assertTrue(ledger.verify());
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.map;
+
+import io.github.teamfractal.TesterFile;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DirtyRegionTrackerTest extends TesterFile {
+    private static final int PAGE = TileLayerCache.PAGE_SIZE;
+
+    @Test
+    public void drainShouldReportChangedRowsPerPage() {
+        DirtyRegionTracker tracker = new DirtyRegionTracker(PAGE * 3, PAGE * 2);
+        assertTrue(tracker.isClean());
+
+        tracker.markDirty(0, 0);
+        tracker.markDirty(5, 0);
+        tracker.markDirty(1, PAGE - 1);
+        tracker.markDirty(PAGE * 2 + 3, PAGE + 2);
+        assertFalse(tracker.isClean());
+
+        final Map<Integer, Long> drained = new HashMap<Integer, Long>();
+        tracker.drain(new DirtyRegionTracker.RowVisitor() {
+            @Override
+            public void visit(int page, long rowMask) {
+                assertFalse(drained.containsKey(page));
+                drained.put(page, rowMask);
+            }
+        });
+
+        assertEquals(2, drained.size());
+        assertEquals(Long.valueOf(1L | (1L << (PAGE - 1))), drained.get(0));
+        assertEquals(Long.valueOf(1L << 2), drained.get(3 + 2));
+        assertTrue(tracker.isClean());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void trackerShouldRejectCellsOutsideTheLayer() {
+        new DirtyRegionTracker(10, 10).markDirty(10, 0);
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.map;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import io.github.teamfractal.TesterFile;
+import io.github.teamfractal.entity.enums.TerrainType;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class MapAssetsTest extends TesterFile {
+    private TiledMap map;
+    private TiledMapTile ground;
+    private TiledMapTile blank;
+    private TiledMapTileLayer mapData;
+    private MapAssets assets;
+
+    @Before
+    public void setUp() {
+        map = new TiledMap();
+        ground = new StaticTiledMapTile((TextureRegion) null);
+        blank = new StaticTiledMapTile((TextureRegion) null);
+        mapData = layer("MapData", ground);
+        map.getLayers().add(mapData);
+        map.getLayers().add(layer("PlayerOverlay", blank));
+        map.getLayers().add(layer("RoboticonOverlay", blank));
+        // Generated maps draw their terrain from the tiles declaring each one
+        TiledMapTileSet set = new TiledMapTileSet();
+        for (TerrainType terrain : TerrainType.values()) {
+            StaticTiledMapTile tile = new StaticTiledMapTile((TextureRegion) null);
+            tile.setId(terrain.ordinal() + 1);
+            tile.getProperties().put(TerrainTable.TERRAIN, terrain.name());
+            set.putTile(tile.getId(), tile);
+        }
+        map.getTileSets().addTileSet(set);
+        assets = new MapAssets(map);
+    }
+
+    private static TiledMapTileLayer layer(String name, TiledMapTile tile) {
+        TiledMapTileLayer layer = new TiledMapTileLayer(3, 2, 100, 50);
+        layer.setName(name);
+        for (int y = 0; y < 2; y++) {
+            for (int x = 0; x < 3; x++) {
+                TiledMapTileLayer.Cell cell = new TiledMapTileLayer.Cell();
+                cell.setTile(tile);
+                layer.setCell(x, y, cell);
+            }
+        }
+        return layer;
+    }
+
+    private TiledMapTileLayer overlay(String name) {
+        return (TiledMapTileLayer) map.getLayers().get(name);
+    }
+
+    @Test
+    public void resetShouldRestoreOverlayTiles() {
+        TiledMapTile owned = new StaticTiledMapTile((TextureRegion) null);
+        overlay("PlayerOverlay").getCell(1, 1).setTile(owned);
+        overlay("RoboticonOverlay").getCell(2, 0).setTile(owned);
+
+        assertSame(map, assets.reset(null));
+        assertSame(blank, overlay("PlayerOverlay").getCell(1, 1).getTile());
+        assertSame(blank, overlay("RoboticonOverlay").getCell(2, 0).getTile());
+        assertSame(mapData, map.getLayers().get("MapData"));
+    }
+
+    @Test
+    public void resetShouldRestoreLayersReplacedByAGeneratedMap() {
+        assets.reset(new MapGenerator(16, 8, 3).generate());
+        assertNotSame(mapData, map.getLayers().get("MapData"));
+        assertEquals(16, (int) map.getProperties().get("width", Integer.class));
+
+        assets.reset(null);
+        assertSame(mapData, map.getLayers().get("MapData"));
+        assertEquals(3, map.getLayers().getCount());
+        assertEquals(3, (int) map.getProperties().get("width", Integer.class));
+        assertSame(ground, mapData.getCell(0, 0).getTile());
+    }
+
+    @Test
+    public void resetShouldRevertComputedOverlays() {
+        TiledMap computed = new TiledMap();
+        computed.getLayers().add(mapData);
+        computed.getLayers().add(new OverlayTileLayer("PlayerOverlay", 3, 2, 100, 50, blank));
+        computed.getLayers().add(new OverlayTileLayer("RoboticonOverlay", 3, 2, 100, 50, blank));
+        MapAssets computedAssets = new MapAssets(computed, TerrainTable.compile(map.getTileSets()));
+        OverlayTileLayer player = (OverlayTileLayer) computed.getLayers().get("PlayerOverlay");
+        player.setTile(1, 1, ground);
+
+        computedAssets.reset(null);
+        assertSame(blank, player.getTile(1, 1));
+        assertEquals(0, player.getChangedCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mapWithoutOverlaysShouldBeRejected() {
+        new MapAssets(new TiledMap());
+    }
+}
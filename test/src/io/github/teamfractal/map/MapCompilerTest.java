@@ -0,0 +1,88 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.map;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.utils.XmlReader;
+import io.github.teamfractal.TesterFile;
+import io.github.teamfractal.entity.enums.ResourceType;
+import io.github.teamfractal.entity.enums.TerrainType;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class MapCompilerTest extends TesterFile {
+    private static final String TMX = "<map width=\"3\" height=\"2\" tilewidth=\"100\" tileheight=\"50\">"
+            + " <tileset firstgid=\"1\" name=\"york\">"
+            + "  <tile id=\"0\"><image source=\"grass.png\"/></tile>"
+            + "  <tile id=\"8\"><properties><property name=\"terrain\" value=\"WATER\"/>"
+            + "   <property name=\"ore\" value=\"7-9\"/></properties><image source=\"water.png\"/></tile>"
+            + " </tileset>"
+            + " <tileset firstgid=\"70\" name=\"player\">"
+            + "  <tile id=\"0\"><image source=\"blank.png\"/></tile>"
+            + " </tileset>"
+            + " <layer name=\"MapData\" width=\"3\" height=\"2\"><data encoding=\"csv\">1,9,1,\n9,9,0</data></layer>"
+            + " <layer name=\"PlayerOverlay\" width=\"3\" height=\"2\" visible=\"0\"><data encoding=\"csv\">"
+            + "70,70,70,\n70,70,70</data></layer>"
+            + "</map>";
+
+    @Test
+    public void compiledMapShouldMatchTheTmx() throws IOException {
+        File file = File.createTempFile("map", ".rqmap");
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(MapCompiler.compile(new XmlReader().parse(TMX)));
+        } finally {
+            out.close();
+        }
+
+        CompiledMap map = CompiledMap.open(file);
+        assertEquals(3, map.getWidth());
+        assertEquals(2, map.getHeight());
+        assertEquals(100, map.getTileWidth());
+        assertEquals(50, map.getTileHeight());
+        assertEquals(2, map.getLayerCount());
+        assertEquals(1, map.getLayerIndex("PlayerOverlay"));
+        assertEquals(-1, map.getLayerIndex("RoboticonOverlay"));
+
+        // The first row of the TMX is the top of the map
+        int mapData = map.getLayerIndex("MapData");
+        assertEquals(1, map.getGid(mapData, 0, 1));
+        assertEquals(9, map.getGid(mapData, 1, 1));
+        assertEquals(0, map.getGid(mapData, 2, 0));
+        assertEquals(70, map.getGid(1, 2, 0));
+
+        // The table is read as it was compiled, not rebuilt from tile properties
+        TerrainTable table = map.getTerrainTable();
+        assertEquals(TerrainType.GRASS, table.terrainOf(tile(1)));
+        assertEquals(TerrainType.WATER, table.terrainOf(tile(9)));
+        assertEquals(7, table.getMinimumYield(tile(9), ResourceType.ORE));
+        assertEquals(9, table.getMaximumYield(tile(9), ResourceType.ORE));
+        assertEquals(TerrainType.WATER.getBaseFood(), table.getMinimumYield(tile(9), ResourceType.FOOD));
+        assertArrayEquals(new int[] { 9 }, table.tilesOf(TerrainType.WATER));
+        assertEquals(0, table.tilesOf(TerrainType.GRASS).length);
+    }
+
+    private static TiledMapTile tile(int id) {
+        StaticTiledMapTile tile = new StaticTiledMapTile((TextureRegion) null);
+        tile.setId(id);
+        return tile;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonCsvLayersShouldBeRejected() throws IOException {
+        MapCompiler.compile(new XmlReader().parse(TMX.replace("encoding=\"csv\"", "encoding=\"base64\"")));
+    }
+}
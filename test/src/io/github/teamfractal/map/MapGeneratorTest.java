@@ -0,0 +1,159 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.map;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import io.github.teamfractal.TesterFile;
+import io.github.teamfractal.entity.enums.TerrainType;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MapGeneratorTest extends TesterFile {
+
+    @Test
+    public void sameSeedShouldGiveSameMapWhateverTheThreading() {
+        GeneratedMap serial = new MapGenerator(300, 200, 42, 300, 1).generate();
+        GeneratedMap parallel = new MapGenerator(300, 200, 42, 32, 4).generate();
+
+        for (int y = 0; y < 200; y++) {
+            for (int x = 0; x < 300; x++) {
+                assertEquals(serial.getTerrain(x, y), parallel.getTerrain(x, y));
+                assertEquals(serial.getVariant(x, y), parallel.getVariant(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void onDemandBlocksShouldMatchAMapGeneratedUpFront() {
+        // More blocks than are cached, so the first blocks are evicted and generated again by the second pass
+        int width = GeneratedMap.BLOCK_SIZE * 10;
+        int height = GeneratedMap.BLOCK_SIZE * 7;
+        MapGenerator generator = new MapGenerator(width, height, 9);
+        GeneratedMap upFront = generator.generate(false);
+        GeneratedMap onDemand = generator.generate(true);
+        assertTrue(onDemand.isOnDemand());
+
+        for (int pass = 0; pass < 2; pass++) {
+            for (int y = 0; y < height; y += pass + 1) {
+                for (int x = 0; x < width; x += pass + 1) {
+                    assertEquals(upFront.getTerrain(x, y), onDemand.getTerrain(x, y));
+                    assertEquals(upFront.getVariant(x, y), onDemand.getVariant(x, y));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void differentSeedsShouldGiveDifferentMaps() {
+        GeneratedMap a = new MapGenerator(64, 64, 1).generate();
+        GeneratedMap b = new MapGenerator(64, 64, 2).generate();
+
+        int differences = 0;
+        for (int y = 0; y < 64; y++) {
+            for (int x = 0; x < 64; x++) {
+                if (a.getTerrain(x, y) != b.getTerrain(x, y) || a.getVariant(x, y) != b.getVariant(x, y)) {
+                    differences++;
+                }
+            }
+        }
+        assertTrue(differences > 0);
+    }
+
+    @Test
+    public void mapShouldContainEveryTerrain() {
+        GeneratedMap map = new MapGenerator(256, 256, 7).generate();
+        int[] counts = new int[TerrainType.values().length];
+
+        for (int y = 0; y < 256; y++) {
+            for (int x = 0; x < 256; x++) {
+                counts[map.getTerrain(x, y).ordinal()]++;
+            }
+        }
+
+        for (TerrainType terrain : TerrainType.values()) {
+            assertTrue(terrain + " should appear on the map", counts[terrain.ordinal()] > 0);
+        }
+    }
+
+    @Test
+    public void appliedMapShouldDrawEachTerrainFromTheTilesDeclaringIt() {
+        TiledMapTile blank = tile(50);
+        TiledMap tmx = tmx(blank, TerrainType.values());
+        TiledMapTileSet set = tmx.getTileSets().getTileSet(0);
+        set.putTile(40, tile(40, TerrainType.HILL));
+        GeneratedMap map = new MapGenerator(128, 128, 5).generate();
+        map.applyTo(tmx);
+
+        TerrainTable table = TerrainTable.compile(tmx.getTileSets());
+        ComputedTileLayer mapData = (ComputedTileLayer) tmx.getLayers().get("MapData");
+        boolean[] hillTiles = new boolean[2];
+        for (int y = 0; y < 128; y++) {
+            for (int x = 0; x < 128; x++) {
+                TiledMapTile tile = mapData.getTile(x, y);
+                assertEquals(map.getTerrain(x, y), table.terrainOf(tile));
+                if (map.getTerrain(x, y) == TerrainType.HILL) {
+                    hillTiles[tile.getId() == 40 ? 1 : 0] = true;
+                }
+            }
+        }
+        assertTrue(hillTiles[0] && hillTiles[1]);
+        assertSame(blank, ((TiledMapTileLayer) tmx.getLayers().get("PlayerOverlay")).getCell(3, 7).getTile());
+        assertSame(blank, ((TiledMapTileLayer) tmx.getLayers().get("RoboticonOverlay")).getCell(7, 3).getTile());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void applyingShouldRejectTileSetsMissingATerrain() {
+        new MapGenerator(16, 16, 5).generate().applyTo(tmx(tile(50), TerrainType.WATER, TerrainType.GRASS));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void generatorShouldRejectEmptyMaps() {
+        new MapGenerator(0, 10, 1);
+    }
+
+    /**
+     * A map with one tile declaring each of the terrains, ids from 10 up, and overlays showing a blank tile.
+     */
+    private static TiledMap tmx(TiledMapTile blank, TerrainType... terrains) {
+        TiledMap tmx = new TiledMap();
+        TiledMapTileSet set = new TiledMapTileSet();
+        for (int i = 0; i < terrains.length; i++) {
+            set.putTile(10 + i, tile(10 + i, terrains[i]));
+        }
+        set.putTile(blank.getId(), blank);
+        tmx.getTileSets().addTileSet(set);
+        for (String name : new String[] { "MapData", "PlayerOverlay", "RoboticonOverlay" }) {
+            TiledMapTileLayer layer = new TiledMapTileLayer(1, 1, 100, 50);
+            layer.setName(name);
+            TiledMapTileLayer.Cell cell = new TiledMapTileLayer.Cell();
+            cell.setTile(blank);
+            layer.setCell(0, 0, cell);
+            tmx.getLayers().add(layer);
+        }
+        return tmx;
+    }
+
+    private static TiledMapTile tile(int id, TerrainType terrain) {
+        TiledMapTile tile = tile(id);
+        tile.getProperties().put(TerrainTable.TERRAIN, terrain.name());
+        return tile;
+    }
+
+    private static TiledMapTile tile(int id) {
+        StaticTiledMapTile tile = new StaticTiledMapTile((TextureRegion) null);
+        tile.setId(id);
+        return tile;
+    }
+}
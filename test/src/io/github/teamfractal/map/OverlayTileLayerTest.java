@@ -0,0 +1,100 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.map;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import io.github.teamfractal.TesterFile;
+import io.github.teamfractal.entity.enums.TerrainType;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class OverlayTileLayerTest extends TesterFile {
+    private TiledMapTile blank;
+    private TiledMapTile owned;
+    private OverlayTileLayer layer;
+
+    @Before
+    public void setUp() {
+        blank = new StaticTiledMapTile((TextureRegion) null);
+        owned = new StaticTiledMapTile((TextureRegion) null);
+        layer = new OverlayTileLayer("PlayerOverlay", 5000, 4000, 100, 50, blank);
+    }
+
+    @Test
+    public void onlyChangedTilesShouldBeStored() {
+        assertEquals(5000, layer.getWidth());
+        assertEquals(4000, layer.getHeight());
+        assertSame(blank, layer.getTile(4999, 3999));
+
+        layer.setTile(10, 20, owned);
+        assertSame(owned, layer.getTile(10, 20));
+        assertSame(blank, layer.getTile(20, 10));
+        assertEquals(1, layer.getChangedCount());
+
+        layer.setTile(10, 20, blank);
+        assertEquals(0, layer.getChangedCount());
+    }
+
+    @Test
+    public void cellsShouldReadAndWriteThroughToTheLayer() {
+        TiledMapTileLayer.Cell cell = layer.getCell(3, 4);
+        cell.setTile(owned);
+        assertSame(owned, layer.getTile(3, 4));
+        assertSame(owned, layer.getCell(3, 4).getTile());
+
+        layer.setCell(3, 4, null);
+        assertNull(layer.getTile(3, 4));
+        assertNull(layer.getCell(5000, 0));
+    }
+
+    @Test
+    public void changesShouldBeKeptOverBaseTilesUntilReverted() {
+        OverlayTileLayer striped = new OverlayTileLayer("MapData", 4, 4, 100, 50, null) {
+            @Override
+            protected TiledMapTile getBaseTile(int x, int y) {
+                return x % 2 == 0 ? blank : null;
+            }
+        };
+        assertSame(blank, striped.getTile(2, 1));
+        assertNull(striped.getTile(1, 1));
+
+        striped.setTile(1, 1, owned);
+        striped.setTile(2, 1, null);
+        assertSame(owned, striped.getTile(1, 1));
+        assertNull(striped.getTile(2, 1));
+        striped.setTile(0, 0, blank);
+        assertEquals(2, striped.getChangedCount());
+
+        striped.revert();
+        assertEquals(0, striped.getChangedCount());
+        assertSame(blank, striped.getTile(2, 1));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void generatedTerrainShouldNotBeChangeable() {
+        TiledMap map = new TiledMap();
+        TiledMapTileSet set = new TiledMapTileSet();
+        for (TerrainType terrain : TerrainType.values()) {
+            StaticTiledMapTile tile = new StaticTiledMapTile((TextureRegion) null);
+            tile.setId(terrain.ordinal() + 1);
+            tile.getProperties().put(TerrainTable.TERRAIN, terrain.name());
+            set.putTile(tile.getId(), tile);
+        }
+        map.getTileSets().addTileSet(set);
+        new MapGenerator(8, 8, 1).generate().applyTo(map);
+        ((TiledMapTileLayer) map.getLayers().get("MapData")).getCell(0, 0).setTile(owned);
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.map;
+
+import com.badlogic.gdx.utils.IntArray;
+import io.github.teamfractal.RoboticonQuest;
+import io.github.teamfractal.TesterFile;
+import io.github.teamfractal.entity.PlotStore;
+import io.github.teamfractal.entity.enums.ResourceType;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OverviewGridTest extends TesterFile {
+    private RoboticonQuest game;
+    private PlotStore store;
+    private OverviewGrid grid;
+
+    @Before
+    public void setUp() {
+        game = new RoboticonQuest();
+        game.reset(2);
+        store = new PlotStore(OverviewGrid.CELL_SIZE * 3 + 1, OverviewGrid.CELL_SIZE * 2);
+        for (int y = 0; y < store.getHeight(); y++) {
+            for (int x = 0; x < store.getWidth(); x++) {
+                store.setYields(x, y, 1, 2, x < OverviewGrid.CELL_SIZE ? 5 : 0);
+            }
+        }
+        grid = new OverviewGrid(game, store);
+    }
+
+    @Test
+    public void gridShouldCoverPartialCells() {
+        assertEquals(4, grid.getWidth());
+        assertEquals(2, grid.getHeight());
+    }
+
+    @Test
+    public void cellsShouldSummariseTheirPlots() {
+        grid.refresh(null);
+        assertEquals(ResourceType.FOOD, grid.getDominantResource(0, 0));
+        assertEquals(ResourceType.ENERGY, grid.getDominantResource(1, 0));
+        assertEquals(-1, grid.getOwner(0, 0));
+        assertEquals(0, grid.getHeat(0, 0), 0);
+    }
+
+    @Test
+    public void onlyChangedRowsShouldBeRecomputed() {
+        grid.refresh(null);
+        assertTrue(grid.isClean());
+
+        for (int y = 0; y < 9; y++) {
+            store.getPlot(5, y % OverviewGrid.CELL_SIZE).setOwner(game.getPlayerList().get(1));
+        }
+        store.getPlot(6, 0).setOwner(game.getPlayerList().get(1));
+        store.getPlot(7, 0).setOwner(game.getPlayerList().get(1));
+        assertFalse(grid.isClean());
+
+        final IntArray changed = new IntArray();
+        grid.refresh(new OverviewGrid.CellVisitor() {
+            @Override
+            public void cellChanged(int cellX, int cellY) {
+                changed.add(cellY * grid.getWidth() + cellX);
+            }
+        });
+        // The first row of cells only
+        assertEquals(grid.getWidth(), changed.size);
+        assertTrue(grid.isClean());
+
+        assertEquals(1, grid.getOwner(1, 0));
+        assertEquals(-1, grid.getOwner(1, 1));
+        assertEquals(6f / 16, grid.getOwnedShare(1, 0), 0.0001f);
+    }
+
+    @Test
+    public void heatShouldFollowProduction() {
+        grid.refresh(null);
+        store.getPlot(0, 0).setOwner(game.getPlayerList().get(0));
+        store.getPlot(0, 0).setProductionModifier(ResourceType.FOOD, 2);
+        grid.refresh(null);
+        // Nothing is realised until a roboticon works the plot
+        assertEquals(0, grid.getHeat(0, 0), 0);
+
+        store.getPlot(0, 0).setHasRoboticon(true);
+        grid.refresh(null);
+        assertEquals(10 / (16 * OverviewGrid.FULL_HEAT), grid.getHeat(0, 0), 0.0001f);
+    }
+
+    @Test
+    public void pagedMapsShouldOnlySummariseFilledChunks() throws IOException {
+        File file = File.createTempFile("plots", ".page");
+        final PlotStore paged = PlotStore.paged(PlotStore.CHUNK_SIZE * 2, PlotStore.CHUNK_SIZE * 2, file, 4);
+        paged.setInitialiser(new PlotStore.ChunkInitialiser() {
+            @Override
+            public void initialise(int x0, int y0, int x1, int y1) {
+                for (int y = y0; y < y1; y++) {
+                    for (int x = x0; x < x1; x++) {
+                        paged.setYields(x, y, 0, 3, 1);
+                    }
+                }
+            }
+        });
+        OverviewGrid pagedGrid = new OverviewGrid(game, paged);
+        try {
+            pagedGrid.refresh(null);
+            // Summarising the grid fills nothing in
+            assertEquals(0, paged.getResidentChunks());
+            assertNull(pagedGrid.getDominantResource(0, 0));
+            assertTrue(pagedGrid.isClean());
+
+            paged.isInitialised(PlotStore.CHUNK_SIZE, 0);
+            assertFalse(pagedGrid.isClean());
+            pagedGrid.refresh(null);
+            int cell = PlotStore.CHUNK_SIZE / OverviewGrid.CELL_SIZE;
+            assertEquals(ResourceType.ENERGY, pagedGrid.getDominantResource(cell, 0));
+            assertNull(pagedGrid.getDominantResource(cell - 1, 0));
+            assertEquals(1, paged.getResidentChunks());
+        } finally {
+            pagedGrid.dispose();
+            paged.dispose();
+            file.delete();
+        }
+    }
+
+    @Test
+    public void largeMapsShouldUseLargerCells() {
+        PlotStore wide = new PlotStore(OverviewGrid.MAX_CELLS * OverviewGrid.CELL_SIZE + 1, OverviewGrid.CELL_SIZE);
+        OverviewGrid wideGrid = new OverviewGrid(game, wide);
+
+        assertEquals(OverviewGrid.CELL_SIZE * 2, wideGrid.getCellSize());
+        assertTrue(wideGrid.getWidth() <= OverviewGrid.MAX_CELLS);
+        wideGrid.dispose();
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.map;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSets;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import io.github.teamfractal.TesterFile;
+import io.github.teamfractal.entity.enums.ResourceType;
+import io.github.teamfractal.entity.enums.TerrainType;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TerrainTableTest extends TesterFile {
+    private TiledMapTileSets tiles;
+
+    @Before
+    public void setUp() {
+        tiles = new TiledMapTileSets();
+        TiledMapTileSet set = new TiledMapTileSet();
+        set.putTile(1, tile(1));
+        set.putTile(5, tile(5, TerrainTable.TERRAIN, "water"));
+        set.putTile(9, tile(9, TerrainTable.TERRAIN, "HILL", TerrainTable.ORE, "10-12", TerrainTable.FOOD, "4"));
+        tiles.addTileSet(set);
+    }
+
+    @Test
+    public void tilesShouldBeClassifiedByTheirTerrainProperty() {
+        TerrainTable table = TerrainTable.compile(tiles);
+        assertEquals(TerrainType.GRASS, table.terrainOf(tiles.getTile(1)));
+        assertEquals(TerrainType.WATER, table.terrainOf(tiles.getTile(5)));
+        assertEquals(TerrainType.HILL, table.terrainOf(tiles.getTile(9)));
+        assertEquals(TerrainType.HILL, TerrainTable.terrainOf(table.codeOf(tiles.getTile(9))));
+        assertEquals(TerrainType.GRASS, table.terrainOf(null));
+        assertEquals(TerrainType.GRASS, table.terrainOf(tile(100)));
+    }
+
+    @Test
+    public void missingRangesShouldDefaultToTheTerrainBase() {
+        TerrainTable table = TerrainTable.compile(tiles);
+        TiledMapTile water = tiles.getTile(5);
+        assertEquals(TerrainType.WATER.getBaseOre(), table.getMinimumYield(water, ResourceType.ORE));
+        assertEquals(TerrainType.WATER.getBaseOre() + TerrainTable.DEFAULT_YIELD_BONUS - 1,
+                table.getMaximumYield(water, ResourceType.ORE));
+
+        TiledMapTile hill = tiles.getTile(9);
+        assertEquals(TerrainType.HILL.getBaseEnergy(), table.getMinimumYield(hill, ResourceType.ENERGY));
+    }
+
+    @Test
+    public void declaredRangesShouldBoundRolledYields() {
+        TerrainTable table = TerrainTable.compile(tiles);
+        TiledMapTile hill = tiles.getTile(9);
+        Random random = new Random(3);
+        for (int i = 0; i < 100; i++) {
+            int ore = table.rollYield(hill, ResourceType.ORE, random);
+            assertTrue(ore >= 10 && ore <= 12);
+            assertEquals(4, table.rollYield(hill, ResourceType.FOOD, random));
+        }
+    }
+
+    @Test
+    public void tilesShouldBeListedUnderTheTerrainTheyDeclare() {
+        tiles.getTileSet(0).putTile(7, tile(7, TerrainTable.TERRAIN, "HILL"));
+        TerrainTable table = TerrainTable.compile(tiles);
+        assertArrayEquals(new int[] { 7, 9 }, table.tilesOf(TerrainType.HILL));
+        assertArrayEquals(new int[] { 5 }, table.tilesOf(TerrainType.WATER));
+        assertEquals(0, table.tilesOf(TerrainType.GRASS).length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownTerrainShouldBeRejected() {
+        tiles.getTileSet(0).putTile(2, tile(2, TerrainTable.TERRAIN, "lava"));
+        TerrainTable.compile(tiles);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void malformedRangeShouldBeRejected() {
+        tiles.getTileSet(0).putTile(2, tile(2, TerrainTable.ENERGY, "5-2"));
+        TerrainTable.compile(tiles);
+    }
+
+    private static TiledMapTile tile(int id, String... properties) {
+        StaticTiledMapTile tile = new StaticTiledMapTile((TextureRegion) null);
+        tile.setId(id);
+        for (int i = 0; i < properties.length; i += 2) {
+            tile.getProperties().put(properties[i], properties[i + 1]);
+        }
+        return tile;
+    }
+}
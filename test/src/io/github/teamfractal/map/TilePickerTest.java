@@ -0,0 +1,69 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.map;
+
+import io.github.teamfractal.TesterFile;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TilePickerTest extends TesterFile {
+    private TilePicker picker;
+
+    @Before
+    public void setUp() {
+        picker = new TilePicker(7, 12, 100, 50, 15);
+    }
+
+    @Test
+    public void tileCentresShouldPickTheirOwnTile() {
+        for (int y = 0; y < 12; y++) {
+            for (int x = 0; x < 7; x++) {
+                int tile = picker.pick(picker.centreX(x, y), picker.centreY(x, y));
+                assertEquals(x, picker.tileX(tile));
+                assertEquals(y, picker.tileY(tile));
+            }
+        }
+    }
+
+    @Test
+    public void pointsJustInsideEachCornerShouldPickTheTile() {
+        for (int y = 0; y < 12; y++) {
+            for (int x = 0; x < 7; x++) {
+                float cx = picker.centreX(x, y);
+                float cy = picker.centreY(x, y);
+                int expected = y * 7 + x;
+                int[] corners = {
+                        picker.pick(cx - 48, cy), picker.pick(cx + 48, cy),
+                        picker.pick(cx, cy - 23), picker.pick(cx, cy + 23)
+                };
+                for (int tile : corners) {
+                    if (tile != TilePicker.NONE) {
+                        assertEquals(expected, tile);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void gapBetweenEvenTilesShouldBelongToTheOddRowBetweenThem() {
+        // Halfway between tiles (2, 4) and (3, 4) lies the centre of tile (3, 5)
+        float x = (picker.centreX(2, 4) + picker.centreX(3, 4)) / 2;
+        float y = picker.centreY(2, 4) + 25;
+        assertEquals(5 * 7 + 3, picker.pick(x, y));
+    }
+
+    @Test
+    public void positionsOffTheMapShouldPickNothing() {
+        assertEquals(TilePicker.NONE, picker.pick(-500, 100));
+        assertEquals(TilePicker.NONE, picker.pick(100, -500));
+        assertEquals(TilePicker.NONE, picker.pick(5000, 100));
+        assertEquals(TilePicker.NONE, picker.pick(100, 5000));
+    }
+}
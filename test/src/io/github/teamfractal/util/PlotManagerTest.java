@@ -0,0 +1,125 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.util;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.MapLayers;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSets;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import io.github.teamfractal.TesterFile;
+import io.github.teamfractal.entity.LandPlot;
+import io.github.teamfractal.entity.PlotStore;
+import io.github.teamfractal.entity.enums.ResourceType;
+import io.github.teamfractal.entity.enums.TerrainType;
+import io.github.teamfractal.map.GeneratedMap;
+import io.github.teamfractal.map.MapGenerator;
+import io.github.teamfractal.map.TerrainTable;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PlotManagerTest extends TesterFile {
+    private static final int WIDTH = PlotStore.CHUNK_SIZE * 2 + 7;
+    private static final int HEIGHT = PlotStore.CHUNK_SIZE + 3;
+
+    @Test
+    public void setupShouldInitialiseEveryPlotUpFront() {
+        PlotManager manager = new PlotManager();
+        manager.setup(new TiledMapTileSets(), createLayers(), 1, 4);
+
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                assertTrue(manager.getPlotStore().isInitialised(x, y));
+            }
+        }
+        assertNotNull(manager.getPlot(WIDTH - 1, HEIGHT - 1));
+        assertNull(manager.getPlot(WIDTH, 0));
+    }
+
+    @Test
+    public void sameSeedShouldGiveSamePlotsWhateverTheThreading() {
+        PlotManager serial = new PlotManager();
+        PlotManager parallel = new PlotManager();
+        serial.setup(new TiledMapTileSets(), createLayers(), 99, 1);
+        parallel.setup(new TiledMapTileSets(), createLayers(), 99, 8);
+
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                assertEquals(serial.getPlot(x, y).getAllResources(), parallel.getPlot(x, y).getAllResources());
+            }
+        }
+    }
+
+    @Test
+    public void generatedMapsShouldRollYieldsFromTheDeclaredRanges() {
+        GeneratedMap generated = new MapGenerator(WIDTH, HEIGHT, 5).generate();
+        TiledMap first = createGeneratedMap(generated);
+        TiledMap second = createGeneratedMap(generated);
+        PlotManager manager = new PlotManager();
+        PlotManager replay = new PlotManager();
+        manager.setup(first.getTileSets(), first.getLayers(), generated);
+        replay.setup(second.getTileSets(), second.getLayers(), generated);
+
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                LandPlot plot = manager.getPlot(x, y);
+                int base = 10 * (generated.getTerrain(x, y).ordinal() + 1);
+                assertEquals(generated.getTerrain(x, y), plot.getTerrain());
+                int food = (int) plot.getResource(ResourceType.FOOD);
+                assertEquals(base, (int) plot.getResource(ResourceType.ORE));
+                assertTrue(food >= base && food <= base + 2);
+                assertEquals(plot.getAllResources(), replay.getPlot(x, y).getAllResources());
+            }
+        }
+    }
+
+    /**
+     * A map laid over by a generated one, with a tile for each terrain declaring ore of exactly 10 * (code + 1)
+     * and food of up to 2 more.
+     */
+    private static TiledMap createGeneratedMap(GeneratedMap generated) {
+        TiledMap tmx = new TiledMap();
+        TiledMapTileSet set = new TiledMapTileSet();
+        for (TerrainType terrain : TerrainType.values()) {
+            int base = 10 * (terrain.ordinal() + 1);
+            StaticTiledMapTile tile = new StaticTiledMapTile((TextureRegion) null);
+            tile.setId(terrain.ordinal() + 1);
+            tile.getProperties().put(TerrainTable.TERRAIN, terrain.name());
+            tile.getProperties().put(TerrainTable.ORE, String.valueOf(base));
+            tile.getProperties().put(TerrainTable.FOOD, base + "-" + (base + 2));
+            set.putTile(tile.getId(), tile);
+        }
+        tmx.getTileSets().addTileSet(set);
+        generated.applyTo(tmx);
+        return tmx;
+    }
+
+    private static MapLayers createLayers() {
+        MapLayers layers = new MapLayers();
+        layers.add(createLayer("MapData"));
+        layers.add(createLayer("PlayerOverlay"));
+        layers.add(createLayer("RoboticonOverlay"));
+        return layers;
+    }
+
+    private static TiledMapTileLayer createLayer(String name) {
+        TiledMapTileLayer layer = new TiledMapTileLayer(WIDTH, HEIGHT, 100, 50);
+        layer.setName(name);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                layer.setCell(x, y, new TiledMapTileLayer.Cell());
+            }
+        }
+        return layer;
+    }
+}
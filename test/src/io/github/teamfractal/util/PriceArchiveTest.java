@@ -0,0 +1,94 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.util;
+
+import io.github.teamfractal.TesterFile;
+import io.github.teamfractal.entity.Market;
+import io.github.teamfractal.entity.enums.ResourceType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PriceArchiveTest extends TesterFile {
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("prices", ".rqpa");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void archiveShouldRoundTripSeriesAcrossBlocks() throws IOException {
+        int[][][] series = new int[3][][];
+        Random random = new Random(1);
+        PriceArchiveWriter writer = new PriceArchiveWriter(file, 7);
+        for (int s = 0; s < series.length; s++) {
+            assertEquals(s, writer.beginSeries());
+            series[s] = new int[20 + s * 15][6];
+            int[] price = {10, 10, 10, 10, 10, 10};
+            for (int t = 0; t < series[s].length; t++) {
+                for (int f = 0; f < 6; f++) {
+                    // A random walk, with the odd large jump to exercise multi-byte varints
+                    price[f] += random.nextInt(100) == 0 ? random.nextInt(100000) - 50000 : random.nextInt(7) - 3;
+                    series[s][t][f] = price[f];
+                }
+                int[] p = series[s][t];
+                writer.append(p[0], p[1], p[2], p[3], p[4], p[5]);
+            }
+        }
+        writer.close();
+
+        PriceArchiveReader reader = new PriceArchiveReader(file);
+        assertEquals(3, reader.getSeriesCount());
+        assertTrue(reader.getBlockCount() > 3);
+        for (int s = 0; s < series.length; s++) {
+            assertEquals(series[s].length, reader.getTurnCount(s));
+            PriceArchiveReader.Cursor cursor = reader.cursor(s);
+            for (int t = 0; t < series[s].length; t++) {
+                assertTrue(cursor.next());
+                assertEquals(t, cursor.getTurn());
+                assertEquals(series[s][t][0], cursor.getBuyPrice(ResourceType.FOOD));
+                assertEquals(series[s][t][2], cursor.getBuyPrice(ResourceType.ORE));
+                assertEquals(series[s][t][4], cursor.getSellPrice(ResourceType.ENERGY));
+            }
+            assertFalse(cursor.next());
+        }
+        reader.close();
+    }
+
+    @Test
+    public void archiveShouldStoreMarketHistory() throws IOException {
+        Market market = new Market();
+        market.cachePrices();
+        market.cachePrices();
+
+        PriceArchiveWriter writer = new PriceArchiveWriter(file);
+        writer.writeSeries(market);
+        writer.close();
+
+        PriceArchiveReader reader = new PriceArchiveReader(file);
+        assertEquals(3, reader.getTurnCount(0));
+        PriceArchiveReader.Cursor cursor = reader.cursor(0);
+        while (cursor.next()) {
+            assertEquals(10, cursor.getSellPrice(ResourceType.FOOD));
+        }
+        reader.close();
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * SEPR project inherited from DRTN.
+ * Any changes are marked by preceding comments.
+ * 
+ * Executables availabe at: https://seprated.github.io/Assessment4/Executables.zip
+**/
+package io.github.teamfractal.util;
+
+import io.github.teamfractal.TesterFile;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test for {@link PriceSeries}
+ */
+public class PriceSeriesTest extends TesterFile {
+
+    private PriceSeries series;
+
+    /**
+     * Window of 3 prices, bars of 2 prices.
+     */
+    @Before
+    public void setUp() {
+        series = new PriceSeries(3, 2);
+        for (int price : new int[] {10, 12, 11, 15, 15}) {
+            series.add(price);
+        }
+    }
+
+    /**
+     * The simple moving average should only cover the last [window] prices.
+     */
+    @Test
+    public void simpleMovingAverageShouldSlideOverWindow() {
+        assertEquals((11 + 15 + 15) / 3f, series.simpleMovingAverage(), 0.0001f);
+    }
+
+    /**
+     * Completed bars should record open, high, low and close; the unfinished bar should not be reported.
+     */
+    @Test
+    public void barsShouldBeBuiltFromConsecutivePrices() {
+        assertEquals(2, series.barCount());
+        assertEquals(10, series.barOpen(0));
+        assertEquals(12, series.barHigh(0));
+        assertEquals(10, series.barLow(0));
+        assertEquals(12, series.barClose(0));
+        assertEquals(11, series.barOpen(1));
+        assertEquals(15, series.barClose(1));
+    }
+
+    /**
+     * Volatility is the sample standard deviation of the last [window] changes: -1, +4, 0.
+     */
+    @Test
+    public void volatilityShouldMatchSampleStandardDeviation() {
+        double mean = (-1 + 4 + 0) / 3.0;
+        double variance = ((-1 - mean) * (-1 - mean) + (4 - mean) * (4 - mean) + (0 - mean) * (0 - mean)) / 2;
+        assertEquals((float) Math.sqrt(variance), series.volatility(), 0.0001f);
+    }
+
+    /**
+     * Streaks treat an unchanged price as continuing both a rise and a fall.
+     */
+    @Test
+    public void streaksShouldTrackRunsAndTheirOutcomes() {
+        // Changes: +2, -1, +4, 0
+        assertEquals(2, series.risingStreak());
+        assertEquals(1, series.fallingStreak());
+        assertEquals(0, series.lastChange());
+        // One rising run reached length 1 and it broke immediately, then a second run reached length 1 and continued
+        assertEquals(0.5f, series.risingStreakEndProbability(1), 0.0001f);
+        assertEquals(0.5f, series.risingStreakEndProbability(5), 0.0001f);
+    }
+}